@@ -1,6 +1,7 @@
 package gitgud.pfm;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Scene;
@@ -11,8 +12,12 @@ import javafx.stage.Screen;
 import javafx.geometry.Rectangle2D;
 import gitgud.pfm.Controllers.DashboardController;
 import gitgud.pfm.Controllers.SidebarController;
+import gitgud.pfm.services.AccountDataLoader;
+import gitgud.pfm.services.DataLoadExecutor;
+import gitgud.pfm.services.Database;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JavaFX App - Personal Finance Manager
@@ -20,13 +25,22 @@ import java.io.IOException;
  */
 public class App extends Application {
 
+    private static final int DEFAULT_CACHED_VIEWS = 4;
+    
+    // Built after startup, in this order, so the first visit to them is instant too
+    private static final List<String> PRELOADED_VIEWS = List.of("transactions.fxml", "reports.fxml", "budget.fxml");
+
     private BorderPane root;
     private SidebarController sidebarController;
+    private final ViewCache views = new ViewCache(Integer.getInteger("pfm.views.cached", DEFAULT_CACHED_VIEWS));
 
     @Override
     public void start(Stage primaryStage) {
         root = new BorderPane();
         
+        // Deliver ledger changes on the FX thread, one ChangeSet per burst of writes
+        AccountDataLoader.getInstance().getChangeEvents().setDispatcher(Platform::runLater);
+        
         // Set up navigation callbacks for DashboardController
         DashboardController.setOnNavigateToGoals(this::showGoals);
         DashboardController.setOnNavigateToTransactions(this::showTransactions);
@@ -76,81 +90,51 @@ public class App extends Application {
 
         // Handle close request
         primaryStage.setOnCloseRequest(e -> {
+            DataLoadExecutor.shutdown();
+            AccountDataLoader.getInstance().saveWarmStartSnapshot();
+            Database.getInstance().closeConnection();
             System.exit(0);
         });
 
         primaryStage.show();
-    }
-    
-    private Node loadFXML(String fxmlFile) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/gitgud/pfm/" + fxmlFile));
-            return loader.load();
-        } catch (IOException e) {
-            System.err.println("Failed to load FXML: " + fxmlFile + " - " + e.getMessage());
-            e.printStackTrace();
-            return null;
+        
+        if (!"false".equalsIgnoreCase(System.getProperty("pfm.views.preload"))) {
+            views.preload(PRELOADED_VIEWS);
         }
     }
     
-    public void showDashboard() {
-        Node view = loadFXML("dashboard.fxml");
+    private void showView(String fxmlFile, String sidebarItem) {
+        Node view = views.show(fxmlFile);
         if (view != null) {
             root.setCenter(view);
         }
         if (sidebarController != null) {
-            sidebarController.setActiveItem("Dashboard");
+            sidebarController.setActiveItem(sidebarItem);
         }
     }
     
+    public void showDashboard() {
+        showView("dashboard.fxml", "Dashboard");
+    }
+    
     public void showTransactions() {
-        Node view = loadFXML("transactions.fxml");
-        if (view != null) {
-            root.setCenter(view);
-        }
-        if (sidebarController != null) {
-            sidebarController.setActiveItem("Transactions");
-        }
+        showView("transactions.fxml", "Transactions");
     }
     
     public void showReports() {
-        Node view = loadFXML("reports.fxml");
-        if (view != null) {
-            root.setCenter(view);
-        }
-        if (sidebarController != null) {
-            sidebarController.setActiveItem("Reports");
-        }
+        showView("reports.fxml", "Reports");
     }
     
     public void showGoals() {
-        Node view = loadFXML("goals.fxml");
-        if (view != null) {
-            root.setCenter(view);
-        }
-        if (sidebarController != null) {
-            sidebarController.setActiveItem("Goals");
-        }
+        showView("goals.fxml", "Goals");
     }
     
     public void showWallets() {
-        Node view = loadFXML("wallets.fxml");
-        if (view != null) {
-            root.setCenter(view);
-        }
-        if (sidebarController != null) {
-            sidebarController.setActiveItem("Wallets");
-        }
+        showView("wallets.fxml", "Wallets");
     }
     
     public void showBudget() {
-        Node view = loadFXML("budget.fxml");
-        if (view != null) {
-            root.setCenter(view);
-        }
-        if (sidebarController != null) {
-            sidebarController.setActiveItem("Budget");
-        }
+        showView("budget.fxml", "Budget");
     }
 
     public static void main(String[] args) {
@@ -18,6 +18,7 @@ import java.time.LocalDate;
 import java.util.*;
 
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
 public class AddTransactionFormController implements Initializable {
     
@@ -173,9 +174,9 @@ public class AddTransactionFormController implements Initializable {
             return;
         }
         
-        double amount;
+        long amount;
         try {
-            amount = Double.parseDouble(amountText);
+            amount = Money.parse(amountText);
             if (amount <= 0) {
                 showAlert("Error", "Amount must be greater than 0");
                 return;
@@ -212,13 +213,15 @@ public class AddTransactionFormController implements Initializable {
         
         Transaction transaction = new Transaction(
             selectedCategoryId,
-            amount,
+            0.0,
             description,
             incomeValue,
             walletId,
             createTime
         );
         
+        transaction.setAmountCents(amount);
+        
         // Set goal ID if this is a goal contribution
         if (isGoalContribution && selectedGoal != null) {
             transaction.setGoalId(selectedGoal.getId());
@@ -227,23 +230,20 @@ public class AddTransactionFormController implements Initializable {
         // Update wallet balance
         Wallet wallet = dataStore.getWalletById(walletId);
         if (wallet != null) {
-            double newBalance;
-            if (isGoalContribution) {
-                // Goal contribution - deduct from wallet
-                newBalance = wallet.getBalance() - amount;
+            if (isGoalContribution || selectedCategoryType != Category.Type.INCOME) {
+                // Expense or goal contribution - deduct from wallet
+                wallet.subtractFromBalance(amount);
             } else {
-                newBalance = wallet.getBalance() + (selectedCategoryType == Category.Type.INCOME ? amount : -amount);
+                wallet.addToBalance(amount);
             }
-            wallet.setBalance(newBalance);
             dataStore.updateWallet(wallet);
-            dataStore.notifyWalletRefresh();
         }
         
         // Update goal balance if this is a contribution
-        if (isGoalContribution && selectedGoal != null) {
-            selectedGoal.setBalance(selectedGoal.getBalance() + amount);
-            dataStore.updateGoal(selectedGoal);
-            dataStore.notifyGoalRefresh();
+        Goal goal = isGoalContribution && selectedGoal != null ? dataStore.getGoalById(selectedGoal.getId()) : null;
+        if (goal != null) {
+            goal.addToBalance(amount);
+            dataStore.updateGoal(goal);
         }
         
         dataStore.addTransaction(transaction);
@@ -2,10 +2,12 @@ package gitgud.pfm.Controllers;
 
 import gitgud.pfm.services.AccountDataLoader;
 import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.BudgetCategory;
 import gitgud.pfm.Models.Category;
 import gitgud.pfm.Models.Transaction;
 import gitgud.pfm.services.CategoryService;
 import gitgud.pfm.services.BudgetService;
+import gitgud.pfm.services.BudgetBreakdownEngine;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -25,8 +27,9 @@ import java.util.Map;
 import java.util.ResourceBundle;
 
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
-public class BudgetController implements Initializable {
+public class BudgetController implements Initializable, ScreenLifecycle {
 
     @FXML private ScrollPane rootPane;
     @FXML private Button addBudgetButton;
@@ -47,6 +50,25 @@ public class BudgetController implements Initializable {
     private AccountDataLoader dataStore;
     private CategoryService categoryService;
     private BudgetService budgetService;
+    private BudgetBreakdownEngine breakdownEngine;
+    private final ScreenLoad budgetsLoad = new ScreenLoad("budgets");
+    private boolean showing;
+    private boolean stale;       // data changed while hidden; re-read on show
+
+    /**
+     * One budget card's data, read off the FX thread
+     */
+    private static final class BudgetCard {
+        final Budget budget;
+        final List<BudgetCategory> categories;
+        final long spent;
+
+        BudgetCard(Budget budget, List<BudgetCategory> categories, long spent) {
+            this.budget = budget;
+            this.categories = categories;
+            this.spent = spent;
+        }
+    }
     private Map<String, String> categoryIdToNameMap;
     private Map<String, String> categoryNameToIdMap;
 
@@ -55,6 +77,7 @@ public class BudgetController implements Initializable {
         dataStore = AccountDataLoader.getInstance();
         categoryService = new CategoryService();
         budgetService = new BudgetService();
+        breakdownEngine = new BudgetBreakdownEngine();
         categoryIdToNameMap = new HashMap<>();
         categoryNameToIdMap = new HashMap<>();
         
@@ -64,8 +87,9 @@ public class BudgetController implements Initializable {
             categoryNameToIdMap.put(cat.getName(), cat.getId());
         }
         
-        // Register for budget refresh notifications
-        dataStore.addBudgetRefreshListener(this::refresh);
+        // Budget cards show spending, so follow transactions as well as budgets
+        dataStore.getChangeEvents().subscribe(this, (budgets, changes) -> budgets.reloadWhenShown(),
+                Budget.class, Transaction.class);
         
         // Month selector removed from UI
         // if (monthSelector != null) {
@@ -207,13 +231,18 @@ public class BudgetController implements Initializable {
     }
 
     private void loadBudgets() {
-        budgetsList.getChildren().clear();
-        
+        String filter = filterCombo != null ? filterCombo.getValue() : "All";
+        ScreenLoad.placeholderIfEmpty(budgetsList);
+        budgetsLoad.load(() -> readBudgetCards(filter), this::showBudgets);
+    }
+
+    /**
+     * Budgets passing the filter with their spending; runs off the FX thread
+     */
+    private List<BudgetCard> readBudgetCards(String filter) {
         List<Budget> budgets = dataStore.getBudgets();
-        double totalExpenses = dataStore.getTotalExpenses();
         
         // Apply filter
-        String filter = filterCombo != null ? filterCombo.getValue() : "All";
         if (filter != null && !filter.equals("All")) {
             Budget.PeriodType filterType = Budget.PeriodType.valueOf(filter.toUpperCase());
             budgets = budgets.stream()
@@ -221,38 +250,50 @@ public class BudgetController implements Initializable {
                 .toList();
         }
         
+        // Spending for every card in one query
+        Map<String, List<BudgetCategory>> breakdowns =
+            breakdownEngine.breakdownAll(budgets.stream().map(Budget::getId).toList());
+        
+        List<BudgetCard> cards = new ArrayList<>();
         for (Budget budget : budgets) {
-            HBox budgetItem = createBudgetItem(budget, totalExpenses);
+            List<BudgetCategory> budgetCategories = breakdowns.get(budget.getId());
+            long spent;
+            if (!budgetCategories.isEmpty()) {
+                // Sum spending across all categories in this budget within the budget's date range
+                spent = BudgetBreakdownEngine.totalSpentCents(budgetCategories);
+            } else {
+                // No specific categories - calculate total expenses within budget's date range
+                spent = calculateTotalExpensesInDateRange(budget.getStartDate(), budget.getEndDate());
+            }
+            cards.add(new BudgetCard(budget, budgetCategories, spent));
+        }
+        return cards;
+    }
+
+    private void showBudgets(List<BudgetCard> cards) {
+        budgetsList.getChildren().clear();
+        
+        for (BudgetCard card : cards) {
+            HBox budgetItem = createBudgetItem(card.budget, card.categories, card.spent);
             budgetsList.getChildren().add(budgetItem);
         }
         
-        if (budgets.isEmpty()) {
+        if (cards.isEmpty()) {
             VBox emptyState = createEmptyState();
             budgetsList.getChildren().add(emptyState);
         }
     }
 
-    private HBox createBudgetItem(Budget budget, double totalExpenses) {
+    /**
+     * @param spent Cents spent, precomputed with the breakdown engine off the FX thread
+     */
+    private HBox createBudgetItem(Budget budget, List<BudgetCategory> budgetCategories, long spent) {
         HBox item = new HBox(16);
         item.setAlignment(Pos.CENTER_LEFT);
         item.setPadding(new Insets(16));
         
-        // Calculate spending: check for multiple categories from junction table
-        List<Category> budgetCategories = budgetService.getCategoriesForBudget(budget.getId());
-        double spent;
-        
-        if (!budgetCategories.isEmpty()) {
-            // Sum spending across all categories in this budget within the budget's date range
-            spent = budgetCategories.stream()
-                .mapToDouble(cat -> calculateCategorySpending(cat.getId(), budget.getStartDate(), budget.getEndDate()))
-                .sum();
-        } else {
-            // No specific categories - calculate total expenses within budget's date range
-            spent = calculateTotalExpensesInDateRange(budget.getStartDate(), budget.getEndDate());
-        }
-        
-        double percent = budget.getLimitAmount() > 0 ? 
-            Math.min(100, (spent / budget.getLimitAmount()) * 100) : 0;
+        double percent = budget.getLimitCents() > 0 ? 
+            Math.min(100, (spent * 100.0) / budget.getLimitCents()) : 0;
         
         // Color based on percentage
         String bgColor, borderColor;
@@ -289,7 +330,7 @@ public class BudgetController implements Initializable {
         if (!budgetCategories.isEmpty()) {
             if (budgetCategories.size() == 1) {
                 // Show single category name
-                Label categoryLabel = new Label(budgetCategories.get(0).getName());
+                Label categoryLabel = new Label(budgetCategories.get(0).getCategoryName());
                 categoryLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #3b82f6; -fx-background-color: #eff6ff; " +
                                   "-fx-padding: 2 8; -fx-background-radius: 4;");
                 meta.getChildren().add(categoryLabel);
@@ -316,7 +357,7 @@ public class BudgetController implements Initializable {
         progressSection.setAlignment(Pos.CENTER_RIGHT);
         progressSection.setPrefWidth(200);
 
-        Label amountLabel = new Label(String.format("$%.2f / $%.2f", spent, budget.getLimitAmount()));
+        Label amountLabel = new Label(String.format("$%.2f / $%.2f", Money.toDouble(spent), budget.getLimitAmount()));
         amountLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 500; -fx-text-fill: #1e293b;");
 
         ProgressBar progress = new ProgressBar(Math.min(1.0, percent / 100.0));
@@ -351,48 +392,11 @@ public class BudgetController implements Initializable {
     }
 
     /**
-     * Calculate total spending for a specific category within a date range
+     * Epoch day of an ISO date string, parsed once per range rather than per row
      */
-    private double calculateCategorySpending(String categoryId, String startDate, String endDate) {
-        List<Transaction> transactions = dataStore.getTransactions();
-        return transactions.stream()
-            .filter(t -> t.getIncome() <= 0) // Only expenses (income = 0 means expense)
-            .filter(t -> categoryId.equals(t.getCategoryId()))
-            .filter(t -> isTransactionInDateRange(t, startDate, endDate))
-            .mapToDouble(Transaction::getAmount)
-            .sum();
-    }
-    
-    /**
-     * Check if a transaction falls within the specified date range
-     */
-    private boolean isTransactionInDateRange(Transaction transaction, String startDate, String endDate) {
-        if (transaction.getCreateTime() == null || transaction.getCreateTime().isEmpty()) {
-            return false;
-        }
-        if (startDate == null && endDate == null) {
-            return true; // No date filtering
-        }
-        try {
-            // Transaction createTime format: "yyyy-MM-dd HH:mm:ss"
-            // Extract just the date part or parse as LocalDateTime
-            LocalDate transactionDate;
-            String createTime = transaction.getCreateTime();
-            if (createTime.contains(" ")) {
-                // Has time component - parse as datetime then get date
-                transactionDate = java.time.LocalDateTime.parse(createTime, 
-                    DateFormatUtil.ISO_DATETIME_FORMAT).toLocalDate();
-            } else {
-                // Just a date
-                transactionDate = LocalDate.parse(createTime);
-            }
-            
-            LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.MIN;
-            LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.MAX;
-            return !transactionDate.isBefore(start) && !transactionDate.isAfter(end);
-        } catch (Exception e) {
-            return false; // Invalid date format
-        }
+    private long toEpochDay(String isoDate, long fallback) {
+        LocalDate date = DateFormatUtil.parseIsoDate(isoDate);
+        return date != null ? date.toEpochDay() : fallback;
     }
 
     private VBox createEmptyState() {
@@ -582,12 +586,15 @@ public class BudgetController implements Initializable {
             // Add budget with selected categories
             List<String> categoryIds = selectedCategoryIds.isEmpty() ? null : new ArrayList<>(selectedCategoryIds);
             dataStore.addBudgetWithCategories(budget, categoryIds);
-            dataStore.notifyBudgetRefresh();
-            refresh();
         });
     }
 
-    private void showEditBudgetDialog(Budget budget) {
+    private void showEditBudgetDialog(Budget shown) {
+        // The dialog writes into the budget; give it a copy, not the cached row
+        Budget budget = dataStore.getBudgetById(shown.getId());
+        if (budget == null) {
+            return;
+        }
         Dialog<Budget> dialog = new Dialog<>();
         dialog.setTitle("Edit Budget");
         dialog.setHeaderText("Modify budget details");
@@ -774,8 +781,6 @@ public class BudgetController implements Initializable {
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         dataStore.deleteBudget(budget.getId());
-                        dataStore.notifyBudgetRefresh();
-                        refresh();
                     }
                 });
                 return null;
@@ -787,21 +792,21 @@ public class BudgetController implements Initializable {
             // Update budget with selected categories
             List<String> categoryIds = selectedCategoryIds.isEmpty() ? null : new ArrayList<>(selectedCategoryIds);
             dataStore.updateBudgetWithCategories(updatedBudget, categoryIds);
-            dataStore.notifyBudgetRefresh();
-            refresh();
         });
     }
 
     /**
-     * Calculate total expenses within a date range
+     * Calculate total expenses (in cents) within a date range
      */
-    private double calculateTotalExpensesInDateRange(String startDate, String endDate) {
-        List<Transaction> transactions = dataStore.getTransactions();
-        return transactions.stream()
-            .filter(t -> t.getIncome() <= 0) // Only expenses
-            .filter(t -> isTransactionInDateRange(t, startDate, endDate))
-            .mapToDouble(Transaction::getAmount)
-            .sum();
+    private long calculateTotalExpensesInDateRange(String startDate, String endDate) {
+        long startDay = toEpochDay(startDate, Long.MIN_VALUE);
+        long endDay = toEpochDay(endDate, Long.MAX_VALUE);
+        // createTimeMillis 0 means no usable timestamp, so the range always starts after it
+        long fromMillis = startDay == Long.MIN_VALUE ? 1
+                : Math.max(1, startDay * DateFormatUtil.MILLIS_PER_DAY);
+        long toMillis = endDay == Long.MAX_VALUE ? Long.MAX_VALUE
+                : (endDay + 1) * DateFormatUtil.MILLIS_PER_DAY;
+        return dataStore.getTransactionColumns().sumCents(fromMillis, toMillis, false);
     }
     
     /**
@@ -830,6 +835,31 @@ public class BudgetController implements Initializable {
         return new LocalDate[]{start, end};
     }
     
+    /**
+     * Re-read now if on screen, otherwise when next shown
+     */
+    private void reloadWhenShown() {
+        if (showing) {
+            loadBudgets();
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            loadBudgets();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
+
     public void refresh() {
         javafx.application.Platform.runLater(() -> {
             // updateSummary();  // Summary section removed from UI
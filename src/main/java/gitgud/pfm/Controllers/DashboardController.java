@@ -1,6 +1,9 @@
 package gitgud.pfm.Controllers;
 
 import gitgud.pfm.services.AccountDataLoader;
+import gitgud.pfm.services.ChangeSet;
+import gitgud.pfm.services.EntityChange;
+import gitgud.pfm.services.RollupService;
 import gitgud.pfm.Models.Budget;
 import gitgud.pfm.Models.Goal;
 import gitgud.pfm.Models.Transaction;
@@ -17,13 +20,12 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 
 import java.net.URL;
-import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
 public class DashboardController implements Initializable {
 
@@ -42,6 +44,18 @@ public class DashboardController implements Initializable {
     @FXML private NumberAxis xAxis;
 
     private AccountDataLoader dataStore;
+    private final RollupService rollupService = new RollupService();
+
+    // Each card loads off the FX thread and is painted when its data arrives
+    private final ScreenLoad budgetLoad = new ScreenLoad("dashboard budget");
+    private final ScreenLoad goalsLoad = new ScreenLoad("dashboard goals");
+    private final ScreenLoad chartLoad = new ScreenLoad("dashboard spending chart");
+    private final ScreenLoad recentLoad = new ScreenLoad("recent transactions");
+
+    // The chart's running totals, patched in place as transactions change
+    private SpendingCurves spendingCurves;
+    private XYChart.Series<Number, Number> thisMonthSeries;
+    private XYChart.Series<Number, Number> lastMonthSeries;
     private static Runnable onNavigateToGoals;
     private static Runnable onNavigateToTransactions;
 
@@ -57,11 +71,9 @@ public class DashboardController implements Initializable {
     public void initialize(URL location, ResourceBundle resources) {
         dataStore = AccountDataLoader.getInstance();
         
-        // Register for goal and budget refresh notifications
-        dataStore.addGoalRefreshListener(this::refreshPriorityGoals);
-        dataStore.addBudgetRefreshListener(this::refreshBudgetGoal);
-        // Also listen for wallet/transaction changes to update budget display
-        dataStore.addWalletRefreshListener(this::refreshBudgetGoal);
+        // Follow goal, budget and transaction changes made on any screen
+        dataStore.getChangeEvents().subscribe(this, DashboardController::onLedgerChanged,
+                Goal.class, Budget.class, Transaction.class);
         
         updateBudgetGoal();
         loadPriorityGoals();
@@ -90,19 +102,30 @@ public class DashboardController implements Initializable {
         }
     }
     
-    private void refreshPriorityGoals() {
-        javafx.application.Platform.runLater(this::loadPriorityGoals);
-    }
-    
-    private void refreshBudgetGoal() {
-        javafx.application.Platform.runLater(this::updateBudgetGoal);
+    /**
+     * Reload only the cards a ChangeSet affects
+     */
+    private void onLedgerChanged(ChangeSet changes) {
+        if (changes.touches(Goal.class)) {
+            loadPriorityGoals();
+        }
+        if (changes.touches(Budget.class) || changes.touches(Transaction.class)) {
+            updateBudgetGoal();
+        }
+        if (changes.touches(Transaction.class)) {
+            loadRecentTransactions();
+            updateSpendingChart(changes);
+        }
     }
 
     private void updateBudgetGoal() {
         // Get budget limit from monthly budget in database, default to 3000.0
-        double budgetLimit = getMonthlyBudgetLimit();
-        double totalSpent = dataStore.getTotalExpenses();
-        
+        budgetLoad.load(
+                () -> new double[] { getMonthlyBudgetLimit(), Money.toDouble(dataStore.getTotalExpensesCents()) },
+                limitAndSpent -> showBudgetGoal(limitAndSpent[0], limitAndSpent[1]));
+    }
+
+    private void showBudgetGoal(double budgetLimit, double totalSpent) {
         double percent = Math.min(100, (totalSpent / budgetLimit) * 100);
         double remaining = Math.max(0, budgetLimit - totalSpent);
         
@@ -132,13 +155,17 @@ public class DashboardController implements Initializable {
     }
 
     private void loadPriorityGoals() {
-        priorityGoalsList.getChildren().clear();
-        
+        ScreenLoad.placeholderIfEmpty(priorityGoalsList);
         // Priority 1 is highest, so filter goals with priority <= 5 (top priorities)
-        List<Goal> priorityGoals = dataStore.getGoals().stream()
+        goalsLoad.load(() -> dataStore.getGoals().stream()
                 .filter(g -> g.getPriority() <= 5 && g.getBalance() < g.getTarget())
                 .sorted((a, b) -> Double.compare(a.getPriority(), b.getPriority())) // Sort by priority (1 first)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()),
+                this::showPriorityGoals);
+    }
+
+    private void showPriorityGoals(List<Goal> priorityGoals) {
+        priorityGoalsList.getChildren().clear();
 
         for (Goal goal : priorityGoals) {
             HBox goalItem = createPriorityGoalItem(goal);
@@ -218,7 +245,12 @@ public class DashboardController implements Initializable {
         return item;
     }
 
-    private void showEditGoalDialog(Goal goal) {
+    private void showEditGoalDialog(Goal shown) {
+        // The dialog writes into the goal; give it a copy, not the cached row
+        Goal goal = dataStore.getGoalById(shown.getId());
+        if (goal == null) {
+            return;
+        }
         Dialog<Goal> dialog = new Dialog<>();
         dialog.setTitle("Edit Goal");
         dialog.setHeaderText("Modify goal details");
@@ -291,8 +323,6 @@ public class DashboardController implements Initializable {
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         dataStore.deleteGoal(goal.getId());
-                        dataStore.notifyGoalRefresh();
-                        refresh();
                     }
                 });
                 return null;
@@ -302,19 +332,67 @@ public class DashboardController implements Initializable {
 
         dialog.showAndWait().ifPresent(updatedGoal -> {
             dataStore.updateGoal(updatedGoal);
-            dataStore.notifyGoalRefresh();
-            refresh();
         });
     }
 
     private void loadSpendingChart() {
+        // Daily expenses in cents for last month then this month, read from
+        // daily_totals in one query; index 0 is the 1st of last month
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        chartLoad.load(
+                () -> rollupService.dailyExpenses(lastMonth.atDay(1), currentMonth.plusMonths(1).atDay(1)),
+                dailyExpenses -> showSpendingChart(currentMonth, dailyExpenses));
+    }
+
+    /**
+     * Patch the chart with changed transactions: the running totals move in
+     * O(days) and only points whose value changed are touched. Falls back to
+     * a full load when there is nothing to patch (not loaded yet, a load in
+     * flight, transactions reloaded, a change without its old row, or a new
+     * month).
+     */
+    private void updateSpendingChart(ChangeSet changes) {
+        if (spendingCurves == null || chartLoad.isLoading() || changes.isReloaded(Transaction.class)
+                || !spendingCurves.getCurrentMonth().equals(YearMonth.now())) {
+            loadSpendingChart();
+            return;
+        }
+        List<EntityChange<Transaction>> transactionChanges = changes.changes(Transaction.class);
+        for (EntityChange<Transaction> change : transactionChanges) {
+            if (!SpendingCurves.canApply(change)) {
+                loadSpendingChart();
+                return;
+            }
+        }
+        boolean moved = false;
+        for (EntityChange<Transaction> change : transactionChanges) {
+            moved |= spendingCurves.apply(change);
+        }
+        if (moved) {
+            setPoints(thisMonthSeries, spendingCurves.thisMonth());
+            setPoints(lastMonthSeries, spendingCurves.lastMonth());
+        }
+    }
+
+    /**
+     * Update existing points in place, so the chart animates them instead
+     * of laying out new series
+     */
+    private static void setPoints(XYChart.Series<Number, Number> series, long[] cumulativeCents) {
+        List<XYChart.Data<Number, Number>> points = series.getData();
+        for (int i = 0; i < points.size(); i++) {
+            double value = Money.toDouble(cumulativeCents[i]);
+            if (points.get(i).getYValue().doubleValue() != value) {
+                points.get(i).setYValue(value);
+            }
+        }
+    }
+
+    private void showSpendingChart(YearMonth currentMonth, long[] dailyExpenses) {
         spendingChart.getData().clear();
+        spendingCurves = new SpendingCurves(currentMonth, dailyExpenses);
         
-        // Get all transactions (expenses only) from all wallets by the accountholder
-        List<Transaction> allTransactions = dataStore.getTransactions();
-        
-        // Get current month and last month
-        YearMonth currentMonth = YearMonth.now();
         YearMonth lastMonth = currentMonth.minusMonths(1);
         
         int daysInCurrentMonth = currentMonth.lengthOfMonth();
@@ -339,70 +417,21 @@ public class DashboardController implements Initializable {
             });
         }
         
-        // Create maps to store daily expenses
-        Map<Integer, Double> thisMonthExpenses = new HashMap<>();
-        Map<Integer, Double> lastMonthExpenses = new HashMap<>();
-        
-        // Initialize all days with 0
-        for (int day = 1; day <= daysInCurrentMonth; day++) {
-            thisMonthExpenses.put(day, 0.0);
-        }
-        for (int day = 1; day <= daysInLastMonth; day++) {
-            lastMonthExpenses.put(day, 0.0);
-        }
-        
-        // Parse transactions and aggregate by day
-        DateTimeFormatter formatter = DateFormatUtil.ISO_DATETIME_FORMAT;
-        DateTimeFormatter dateOnlyFormatter = DateFormatUtil.ISO_DATE_FORMAT;
-        
-        for (Transaction tx : allTransactions) {
-            if (tx.getIncome() > 0) continue; // Skip income transactions
-            
-            try {
-                String createTime = tx.getCreateTime();
-                LocalDate txDate;
-                
-                // Try parsing with datetime format first, then date only
-                try {
-                    txDate = LocalDate.parse(createTime, formatter);
-                } catch (Exception e) {
-                    try {
-                        txDate = LocalDate.parse(createTime, dateOnlyFormatter);
-                    } catch (Exception e2) {
-                        continue; // Skip if date cannot be parsed
-                    }
-                }
-                
-                int dayOfMonth = txDate.getDayOfMonth();
-                YearMonth txMonth = YearMonth.from(txDate);
-                
-                if (txMonth.equals(currentMonth)) {
-                    thisMonthExpenses.merge(dayOfMonth, tx.getAmount(), Double::sum);
-                } else if (txMonth.equals(lastMonth)) {
-                    lastMonthExpenses.merge(dayOfMonth, tx.getAmount(), Double::sum);
-                }
-            } catch (Exception e) {
-                // Skip transactions with invalid dates
-            }
-        }
-        
         // Create series for this month with cumulative spending
-        XYChart.Series<Number, Number> thisMonthSeries = new XYChart.Series<>();
+        long[] thisMonthTotals = spendingCurves.thisMonth();
+        thisMonthSeries = new XYChart.Series<>();
         thisMonthSeries.setName("This Month");
-        double cumulativeThisMonth = 0.0;
         for (int day = 1; day <= daysInCurrentMonth; day++) {
-            cumulativeThisMonth += thisMonthExpenses.get(day);
-            thisMonthSeries.getData().add(new XYChart.Data<>(day, cumulativeThisMonth));
+            thisMonthSeries.getData().add(new XYChart.Data<>(day, Money.toDouble(thisMonthTotals[day - 1])));
         }
         
         // Create series for last month with cumulative spending
-        XYChart.Series<Number, Number> lastMonthSeries = new XYChart.Series<>();
+        long[] lastMonthTotals = spendingCurves.lastMonth();
+        lastMonthSeries = new XYChart.Series<>();
         lastMonthSeries.setName("Last Month");
-        double cumulativeLastMonth = 0.0;
         int maxDays = Math.min(daysInLastMonth, daysInCurrentMonth);
         for (int day = 1; day <= maxDays; day++) {
-            cumulativeLastMonth += lastMonthExpenses.get(day);
-            lastMonthSeries.getData().add(new XYChart.Data<>(day, cumulativeLastMonth));
+            lastMonthSeries.getData().add(new XYChart.Data<>(day, Money.toDouble(lastMonthTotals[day - 1])));
         }
 
         spendingChart.getData().add(thisMonthSeries);
@@ -410,12 +439,16 @@ public class DashboardController implements Initializable {
     }
 
     private void loadRecentTransactions() {
-        transactionsList.getChildren().clear();
+        ScreenLoad.placeholderIfEmpty(transactionsList);
+        recentLoad.load(() -> {
+            // The cache hands transactions out newest first already
+            List<Transaction> all = dataStore.getTransactions();
+            return new ArrayList<>(all.subList(0, Math.min(10, all.size())));
+        }, this::showRecentTransactions);
+    }
 
-        List<Transaction> transactions = dataStore.getTransactions().stream()
-                .sorted((a, b) -> b.getCreateTime().compareTo(a.getCreateTime()))
-                .limit(10)
-                .collect(Collectors.toList());
+    private void showRecentTransactions(List<Transaction> transactions) {
+        transactionsList.getChildren().clear();
 
         for (Transaction tx : transactions) {
             HBox txItem = createTransactionItem(tx);
@@ -471,7 +504,13 @@ public class DashboardController implements Initializable {
         return item;
     }
 
-    private void showEditTransactionDialog(Transaction tx) {
+    private void showEditTransactionDialog(Transaction shown) {
+        // Edit a private copy: the shown row is the cache's, and its old values
+        // must survive until the update publishes them
+        Transaction tx = dataStore.getTransactionById(shown.getId());
+        if (tx == null) {
+            return;
+        }
         Dialog<Transaction> dialog = new Dialog<>();
         dialog.setTitle("Edit Transaction");
         dialog.setHeaderText("Modify transaction details");
@@ -538,7 +577,6 @@ public class DashboardController implements Initializable {
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         dataStore.deleteTransaction(tx.getId());
-                        refresh();
                     }
                 });
                 return null;
@@ -548,7 +586,6 @@ public class DashboardController implements Initializable {
 
         dialog.showAndWait().ifPresent(updatedTx -> {
             dataStore.updateTransaction(updatedTx);
-            refresh();
         });
     }
 
@@ -620,7 +657,10 @@ public class DashboardController implements Initializable {
     public void refresh() {
         updateBudgetGoal();
         loadPriorityGoals();
-        loadSpendingChart();
+        if (spendingCurves == null || !spendingCurves.getCurrentMonth().equals(YearMonth.now())) {
+            // Otherwise the change events have kept the chart current
+            loadSpendingChart();
+        }
         loadRecentTransactions();
     }
 
@@ -670,9 +710,10 @@ public class DashboardController implements Initializable {
         });
 
         dialog.showAndWait().ifPresent(limit -> {
-            if (monthlyBudget != null) {
-                monthlyBudget.setLimitAmount(limit);
-                dataStore.updateBudget(monthlyBudget);
+            Budget budget = monthlyBudget != null ? dataStore.getBudgetById(monthlyBudget.getId()) : null;
+            if (budget != null) {
+                budget.setLimitAmount(limit);
+                dataStore.updateBudget(budget);
             } else {
                 YearMonth month = YearMonth.now();
                 Budget newBudget = new Budget("Monthly Budget", limit, 0,
@@ -680,8 +721,6 @@ public class DashboardController implements Initializable {
                         Budget.PeriodType.MONTHLY, null);
                 dataStore.addBudget(newBudget);
             }
-            dataStore.notifyBudgetRefresh();
-            updateBudgetGoal();
         });
     }
 
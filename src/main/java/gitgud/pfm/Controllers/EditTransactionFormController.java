@@ -4,6 +4,7 @@ import gitgud.pfm.services.AccountDataLoader;
 import gitgud.pfm.Models.Category;
 import gitgud.pfm.Models.Transaction;
 import gitgud.pfm.Models.Wallet;
+import gitgud.pfm.utils.Money;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -44,7 +45,7 @@ public class EditTransactionFormController implements Initializable {
     
     // Store original values for balance adjustment
     private String originalWalletId;
-    private double originalAmount;
+    private long originalAmount;
     private boolean originalWasIncome;
     
     // Category definitions (same as AddTransactionCategoryController)
@@ -132,7 +133,7 @@ public class EditTransactionFormController implements Initializable {
         
         // Store original values
         this.originalWalletId = tx.getWalletId();
-        this.originalAmount = tx.getAmount();
+        this.originalAmount = tx.getAmountCents();
         this.originalWasIncome = tx.getIncome() > 0;
         
         // Populate form fields
@@ -249,9 +250,9 @@ public class EditTransactionFormController implements Initializable {
             return;
         }
         
-        double newAmount;
+        long newAmount;
         try {
-            newAmount = Double.parseDouble(amountText);
+            newAmount = Money.parse(amountText);
             if (newAmount <= 0) {
                 showAlert("Error", "Amount must be greater than 0");
                 return;
@@ -279,8 +280,8 @@ public class EditTransactionFormController implements Initializable {
         if (originalWalletId != null) {
             var oldWallet = dataStore.getWalletById(originalWalletId);
             if (oldWallet != null) {
-                double revertAmount = originalWasIncome ? -originalAmount : originalAmount;
-                oldWallet.setBalance(oldWallet.getBalance() + revertAmount);
+                long revertAmount = originalWasIncome ? -originalAmount : originalAmount;
+                oldWallet.addToBalance(revertAmount);
                 dataStore.updateWallet(oldWallet);
             }
         }
@@ -289,21 +290,20 @@ public class EditTransactionFormController implements Initializable {
         if (newWalletId != null) {
             var newWallet = dataStore.getWalletById(newWalletId);
             if (newWallet != null) {
-                double applyAmount = newIsIncome ? newAmount : -newAmount;
-                newWallet.setBalance(newWallet.getBalance() + applyAmount);
+                long applyAmount = newIsIncome ? newAmount : -newAmount;
+                newWallet.addToBalance(applyAmount);
                 dataStore.updateWallet(newWallet);
             }
         }
         
         // Update transaction
         transaction.setName(description);
-        transaction.setAmount(newAmount);
+        transaction.setAmountCents(newAmount);
         transaction.setIncome(newIsIncome ? 1.0 : 0.0);
         transaction.setCategoryId(selectedCategoryId);
         transaction.setWalletId(newWalletId);
         
         dataStore.updateTransaction(transaction);
-        dataStore.notifyWalletRefresh();
         
         Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
         successAlert.setTitle("Success");
@@ -330,14 +330,13 @@ public class EditTransactionFormController implements Initializable {
                 if (originalWalletId != null) {
                     var wallet = dataStore.getWalletById(originalWalletId);
                     if (wallet != null) {
-                        double revertAmount = originalWasIncome ? -originalAmount : originalAmount;
-                        wallet.setBalance(wallet.getBalance() + revertAmount);
+                        long revertAmount = originalWasIncome ? -originalAmount : originalAmount;
+                        wallet.addToBalance(revertAmount);
                         dataStore.updateWallet(wallet);
                     }
                 }
                 
                 dataStore.deleteTransaction(transaction.getId());
-                dataStore.notifyWalletRefresh();
                 
                 if (onSaveCallback != null) {
                     onSaveCallback.run();
@@ -23,8 +23,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
-public class GoalsController implements Initializable {
+public class GoalsController implements Initializable, ScreenLifecycle {
 
     @FXML private ScrollPane rootPane;
     @FXML private VBox mainContent;
@@ -37,6 +38,11 @@ public class GoalsController implements Initializable {
     @FXML private VBox goalsList;
 
     private AccountDataLoader dataStore;
+    private final ScreenLoad summaryLoad = new ScreenLoad("goal summary");
+    private final ScreenLoad goalsLoad = new ScreenLoad("goals");
+    private final List<Animation> pulses = new ArrayList<>();   // icon pulses of the cards shown
+    private boolean showing;
+    private boolean stale;       // goals changed while hidden; re-read on show
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -52,6 +58,9 @@ public class GoalsController implements Initializable {
             styleSortComboBox();
         }
         
+        // Goals change here, on the dashboard and through transactions
+        dataStore.getChangeEvents().subscribe(this, (goals, changes) -> goals.reloadWhenShown(), Goal.class);
+        
         updateSummary();
         loadGoals();
     }
@@ -138,25 +147,29 @@ public class GoalsController implements Initializable {
     }
 
     private void updateSummary() {
-        List<Goal> goals = dataStore.getGoals();
-        
+        summaryLoad.load(dataStore::getGoals, this::showSummary);
+    }
+
+    private void showSummary(List<Goal> goals) {
         int total = goals.size();
-        int completed = (int) goals.stream().filter(g -> g.getBalance() >= g.getTarget()).count();
+        int completed = (int) goals.stream().filter(g -> g.getBalanceCents() >= g.getTargetCents()).count();
         int active = total - completed;
-        double totalSaved = goals.stream().mapToDouble(Goal::getBalance).sum();
+        long totalSaved = goals.stream().mapToLong(Goal::getBalanceCents).sum();
         
         totalGoalsLabel.setText(String.valueOf(total));
         activeGoalsLabel.setText(String.valueOf(active));
         completedGoalsLabel.setText(String.valueOf(completed));
-        totalSavedLabel.setText(String.format("$%.2f", totalSaved));
+        totalSavedLabel.setText(String.format("$%.2f", Money.toDouble(totalSaved)));
     }
 
     private void loadGoals() {
-        goalsList.getChildren().clear();
-        List<Goal> goals = dataStore.getGoals();
-        
-        // Apply sorting
         String sortBy = sortGoalsCombo != null ? sortGoalsCombo.getValue() : null;
+        ScreenLoad.placeholderIfEmpty(goalsList);
+        goalsLoad.load(() -> sortGoals(dataStore.getGoals(), sortBy), this::showGoals);
+    }
+
+    private List<Goal> sortGoals(List<Goal> goals, String sortBy) {
+        // Apply sorting
         if (sortBy != null) {
             switch (sortBy) {
                 case "Priority":
@@ -182,6 +195,13 @@ public class GoalsController implements Initializable {
                     break;
             }
         }
+        return goals;
+    }
+
+    private void showGoals(List<Goal> goals) {
+        pulses.forEach(Animation::stop);
+        pulses.clear();
+        goalsList.getChildren().clear();
 
         for (Goal goal : goals) {
             VBox goalCard = createEnhancedGoalCard(goal);
@@ -658,7 +678,10 @@ public class GoalsController implements Initializable {
         pulse.setToY(1.05);
         pulse.setCycleCount(Animation.INDEFINITE);
         pulse.setAutoReverse(true);
-        pulse.play();
+        pulses.add(pulse);
+        if (showing) {
+            pulse.play();
+        }
     }
 
     private void addCardHoverEffect(VBox card, String color) {
@@ -749,7 +772,12 @@ public class GoalsController implements Initializable {
     // The dialog sizing (setPrefWidth/setPrefHeight) is CRITICAL for proper rendering.
     // Removing or changing these values will cause the dialog to appear broken/glitchy.
 
-    private void showContributeDialog(Goal goal) {
+    private void showContributeDialog(Goal shown) {
+        // The balance is added to this goal in place; work on a copy of the cached row
+        Goal goal = dataStore.getGoalById(shown.getId());
+        if (goal == null) {
+            return;
+        }
         Dialog<Double> dialog = new Dialog<>();
         dialog.setTitle("💰 Contribute to Goal");
         
@@ -931,7 +959,7 @@ public class GoalsController implements Initializable {
                     String walletId = walletIdMap.get(selectedWallet);
                     Wallet wallet = dataStore.getWalletById(walletId);
                     
-                    if (wallet != null && wallet.getBalance() < amount) {
+                    if (wallet != null && wallet.getBalanceCents() < Money.toCents(amount)) {
                         Alert alert = new Alert(Alert.AlertType.ERROR);
                         alert.setTitle("Insufficient Balance");
                         alert.setHeaderText(null);
@@ -958,9 +986,8 @@ public class GoalsController implements Initializable {
                     
                     // Update wallet balance
                     if (wallet != null) {
-                        wallet.setBalance(wallet.getBalance() - amount);
+                        wallet.subtractFromBalance(Money.toCents(amount));
                         dataStore.updateWallet(wallet);
-                        dataStore.notifyWalletRefresh();
                     }
                     
                     // Add transaction
@@ -981,10 +1008,8 @@ public class GoalsController implements Initializable {
         });
 
         dialog.showAndWait().ifPresent(amount -> {
-            goal.setBalance(goal.getBalance() + amount);
+            goal.addToBalance(Money.toCents(amount));
             dataStore.updateGoal(goal);
-            dataStore.notifyGoalRefresh();
-            refresh();
             
             Alert success = new Alert(Alert.AlertType.INFORMATION);
             success.setTitle("Success!");
@@ -996,7 +1021,12 @@ public class GoalsController implements Initializable {
         });
     }
 
-    private void showEditGoalDialog(Goal goal) {
+    private void showEditGoalDialog(Goal shown) {
+        // The dialog writes into the goal; give it a copy, not the cached row
+        Goal goal = dataStore.getGoalById(shown.getId());
+        if (goal == null) {
+            return;
+        }
         Dialog<Goal> dialog = new Dialog<>();
         dialog.setTitle("✏️ Edit Goal");
         
@@ -1115,8 +1145,6 @@ public class GoalsController implements Initializable {
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         dataStore.deleteGoal(goal.getId());
-                        dataStore.notifyGoalRefresh();
-                        refresh();
                     }
                 });
                 return null;
@@ -1126,8 +1154,6 @@ public class GoalsController implements Initializable {
 
         dialog.showAndWait().ifPresent(updatedGoal -> {
             dataStore.updateGoal(updatedGoal);
-            dataStore.notifyGoalRefresh();
-            refresh();
         });
     }
 
@@ -1260,8 +1286,6 @@ public class GoalsController implements Initializable {
 
         dialog.showAndWait().ifPresent(goal -> {
             dataStore.addGoal(goal);
-            dataStore.notifyGoalRefresh();
-            refresh();
             
             // Success notification
             Alert success = new Alert(Alert.AlertType.INFORMATION);
@@ -1362,6 +1386,33 @@ public class GoalsController implements Initializable {
         });
     }
 
+    /**
+     * Re-read now if on screen, otherwise when next shown
+     */
+    private void reloadWhenShown() {
+        if (showing) {
+            refresh();
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        pulses.forEach(Animation::play);
+        if (stale) {
+            stale = false;
+            refresh();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+        pulses.forEach(Animation::pause); // endless; they would keep requesting pulses off screen
+    }
+
     public void refresh() {
         updateSummary();
         loadGoals();
@@ -0,0 +1,210 @@
+package gitgud.pfm.Controllers;
+
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
+import gitgud.pfm.Models.TransactionPage;
+import gitgud.pfm.services.ChangeSet;
+import gitgud.pfm.services.DataLoadExecutor;
+import gitgud.pfm.services.EntityChange;
+import gitgud.pfm.services.TransactionService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+/**
+ * PagedTransactionList - Every transaction matching a filter, as a list a
+ * ListView can scroll end to end while only a few blocks are in memory.
+ *
+ * The list has the full row count from the start (whole blocks between
+ * the keys, plus the last block's rows), but rows are read in
+ * blocks of blockRows, on demand. get(i) of a block not in memory returns
+ * null (the cell shows a placeholder) and queues the block's read on the
+ * DataLoadExecutor. When it arrives the block's rows are reported as one
+ * replace change, and the ListView redraws the cells showing them. Any
+ * block can be read directly, without reading the blocks before it, by
+ * seeking to its key (TransactionService.readPageKeys).
+ *
+ * At most MAX_BLOCKS blocks are kept, least recently read out first, so
+ * memory stays bounded however far the list is scrolled. The ListView
+ * itself only creates cells for the rows on screen.
+ *
+ * indexOf and contains look only at blocks in memory. FX thread only.
+ */
+final class PagedTransactionList extends ObservableListBase<Transaction> {
+
+    static final int MAX_BLOCKS = 32;
+
+    private final TransactionService service;
+    private final TransactionCriteria criteria;
+    private final int blockRows;
+    private final int size;
+    private final List<TransactionPage.Key> blockKeys;   // last key of each full block
+    private final Map<Integer, List<Transaction>> blocks =
+            new LinkedHashMap<>(MAX_BLOCKS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<Transaction>> eldest) {
+                    return size() > MAX_BLOCKS;
+                }
+            };
+    private final Set<Integer> reading = new HashSet<>();
+
+    private PagedTransactionList(TransactionService service, TransactionCriteria criteria, int blockRows,
+                                 List<TransactionPage.Key> blockKeys, List<Transaction> firstBlock,
+                                 List<Transaction> lastBlock) {
+        this.service = service;
+        this.criteria = criteria;
+        this.blockRows = blockRows;
+        this.blockKeys = blockKeys;
+        // Every block but the last is full, so the keys and the last block give the count
+        this.size = blockKeys.size() * blockRows + lastBlock.size();
+        if (!firstBlock.isEmpty()) {
+            blocks.put(0, firstBlock);
+        }
+        if (!lastBlock.isEmpty()) {
+            blocks.put(blockKeys.size(), lastBlock);
+        }
+    }
+
+    /**
+     * Find the block keys and read the first and last blocks. Blocks the
+     * calling thread; run it off the FX thread.
+     */
+    static PagedTransactionList read(TransactionService service, TransactionCriteria criteria, int blockRows) {
+        List<TransactionPage.Key> keys = service.readPageKeys(criteria, blockRows);
+        List<Transaction> first = service.readPageAfter(criteria, null, blockRows).getItems();
+        List<Transaction> last = keys.isEmpty()
+                ? first
+                : service.readPageAfter(criteria, keys.get(keys.size() - 1), blockRows).getItems();
+        return new PagedTransactionList(service, criteria, blockRows, keys, first, last);
+    }
+
+    /**
+     * A list with no rows, for a filter known to match nothing
+     */
+    static PagedTransactionList empty(TransactionService service, int blockRows) {
+        return new PagedTransactionList(service, null, blockRows, Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The row, or null while its block is being read
+     */
+    @Override
+    public Transaction get(int index) {
+        Objects.checkIndex(index, size);
+        int block = index / blockRows;
+        List<Transaction> rows = blocks.get(block);
+        if (rows == null) {
+            readBlock(block);
+            return null;
+        }
+        int offset = index - block * blockRows;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int indexOf(Object row) {
+        for (Map.Entry<Integer, List<Transaction>> block : blocks.entrySet()) {
+            int offset = block.getValue().indexOf(row);
+            if (offset >= 0) {
+                return block.getKey() * blockRows + offset;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object row) {
+        return indexOf(row);
+    }
+
+    @Override
+    public boolean contains(Object row) {
+        return indexOf(row) >= 0;
+    }
+
+    private void readBlock(int block) {
+        if (!reading.add(block)) {
+            return;
+        }
+        TransactionPage.Key after = block == 0 ? null
+                : block - 1 < blockKeys.size() ? blockKeys.get(block - 1) : null;
+        if (block > 0 && after == null) {
+            reading.remove(block);
+            return; // past the last full block: the rows changed since the keys were read
+        }
+        DataLoadExecutor.getInstance()
+                .submit(() -> service.readPageAfter(criteria, after, blockRows).getItems())
+                .whenComplete((rows, error) -> Platform.runLater(() -> {
+                    reading.remove(block);
+                    if (error != null) {
+                        System.err.println("Error reading transactions: " + error.getMessage());
+                        return;
+                    }
+                    blocks.put(block, rows);
+                    int from = block * blockRows;
+                    int to = Math.min(size, from + blockRows);
+                    beginChange();
+                    nextReplace(from, to, Collections.nCopies(to - from, (Transaction) null));
+                    endChange();
+                }));
+    }
+
+    /**
+     * Apply transaction changes to the rows in memory without reading again
+     *
+     * @return false when the changes add, remove or reorder rows, or may move
+     *         rows in or out of the filter; the list must then be read again
+     */
+    boolean patch(ChangeSet changes) {
+        if (changes.isReloaded(Transaction.class)
+                || (criteria != null && criteria.hasFilters())) {
+            return false;
+        }
+        List<EntityChange<Transaction>> updates = changes.changes(Transaction.class);
+        for (EntityChange<Transaction> change : updates) {
+            if (!change.isUpdated() || change.getBefore() == null
+                    || change.getBefore().getCreateTimeMillis() != change.getAfter().getCreateTimeMillis()) {
+                return false;
+            }
+        }
+        for (EntityChange<Transaction> change : updates) {
+            for (Map.Entry<Integer, List<Transaction>> block : blocks.entrySet()) {
+                List<Transaction> rows = block.getValue();
+                int offset = indexOfId(rows, change.getId());
+                if (offset >= 0) {
+                    List<Transaction> patched = new ArrayList<>(rows);
+                    Transaction old = patched.set(offset, change.getAfter());
+                    block.setValue(patched);
+                    int index = block.getKey() * blockRows + offset;
+                    beginChange();
+                    nextSet(index, old);
+                    endChange();
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfId(List<Transaction> rows, String id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
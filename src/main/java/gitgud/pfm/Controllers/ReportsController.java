@@ -1,7 +1,13 @@
 package gitgud.pfm.Controllers;
 
 import gitgud.pfm.services.AccountDataLoader;
+import gitgud.pfm.services.ReportEngine;
+import gitgud.pfm.services.TransactionColumns;
+import gitgud.pfm.services.TransactionExporter;
+import gitgud.pfm.Models.TransactionCriteria;
 import gitgud.pfm.Models.Transaction;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
@@ -10,25 +16,27 @@ import javafx.scene.Scene;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.WeekFields;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
-public class ReportsController implements Initializable {
+public class ReportsController implements Initializable, ScreenLifecycle {
 
     @FXML private StackPane rootPane;
     @FXML private VBox mainContent;
     @FXML private ComboBox<String> reportPeriodCombo;
+    @FXML private Button exportButton;
     @FXML private Label totalIncomeLabel;
     @FXML private Label totalExpensesLabel;
     @FXML private Label netSavingsLabel;
@@ -42,6 +50,11 @@ public class ReportsController implements Initializable {
     @FXML private VBox incomeExpenseChartContainer;
 
     private AccountDataLoader dataStore;
+    private final ReportEngine reportEngine = new ReportEngine();
+    private ReportEngine.Result report;   // every figure on screen, from one scan
+    private final ScreenLoad reportLoad = new ScreenLoad("report");
+    private boolean showing;
+    private boolean stale;       // data changed while hidden; re-read on show
     private boolean showPercentage = false;
     private PieChart expensePieChart;
     
@@ -90,16 +103,57 @@ public class ReportsController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         dataStore = AccountDataLoader.getInstance();
-        dataStore.addWalletRefreshListener(this::refresh);
+        // Every figure on this screen is a transaction total
+        dataStore.getChangeEvents().subscribe(this, (reports, changes) -> reports.reloadWhenShown(), Transaction.class);
         
         if (reportPeriodCombo != null) {
             reportPeriodCombo.setOnAction(e -> loadReportData());
         }
+        if (exportButton != null) {
+            exportButton.setOnAction(e -> exportSelectedPeriod());
+        }
         
         loadReportData();
     }
 
+    /**
+     * Re-read now if on screen, otherwise when next shown
+     */
+    private void reloadWhenShown() {
+        if (showing) {
+            loadReportData();
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            loadReportData();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
+
     private void loadReportData() {
+        LocalDate[] range = getPeriodRange();
+        int monthsToShow = getMonthsToShow();
+        ReportEngine.Request request = new ReportEngine.Request()
+                .incomeAndExpenses(range[0], range[1])
+                .expensesByCategory(range[0], range[1])
+                .monthlyIncomeAndExpenses(YearMonth.now().minusMonths(monthsToShow - 1), monthsToShow);
+        ScreenLoad.placeholderIfEmpty(categoryBreakdownList);
+        reportLoad.load(() -> reportEngine.run(request, dataStore.getTransactionColumns()), this::showReport);
+    }
+
+    private void showReport(ReportEngine.Result result) {
+        report = result;
         updateSummaryCards();
         
         loadExpensePieChart();
@@ -108,24 +162,17 @@ public class ReportsController implements Initializable {
     }
 
     private void updateSummaryCards() {
-        List<Transaction> filteredTransactions = getFilteredTransactions();
-        
-        double totalIncome = filteredTransactions.stream()
-                .filter(tx -> tx.getIncome() > 0)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        // [0] income, [1] expenses, in cents
+        long[] totals = report.getIncomeAndExpenses();
+        long totalIncome = totals[0];
+        long totalExpenses = totals[1];
         
-        double totalExpenses = filteredTransactions.stream()
-                .filter(tx -> tx.getIncome() <= 0)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-        
-        double netSavings = totalIncome - totalExpenses;
-        double savingsRate = totalIncome > 0 ? (netSavings / totalIncome) * 100 : 0;
+        long netSavings = totalIncome - totalExpenses;
+        double savingsRate = totalIncome > 0 ? (netSavings * 100.0) / totalIncome : 0;
 
-        totalIncomeLabel.setText(String.format("$%.2f", totalIncome));
-        totalExpensesLabel.setText(String.format("$%.2f", totalExpenses));
-        netSavingsLabel.setText(String.format("$%.2f", netSavings));
+        totalIncomeLabel.setText(String.format("$%.2f", Money.toDouble(totalIncome)));
+        totalExpensesLabel.setText(String.format("$%.2f", Money.toDouble(totalExpenses)));
+        netSavingsLabel.setText(String.format("$%.2f", Money.toDouble(netSavings)));
         savingsRateLabel.setText(String.format("%.1f%%", savingsRate));
 
         // Get selected period for label
@@ -136,8 +183,11 @@ public class ReportsController implements Initializable {
         rateChangeLabel.setText(selectedPeriod);
     }
     
-    private List<Transaction> getFilteredTransactions() {
-        List<Transaction> allTransactions = dataStore.getTransactions();
+    /**
+     * Selected report period as [start, end) days,
+     * from the first day of the period through the end of today
+     */
+    private LocalDate[] getPeriodRange() {
         String selectedPeriod = reportPeriodCombo != null ? reportPeriodCombo.getValue() : "This Month";
         
         LocalDate now = LocalDate.now();
@@ -163,36 +213,75 @@ public class ReportsController implements Initializable {
                 startDate = now.withDayOfMonth(1);
         }
         
-        DateTimeFormatter formatter = DateFormatUtil.ISO_DATETIME_FORMAT;
-        DateTimeFormatter dateOnlyFormatter = DateFormatUtil.ISO_DATE_FORMAT;
-        
-        return allTransactions.stream()
-                .filter(tx -> {
-                    try {
-                        String createTime = tx.getCreateTime();
-                        if (createTime == null) return false;
-                        
-                        LocalDate txDate;
-                        try {
-                            txDate = LocalDateTime.parse(createTime, formatter).toLocalDate();
-                        } catch (Exception e) {
-                            try {
-                                txDate = LocalDate.parse(createTime, dateOnlyFormatter);
-                            } catch (Exception e2) {
-                                return false;
-                            }
-                        }
-                        
-                        return !txDate.isBefore(startDate) && !txDate.isAfter(now);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+        return new LocalDate[] { startDate, now.plusDays(1) };
     }
 
 
     
+    /**
+     * Export the selected period's transactions to CSV or JSON Lines. The
+     * file is streamed on a background thread; the button shows progress.
+     */
+    private void exportSelectedPeriod() {
+        LocalDate[] range = getPeriodRange();
+        String period = reportPeriodCombo != null ? reportPeriodCombo.getValue() : "This Month";
+
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv");
+        FileChooser.ExtensionFilter jsonlFilter = new FileChooser.ExtensionFilter("JSON Lines (*.jsonl)", "*.jsonl");
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Transactions - " + period);
+        chooser.getExtensionFilters().addAll(csvFilter, jsonlFilter);
+        chooser.setInitialFileName("transactions-" + range[0] + "-to-" + range[1].minusDays(1) + ".csv");
+        File file = chooser.showSaveDialog(rootPane.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        TransactionExporter.Format format = file.getName().endsWith(".jsonl")
+                || (chooser.getSelectedExtensionFilter() == jsonlFilter && !file.getName().endsWith(".csv"))
+                ? TransactionExporter.Format.JSONL : TransactionExporter.Format.CSV;
+
+        TransactionCriteria criteria = TransactionCriteria.builder()
+                .dateFrom(range[0].toString())
+                .dateTo(range[1].minusDays(1).toString())
+                .build();
+
+        Task<Long> exportTask = new Task<>() {
+            @Override
+            protected Long call() {
+                return new TransactionExporter().export(criteria, file.toPath(), format,
+                        (written, total) -> updateMessage(String.format("Exporting %d%%",
+                                total > 0 ? written * 100 / total : 100)));
+            }
+        };
+        exportButton.textProperty().bind(exportTask.messageProperty());
+        exportButton.setDisable(true);
+        exportTask.setOnSucceeded(e -> {
+            finishExport();
+            long rows = exportTask.getValue();
+            Alert alert = new Alert(rows < 0 ? Alert.AlertType.ERROR : Alert.AlertType.INFORMATION);
+            alert.setTitle("Export");
+            alert.setHeaderText(null);
+            alert.setContentText(rows < 0
+                    ? "The export failed; no file was written."
+                    : String.format("Exported %,d transactions to %s", rows, file.getName()));
+            alert.showAndWait();
+        });
+        exportTask.setOnFailed(e -> {
+            finishExport();
+            System.err.println("Error exporting transactions: " + exportTask.getException().getMessage());
+        });
+
+        Thread worker = new Thread(exportTask, "transaction-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void finishExport() {
+        exportButton.textProperty().unbind();
+        exportButton.setText("Export");
+        exportButton.setDisable(false);
+    }
+
     private String getToggleStyle(boolean selected) {
         if (selected) {
             return "-fx-background-color: #3b82f6; -fx-text-fill: white; -fx-background-radius: 6; -fx-padding: 8 16; -fx-font-size: 13px; -fx-font-weight: 600;";
@@ -260,22 +349,14 @@ public class ReportsController implements Initializable {
         // Income category IDs to exclude from spending breakdown
         java.util.Set<String> incomeCategories = java.util.Set.of("10", "11");
         
-        List<Transaction> transactions = getFilteredTransactions();
         // Use LinkedHashMap to preserve insertion order
-        Map<String, Double> categoryTotals = new LinkedHashMap<>();
-        transactions.stream()
-                .filter(tx -> tx.getIncome() <= 0)
-                .filter(tx -> !incomeCategories.contains(tx.getCategoryId()))
-                .forEach(tx -> {
-                    String catId = tx.getCategoryId() != null ? tx.getCategoryId() : "Other";
-                    categoryTotals.merge(catId, tx.getAmount(), Double::sum);
-                });
+        Map<String, Double> categoryTotals = sumExpensesByCategory(incomeCategories);
         
         if (categoryTotals.isEmpty()) {
             return;
         }
         
-        double total = categoryTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        double total = sumValues(categoryTotals);
         
         // Store category IDs in order for color assignment
         List<String> categoryIds = new ArrayList<>(categoryTotals.keySet());
@@ -323,16 +404,8 @@ public class ReportsController implements Initializable {
         // Income category IDs to exclude from spending breakdown
         java.util.Set<String> incomeCategories = java.util.Set.of("10", "11");
 
-        List<Transaction> transactions = getFilteredTransactions();
         // Use LinkedHashMap to preserve insertion order
-        Map<String, Double> categoryTotals = new LinkedHashMap<>();
-        transactions.stream()
-                .filter(tx -> tx.getIncome() <= 0)
-                .filter(tx -> !incomeCategories.contains(tx.getCategoryId()))
-                .forEach(tx -> {
-                    String catId = tx.getCategoryId() != null ? tx.getCategoryId() : "Other";
-                    categoryTotals.merge(catId, tx.getAmount(), Double::sum);
-                });
+        Map<String, Double> categoryTotals = sumExpensesByCategory(incomeCategories);
 
         if (categoryTotals.isEmpty()) {
             Label emptyLabel = new Label("No expense data available");
@@ -346,7 +419,7 @@ public class ReportsController implements Initializable {
         hintLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #94a3b8; -fx-font-style: italic;");
         categoryBreakdownList.getChildren().add(hintLabel);
 
-        double total = categoryTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        double total = sumValues(categoryTotals);
 
         // Sort categories by amount in descending order (highest spending first)
         categoryTotals.entrySet().stream()
@@ -362,6 +435,32 @@ public class ReportsController implements Initializable {
             });
     }
 
+    /**
+     * Expense amounts per category in cents over the selected period, from
+     * the last report scan, converted once for display.
+     * Largest category first, which keeps chart colours stable.
+     */
+    private Map<String, Double> sumExpensesByCategory(java.util.Set<String> incomeCategories) {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : report.getExpensesByCategory().entrySet()) {
+            if (incomeCategories.contains(entry.getKey())) {
+                continue;
+            }
+            String catId = entry.getKey() != null ? entry.getKey() : "Other";
+            totals.merge(catId, Money.toDouble(entry.getValue()), Double::sum);
+        }
+        return totals;
+    }
+
+    private double sumValues(Map<String, Double> categoryTotals) {
+        // Values came from whole cents, so converting back is exact
+        long total = 0;
+        for (double amount : categoryTotals.values()) {
+            total += Money.toCents(amount);
+        }
+        return Money.toDouble(total);
+    }
+
     private HBox createCategoryRow(String categoryId, String category, String icon, double amount, double total, String color) {
         HBox row = new HBox(12);
         row.setAlignment(Pos.CENTER_LEFT);
@@ -424,62 +523,47 @@ public class ReportsController implements Initializable {
         Label header = new Label(CATEGORY_ICONS.getOrDefault(categoryId, "📦") + " " + categoryName);
         header.setStyle("-fx-font-size: 20px; -fx-font-weight: 700; -fx-text-fill: #1e293b;");
         
-        VBox transactionsList = new VBox(8);
-        
-        List<Transaction> categoryTransactions = dataStore.getTransactions().stream()
-                .filter(tx -> categoryId.equals(tx.getCategoryId()))
-                .sorted((a, b) -> b.getCreateTime().compareTo(a.getCreateTime()))
-                .collect(Collectors.toList());
-        
-        if (categoryTransactions.isEmpty()) {
-            Label emptyLabel = new Label("No transactions in this category");
-            emptyLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #64748b;");
-            transactionsList.getChildren().add(emptyLabel);
-        } else {
-            double totalAmount = 0;
-            for (Transaction tx : categoryTransactions) {
-                HBox txRow = new HBox(12);
-                txRow.setAlignment(Pos.CENTER_LEFT);
-                txRow.setPadding(new Insets(10));
-                txRow.setStyle("-fx-background-color: #f8fafc; -fx-background-radius: 8;");
-                
-                VBox details = new VBox(2);
-                HBox.setHgrow(details, Priority.ALWAYS);
-                
-                Label nameLabel = new Label(tx.getName());
-                nameLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 500; -fx-text-fill: #1e293b;");
-                
-                Label dateLabel = new Label(DateFormatUtil.isoToUkDateTime(tx.getCreateTime()));
-                dateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #94a3b8;");
-                
-                details.getChildren().addAll(nameLabel, dateLabel);
-                
-                Label amountLabel = new Label(String.format("$%.2f", tx.getAmount()));
-                String amountColor = tx.getIncome() > 0 ? "#22c55e" : "#ef4444";
-                amountLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 600; -fx-text-fill: " + amountColor + ";");
-                
-                txRow.getChildren().addAll(details, amountLabel);
-                transactionsList.getChildren().add(txRow);
-                
-                totalAmount += tx.getAmount();
+        // Newest first; the category is matched by its dictionary index, not per-row string compares
+        TransactionColumns columns = dataStore.getTransactionColumns();
+        int categoryIndex = columns.indexOfCategory(categoryId);
+        int[] rows = categoryIndex < 0 ? new int[0]
+                : columns.select(Long.MIN_VALUE, Long.MAX_VALUE, row -> columns.categoryIndex(row) == categoryIndex);
+        
+        // A view over the selected rows, not a copy; the ListView only makes cells for rows on screen
+        ListView<Transaction> transactionsList = new ListView<>(FXCollections.observableList(new AbstractList<Transaction>() {
+            @Override
+            public Transaction get(int index) {
+                return columns.transaction(rows[index]);
             }
             
-            HBox totalRow = new HBox();
-            totalRow.setAlignment(Pos.CENTER_RIGHT);
-            totalRow.setPadding(new Insets(12, 0, 0, 0));
-            totalRow.setStyle("-fx-border-color: #e2e8f0; -fx-border-width: 1 0 0 0;");
-            
-            Label totalLabel = new Label("Total: $" + String.format("%.2f", totalAmount));
-            totalLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 700; -fx-text-fill: #1e293b;");
-            totalRow.getChildren().add(totalLabel);
-            
-            transactionsList.getChildren().add(totalRow);
+            @Override
+            public int size() {
+                return rows.length;
+            }
+        }));
+        transactionsList.setCellFactory(list -> new CategoryTransactionCell());
+        transactionsList.setFixedCellSize(60);
+        transactionsList.setFocusTraversable(false);
+        transactionsList.setPrefHeight(400);
+        transactionsList.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        Label emptyLabel = new Label("No transactions in this category");
+        emptyLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #64748b;");
+        transactionsList.setPlaceholder(emptyLabel);
+        
+        long totalAmount = 0;
+        for (int row : rows) {
+            totalAmount += columns.cents(row);
         }
+        HBox totalRow = new HBox();
+        totalRow.setAlignment(Pos.CENTER_RIGHT);
+        totalRow.setPadding(new Insets(12, 0, 0, 0));
+        totalRow.setStyle("-fx-border-color: #e2e8f0; -fx-border-width: 1 0 0 0;");
         
-        ScrollPane scrollPane = new ScrollPane(transactionsList);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(400);
-        scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
+        Label totalLabel = new Label("Total: $" + String.format("%.2f", Money.toDouble(totalAmount)));
+        totalLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 700; -fx-text-fill: #1e293b;");
+        totalRow.getChildren().add(totalLabel);
+        totalRow.setVisible(rows.length > 0);
+        totalRow.setManaged(rows.length > 0);
         
         Button closeBtn = new Button("Close");
         closeBtn.setStyle("-fx-background-color: #3b82f6; -fx-text-fill: white; -fx-background-radius: 6; -fx-padding: 10 24; -fx-font-size: 14px;");
@@ -489,7 +573,7 @@ public class ReportsController implements Initializable {
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
         buttonBox.getChildren().add(closeBtn);
         
-        content.getChildren().addAll(header, scrollPane, buttonBox);
+        content.getChildren().addAll(header, transactionsList, totalRow, buttonBox);
         
         Scene scene = new Scene(content, 500, 550);
         popup.setScene(scene);
@@ -532,88 +616,31 @@ public class ReportsController implements Initializable {
         XYChart.Series<String, Number> expenseSeries = new XYChart.Series<>();
         expenseSeries.setName("Expenses");
         
-        // Get all transactions
-        List<Transaction> allTransactions = dataStore.getTransactions();
-        
-        // Determine how many months to show based on selected period
-        String selectedPeriod = reportPeriodCombo != null ? reportPeriodCombo.getValue() : "This Month";
-        int monthsToShow;
-        switch (selectedPeriod) {
-            case "This Week":
-            case "This Month":
-                monthsToShow = 6; // Show last 6 months for context
-                break;
-            case "Last 3 Months":
-                monthsToShow = 3;
-                break;
-            case "Last 6 Months":
-                monthsToShow = 6;
-                break;
-            case "This Year":
-                monthsToShow = 12;
-                break;
-            default:
-                monthsToShow = 6;
-        }
-        
-        // Create maps for monthly totals
-        Map<YearMonth, Double> monthlyIncome = new LinkedHashMap<>();
-        Map<YearMonth, Double> monthlyExpenses = new LinkedHashMap<>();
+        // Months shown match the ones the report scan summed
+        long[][] monthly = report.getMonthlyIncomeAndExpenses();
+        int monthsToShow = monthly[0].length;
         
         // Initialize months
         YearMonth currentMonth = YearMonth.now();
         List<String> monthLabels = new ArrayList<>();
         for (int i = monthsToShow - 1; i >= 0; i--) {
             YearMonth month = currentMonth.minusMonths(i);
-            monthlyIncome.put(month, 0.0);
-            monthlyExpenses.put(month, 0.0);
             monthLabels.add(month.format(DateTimeFormatter.ofPattern("MMM yyyy")));
         }
         
         // Set categories on x-axis
         xAxis.setCategories(javafx.collections.FXCollections.observableArrayList(monthLabels));
         
-        // Parse transactions and aggregate by month
-        DateTimeFormatter formatter = DateFormatUtil.ISO_DATETIME_FORMAT;
-        DateTimeFormatter dateOnlyFormatter = DateFormatUtil.ISO_DATE_FORMAT;
-        
-        for (Transaction tx : allTransactions) {
-            try {
-                String createTime = tx.getCreateTime();
-                if (createTime == null) continue;
-                
-                LocalDate txDate;
-                try {
-                    txDate = LocalDateTime.parse(createTime, formatter).toLocalDate();
-                } catch (Exception e) {
-                    try {
-                        txDate = LocalDate.parse(createTime, dateOnlyFormatter);
-                    } catch (Exception e2) {
-                        continue;
-                    }
-                }
-                
-                YearMonth txMonth = YearMonth.from(txDate);
-                
-                if (monthlyIncome.containsKey(txMonth)) {
-                    if (tx.getIncome() > 0) {
-                        monthlyIncome.merge(txMonth, tx.getAmount(), Double::sum);
-                    } else {
-                        monthlyExpenses.merge(txMonth, tx.getAmount(), Double::sum);
-                    }
-                }
-            } catch (Exception e) {
-                // Skip transactions with invalid dates
-            }
-        }
+        // Monthly totals in cents, index 0 is the oldest month shown
+        long[] monthlyIncome = monthly[0];
+        long[] monthlyExpenses = monthly[1];
         
         // Add data to series using consistent month labels
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM yyyy");
-        for (YearMonth month : monthlyIncome.keySet()) {
-            String monthLabel = month.format(monthFormatter);
-            incomeSeries.getData().add(new XYChart.Data<>(monthLabel, monthlyIncome.get(month)));
+        for (int i = 0; i < monthsToShow; i++) {
+            String monthLabel = monthLabels.get(i);
+            incomeSeries.getData().add(new XYChart.Data<>(monthLabel, Money.toDouble(monthlyIncome[i])));
             // Show expenses as negative for visual distinction
-            expenseSeries.getData().add(new XYChart.Data<>(monthLabel, -monthlyExpenses.get(month)));
+            expenseSeries.getData().add(new XYChart.Data<>(monthLabel, -Money.toDouble(monthlyExpenses[i])));
         }
         
         barChart.getData().addAll(incomeSeries, expenseSeries);
@@ -637,7 +664,66 @@ public class ReportsController implements Initializable {
         incomeExpenseChartContainer.getChildren().add(barChart);
     }
 
+    /**
+     * Months in the income/expense chart for the selected period
+     */
+    private int getMonthsToShow() {
+        String selectedPeriod = reportPeriodCombo != null ? reportPeriodCombo.getValue() : "This Month";
+        switch (selectedPeriod) {
+            case "Last 3 Months":
+                return 3;
+            case "This Year":
+                return 12;
+            case "This Week":
+            case "This Month":
+            case "Last 6 Months":
+            default:
+                return 6; // Show last 6 months for context
+        }
+    }
+
     public void refresh() {
         javafx.application.Platform.runLater(this::loadReportData);
     }
+
+    /**
+     * One reusable row of the category popup: name and date, then the amount
+     */
+    private static final class CategoryTransactionCell extends ListCell<Transaction> {
+        private final HBox txRow = new HBox(12);
+        private final Label nameLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label amountLabel = new Label();
+
+        CategoryTransactionCell() {
+            txRow.setAlignment(Pos.CENTER_LEFT);
+            txRow.setPadding(new Insets(10));
+            txRow.setStyle("-fx-background-color: #f8fafc; -fx-background-radius: 8;");
+            
+            VBox details = new VBox(2);
+            HBox.setHgrow(details, Priority.ALWAYS);
+            nameLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 500; -fx-text-fill: #1e293b;");
+            dateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #94a3b8;");
+            details.getChildren().addAll(nameLabel, dateLabel);
+            
+            txRow.getChildren().addAll(details, amountLabel);
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 0 8 0;");
+            setText(null);
+        }
+
+        @Override
+        protected void updateItem(Transaction tx, boolean empty) {
+            super.updateItem(tx, empty);
+            if (empty || tx == null) {
+                setGraphic(null);
+                return;
+            }
+            nameLabel.setText(tx.getName());
+            dateLabel.setText(DateFormatUtil.isoToUkDateTime(tx.getCreateTime()));
+            amountLabel.setText(String.format("$%.2f", tx.getAmount()));
+            String amountColor = tx.getIncome() > 0 ? "#22c55e" : "#ef4444";
+            amountLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 600; -fx-text-fill: " + amountColor + ";");
+            setGraphic(txRow);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package gitgud.pfm.Controllers;
+
+/**
+ * ScreenLifecycle - Hooks for a screen controller whose view is kept and
+ * shown again by the app's view cache instead of being rebuilt per visit.
+ *
+ * A cached screen stays alive, and subscribed to ledger changes, while
+ * other screens are showing. Between onHide and the next onShow it should
+ * not repaint: note that its data went stale and reload it in onShow, so a
+ * hidden screen costs little however often the ledger changes.
+ *
+ * A view is built (and its controller initialized) before its first
+ * onShow, possibly long before when it is preloaded. Both hooks run on the
+ * FX thread.
+ */
+public interface ScreenLifecycle {
+
+    /**
+     * The view was put on screen, including the first time
+     */
+    default void onShow() {
+    }
+
+    /**
+     * The view was taken off screen; it may be shown again later
+     */
+    default void onHide() {
+    }
+}
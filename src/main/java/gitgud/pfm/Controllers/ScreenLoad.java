@@ -0,0 +1,97 @@
+package gitgud.pfm.Controllers;
+
+import gitgud.pfm.services.DataLoadExecutor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+
+/**
+ * ScreenLoad - One region of a screen, loaded off the FX thread.
+ *
+ * load(read, apply) runs read on the DataLoadExecutor and passes its result
+ * to apply on the FX thread. Each new load supersedes the previous one: a
+ * superseded load that has not started never runs, and one already running
+ * has its result dropped, so an older, slower query can never paint over a
+ * newer one. A controller keeps one ScreenLoad per region it refreshes
+ * independently.
+ *
+ * read must not touch the scene graph; apply runs on the FX thread and may.
+ */
+final class ScreenLoad {
+
+    private final String what;
+    private CompletableFuture<?> pending;   // latest load; FX thread only
+
+    /**
+     * @param what Used in error messages, e.g. "dashboard goals"
+     */
+    ScreenLoad(String what) {
+        this.what = what;
+    }
+
+    <T> void load(Supplier<T> read, Consumer<T> apply) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> load(read, apply));
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        CompletableFuture<T> load = DataLoadExecutor.getInstance().submit(read);
+        pending = load;
+        load.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (pending != load) {
+                return; // superseded or cancelled
+            }
+            pending = null;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    System.err.println("Error loading " + what + ": " + cause.getMessage());
+                }
+                return;
+            }
+            apply.accept(result);
+        }));
+    }
+
+    /**
+     * Drop the pending load, if any, without applying it
+     */
+    void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    boolean isLoading() {
+        return pending != null;
+    }
+
+    /**
+     * Shown in a list or chart area while its load is running
+     */
+    static Label placeholder() {
+        Label label = new Label("Loading…");
+        label.setStyle("-fx-text-fill: #94a3b8; -fx-font-size: 14px; -fx-font-style: italic;");
+        return label;
+    }
+
+    /**
+     * Put a placeholder in an empty container. A container that already
+     * shows data keeps it until the reload replaces it, which avoids a
+     * flash of "Loading…" on every refresh.
+     */
+    static void placeholderIfEmpty(Pane container) {
+        if (container != null && container.getChildren().isEmpty()) {
+            container.getChildren().add(placeholder());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package gitgud.pfm.Controllers;
 
 import gitgud.pfm.services.AccountDataLoader;
+import gitgud.pfm.services.ChangeSet;
+import gitgud.pfm.services.EntityChange;
 import gitgud.pfm.Models.Wallet;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -9,6 +11,7 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.*;
 
 import java.net.URL;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -40,8 +43,8 @@ public class SidebarController implements Initializable {
         activeItem = dashboardNavItem;
         dataStore = AccountDataLoader.getInstance();
         
-        // Register for wallet refresh notifications
-        dataStore.addWalletRefreshListener(this::refreshWallets);
+        // Follow wallet changes made on any screen
+        dataStore.getChangeEvents().subscribe(this, SidebarController::onWalletsChanged, Wallet.class);
         
         // Setup click handlers
         setupNavItem(dashboardNavItem, "Dashboard");
@@ -148,6 +151,51 @@ public class SidebarController implements Initializable {
         }
     }
     
+    /**
+     * Patch the selector row by row, keeping the selected wallet; reload it
+     * only when the wallets were reloaded wholesale
+     */
+    private void onWalletsChanged(ChangeSet changes) {
+        if (walletSelector == null) {
+            return;
+        }
+        if (changes.isReloaded(Wallet.class)) {
+            refreshWallets();
+            return;
+        }
+        List<Wallet> items = walletSelector.getItems();
+        Wallet selected = walletSelector.getValue();
+        for (EntityChange<Wallet> change : changes.changes(Wallet.class)) {
+            int index = indexOfWallet(items, change.getId());
+            if (change.isDeleted()) {
+                if (index >= 0) {
+                    items.remove(index);
+                }
+            } else if (index >= 0) {
+                items.set(index, change.getAfter());
+            } else {
+                items.add(change.getAfter());
+            }
+        }
+        items.sort(Comparator.comparing(Wallet::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        // Setting the new copy of the selected wallet fires onAction, which redraws its balance
+        int selectedIndex = selected != null ? indexOfWallet(items, selected.getId()) : -1;
+        if (selectedIndex >= 0) {
+            walletSelector.setValue(items.get(selectedIndex));
+        } else if (!items.isEmpty()) {
+            walletSelector.setValue(items.get(0));
+        }
+    }
+
+    private static int indexOfWallet(List<Wallet> wallets, String walletId) {
+        for (int i = 0; i < wallets.size(); i++) {
+            if (wallets.get(i).getId().equals(walletId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     public Wallet getSelectedWallet() {
         return walletSelector != null ? walletSelector.getValue() : null;
     }
@@ -0,0 +1,127 @@
+package gitgud.pfm.Controllers;
+
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.services.EntityChange;
+import gitgud.pfm.utils.DateFormatUtil;
+import java.time.YearMonth;
+
+/**
+ * SpendingCurves - Cumulative daily spending for this month and last month,
+ * as the dashboard chart draws them.
+ *
+ * Built once from daily expense totals (RollupService.dailyExpenses), then
+ * kept current one transaction at a time: apply() takes the changed
+ * expense out of its old day and adds it to its new one, then re-adds the
+ * running totals from the first day that moved, so an edit costs O(days)
+ * whatever the ledger size. Days are UTC epoch days, as in daily_totals.
+ *
+ * Only touched on the FX thread.
+ */
+final class SpendingCurves {
+
+    private final YearMonth currentMonth;
+    private final long firstDay;          // epoch day of the 1st of last month
+    private final int lastMonthDays;
+    private final long[] daily;           // last month's days, then this month's
+    private final long[] lastMonthTotals; // running total at the end of each day
+    private final long[] thisMonthTotals;
+
+    /**
+     * @param dailyExpenses Cents per day from the 1st of last month to the end of this month
+     */
+    SpendingCurves(YearMonth currentMonth, long[] dailyExpenses) {
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        this.currentMonth = currentMonth;
+        this.firstDay = lastMonth.atDay(1).toEpochDay();
+        this.lastMonthDays = lastMonth.lengthOfMonth();
+        this.daily = dailyExpenses.clone();
+        this.lastMonthTotals = new long[lastMonthDays];
+        this.thisMonthTotals = new long[currentMonth.lengthOfMonth()];
+        accumulate(lastMonthTotals, 0, 0);
+        accumulate(thisMonthTotals, lastMonthDays, 0);
+    }
+
+    YearMonth getCurrentMonth() {
+        return currentMonth;
+    }
+
+    /**
+     * Cents spent this month up to and including each day; index 0 is the 1st
+     */
+    long[] thisMonth() {
+        return thisMonthTotals;
+    }
+
+    /**
+     * Cents spent last month up to and including each day; index 0 is the 1st
+     */
+    long[] lastMonth() {
+        return lastMonthTotals;
+    }
+
+    /**
+     * Whether apply can follow the change. An update or delete made while
+     * the transactions were not cached has no old row to take out.
+     */
+    static boolean canApply(EntityChange<Transaction> change) {
+        return change.isInserted() || change.getBefore() != null;
+    }
+
+    /**
+     * Move one transaction change into the curves; see canApply
+     *
+     * @return whether either curve changed
+     */
+    boolean apply(EntityChange<Transaction> change) {
+        int before = dayOf(change.getBefore());
+        int after = dayOf(change.getAfter());
+        if (before < 0 && after < 0) {
+            return false;
+        }
+        if (before >= 0) {
+            daily[before] -= change.getBefore().getAmountCents();
+        }
+        if (after >= 0) {
+            daily[after] += change.getAfter().getAmountCents();
+        }
+        reaccumulateFrom(before);
+        reaccumulateFrom(after);
+        return true;
+    }
+
+    /**
+     * Bring the curve of the month holding a changed day up to date
+     */
+    private void reaccumulateFrom(int day) {
+        if (day < 0) {
+            return;
+        }
+        if (day < lastMonthDays) {
+            accumulate(lastMonthTotals, 0, day);
+        } else {
+            accumulate(thisMonthTotals, lastMonthDays, day - lastMonthDays);
+        }
+    }
+
+    /**
+     * Index into daily of an expense in the two months, or -1
+     */
+    private int dayOf(Transaction transaction) {
+        if (transaction == null || transaction.getIncome() > 0 || transaction.getCreateTimeMillis() == 0) {
+            return -1;
+        }
+        long index = DateFormatUtil.epochDay(transaction.getCreateTimeMillis()) - firstDay;
+        return index >= 0 && index < daily.length ? (int) index : -1;
+    }
+
+    /**
+     * Recompute totals[from..] from daily[offset + from..]
+     */
+    private void accumulate(long[] totals, int offset, int from) {
+        long running = from > 0 ? totals[from - 1] : 0;
+        for (int day = from; day < totals.length; day++) {
+            running += daily[offset + day];
+            totals[day] = running;
+        }
+    }
+}
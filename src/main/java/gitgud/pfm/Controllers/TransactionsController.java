@@ -3,8 +3,13 @@ package gitgud.pfm.Controllers;
 import gitgud.pfm.services.AccountDataLoader;
 import gitgud.pfm.Models.Category;
 import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
 import gitgud.pfm.Models.Wallet;
 import gitgud.pfm.services.CategoryService;
+import gitgud.pfm.services.ChangeSet;
+import gitgud.pfm.services.CsvTransactionImporter;
+import gitgud.pfm.services.TransactionService;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -15,55 +20,75 @@ import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
 
 import gitgud.pfm.utils.DateFormatUtil;
 
-public class TransactionsController implements Initializable {
+public class TransactionsController implements Initializable, ScreenLifecycle {
 
     @FXML private BorderPane rootPane;
     @FXML private Button addTransactionButton;
+    @FXML private Button importCsvButton;
     @FXML private ComboBox<String> categoryFilter;
     @FXML private ComboBox<String> typeFilter;
     @FXML private DatePicker fromDatePicker;
     @FXML private DatePicker toDatePicker;
     @FXML private TextField searchField;
     @FXML private Button clearFiltersButton;
-    @FXML private VBox transactionsList;
-    @FXML private Button prevPageButton;
-    @FXML private Button nextPageButton;
-    @FXML private Label pageInfoLabel;
+    @FXML private ListView<Transaction> transactionsList;
+    @FXML private Label resultCountLabel;
+
+    // Rows read from the database per block of the scrolling list
+    private static final int BLOCK_ROWS = 100;
+    private static final double ROW_HEIGHT = 58;
+
+    // Import dialog choices; the hints preselect columns by header name
+    private static final String[] CSV_DELIMITER_NAMES = {"Comma", "Semicolon", "Tab"};
+    private static final char[] CSV_DELIMITERS = {',', ';', '\t'};
+    private static final String[] DATE_HINTS = {"date"};
+    private static final String[] DESCRIPTION_HINTS = {"description", "details", "memo", "payee", "narrative"};
+    private static final String[] AMOUNT_HINTS = {"amount", "paid out", "debit", "money out"};
+    private static final String[] CREDIT_HINTS = {"paid in", "credit", "money in"};
 
     private AccountDataLoader dataStore;
     private CategoryService categoryService;
+    private TransactionService transactionService;
     private Map<String, String> categoryIdToNameMap;
     private Map<String, String> walletIdToNameMap;
-    private int currentPage = 1;
-    private int itemsPerPage = 20;
-    private List<Transaction> filteredTransactions;
+    private PagedTransactionList rows;
+    private boolean noCategoryMatch;
+    private final ScreenLoad listLoad = new ScreenLoad("transactions");
+    private boolean showing;
+    private boolean stale;       // rows changed while hidden; re-read on show
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         dataStore = AccountDataLoader.getInstance();
         categoryService = new CategoryService();
+        transactionService = new TransactionService();
         
         // Build category & wallet mappings
         buildCategoryMap();
         buildWalletMap();
         
         addTransactionButton.setOnAction(e -> showAddTransactionDialog());
-        prevPageButton.setOnAction(e -> previousPage());
-        nextPageButton.setOnAction(e -> nextPage());
+        if (importCsvButton != null) {
+            importCsvButton.setOnAction(e -> showImportCsvDialog());
+        }
+        setupTransactionsList();
         
         // Configure DatePickers for UK format
         DateFormatUtil.configureDatePickerUkFormat(fromDatePicker);
@@ -81,8 +106,53 @@ public class TransactionsController implements Initializable {
         toDatePicker.setOnAction(e -> applyFilters());
         searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
         
+        // Edits made anywhere are patched into the rows shown; other changes re-read the list
+        dataStore.getChangeEvents().subscribe(this, TransactionsController::onLedgerChanged,
+                Transaction.class, Wallet.class);
+        
         loadTransactions();
     }
+
+    /**
+     * One ListView over every matching row. Only the rows on screen get a
+     * cell, and cells are reused as the list scrolls; the fixed row height
+     * spares the ListView from measuring rows it has not shown.
+     */
+    private void setupTransactionsList() {
+        transactionsList.setCellFactory(list -> new TransactionCell());
+        transactionsList.setFixedCellSize(ROW_HEIGHT);
+        transactionsList.setFocusTraversable(false);
+        transactionsList.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        transactionsList.setPlaceholder(ScreenLoad.placeholder());
+    }
+
+    private void onLedgerChanged(ChangeSet changes) {
+        if (changes.touches(Wallet.class)) {
+            buildWalletMap();
+            transactionsList.refresh(); // wallet names
+        }
+        if (changes.touches(Transaction.class) && (rows == null || !rows.patch(changes))) {
+            if (showing) {
+                loadTransactions();
+            } else {
+                stale = true;
+            }
+        }
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            loadTransactions();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
     
     private void clearFilters() {
         categoryFilter.setValue("All Categories");
@@ -90,7 +160,6 @@ public class TransactionsController implements Initializable {
         fromDatePicker.setValue(null);
         toDatePicker.setValue(null);
         searchField.clear();
-        currentPage = 1;
         loadTransactions();
     }
     
@@ -126,155 +195,184 @@ public class TransactionsController implements Initializable {
     }
 
     private void applyFilters() {
-        currentPage = 1;
         loadTransactions();
     }
 
+    /**
+     * Translate the filter controls into criteria the service runs as SQL.
+     * The category box matches names, so it is resolved to the ids whose
+     * name contains the selected text.
+     */
+    private TransactionCriteria buildCriteria() {
+        TransactionCriteria.Builder builder = TransactionCriteria.builder();
+        noCategoryMatch = false;
+
+        String categoryFilterValue = categoryFilter.getValue();
+        if (categoryFilterValue != null && !categoryFilterValue.equals("All Categories")) {
+            String wanted = categoryFilterValue.toLowerCase();
+            List<String> categoryIds = new ArrayList<>();
+            for (Map.Entry<String, String> entry : categoryIdToNameMap.entrySet()) {
+                if (entry.getValue().toLowerCase().contains(wanted)) {
+                    categoryIds.add(entry.getKey());
+                }
+            }
+            noCategoryMatch = categoryIds.isEmpty();
+            builder.categoryId(categoryIds);
+        }
+
+        String type = typeFilter.getValue();
+        if ("Income".equals(type)) {
+            builder.income(1.0);
+        } else if ("Expense".equals(type)) {
+            builder.income(0.0);
+        }
+
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        if (fromDate != null) {
+            builder.dateFrom(DateFormatUtil.formatToIso(fromDate));
+        }
+        if (toDate != null) {
+            builder.dateTo(DateFormatUtil.formatToIso(toDate));
+        }
+
+        String search = searchField.getText();
+        if (search != null && !search.isEmpty()) {
+            builder.nameContains(search);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read the list again with the current filters: one COUNT, one pass for
+     * the block keys and the first block, all off the FX thread. Typing in
+     * the search box supersedes the previous read.
+     */
     private void loadTransactions() {
-        transactionsList.getChildren().clear();
         buildWalletMap(); // refresh wallet names in case wallets changed
+        TransactionCriteria wanted = buildCriteria();
+        boolean none = noCategoryMatch;
         
-        List<Transaction> allTransactions = dataStore.getTransactions();
-        
-        // Apply filters
-        filteredTransactions = allTransactions.stream()
-                .filter(tx -> {
-                    // Category filter - match by category name
-                    String categoryFilterValue = categoryFilter.getValue();
-                    if (categoryFilterValue != null && !categoryFilterValue.equals("All Categories")) {
-                        String txCategoryName = getCategoryNameById(tx.getCategoryId());
-                        // Match if category name contains filter value (case insensitive)
-                        if (!txCategoryName.toLowerCase().contains(categoryFilterValue.toLowerCase())) {
-                            return false;
-                        }
-                    }
-                    
-                    // Type filter
-                    String type = typeFilter.getValue();
-                    if (type != null && !type.equals("All Types")) {
-                        if (type.equals("Income") && tx.getIncome() <= 0) return false;
-                        if (type.equals("Expense") && tx.getIncome() > 0) return false;
-                    }
-                    
-                    // Date filter
-                    LocalDate fromDate = fromDatePicker.getValue();
-                    LocalDate toDate = toDatePicker.getValue();
-                    if (fromDate != null || toDate != null) {
-                        try {
-                            String createTime = tx.getCreateTime();
-                            LocalDate txDate;
-                            try {
-                                txDate = LocalDate.parse(createTime.substring(0, 10));
-                            } catch (Exception e) {
-                                return true; // Include if date can't be parsed
-                            }
-                            
-                            if (fromDate != null && txDate.isBefore(fromDate)) return false;
-                            if (toDate != null && txDate.isAfter(toDate)) return false;
-                        } catch (Exception e) {
-                            // Include transaction if date parsing fails
-                        }
-                    }
-                    
-                    // Search filter
-                    String search = searchField.getText();
-                    if (search != null && !search.isEmpty()) {
-                        if (!tx.getName().toLowerCase().contains(search.toLowerCase())) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .sorted((a, b) -> b.getCreateTime().compareTo(a.getCreateTime()))
-                .collect(Collectors.toList());
-        
-        // Pagination
-        int totalPages = Math.max(1, (int) Math.ceil((double) filteredTransactions.size() / itemsPerPage));
-        int startIndex = (currentPage - 1) * itemsPerPage;
-        int endIndex = Math.min(startIndex + itemsPerPage, filteredTransactions.size());
+        listLoad.load(() -> none
+                ? PagedTransactionList.empty(transactionService, BLOCK_ROWS)
+                : PagedTransactionList.read(transactionService, wanted, BLOCK_ROWS),
+                this::showTransactions);
+    }
+
+    private void showTransactions(PagedTransactionList loaded) {
+        rows = loaded;
+        transactionsList.setItems(loaded);
+        transactionsList.scrollTo(0);
         
-        List<Transaction> pageTransactions = filteredTransactions.subList(startIndex, endIndex);
+        Label emptyLabel = new Label("No transactions found");
+        emptyLabel.setStyle("-fx-text-fill: #64748b; -fx-font-size: 14px;");
+        transactionsList.setPlaceholder(emptyLabel);
         
-        for (Transaction tx : pageTransactions) {
-            HBox txItem = createTransactionItem(tx);
-            transactionsList.getChildren().add(txItem);
+        resultCountLabel.setText(loaded.size() == 1 ? "1 transaction" : String.format("%,d transactions", loaded.size()));
+    }
+
+    /**
+     * One reusable row of the list. The row's nodes are built once per
+     * cell; updateItem only changes their text and colours.
+     */
+    private final class TransactionCell extends ListCell<Transaction> {
+        private final HBox item = new HBox(16);
+        private final Label nameLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label walletLabel = new Label();
+        private final Label amountLabel = new Label();
+        private final Button editBtn = new Button("✎");
+
+        TransactionCell() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(14, 18, 14, 18));
+            item.setStyle("-fx-background-color: #f1f5f9; -fx-background-radius: 10;");
+
+            // Transaction name only (no category below since there's a dedicated category column)
+            nameLabel.setPrefWidth(180);
+            nameLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 500; -fx-text-fill: #1e293b;");
+            categoryLabel.setPrefWidth(140);
+            categoryLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
+            dateLabel.setPrefWidth(140);
+            dateLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
+            walletLabel.setPrefWidth(140);
+            walletLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+
+            amountLabel.setPrefWidth(100);
+            amountLabel.setAlignment(Pos.CENTER_RIGHT);
+
+            // Edit button with pencil icon
+            editBtn.setStyle("-fx-background-color: transparent; -fx-cursor: hand; -fx-font-size: 16px; " +
+                    "-fx-text-fill: #64748b; -fx-padding: 4 8;");
+            editBtn.setOnMouseEntered(e -> editBtn.setStyle("-fx-background-color: #f1f5f9; -fx-cursor: hand; " +
+                    "-fx-font-size: 16px; -fx-text-fill: #3b82f6; -fx-padding: 4 8; -fx-background-radius: 6;"));
+            editBtn.setOnMouseExited(e -> editBtn.setStyle("-fx-background-color: transparent; -fx-cursor: hand; " +
+                    "-fx-font-size: 16px; -fx-text-fill: #64748b; -fx-padding: 4 8;"));
+            editBtn.setOnAction(e -> editShown());
+
+            item.getChildren().addAll(nameLabel, categoryLabel, dateLabel, walletLabel, spacer, amountLabel, editBtn);
+
+            item.setOnMouseClicked(event -> {
+                if (isPrimaryDoubleClick(event)) {
+                    editShown();
+                }
+            });
+
+            // Gap between rows; no selection highlight
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 0 8 0;");
+            setText(null);
         }
-        
-        if (pageTransactions.isEmpty()) {
-            Label emptyLabel = new Label("No transactions found");
-            emptyLabel.setStyle("-fx-text-fill: #64748b; -fx-font-size: 14px;");
-            transactionsList.getChildren().add(emptyLabel);
+
+        @Override
+        protected void updateItem(Transaction tx, boolean empty) {
+            super.updateItem(tx, empty);
+            if (empty) {
+                setGraphic(null);
+                return;
+            }
+            if (tx == null) {
+                // Block still being read
+                nameLabel.setText("Loading…");
+                categoryLabel.setText("");
+                dateLabel.setText("");
+                walletLabel.setText("");
+                amountLabel.setText("");
+                editBtn.setVisible(false);
+            } else {
+                nameLabel.setText(tx.getName());
+                categoryLabel.setText(getCategoryNameById(tx.getCategoryId()));
+                // Date - display in UK format
+                dateLabel.setText(DateFormatUtil.isoToUkDateTime(tx.getCreateTime()));
+                walletLabel.setText(getWalletNameById(tx.getWalletId()));
+
+                String sign = tx.getIncome() > 0 ? "+" : "-";
+                String color = tx.getIncome() > 0 ? "#22c55e" : "#ef4444";
+                amountLabel.setText(sign + String.format("$%.2f", tx.getAmount()));
+                amountLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 600; -fx-text-fill: " + color + ";");
+                editBtn.setVisible(true);
+            }
+            setGraphic(item);
         }
-        
-        // Update pagination info
-        pageInfoLabel.setText(String.format("Page %d of %d", currentPage, totalPages));
-        prevPageButton.setDisable(currentPage <= 1);
-        nextPageButton.setDisable(currentPage >= totalPages);
-    }
 
-    private HBox createTransactionItem(Transaction tx) {
-        HBox item = new HBox(16);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(14, 18, 14, 18));
-        item.setStyle("-fx-background-color: #f1f5f9; -fx-background-radius: 10;");
-        VBox.setMargin(item, new Insets(0, 0, 8, 0));
-
-        // Transaction name only (no category below since there's a dedicated category column)
-        Label nameLabel = new Label(tx.getName());
-        nameLabel.setPrefWidth(180);
-        nameLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 500; -fx-text-fill: #1e293b;");
-
-        // Category
-        String categoryName = getCategoryNameById(tx.getCategoryId());
-        Label categoryLabel = new Label(categoryName);
-        categoryLabel.setPrefWidth(140);
-        categoryLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
-
-        // Date - display in UK format
-        String displayDate = DateFormatUtil.isoToUkDateTime(tx.getCreateTime());
-        Label dateLabel = new Label(displayDate);
-        dateLabel.setPrefWidth(140);
-        dateLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
-
-        // Wallet
-        Label walletLabel = new Label(getWalletNameById(tx.getWalletId()));
-        walletLabel.setPrefWidth(140);
-        walletLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b;");
-
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-
-        // Amount
-        String sign = tx.getIncome() > 0 ? "+" : "-";
-        String color = tx.getIncome() > 0 ? "#22c55e" : "#ef4444";
-        Label amountLabel = new Label(sign + String.format("$%.2f", tx.getAmount()));
-        amountLabel.setPrefWidth(100);
-        amountLabel.setAlignment(Pos.CENTER_RIGHT);
-        amountLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 600; -fx-text-fill: " + color + ";");
-
-        // Edit button with pencil icon
-        Button editBtn = new Button("✎");
-        editBtn.setStyle("-fx-background-color: transparent; -fx-cursor: hand; -fx-font-size: 16px; " +
-                "-fx-text-fill: #64748b; -fx-padding: 4 8;");
-        editBtn.setOnMouseEntered(e -> editBtn.setStyle("-fx-background-color: #f1f5f9; -fx-cursor: hand; " +
-                "-fx-font-size: 16px; -fx-text-fill: #3b82f6; -fx-padding: 4 8; -fx-background-radius: 6;"));
-        editBtn.setOnMouseExited(e -> editBtn.setStyle("-fx-background-color: transparent; -fx-cursor: hand; " +
-                "-fx-font-size: 16px; -fx-text-fill: #64748b; -fx-padding: 4 8;"));
-        editBtn.setOnAction(e -> showEditTransactionDialog(tx));
-
-        item.getChildren().addAll(nameLabel, categoryLabel, dateLabel, walletLabel, spacer, amountLabel, editBtn);
-
-        item.setOnMouseClicked(event -> {
-            if (isPrimaryDoubleClick(event)) {
+        private void editShown() {
+            Transaction tx = getItem();
+            if (tx != null) {
                 showEditTransactionDialog(tx);
             }
-        });
-
-        return item;
+        }
     }
 
-    private void showEditTransactionDialog(Transaction tx) {
+    private void showEditTransactionDialog(Transaction shown) {
+        // Edit a private copy: the shown row is the cache's, and its old values
+        // must survive until the update publishes them
+        Transaction tx = dataStore.getTransactionById(shown.getId());
+        if (tx == null) {
+            return;
+        }
         try {
             // Create popup stage
             Stage popupStage = new Stage();
@@ -288,15 +386,11 @@ public class TransactionsController implements Initializable {
             formController.setDialogStage(popupStage);
             formController.setFormRoot(formRoot);
             formController.setTransaction(tx);
-            formController.setOnSaveCallback(() -> refresh());
             
-            // Show the dialog
+            // Show the dialog; the change events update the list
             Scene scene = new Scene(formRoot, 720, 520);
             popupStage.setScene(scene);
             popupStage.showAndWait();
-            
-            // Refresh transactions after popup closes
-            refresh();
         } catch (IOException e) {
             System.err.println("Error loading Edit Transaction dialog: " + e.getMessage());
             e.printStackTrace();
@@ -306,21 +400,6 @@ public class TransactionsController implements Initializable {
             alert.showAndWait();
         }
     }
-    private void previousPage() {
-        if (currentPage > 1) {
-            currentPage--;
-            loadTransactions();
-        }
-    }
-
-    private void nextPage() {
-        int totalPages = (int) Math.ceil((double) filteredTransactions.size() / itemsPerPage);
-        if (currentPage < totalPages) {
-            currentPage++;
-            loadTransactions();
-        }
-    }
-
     @FXML
     private void showAddTransactionDialog() {
         try {
@@ -342,13 +421,10 @@ public class TransactionsController implements Initializable {
             AddTransactionCategoryController categoryController = categoryLoader.getController();
             categoryController.setFormController(formController);
             
-            // Start with category selection
+            // Start with category selection; the change events update the list
             Scene scene = new Scene(categoryRoot, 720, 600);
             popupStage.setScene(scene);
             popupStage.showAndWait();
-            
-            // Refresh transactions after popup closes
-            refresh();
         } catch (IOException e) {
             System.err.println("Error loading Add Transaction dialog: " + e.getMessage());
             e.printStackTrace();
@@ -359,8 +435,211 @@ public class TransactionsController implements Initializable {
         }
     }
 
+    /**
+     * Pick a statement CSV, map its columns, and import it into a wallet.
+     * The import runs off the FX thread; the list refreshes when it is done.
+     */
+    private void showImportCsvDialog() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Bank Statement");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(rootPane.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        List<Wallet> wallets = dataStore.getWallets();
+        if (wallets.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Import CSV");
+            alert.setHeaderText(null);
+            alert.setContentText("Create a wallet before importing transactions.");
+            alert.showAndWait();
+            return;
+        }
+        List<String> header = CsvTransactionImporter.readHeader(file.toPath(), ',');
+        // A single column holding ';' is a continental statement
+        boolean semicolons = header.size() == 1 && header.get(0).indexOf(';') >= 0;
+        if (semicolons) {
+            header = CsvTransactionImporter.readHeader(file.toPath(), ';');
+        }
+
+        Dialog<CsvTransactionImporter.Mapping> dialog = new Dialog<>();
+        dialog.setTitle("Import CSV");
+        dialog.setHeaderText("Map the columns of " + file.getName());
+        ButtonType importButtonType = new ButtonType("Import", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(importButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(15);
+        grid.setPadding(new Insets(20));
+
+        ComboBox<Wallet> walletBox = new ComboBox<>();
+        walletBox.getItems().addAll(wallets);
+        walletBox.setConverter(new javafx.util.StringConverter<Wallet>() {
+            @Override
+            public String toString(Wallet wallet) {
+                return wallet != null ? wallet.getName() : "";
+            }
+            @Override
+            public Wallet fromString(String string) {
+                return null;
+            }
+        });
+        walletBox.getSelectionModel().selectFirst();
+
+        ComboBox<String> delimiterBox = new ComboBox<>();
+        delimiterBox.getItems().addAll(CSV_DELIMITER_NAMES);
+        delimiterBox.getSelectionModel().select(semicolons ? 1 : 0);
+        ComboBox<String> decimalBox = new ComboBox<>();
+        decimalBox.getItems().addAll("Point (1,234.56)", "Comma (1.234,56)");
+        decimalBox.getSelectionModel().select(semicolons ? 1 : 0);
+
+        ComboBox<String> dateBox = columnChoice(header, "Date", DATE_HINTS);
+        ComboBox<String> descriptionBox = columnChoice(header, "Description", DESCRIPTION_HINTS);
+        ComboBox<String> amountBox = columnChoice(header, "Amount", AMOUNT_HINTS);
+        ComboBox<String> creditBox = columnChoice(header, "Paid in", CREDIT_HINTS);
+        delimiterBox.setOnAction(e -> {
+            // The columns split differently, so list and guess them again
+            List<String> columns = CsvTransactionImporter.readHeader(file.toPath(),
+                    CSV_DELIMITERS[Math.max(delimiterBox.getSelectionModel().getSelectedIndex(), 0)]);
+            selectColumn(dateBox, columns, "Date", DATE_HINTS);
+            selectColumn(descriptionBox, columns, "Description", DESCRIPTION_HINTS);
+            selectColumn(amountBox, columns, "Amount", AMOUNT_HINTS);
+            selectColumn(creditBox, columns, "Paid in", CREDIT_HINTS);
+        });
+
+        ComboBox<String> signBox = new ComboBox<>();
+        signBox.getItems().addAll("Negative amounts are expenses", "Positive amounts are expenses",
+                "Separate money-out and money-in columns");
+        signBox.getSelectionModel().selectFirst();
+        Label amountLabel = new Label("Amount column:");
+        Label creditLabel = new Label("Money-in column:");
+        creditBox.setDisable(true);
+        signBox.setOnAction(e -> {
+            boolean separate = signBox.getSelectionModel().getSelectedIndex() == 2;
+            creditBox.setDisable(!separate);
+            amountLabel.setText(separate ? "Money-out column:" : "Amount column:");
+        });
+
+        TextField datePatternField = new TextField(DateFormatUtil.UK_DATE_PROMPT);
+        datePatternField.setPromptText("e.g. dd/MM/yyyy or yyyy-MM-dd");
+
+        grid.add(new Label("Wallet:"), 0, 0);
+        grid.add(walletBox, 1, 0);
+        grid.add(new Label("Column separator:"), 0, 1);
+        grid.add(delimiterBox, 1, 1);
+        grid.add(new Label("Decimal separator:"), 0, 2);
+        grid.add(decimalBox, 1, 2);
+        grid.add(new Label("Date column:"), 0, 3);
+        grid.add(dateBox, 1, 3);
+        grid.add(new Label("Date format:"), 0, 4);
+        grid.add(datePatternField, 1, 4);
+        grid.add(new Label("Description column:"), 0, 5);
+        grid.add(descriptionBox, 1, 5);
+        grid.add(new Label("Expenses:"), 0, 6);
+        grid.add(signBox, 1, 6);
+        grid.add(amountLabel, 0, 7);
+        grid.add(amountBox, 1, 7);
+        grid.add(creditLabel, 0, 8);
+        grid.add(creditBox, 1, 8);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().setPrefWidth(520);
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton != importButtonType) {
+                return null;
+            }
+            try {
+                int sign = signBox.getSelectionModel().getSelectedIndex();
+                return CsvTransactionImporter.Mapping.builder()
+                        .delimiter(CSV_DELIMITERS[Math.max(delimiterBox.getSelectionModel().getSelectedIndex(), 0)])
+                        .decimalSeparator(decimalBox.getSelectionModel().getSelectedIndex() == 1 ? ',' : '.')
+                        .dateColumn(dateBox.getValue())
+                        .descriptionColumn(descriptionBox.getValue())
+                        .amountColumn(amountBox.getValue())
+                        .creditColumn(creditBox.getValue())
+                        .sign(CsvTransactionImporter.SignConvention.values()[Math.max(sign, 0)])
+                        .datePattern(datePatternField.getText().trim())
+                        .build();
+            } catch (IllegalArgumentException ex) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setContentText("Invalid date format: " + ex.getMessage());
+                alert.show();
+                return null;
+            }
+        });
+
+        Optional<CsvTransactionImporter.Mapping> mapping = dialog.showAndWait();
+        Wallet wallet = walletBox.getValue();
+        if (mapping.isEmpty() || wallet == null) {
+            return;
+        }
+
+        Task<CsvTransactionImporter.Result> importTask = new Task<>() {
+            @Override
+            protected CsvTransactionImporter.Result call() {
+                return new CsvTransactionImporter(mapping.get())
+                        .importFile(file.toPath(), wallet.getId(), dataStore::addTransactions);
+            }
+        };
+        importTask.setOnSucceeded(e -> {
+            importCsvButton.setDisable(false);
+            importCsvButton.setText("Import CSV");
+            CsvTransactionImporter.Result result = importTask.getValue();
+            Alert alert = new Alert(result.isFailed() ? Alert.AlertType.ERROR : Alert.AlertType.INFORMATION);
+            alert.setTitle("Import CSV");
+            alert.setHeaderText(result.summary());
+            if (!result.getErrors().isEmpty()) {
+                alert.setContentText(String.join("\n", result.getErrors()));
+            }
+            alert.showAndWait();
+        });
+        importTask.setOnFailed(e -> {
+            importCsvButton.setDisable(false);
+            importCsvButton.setText("Import CSV");
+            System.err.println("Error importing CSV: " + importTask.getException().getMessage());
+        });
+
+        importCsvButton.setDisable(true);
+        importCsvButton.setText("Importing...");
+        Thread worker = new Thread(importTask, "csv-import");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Editable column picker listing the header, preselecting the first
+     * column whose name contains one of the hints
+     */
+    private ComboBox<String> columnChoice(List<String> header, String fallback, String... hints) {
+        ComboBox<String> box = new ComboBox<>();
+        box.setEditable(true);
+        selectColumn(box, header, fallback, hints);
+        return box;
+    }
+
+    /**
+     * Refill a column picker with the header and preselect as columnChoice
+     */
+    private void selectColumn(ComboBox<String> box, List<String> header, String fallback, String... hints) {
+        box.getItems().setAll(header);
+        box.setValue(fallback);
+        for (String hint : hints) {
+            for (String name : header) {
+                if (name.toLowerCase().contains(hint)) {
+                    box.setValue(name);
+                    return;
+                }
+            }
+        }
+    }
+
     public void refresh() {
-        currentPage = 1;
         loadTransactions();
     }
 
@@ -2,6 +2,7 @@ package gitgud.pfm.Controllers;
 
 import gitgud.pfm.services.AccountDataLoader;
 import gitgud.pfm.Models.Wallet;
+import gitgud.pfm.utils.Money;
 import javafx.animation.*;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -19,7 +20,7 @@ import java.util.ResourceBundle;
 // Wallets are user accounts representing different financial sources
 // All this should be refactored to Wallets later
 // Why not now tho?
-public class WalletsController implements Initializable {
+public class WalletsController implements Initializable, ScreenLifecycle {
 
     @FXML private ScrollPane rootPane;
     @FXML private VBox mainContent;
@@ -31,6 +32,10 @@ public class WalletsController implements Initializable {
     @FXML private VBox walletsList;
 
     private AccountDataLoader dataStore;
+    private final ScreenLoad summaryLoad = new ScreenLoad("wallet summary");
+    private final ScreenLoad walletsLoad = new ScreenLoad("wallets");
+    private boolean showing;
+    private boolean stale;       // wallets changed while hidden; re-read on show
     
     // Predefined color options
     private static final String[] COLOR_OPTIONS = {
@@ -61,6 +66,9 @@ public class WalletsController implements Initializable {
         styleAddWalletButton();
         addWalletButton.setOnAction(e -> showAddWalletDialog());
         
+        // Balances move with every transaction, wherever it is entered
+        dataStore.getChangeEvents().subscribe(this, (wallets, changes) -> wallets.reloadWhenShown(), Wallet.class);
+        
         loadWallets();
         updateSummary();
         
@@ -220,32 +228,38 @@ public class WalletsController implements Initializable {
     }
 
     private void updateSummary() {
-        List<Wallet> wallets = dataStore.getWallets();
-
-        // Calculate total assets (positive balances = money you have)
-        double totalAssets = wallets.stream()
-            .mapToDouble(Wallet::getBalance)
-            .filter(balance -> balance > 0)
-            .sum();
+        summaryLoad.load(dataStore::getWallets, this::showSummary);
+    }
 
-        // Calculate total liabilities (negative balances = money you owe)
-        double totalLiabilities = wallets.stream()
-            .mapToDouble(Wallet::getBalance)
-            .filter(balance -> balance < 0)
-            .map(Math::abs)
-            .sum();
+    private void showSummary(List<Wallet> wallets) {
+        // Total assets (positive balances = money you have) and
+        // total liabilities (negative balances = money you owe), in cents
+        long totalAssets = 0;
+        long totalLiabilities = 0;
+        for (Wallet wallet : wallets) {
+            long balance = wallet.getBalanceCents();
+            if (balance > 0) {
+                totalAssets += balance;
+            } else if (balance < 0) {
+                totalLiabilities -= balance;
+            }
+        }
 
         // Net worth = assets - liabilities
-        double netWorth = totalAssets - totalLiabilities;
+        long netWorth = totalAssets - totalLiabilities;
 
-        totalAssetsLabel.setText(String.format("$%.2f", totalAssets));
-        totalLiabilitiesLabel.setText(String.format("$%.2f", totalLiabilities));
-        netWorthLabel.setText(String.format("$%.2f", netWorth));
+        totalAssetsLabel.setText(String.format("$%.2f", Money.toDouble(totalAssets)));
+        totalLiabilitiesLabel.setText(String.format("$%.2f", Money.toDouble(totalLiabilities)));
+        netWorthLabel.setText(String.format("$%.2f", Money.toDouble(netWorth)));
     }
 
     private void loadWallets() {
+        ScreenLoad.placeholderIfEmpty(walletsList);
+        walletsLoad.load(dataStore::getWallets, this::showWallets);
+    }
+
+    private void showWallets(List<Wallet> wallets) {
         walletsList.getChildren().clear();
-        List<Wallet> wallets = dataStore.getWallets();
         
         int index = 0;
         for (Wallet wallet : wallets) {
@@ -421,7 +435,12 @@ public class WalletsController implements Initializable {
         return defaultColor;
     }
 
-    private void showEditWalletDialog(Wallet wallet) {
+    private void showEditWalletDialog(Wallet shown) {
+        // The dialog writes into the wallet; give it a copy, not the cached row
+        Wallet wallet = dataStore.getWalletById(shown.getId());
+        if (wallet == null) {
+            return;
+        }
         Dialog<Wallet> dialog = new Dialog<>();
         dialog.setTitle("Edit Wallet");
         dialog.setHeaderText("Modify wallet details");
@@ -494,8 +513,6 @@ public class WalletsController implements Initializable {
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         dataStore.deleteWallet(wallet.getId());
-                        dataStore.notifyWalletRefresh();
-                        refresh();
                     }
                 });
                 return null;
@@ -505,8 +522,6 @@ public class WalletsController implements Initializable {
 
         dialog.showAndWait().ifPresent(updatedWallet -> {
             dataStore.updateWallet(updatedWallet);
-            dataStore.notifyWalletRefresh();
-            refresh();
         });
     }
 
@@ -610,11 +625,34 @@ public class WalletsController implements Initializable {
 
         dialog.showAndWait().ifPresent(wallet -> {
             dataStore.addWallet(wallet);
-            dataStore.notifyWalletRefresh();
-            refresh();
         });
     }
 
+    /**
+     * Re-read now if on screen, otherwise when next shown
+     */
+    private void reloadWhenShown() {
+        if (showing) {
+            refresh();
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            refresh();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
+
     public void refresh() {
         loadWallets();
         updateSummary();
@@ -1,13 +1,14 @@
 package gitgud.pfm.Models;
 
 import gitgud.pfm.utils.IdGenerator;
+import gitgud.pfm.utils.Money;
 
 public class Budget extends FinancialEntity {
     public enum PeriodType {
         WEEKLY, MONTHLY, YEARLY, CUSTOM
     }
     
-    private double limitAmount;
+    private long limitCents;
     private String startDate;
     private String endDate;
     private PeriodType periodType; // WEEKLY, MONTHLY, YEARLY, CUSTOM
@@ -16,13 +17,13 @@ public class Budget extends FinancialEntity {
 
     // No-arg constructor required for reflection-based mapping (do not auto-persist)
     public Budget() {
-        super(null, null, 0.0);
+        super(null, null, 0L);
         this.periodType = PeriodType.MONTHLY; // Default to monthly
     }
     
     public Budget(String name, double limitAmount, double balance, String startDate, String endDate) {
-        super(IdGenerator.generateBudgetId(), name, balance);
-        this.limitAmount = limitAmount;
+        super(IdGenerator.generateBudgetId(), name, Money.toCents(balance));
+        this.limitCents = Money.toCents(limitAmount);
         this.startDate = startDate;
         this.endDate = endDate;
         this.periodType = PeriodType.CUSTOM;
@@ -32,8 +33,8 @@ public class Budget extends FinancialEntity {
     
     public Budget(String name, double limitAmount, double balance, String startDate, 
                   String endDate, PeriodType periodType, String walletId) {
-        super(IdGenerator.generateBudgetId(), name, balance);
-        this.limitAmount = limitAmount;
+        super(IdGenerator.generateBudgetId(), name, Money.toCents(balance));
+        this.limitCents = Money.toCents(limitAmount);
         this.startDate = startDate;
         this.endDate = endDate;
         this.periodType = periodType != null ? periodType : PeriodType.CUSTOM;
@@ -43,8 +44,8 @@ public class Budget extends FinancialEntity {
     
     public Budget(String name, double limitAmount, double balance, String startDate, 
                   String endDate, PeriodType periodType, String walletId, String categoryId) {
-        super(IdGenerator.generateBudgetId(), name, balance);
-        this.limitAmount = limitAmount;
+        super(IdGenerator.generateBudgetId(), name, Money.toCents(balance));
+        this.limitCents = Money.toCents(limitAmount);
         this.startDate = startDate;
         this.endDate = endDate;
         this.periodType = periodType != null ? periodType : PeriodType.CUSTOM;
@@ -52,8 +53,11 @@ public class Budget extends FinancialEntity {
         this.categoryId = categoryId;
     }
     
-    public double getLimitAmount() { return limitAmount; }
-    public void setLimitAmount(double limitAmount) { this.limitAmount = limitAmount; }
+    public long getLimitCents() { return limitCents; }
+    public void setLimitCents(long limitCents) { this.limitCents = limitCents; }
+    
+    public double getLimitAmount() { return Money.toDouble(limitCents); }
+    public void setLimitAmount(double limitAmount) { this.limitCents = Money.toCents(limitAmount); }
     
     public String getStartDate() { return startDate; }
     public void setStartDate(String startDate) { this.startDate = startDate; }
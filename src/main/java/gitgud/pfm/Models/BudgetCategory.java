@@ -1,5 +1,7 @@
 package gitgud.pfm.Models;
 
+import gitgud.pfm.utils.Money;
+
 /**
  * BudgetCategory - Junction table entity for Budget-Category many-to-many relationship
  * Represents both the database entity and calculated spending information
@@ -8,12 +10,12 @@ public class BudgetCategory {
     // Database fields
     private String budgetId;
     private String categoryId;
-    private Double categoryLimit; // Optional: specific limit for this category within the budget
+    private Long categoryLimitCents; // Optional: specific limit for this category within the budget
     
     // Calculated/display fields (not persisted)
     private String categoryName;
-    private double spentAmount;
-    private double remainingAmount;
+    private long spentCents;
+    private long remainingCents;
     private double percentageUsed;
     
     public BudgetCategory() {
@@ -22,25 +24,25 @@ public class BudgetCategory {
     public BudgetCategory(String budgetId, String categoryId) {
         this.budgetId = budgetId;
         this.categoryId = categoryId;
-        this.categoryLimit = null;
+        this.categoryLimitCents = null;
     }
     
-    public BudgetCategory(String budgetId, String categoryId, Double categoryLimit) {
+    public BudgetCategory(String budgetId, String categoryId, Long categoryLimitCents) {
         this.budgetId = budgetId;
         this.categoryId = categoryId;
-        this.categoryLimit = categoryLimit;
+        this.categoryLimitCents = categoryLimitCents;
     }
     
     /**
      * Constructor with spending calculation
      */
     public BudgetCategory(String budgetId, String categoryId, String categoryName, 
-                         Double categoryLimit, double spentAmount) {
+                         Long categoryLimitCents, long spentCents) {
         this.budgetId = budgetId;
         this.categoryId = categoryId;
         this.categoryName = categoryName;
-        this.categoryLimit = categoryLimit;
-        this.spentAmount = spentAmount;
+        this.categoryLimitCents = categoryLimitCents;
+        this.spentCents = spentCents;
         calculateDerivedValues();
     }
     
@@ -48,11 +50,11 @@ public class BudgetCategory {
      * Calculate remaining amount and percentage based on spent and limit
      */
     public void calculateDerivedValues() {
-        if (categoryLimit != null && categoryLimit > 0) {
-            this.remainingAmount = categoryLimit - spentAmount;
-            this.percentageUsed = (spentAmount / categoryLimit) * 100.0;
+        if (categoryLimitCents != null && categoryLimitCents > 0) {
+            this.remainingCents = categoryLimitCents - spentCents;
+            this.percentageUsed = (spentCents * 100.0) / categoryLimitCents;
         } else {
-            this.remainingAmount = 0;
+            this.remainingCents = 0;
             this.percentageUsed = 0;
         }
     }
@@ -82,29 +84,41 @@ public class BudgetCategory {
         this.categoryName = categoryName;
     }
     
+    public Long getCategoryLimitCents() {
+        return categoryLimitCents;
+    }
+    
+    public void setCategoryLimitCents(Long categoryLimitCents) {
+        this.categoryLimitCents = categoryLimitCents;
+    }
+    
     public Double getCategoryLimit() {
-        return categoryLimit;
+        return categoryLimitCents != null ? Money.toDouble(categoryLimitCents) : null;
     }
     
     public void setCategoryLimit(Double categoryLimit) {
-        this.categoryLimit = categoryLimit;
+        this.categoryLimitCents = categoryLimit != null ? Money.toCents(categoryLimit) : null;
     }
     
-    public double getSpentAmount() {
-        return spentAmount;
+    public long getSpentCents() {
+        return spentCents;
     }
     
-    public void setSpentAmount(double spentAmount) {
-        this.spentAmount = spentAmount;
+    public void setSpentCents(long spentCents) {
+        this.spentCents = spentCents;
         calculateDerivedValues();
     }
     
-    public double getRemainingAmount() {
-        return remainingAmount;
+    public double getSpentAmount() {
+        return Money.toDouble(spentCents);
     }
     
-    public void setRemainingAmount(double remainingAmount) {
-        this.remainingAmount = remainingAmount;
+    public long getRemainingCents() {
+        return remainingCents;
+    }
+    
+    public double getRemainingAmount() {
+        return Money.toDouble(remainingCents);
     }
     
     public double getPercentageUsed() {
@@ -116,7 +130,7 @@ public class BudgetCategory {
     }
     
     public boolean isOverBudget() {
-        return categoryLimit != null && spentAmount > categoryLimit;
+        return categoryLimitCents != null && spentCents > categoryLimitCents;
     }
     
     @Override
@@ -127,9 +141,9 @@ public class BudgetCategory {
                     "budgetId='" + budgetId + '\'' +
                     ", categoryId='" + categoryId + '\'' +
                     ", categoryName='" + categoryName + '\'' +
-                    ", categoryLimit=" + categoryLimit +
-                    ", spentAmount=" + spentAmount +
-                    ", remainingAmount=" + remainingAmount +
+                    ", categoryLimit=" + getCategoryLimit() +
+                    ", spentAmount=" + Money.toPlainString(spentCents) +
+                    ", remainingAmount=" + Money.toPlainString(remainingCents) +
                     ", percentageUsed=" + String.format("%.2f", percentageUsed) + "%" +
                     ", overBudget=" + isOverBudget() +
                     '}';
@@ -138,7 +152,7 @@ public class BudgetCategory {
             return "BudgetCategory{" +
                     "budgetId='" + budgetId + '\'' +
                     ", categoryId='" + categoryId + '\'' +
-                    ", categoryLimit=" + categoryLimit +
+                    ", categoryLimit=" + getCategoryLimit() +
                     '}';
         }
     }
@@ -1,24 +1,27 @@
 package gitgud.pfm.Models;
 
+import gitgud.pfm.utils.Money;
+
 /**
  * Abstract parent class for all financial entities (wallets, budgets, etc.)
  * Governs common features shared across different financial wallet types.
+ * Balances are held in whole cents; the double accessors are for display.
  */
 public abstract class FinancialEntity {
     protected String id;
     protected String name;
-    protected double balance;
+    protected long balanceCents;
     
     /**
      * Constructor for FinancialEntity
      * @param id Unique identifier for the financial entity
      * @param name Name of the financial entity
-     * @param balance Current balance
+     * @param balanceCents Current balance in cents
      */
-    public FinancialEntity(String id, String name, double balance) {
+    public FinancialEntity(String id, String name, long balanceCents) {
         this.id = id;
         this.name = name;
-        this.balance = balance;
+        this.balanceCents = balanceCents;
     }
     
     // Getters
@@ -30,8 +33,12 @@ public abstract class FinancialEntity {
         return name;
     }
     
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+    
     public double getBalance() {
-        return balance;
+        return Money.toDouble(balanceCents);
     }
     
     // Setters
@@ -43,24 +50,28 @@ public abstract class FinancialEntity {
         this.name = name;
     }
     
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+    
     public void setBalance(double balance) {
-        this.balance = balance;
+        this.balanceCents = Money.toCents(balance);
     }
     
     /**
      * Adds amount to the balance
-     * @param amount Amount to add
+     * @param amountCents Amount to add, in cents
      */
-    public void addToBalance(double amount) {
-        this.balance += amount;
+    public void addToBalance(long amountCents) {
+        this.balanceCents += amountCents;
     }
     
     /**
      * Subtracts amount from the balance
-     * @param amount Amount to subtract
+     * @param amountCents Amount to subtract, in cents
      */
-    public void subtractFromBalance(double amount) {
-        this.balance -= amount;
+    public void subtractFromBalance(long amountCents) {
+        this.balanceCents -= amountCents;
     }
     
     @Override
@@ -68,7 +79,7 @@ public abstract class FinancialEntity {
         return getClass().getSimpleName() + "{" +
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
-                ", balance=" + balance +
+                ", balance=" + Money.toPlainString(balanceCents) +
                 '}';
     }
 }
@@ -1,9 +1,10 @@
 package gitgud.pfm.Models;
 
 import gitgud.pfm.utils.IdGenerator;
+import gitgud.pfm.utils.Money;
 
 public class Goal extends FinancialEntity {
-    private double target;
+    private long targetCents;
     private double priority;
     private String createTime;
     private String deadline;
@@ -14,13 +15,13 @@ public class Goal extends FinancialEntity {
     
     // No-arg constructor required for reflection-based mapping (do not auto-persist)
     public Goal() {
-        super(null, null, 0.0);
+        super(null, null, 0L);
     }
     
     public Goal(String name, double target, double current, 
                 String deadline, double priority, String createTime) {
-        super(IdGenerator.generateGoalId(), name, current);
-        this.target = target;
+        super(IdGenerator.generateGoalId(), name, Money.toCents(current));
+        this.targetCents = Money.toCents(target);
         this.deadline = deadline;
         this.priority = priority;
         this.createTime = createTime;
@@ -39,15 +40,18 @@ public class Goal extends FinancialEntity {
      * New constructor used by CLI: do not require current balance (computed from transactions)
      */
     public Goal(String name, double target, String deadline, double priority, String createTime) {
-        super(IdGenerator.generateGoalId(), name, 0.0);
-        this.target = target;
+        super(IdGenerator.generateGoalId(), name, 0L);
+        this.targetCents = Money.toCents(target);
         this.deadline = deadline;
         this.priority = priority;
         this.createTime = createTime;
     }
     
-    public double getTarget() { return target; }
-    public void setTarget(double target) { this.target = target; }
+    public long getTargetCents() { return targetCents; }
+    public void setTargetCents(long targetCents) { this.targetCents = targetCents; }
+    
+    public double getTarget() { return Money.toDouble(targetCents); }
+    public void setTarget(double target) { this.targetCents = Money.toCents(target); }
     
     public String getDeadline() { return deadline; }
     public void setDeadline(String deadline) { this.deadline = deadline; }
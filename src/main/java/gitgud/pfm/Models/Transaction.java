@@ -1,6 +1,8 @@
 package gitgud.pfm.Models;
 
+import gitgud.pfm.utils.DateFormatUtil;
 import gitgud.pfm.utils.IdGenerator;
+import gitgud.pfm.utils.Money;
 
 public class Transaction{
 
@@ -8,25 +10,27 @@ public class Transaction{
     private String categoryId;
     private String name;
     private double income; // 1 for income, 0 for expense
-    private double amount;
+    private long amountCents; // whole cents, see Money
     private String walletId;
     private String createTime;
+    private long createTimeMillis; // wall-clock epoch millis, see DateFormatUtil
     private String goalId;
 
-    // No-arg constructor required for reflection-based mapping
+    // No-arg constructor required for reflection-based mapping.
+    // Rows loaded from the database set their own id, so none is generated here.
     public Transaction() {
-        this(null, 0.0, null, 0.0, null, null);
     }
     
     public Transaction(String categoryId, double amount, String name, 
                       double income, String walletId, String createTime) {
         this.id = IdGenerator.generateTransactionId();
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.name = name;
         this.categoryId = categoryId;
         this.income = income;
         this.walletId = walletId;
         this.createTime = createTime;
+        this.createTimeMillis = DateFormatUtil.parseIsoToEpochMillis(createTime);
     }
     
     public String getId() {
@@ -45,12 +49,20 @@ public class Transaction{
         this.categoryId = categoryId;
     }
 
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
     public double getAmount() {
-        return amount;
+        return Money.toDouble(amountCents);
     }
 
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
     }
 
     public String getName() {
@@ -83,6 +95,31 @@ public class Transaction{
 
     public void setCreateTime(String createTime) {
         this.createTime = createTime;
+        this.createTimeMillis = DateFormatUtil.parseIsoToEpochMillis(createTime);
+    }
+
+    /**
+     * Set both forms of the timestamp as stored, without parsing.
+     */
+    public void setCreateTime(String createTime, long createTimeMillis) {
+        this.createTime = createTime;
+        this.createTimeMillis = createTimeMillis;
+    }
+
+    public long getCreateTimeMillis() {
+        return createTimeMillis;
+    }
+
+    public void setCreateTimeMillis(long createTimeMillis) {
+        this.createTimeMillis = createTimeMillis;
+        this.createTime = DateFormatUtil.formatToIso(DateFormatUtil.fromEpochMillis(createTimeMillis));
+    }
+
+    /**
+     * Days since 1970-01-01 of createTime, for integer date-range checks.
+     */
+    public long getCreateEpochDay() {
+        return DateFormatUtil.epochDay(createTimeMillis);
     }
 
     public String getGoalId() {
@@ -11,6 +11,7 @@ public class TransactionCriteria {
     private String dateFrom;
     private String dateTo;
     private Double income;
+    private String nameContains;
 
     public TransactionCriteria() {
     }
@@ -43,6 +44,9 @@ public class TransactionCriteria {
     public String getDateTo() { return dateTo; }
     public void setDateTo(String dateTo) { this.dateTo = dateTo; }
 
+    public String getNameContains() { return nameContains; }
+    public void setNameContains(String nameContains) { this.nameContains = nameContains; }
+
     public boolean hasSearchTerm() {
         return transactionId != null && !transactionId.isEmpty();
     }
@@ -54,7 +58,8 @@ public class TransactionCriteria {
                (categoryId != null && !categoryId.isEmpty()) ||
                (walletId != null && !walletId.isEmpty()) ||
                (dateFrom != null && !dateFrom.isEmpty()) ||
-               (dateTo != null && !dateTo.isEmpty()) 
+               (dateTo != null && !dateTo.isEmpty()) ||
+               (nameContains != null && !nameContains.isEmpty())
                 ;
     }
 
@@ -99,6 +104,11 @@ public class TransactionCriteria {
             return this;
         }
 
+        public Builder nameContains(String nameContains) {
+            criteria.setNameContains(nameContains);
+            return this;
+        }
+
         public TransactionCriteria build() {
             return criteria;
         }
@@ -0,0 +1,60 @@
+package gitgud.pfm.Models;
+
+import java.util.List;
+
+/**
+ * One page of transactions in newest-first order, with the keys needed to
+ * fetch the neighbouring pages.
+ *
+ * Pages are addressed by a (createTimeMillis, id) key rather than an offset,
+ * so fetching the next page seeks straight to the key in the time index
+ * instead of skipping every earlier row.
+ */
+public class TransactionPage {
+
+    /**
+     * Position in the newest-first ordering. id breaks ties between
+     * transactions created in the same millisecond.
+     */
+    public static class Key {
+        private final long createTimeMillis;
+        private final String id;
+
+        public Key(long createTimeMillis, String id) {
+            this.createTimeMillis = createTimeMillis;
+            this.id = id;
+        }
+
+        public static Key of(Transaction transaction) {
+            return new Key(transaction.getCreateTimeMillis(), transaction.getId());
+        }
+
+        public long getCreateTimeMillis() { return createTimeMillis; }
+        public String getId() { return id; }
+    }
+
+    private final List<Transaction> items;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public TransactionPage(List<Transaction> items, boolean hasPrevious, boolean hasNext) {
+        this.items = items;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Transaction> getItems() { return items; }
+    public boolean hasPrevious() { return hasPrevious; }
+    public boolean hasNext() { return hasNext; }
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    /** Key of the newest row on this page, or null if empty */
+    public Key getFirstKey() {
+        return items.isEmpty() ? null : Key.of(items.get(0));
+    }
+
+    /** Key of the oldest row on this page, or null if empty */
+    public Key getLastKey() {
+        return items.isEmpty() ? null : Key.of(items.get(items.size() - 1));
+    }
+}
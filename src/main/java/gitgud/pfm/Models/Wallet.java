@@ -1,16 +1,17 @@
 package gitgud.pfm.Models;
 
 import gitgud.pfm.utils.IdGenerator;
+import gitgud.pfm.utils.Money;
 
 public class Wallet extends FinancialEntity {
     private String Color;
 
     public Wallet() {
-        super(null, null, 0.0);
+        super(null, null, 0L);
     }
     
     public Wallet(String color, double balance, String name) {
-        super(IdGenerator.generateWalletId(), name, balance);
+        super(IdGenerator.generateWalletId(), name, Money.toCents(balance));
         this.Color = color;
     }
     
@@ -0,0 +1,149 @@
+package gitgud.pfm;
+
+import gitgud.pfm.Controllers.ScreenLifecycle;
+import gitgud.pfm.services.AccountDataLoader;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.animation.PauseTransition;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+/**
+ * ViewCache - The screens' views, each loaded from FXML once and shown again
+ * on later visits.
+ *
+ * show(fxml) returns the cached node and controller when there is one, so
+ * switching screens skips the FXML parse, the controller's initialize and
+ * its data loads. A controller implementing ScreenLifecycle is told when
+ * its view goes on and off screen; a hidden controller stays subscribed to
+ * ledger changes and catches up in onShow.
+ *
+ * Memory is bounded two ways. At most capacity views are kept, least
+ * recently shown dropped first (and unsubscribed from ledger changes).
+ * Views not on screen are only softly reachable, so under heap pressure
+ * the GC can drop them too; they are loaded again on their next visit.
+ *
+ * preload() builds views before their first visit, one per pause so the
+ * window stays responsive. The FXML is still loaded on the FX thread,
+ * since controllers create animations and subscriptions in initialize,
+ * but their data loads run on the DataLoadExecutor as on any visit.
+ *
+ * FX thread only.
+ */
+final class ViewCache {
+
+    private static final Duration PRELOAD_DELAY = Duration.millis(250);
+
+    private final int capacity;
+    private final Map<String, SoftReference<View>> views = new LinkedHashMap<>(16, 0.75f, true);
+    private View current;
+
+    /**
+     * @param capacity Most views kept, including the one on screen
+     */
+    ViewCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Make the view of an FXML file the current one, loading it if needed
+     *
+     * @return the view's root node, or null if it could not be loaded
+     */
+    Node show(String fxmlFile) {
+        View view = cached(fxmlFile);
+        if (view == null) {
+            view = load(fxmlFile);
+            if (view == null) {
+                return null;
+            }
+            put(fxmlFile, view);
+        }
+        if (view != current) {
+            if (current != null && current.controller instanceof ScreenLifecycle screen) {
+                screen.onHide();
+            }
+            current = view;
+            if (view.controller instanceof ScreenLifecycle screen) {
+                screen.onShow();
+            }
+        }
+        return view.node;
+    }
+
+    /**
+     * Load views not yet cached in the background of the FX thread, one
+     * after another, without evicting any view already cached
+     */
+    void preload(List<String> fxmlFiles) {
+        Deque<String> queue = new ArrayDeque<>(fxmlFiles);
+        PauseTransition pause = new PauseTransition(PRELOAD_DELAY);
+        pause.setOnFinished(e -> {
+            String fxmlFile = queue.poll();
+            if (fxmlFile == null || views.size() >= capacity) {
+                return;
+            }
+            if (!views.containsKey(fxmlFile)) {
+                View view = load(fxmlFile);
+                if (view != null) {
+                    put(fxmlFile, view);
+                }
+            }
+            pause.playFromStart();
+        });
+        pause.play();
+    }
+
+    private View cached(String fxmlFile) {
+        SoftReference<View> ref = views.get(fxmlFile);
+        View view = ref == null ? null : ref.get();
+        if (ref != null && view == null) {
+            views.remove(fxmlFile); // collected while hidden
+        }
+        return view;
+    }
+
+    private void put(String fxmlFile, View view) {
+        views.put(fxmlFile, new SoftReference<>(view));
+        Iterator<SoftReference<View>> eldest = views.values().iterator();
+        while (views.size() > capacity && eldest.hasNext()) {
+            View evicted = eldest.next().get();
+            if (evicted == current || evicted == view) {
+                continue;
+            }
+            eldest.remove();
+            if (evicted != null) {
+                AccountDataLoader.getInstance().getChangeEvents().unsubscribe(evicted.controller);
+            }
+        }
+    }
+
+    private View load(String fxmlFile) {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/gitgud/pfm/" + fxmlFile));
+            Node node = loader.load();
+            return new View(node, loader.getController());
+        } catch (IOException e) {
+            System.err.println("Failed to load FXML: " + fxmlFile + " - " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static final class View {
+        private final Node node;
+        private final Object controller;
+
+        View(Node node, Object controller) {
+            this.node = node;
+            this.controller = controller;
+        }
+    }
+}
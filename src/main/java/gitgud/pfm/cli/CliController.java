@@ -8,13 +8,19 @@ import java.util.concurrent.TimeUnit;
 
 import gitgud.pfm.Models.Goal;
 import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
 import gitgud.pfm.Models.Wallet;
 import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.BudgetCategory;
 import gitgud.pfm.Models.Category;
 import gitgud.pfm.services.*;
 import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 
 /**
@@ -31,6 +37,8 @@ public class CliController {
     private final CategoryService categoryService = new CategoryService();
     private final WalletService walletService = new WalletService();
     private final BudgetService budgetService = new BudgetService();
+    private final BudgetBreakdownEngine breakdownEngine = new BudgetBreakdownEngine();
+    private final RollupService rollupService = new RollupService();
     private final GoalService goalService = new GoalService();
     private final TransactionService transactionService = new TransactionService();
 
@@ -124,9 +132,21 @@ public class CliController {
                 case "15":
                     handleDeleteBudget(accountData);
                     break;
+                case "16":
+                    handleRebuildStoredTotals();
+                    break;
                 case "17":
                     handleViewReports(accountData);
                     break;
+                case "18":
+                    handleImportTransactions();
+                    break;
+                case "19":
+                    handleExportTransactions();
+                    break;
+                case "20":
+                    handleLedgerSnapshot();
+                    break;
                 case "0":
                     // looks for users input then call exit program
                     // then changes running to false to exit loop
@@ -168,8 +188,8 @@ public class CliController {
             }
 
             System.out.println("-".repeat(50));
-            double totalBalance = walletService.getTotalBalance();
-            System.out.printf("%-20s $%,14.2f%n", "Total Balance:", totalBalance);
+            long totalBalance = walletService.getTotalBalanceCents();
+            System.out.printf("%-20s $%,14.2f%n", "Total Balance:", Money.toDouble(totalBalance));
             System.out.println("=".repeat(50) + "\n");
         }
     }
@@ -181,58 +201,70 @@ public class CliController {
     private void handleViewAllTransactions() {
         System.out.println("=== All Transactions ===");
 
-        List<Transaction> transactions = accountData.getTransactions();
+        // Create a map of category ID to category name
+        Map<String, String> categoryMap = new HashMap<>();
+        List<Category> categories = categoryService.getAllCategories();
+        for (Category category : categories) {
+            categoryMap.put(category.getId(), category.getName());
+        }
 
-        if (transactions.isEmpty()) {
-            System.out.println("No transactions found.");
-        } else {
-            // Create a map of category ID to category name
-            Map<String, String> categoryMap = new HashMap<>();
-            List<Category> categories = categoryService.getAllCategories();
-            for (Category category : categories) {
-                categoryMap.put(category.getId(), category.getName());
+        // Rows are streamed from the database one at a time, so the listing
+        // runs in constant memory. totals: [0] income, [1] expenses, in cents
+        long[] totals = new long[2];
+        boolean[] headerPrinted = new boolean[1];
+        int count = transactionService.scanAll(tx -> {
+            if (!headerPrinted[0]) {
+                System.out.println("\nTransactions (most recent first):");
+                System.out.println("-".repeat(95));
+                System.out.printf("%-18s %-15s %-12s %10s %-8s %-12s %-12s%n",
+                        "Name", "Category", "Wallet", "Amount", "Type", "Goal", "Date");
+                System.out.println("-".repeat(95));
+                headerPrinted[0] = true;
             }
 
-            System.out.println("\nTransactions (most recent first):");
-            System.out.println("-".repeat(95));
-            System.out.printf("%-18s %-15s %-12s %10s %-8s %-12s %-12s%n",
-                    "Name", "Category", "Wallet", "Amount", "Type", "Goal", "Date");
-            System.out.println("-".repeat(95));
+            String type = tx.getIncome() == 1 ? "Income" : "Expense";
+            String categoryName = categoryMap.getOrDefault(tx.getCategoryId(), tx.getCategoryId());
+            String goalDisplay = tx.getGoalId() != null ? truncate(tx.getGoalId(), 12) : "-";
+            String date = formatDate(tx);
 
-            double totalIncome = 0.0;
-            double totalExpenses = 0.0;
+            System.out.printf("%-18s %-15s %-12s $%,9.2f %-8s %-12s %-12s%n",
+                    truncate(tx.getName(), 18),
+                    truncate(categoryName, 15),
+                    truncate(tx.getWalletId(), 12),
+                    tx.getAmount(),
+                    type,
+                    goalDisplay,
+                    date);
 
-            for (Transaction tx : transactions) {
-                String type = tx.getIncome() == 1 ? "Income" : "Expense";
-                String categoryName = categoryMap.getOrDefault(tx.getCategoryId(), tx.getCategoryId());
-                String goalDisplay = tx.getGoalId() != null ? truncate(tx.getGoalId(), 12) : "-";
-                String date = DateFormatUtil.isoToUkDateOnly(tx.getCreateTime());
-                
-                System.out.printf("%-18s %-15s %-12s $%,9.2f %-8s %-12s %-12s%n",
-                        truncate(tx.getName(), 18),
-                        truncate(categoryName, 15),
-                        truncate(tx.getWalletId(), 12),
-                        tx.getAmount(),
-                        type,
-                        goalDisplay,
-                        date);
-
-                if (tx.getIncome() == 1) {
-                    totalIncome += tx.getAmount();
-                } else {
-                    totalExpenses += tx.getAmount();
-                }
+            if (tx.getIncome() == 1) {
+                totals[0] += tx.getAmountCents();
+            } else {
+                totals[1] += tx.getAmountCents();
             }
+        });
 
+        if (count == 0) {
+            System.out.println("No transactions found.");
+        } else {
             System.out.println("-".repeat(95));
-            System.out.println("Total transactions: " + transactions.size());
-            System.out.printf("Total Income: $%,.2f%n", totalIncome);
-            System.out.printf("Total Expenses: $%,.2f%n", totalExpenses);
-            System.out.printf("Net: $%,.2f%n", totalIncome - totalExpenses);
+            System.out.println("Total transactions: " + count);
+            System.out.printf("Total Income: $%,.2f%n", Money.toDouble(totals[0]));
+            System.out.printf("Total Expenses: $%,.2f%n", Money.toDouble(totals[1]));
+            System.out.printf("Net: $%,.2f%n", Money.toDouble(totals[0] - totals[1]));
             System.out.println("\n");
         }
     }
 
+    /**
+     * UK display date from the epoch timestamp, without parsing the text
+     */
+    private String formatDate(Transaction tx) {
+        if (tx.getCreateTimeMillis() == 0) {
+            return DateFormatUtil.isoToUkDateOnly(tx.getCreateTime());
+        }
+        return DateFormatUtil.formatToUk(DateFormatUtil.toLocalDate(tx.getCreateTimeMillis()));
+    }
+
     /**
      * Handle View All Budgets
      */
@@ -250,19 +282,23 @@ public class CliController {
                     "Name", "Limit", "Spent", "Remaining", "Start", "End", "Categories");
             System.out.println("-".repeat(90));
 
+            // Tracked categories and their spending for every budget in one query
+            Map<String, List<BudgetCategory>> breakdowns =
+                    breakdownEngine.breakdownAll(budgets.stream().map(Budget::getId).toList());
+
             for (Budget budget : budgets) {
                 // Get tracked categories
-                List<Category> trackedCategories = budgetService.getCategoriesForBudget(budget.getId());
+                List<BudgetCategory> trackedCategories = breakdowns.get(budget.getId());
                 StringBuilder categoryNames = new StringBuilder();
                 for (int i = 0; i < trackedCategories.size(); i++) {
                     if (i > 0) categoryNames.append(", ");
-                    categoryNames.append(trackedCategories.get(i).getName());
+                    categoryNames.append(trackedCategories.get(i).getCategoryName());
                 }
                 String categoriesStr = categoryNames.length() > 0 ? categoryNames.toString() : "(none)";
                 
                 // Calculate actual spent amount
-                double spent = budgetService.getTotalSpentForBudget(budget.getId());
-                double remaining = budget.getLimitAmount() - spent;
+                long spent = BudgetBreakdownEngine.totalSpentCents(trackedCategories);
+                long remaining = budget.getLimitCents() - spent;
                 
                 String startDate = budget.getStartDate() != null ? budget.getStartDate().substring(0, Math.min(10, budget.getStartDate().length())) : "";
                 String endDate = budget.getEndDate() != null ? budget.getEndDate().substring(0, Math.min(10, budget.getEndDate().length())) : "";
@@ -270,8 +306,8 @@ public class CliController {
                 System.out.printf("%-15s $%,10.2f $%,10.2f $%,10.2f %-10s %-10s %-18s%n",
                         truncate(budget.getName(), 15),
                         budget.getLimitAmount(),
-                        spent,
-                        remaining,
+                        Money.toDouble(spent),
+                        Money.toDouble(remaining),
                         startDate,
                         endDate,
                         truncate(categoriesStr, 18));
@@ -619,16 +655,16 @@ public class CliController {
         System.out.println("✓ Selected: " + selectedWallet.getName());
         
         // Step 4: Enter amount
-        double amount = 0.0;
+        long amountCents = 0;
         boolean validAmount = false;
         while (!validAmount) {
             System.out.print("\nEnter amount to allocate: $");
             String input = scanner.nextLine().trim();
             try {
-                amount = Double.parseDouble(input);
+                amountCents = Money.parse(input);
 
                 // Check if wallet has enough balance
-                if (selectedWallet.getBalance() - amount < 0) {
+                if (selectedWallet.getBalanceCents() - amountCents < 0) {
                     System.out.println("❌ Insufficient wallet balance. Available: $" + 
                             String.format("%,.2f", selectedWallet.getBalance()));
                     continue;
@@ -651,7 +687,7 @@ public class CliController {
         // Create transaction (expense - money leaving wallet)
         Transaction transaction = new Transaction(
                 categoryId,
-                amount,
+                Money.toDouble(amountCents),
                 transactionName,
                 0,  // income = 0 (expense - money leaving wallet)
                 selectedWallet.getId(),
@@ -665,15 +701,15 @@ public class CliController {
         transactionService.create(transaction);
         
         // Update wallet balance in database
-        selectedWallet.subtractFromBalance(amount);
+        selectedWallet.subtractFromBalance(amountCents);
         walletService.update(selectedWallet);
         
         // Update goal balance in database (THIS IS THE KEY FIX!)
-        selectedGoal.addToBalance(amount);
+        selectedGoal.addToBalance(amountCents);
         goalService.update(selectedGoal);
         
         System.out.println("\n✓ Transaction created successfully!");
-        System.out.println("$" + String.format("%,.2f", amount) + " allocated from " + 
+        System.out.println("$" + String.format("%,.2f", Money.toDouble(amountCents)) + " allocated from " + 
                 selectedWallet.getName() + " → " + selectedGoal.getName());
         
         // Refresh account data - AccountDataLoader will load updated values from SQL
@@ -737,10 +773,11 @@ public class CliController {
 
         System.out.printf("%-20s %10s %-15s %7s %-12s %-15s%n", "Name", "Amount", "Category", "Type", "Wallet", "Date");
         System.out.println("-".repeat(85));
-        for (Transaction t : accountData.getTransactions()) {
+        // Streamed with a reused row; nothing is kept after it is printed
+        transactionService.scanAll(t -> {
             String categoryName = categoryMap.getOrDefault(t.getCategoryId(), t.getCategoryId());
             String type = t.getIncome() > 0 ? "Income" : "Expense";
-            String date = DateFormatUtil.isoToUkDateOnly(t.getCreateTime());
+            String date = formatDate(t);
             
             System.out.printf("%-20s $%9.2f %-15s %-7s %-12s %-15s%n",
                     truncate(t.getName(), 20),
@@ -749,7 +786,7 @@ public class CliController {
                     type,
                     truncate(t.getWalletId(), 12),
                     date);
-        }
+        });
     }
 
     /**
@@ -774,19 +811,23 @@ public class CliController {
         System.out.printf("%-15s %12s %12s %12s %-10s %-10s %-25s%n", "Name", "Limit", "Spent", "Remaining", "Start", "End", "Categories");
         System.out.println("-".repeat(105));
         
+        // Tracked categories and their spending for every budget in one query
+        Map<String, List<BudgetCategory>> breakdowns =
+            breakdownEngine.breakdownAll(budgets.stream().map(Budget::getId).toList());
+        
         for (Budget b : budgets) {
             // Get tracked categories for this budget
-            List<Category> trackedCategories = budgetService.getCategoriesForBudget(b.getId());
+            List<BudgetCategory> trackedCategories = breakdowns.get(b.getId());
             StringBuilder categoryNames = new StringBuilder();
             for (int i = 0; i < trackedCategories.size(); i++) {
                 if (i > 0) categoryNames.append(", ");
-                categoryNames.append(trackedCategories.get(i).getName());
+                categoryNames.append(trackedCategories.get(i).getCategoryName());
             }
             String categoriesStr = categoryNames.length() > 0 ? categoryNames.toString() : "(none)";
             
             // Calculate actual spent amount from tracked category transactions
-            double spent = budgetService.getTotalSpentForBudget(b.getId());
-            double remaining = b.getLimitAmount() - spent;
+            long spent = BudgetBreakdownEngine.totalSpentCents(trackedCategories);
+            long remaining = b.getLimitCents() - spent;
             
             String startDate = b.getStartDate() != null ? b.getStartDate().substring(0, Math.min(10, b.getStartDate().length())) : "";
             String endDate = b.getEndDate() != null ? b.getEndDate().substring(0, Math.min(10, b.getEndDate().length())) : "";
@@ -794,8 +835,8 @@ public class CliController {
             System.out.printf("%-15s $%,10.2f $%,10.2f $%,10.2f %-10s %-10s %-25s%n",
                 truncate(b.getName(), 15),
                 b.getLimitAmount(),
-                spent,
-                remaining,
+                Money.toDouble(spent),
+                Money.toDouble(remaining),
                 startDate,
                 endDate,
                 truncate(categoriesStr, 25));
@@ -841,9 +882,9 @@ public class CliController {
                     break;
                 case "amount":
                     System.out.print("Enter new amount: ");
-                    double amt = Double.parseDouble(scanner.nextLine().trim());
-                    found.setAmount(amt);
-                    updates.put("amount", amt);
+                    long amt = Money.parse(scanner.nextLine());
+                    found.setAmountCents(amt);
+                    updates.put("amount", Money.toPlainString(amt));
                     break;
                 case "category":
                     var defaultCategories = categoryService.getAllCategories();
@@ -993,15 +1034,15 @@ public class CliController {
                     break;
                 case "limitamount":
                     System.out.print("Enter new limit amount: ");
-                    double lim = Double.parseDouble(scanner.nextLine().trim());
-                    found.setLimitAmount(lim);
-                    updates.put("limitAmount", lim);
+                    long lim = Money.parse(scanner.nextLine());
+                    found.setLimitCents(lim);
+                    updates.put("limitAmount", Money.toPlainString(lim));
                     break;
                 case "balance":
                     System.out.print("Enter new balance: ");
-                    double bal = Double.parseDouble(scanner.nextLine().trim());
-                    found.setBalance(bal);
-                    updates.put("balance", bal);
+                    long bal = Money.parse(scanner.nextLine());
+                    found.setBalanceCents(bal);
+                    updates.put("balance", Money.toPlainString(bal));
                     break;
                 case "startdate":
                     System.out.print("Enter new start date (dd/MM/yyyy): ");
@@ -1140,15 +1181,15 @@ public class CliController {
                     break;
                 case "target":
                     System.out.print("Enter new target amount: ");
-                    double tar = Double.parseDouble(scanner.nextLine().trim());
-                    found.setTarget(tar);
-                    updates.put("target", tar);
+                    long tar = Money.parse(scanner.nextLine());
+                    found.setTargetCents(tar);
+                    updates.put("target", Money.toPlainString(tar));
                     break;
                 case "balance":
                     System.out.print("Enter new balance amount: ");
-                    double newBal = Double.parseDouble(scanner.nextLine().trim());
-                    found.setBalance(newBal);
-                    updates.put("balance", newBal);
+                    long newBal = Money.parse(scanner.nextLine());
+                    found.setBalanceCents(newBal);
+                    updates.put("balance", Money.toPlainString(newBal));
                     break;
                 case "deadline":
                     System.out.print("Enter new deadline (dd/MM/yyyy): ");
@@ -1373,6 +1414,215 @@ public class CliController {
         accountData.setWallets(fresh.getWallets());
     }
 
+    /**
+     * Handle Rebuild Stored Totals: recompute the stored per-budget spending
+     * and the daily/monthly rollups from the transaction history, for repair
+     * if totals look wrong
+     */
+    private void handleRebuildStoredTotals() {
+        System.out.println("=== Rebuild Stored Totals ===");
+        int rows = budgetService.rebuildSpendTotals();
+        if (rows < 0) {
+            System.out.println("Rebuild failed. See the error above.");
+            return;
+        }
+        System.out.println("Rebuilt spending totals for " + rows + " budget categories.");
+        int rollupRows = rollupService.rebuild();
+        if (rollupRows < 0) {
+            System.out.println("Rebuild failed. See the error above.");
+        } else {
+            System.out.println("Rebuilt " + rollupRows + " daily and monthly rollup rows.\n");
+        }
+    }
+
+    /**
+     * Handle Import Transactions: stream a bank statement CSV into a wallet.
+     * Column names default to Date, Amount and Description; rows already in
+     * the wallet are skipped.
+     */
+    private void handleImportTransactions() {
+        System.out.println("=== Import Transactions from CSV ===");
+
+        System.out.print("Path to CSV file: ");
+        Path file = Paths.get(scanner.nextLine().trim());
+        if (!Files.isRegularFile(file)) {
+            System.out.println("File not found: " + file);
+            return;
+        }
+
+        // Continental statements separate fields with ';' and use a decimal comma
+        String separatorChoice = promptWithDefault("Column separator (1 = comma, 2 = semicolon, 3 = tab)", "1");
+        char delimiter = separatorChoice.equals("2") ? ';' : separatorChoice.equals("3") ? '\t' : ',';
+        List<String> header = CsvTransactionImporter.readHeader(file, delimiter);
+        if (!header.isEmpty()) {
+            System.out.println("Columns found: " + String.join(", ", header));
+        }
+
+        List<Wallet> wallets = walletService.readAll();
+        if (wallets.isEmpty()) {
+            System.out.println("No wallets found. Cannot import transactions.");
+            return;
+        }
+        System.out.println("Import into which wallet?");
+        for (int i = 0; i < wallets.size(); i++) {
+            System.out.printf("  %d. %s\n", i + 1, wallets.get(i).getName());
+        }
+        String walletId = null;
+        while (walletId == null) {
+            System.out.print("Enter the number of the wallet: ");
+            try {
+                int num = Integer.parseInt(scanner.nextLine().trim());
+                if (num >= 1 && num <= wallets.size()) {
+                    walletId = wallets.get(num - 1).getId();
+                } else {
+                    System.out.println("Invalid number. Try again.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid number.");
+            }
+        }
+
+        String decimalSeparator = promptWithDefault("Decimal separator (. or ,)", delimiter == ';' ? "," : ".");
+        if (!decimalSeparator.equals(".") && !decimalSeparator.equals(",")) {
+            System.out.println("Invalid decimal separator: " + decimalSeparator);
+            return;
+        }
+
+        CsvTransactionImporter.Mapping.Builder mapping = CsvTransactionImporter.Mapping.builder()
+                .delimiter(delimiter)
+                .decimalSeparator(decimalSeparator.charAt(0))
+                .dateColumn(promptWithDefault("Date column", "Date"))
+                .descriptionColumn(promptWithDefault("Description column", "Description"));
+
+        System.out.println("How are expenses shown?");
+        System.out.println("  1. Negative amounts (bank account)");
+        System.out.println("  2. Positive amounts (credit card)");
+        System.out.println("  3. Separate money-out and money-in columns");
+        String sign = promptWithDefault("Choice", "1");
+        if (sign.equals("3")) {
+            mapping.sign(CsvTransactionImporter.SignConvention.SEPARATE_COLUMNS)
+                    .amountColumn(promptWithDefault("Money-out column", "Paid out"))
+                    .creditColumn(promptWithDefault("Money-in column", "Paid in"));
+        } else {
+            mapping.sign(sign.equals("2")
+                            ? CsvTransactionImporter.SignConvention.POSITIVE_IS_EXPENSE
+                            : CsvTransactionImporter.SignConvention.NEGATIVE_IS_EXPENSE)
+                    .amountColumn(promptWithDefault("Amount column", "Amount"));
+        }
+
+        try {
+            mapping.datePattern(promptWithDefault("Date format", DateFormatUtil.UK_DATE_PROMPT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid date format: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Importing...");
+        CsvTransactionImporter.Result result = new CsvTransactionImporter(mapping.build()).importFile(file, walletId);
+        System.out.println(result.summary());
+        for (String error : result.getErrors()) {
+            System.out.println("  " + error);
+        }
+        refreshDataHolder(accountData);
+    }
+
+    /**
+     * Handle Export Transactions: stream transactions, optionally limited to
+     * a date range, to a CSV or JSON Lines file with a progress line
+     */
+    private void handleExportTransactions() {
+        System.out.println("=== Export Transactions ===");
+
+        String formatChoice = promptWithDefault("Format (1 = CSV, 2 = JSON Lines)", "1");
+        TransactionExporter.Format format = formatChoice.equals("2")
+                ? TransactionExporter.Format.JSONL : TransactionExporter.Format.CSV;
+
+        TransactionCriteria.Builder criteria = TransactionCriteria.builder();
+        String from = promptWithDefault("From date (yyyy-MM-dd, blank for all)", "");
+        String to = promptWithDefault("To date (yyyy-MM-dd, blank for all)", "");
+        if ((!from.isEmpty() && DateFormatUtil.parseIsoDate(from) == null)
+                || (!to.isEmpty() && DateFormatUtil.parseIsoDate(to) == null)) {
+            System.out.println("Invalid date. Please use yyyy-MM-dd.");
+            return;
+        }
+        if (!from.isEmpty()) {
+            criteria.dateFrom(from);
+        }
+        if (!to.isEmpty()) {
+            criteria.dateTo(to);
+        }
+
+        String defaultName = "transactions-" + java.time.LocalDate.now() + "." + format.getExtension();
+        Path target = Paths.get(promptWithDefault("Save to", defaultName)).toAbsolutePath();
+
+        long rows = new TransactionExporter().export(criteria.build(), target, format, (written, total) ->
+                System.out.printf("\rExported %,d of %,d rows (%d%%)", written, total,
+                        total > 0 ? written * 100 / total : 100));
+        System.out.println();
+        if (rows < 0) {
+            System.out.println("Export failed. See the error above.");
+        } else {
+            System.out.println("Exported " + rows + " transactions to " + target);
+        }
+    }
+
+    /**
+     * Back up the whole ledger to a binary snapshot file, or replace it
+     * with one
+     */
+    private void handleLedgerSnapshot() {
+        System.out.println("=== Ledger Snapshot ===");
+        AccountDataLoader loader = AccountDataLoader.getInstance();
+
+        String choice = promptWithDefault("1 = Back up, 2 = Restore", "1");
+        if (choice.equals("2")) {
+            Path source = Paths.get(promptWithDefault("Snapshot file", "ledger.pfmsnap")).toAbsolutePath();
+            if (!Files.isRegularFile(source)) {
+                System.out.println("File not found: " + source);
+                return;
+            }
+            System.out.print("This replaces ALL wallets, transactions, budgets, goals and categories. Type 'yes' to continue: ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+                System.out.println("Restore cancelled.");
+                return;
+            }
+            long start = System.nanoTime();
+            long rows = loader.restoreLedger(source);
+            if (rows < 0) {
+                System.out.println("Restore failed. The ledger was not changed.");
+                return;
+            }
+            System.out.println("✓ Restored " + rows + " transactions in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            refreshDataHolder(accountData);
+            return;
+        }
+
+        String defaultName = "ledger-" + java.time.LocalDate.now() + ".pfmsnap";
+        Path target = Paths.get(promptWithDefault("Save to", defaultName)).toAbsolutePath();
+        long start = System.nanoTime();
+        long rows = loader.backupLedger(target);
+        if (rows < 0) {
+            System.out.println("Backup failed. See the error above.");
+            return;
+        }
+        try {
+            System.out.printf("✓ Backed up %d transactions to %s (%,d bytes) in %d ms%n", rows, target,
+                    Files.size(target), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            System.out.println("✓ Backed up " + rows + " transactions to " + target);
+        }
+    }
+
+    /**
+     * Read a line, falling back to a default when it is left empty
+     */
+    private String promptWithDefault(String label, String defaultValue) {
+        System.out.print(label + " [" + defaultValue + "]: ");
+        String input = scanner.nextLine().trim();
+        return input.isEmpty() ? defaultValue : input;
+    }
+
     /**
      * Handle Exit menu option
      */
@@ -1406,6 +1656,10 @@ public class CliController {
         System.out.println("13. Delete Goal");
         System.out.println("========================================");
         System.out.println("14. View Reports");
+        System.out.println("16. Rebuild Stored Totals");
+        System.out.println("18. Import Transactions from CSV");
+        System.out.println("19. Export Transactions (CSV / JSON Lines)");
+        System.out.println("20. Back Up / Restore Ledger Snapshot");
         System.out.println("========================================");
         System.out.println("0. Exit");
     }
@@ -1556,6 +1810,8 @@ public class CliController {
 
     private void shutdown() {
         scanner.close();
+        AccountDataLoader.getInstance().saveWarmStartSnapshot();
+        Database.getInstance().closeConnection();
         try {
             TimeUnit.MILLISECONDS.sleep(100);
         } catch (InterruptedException e) {
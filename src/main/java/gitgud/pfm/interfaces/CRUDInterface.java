@@ -1,8 +1,12 @@
 package gitgud.pfm.interfaces;
 
+/**
+ * Writes return false when the statement failed (the error is logged), or
+ * for update, when no row has the entity's id.
+ */
 public interface CRUDInterface<T> {
-    void create(T entity);
+    boolean create(T entity);
     T read(String id);
-    void update(T entity);
-    void delete(String id);
+    boolean update(T entity);
+    boolean delete(String id);
 }
@@ -1,13 +1,28 @@
 package gitgud.pfm.services;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
  
 import gitgud.pfm.Models.*;
 
 /**
  * AccountDataLoader - Centralized data management with singleton pattern.
- * Provides CRUD operations for all entities and observer pattern for UI refresh.
+ * Provides CRUD operations for all entities, and publishes every change they
+ * make on a ChangeEventBus (getChangeEvents) for the screens to follow.
+ *
+ * Reads are served from a write-through LedgerCache: each entity list is
+ * loaded from SQLite once, and every mutator below updates the database and
+ * then the cache. Returned lists are unmodifiable shared snapshots; change
+ * data through the mutators, not by editing list elements. A mutator whose
+ * database write fails returns false and leaves the cache as it was, so no
+ * screen shows data that is not in SQLite.
+ *
+ * On start the cache is filled from the warm-start ledger snapshot when it
+ * matches the database's data version (see LedgerSnapshotService), and the
+ * snapshot is brought up to date again by saveWarmStartSnapshot() on exit.
  */
 public class AccountDataLoader {
 
@@ -19,11 +34,13 @@ public class AccountDataLoader {
     private final TransactionService transactionService;
     private final GoalService goalService;
     private final BudgetService budgetService;
+    private final LedgerSnapshotService snapshotService;
     
-    // Refresh listeners (observer pattern)
-    private final List<Runnable> walletRefreshListeners = new ArrayList<>();
-    private final List<Runnable> goalRefreshListeners = new ArrayList<>();
-    private final List<Runnable> budgetRefreshListeners = new ArrayList<>();
+    // In-memory copy of the ledger, kept current by the mutators
+    private final LedgerCache cache;
+    
+    // Row changes made by the mutators, for subscribers (observer pattern)
+    private final ChangeEventBus changeEvents = new ChangeEventBus();
     
     // Private constructor for singleton
     private AccountDataLoader() {
@@ -31,6 +48,16 @@ public class AccountDataLoader {
         this.transactionService = new TransactionService();
         this.goalService = new GoalService();
         this.budgetService = new BudgetService();
+        this.snapshotService = new LedgerSnapshotService();
+        this.cache = new LedgerCache(walletService, transactionService, goalService, budgetService,
+                snapshotService::currentDataVersion);
+
+        LedgerSnapshot warmStart = snapshotService.loadWarmStart();
+        if (warmStart != null) {
+            cache.seed(warmStart);
+            System.out.println("✓ Loaded " + warmStart.getTransactions().size()
+                    + " transactions from the warm-start snapshot");
+        }
     }
     
     // Singleton getInstance
@@ -44,180 +71,315 @@ public class AccountDataLoader {
     // ==================== WALLET OPERATIONS ====================
     
     public List<Wallet> getWallets() {
-        try {
-            return walletService.readAll();
-        } catch (Exception e) {
-            System.err.println("Error reading wallets: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return cache.wallets.snapshot();
     }
     
+    /**
+     * A copy of one wallet that the caller may edit and pass to updateWallet
+     */
     public Wallet getWalletById(String walletId) {
-        try {
-            return walletService.read(walletId);
-        } catch (Exception e) {
-            System.err.println("Error reading wallet: " + e.getMessage());
-            return null;
-        }
+        return cache.wallets.get(walletId);
     }
     
-    public void addWallet(Wallet wallet) {
-        walletService.create(wallet);
+    public boolean addWallet(Wallet wallet) {
+        if (!walletService.create(wallet)) {
+            return false;
+        }
+        changeEvents.publish(cache.wallets.put(wallet));
+        return true;
     }
     
-    public void updateWallet(Wallet wallet) {
-        walletService.update(wallet);
+    public boolean updateWallet(Wallet wallet) {
+        if (!walletService.update(wallet)) {
+            return false;
+        }
+        changeEvents.publish(cache.wallets.put(wallet));
+        return true;
     }
     
-    public void deleteWallet(String walletId) {
-        transactionService.deleteByWalletId(walletId);
-        walletService.delete(walletId);
+    public boolean deleteWallet(String walletId) {
+        if (!transactionService.deleteByWalletId(walletId)) {
+            return false;
+        }
+        if (cache.transactions.isLoaded()) {
+            changeEvents.publishAll(cache.transactions.removeIf(t -> walletId.equals(t.getWalletId())));
+        } else {
+            changeEvents.publishReload(Transaction.class);
+        }
+        if (!walletService.delete(walletId)) {
+            return false; // its transactions are gone all the same
+        }
+        changeEvents.publish(cache.wallets.remove(walletId));
+        // Goal and Budget walletId are ON DELETE SET NULL; reload them
+        cache.goals.invalidate();
+        cache.budgets.invalidate();
+        changeEvents.publishReload(Goal.class, Budget.class);
+        return true;
     }
     
     // ==================== TRANSACTION OPERATIONS ====================
     
     public List<Transaction> getTransactions() {
-        try {
-            return transactionService.readAll();
-        } catch (Exception e) {
-            System.err.println("Error reading transactions: " + e.getMessage());
-            return new ArrayList<>();
+        return cache.transactions.snapshot();
+    }
+    
+    /**
+     * A copy of one transaction that the caller may edit and pass to updateTransaction
+     */
+    public Transaction getTransactionById(String transactionId) {
+        return cache.transactions.get(transactionId);
+    }
+    
+    /**
+     * Stream all transactions, most recent first, without building a List.
+     * Holds a read connection until the Stream is closed.
+     */
+    public Stream<Transaction> streamTransactions() {
+        return transactionService.streamAll();
+    }
+    
+    /**
+     * Visit transactions with fromMillis <= createTimeMillis < toMillis using
+     * one reused instance. For totals and charts that do not keep rows.
+     */
+    public void scanTransactions(long fromMillis, long toMillis, Consumer<Transaction> visitor) {
+        transactionService.scanBetween(fromMillis, toMillis, visitor);
+    }
+    
+    /**
+     * The cached transactions as primitive columns for totals and charts.
+     * Row i is getTransactions().get(i) of the same cache state; the store
+     * is rebuilt only after the transactions change.
+     */
+    public TransactionColumns getTransactionColumns() {
+        return cache.transactionColumns();
+    }
+    
+    /**
+     * Visit every transaction using one reused instance.
+     */
+    public void scanTransactions(Consumer<Transaction> visitor) {
+        transactionService.scanAll(visitor);
+    }
+    
+    public boolean addTransaction(Transaction transaction) {
+        if (!transactionService.create(transaction)) {
+            return false;
         }
+        changeEvents.publish(cache.transactions.put(transaction));
+        return true;
     }
     
-    public void addTransaction(Transaction transaction) {
-        transactionService.create(transaction);
+    /**
+     * Import many transactions in one database transaction and move wallet
+     * balances by their net amounts (see TransactionService.createAll).
+     * Transactions and wallets are published as reloaded, once.
+     *
+     * @return number of rows imported, or -1 if nothing was written
+     */
+    public int addTransactions(Iterable<Transaction> transactions) {
+        int rows = transactionService.createAll(transactions);
+        if (rows > 0) {
+            // Cheaper to reload once than to copy every imported row in
+            cache.transactions.invalidate();
+            cache.wallets.invalidate();
+            changeEvents.publishReload(Transaction.class, Wallet.class);
+        }
+        return rows;
     }
     
-    public void updateTransaction(Transaction transaction) {
-        transactionService.update(transaction);
+    public boolean updateTransaction(Transaction transaction) {
+        if (!transactionService.update(transaction)) {
+            return false;
+        }
+        changeEvents.publish(cache.transactions.put(transaction));
+        return true;
     }
     
-    public void deleteTransaction(String transactionId) {
-        transactionService.delete(transactionId);
+    public boolean deleteTransaction(String transactionId) {
+        if (!transactionService.delete(transactionId)) {
+            return false;
+        }
+        changeEvents.publish(cache.transactions.remove(transactionId));
+        return true;
     }
     
     // ==================== GOAL OPERATIONS ====================
     
     public List<Goal> getGoals() {
-        try {
-            return goalService.readAll();
-        } catch (Exception e) {
-            System.err.println("Error reading goals: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return cache.goals.snapshot();
+    }
+    
+    /**
+     * A copy of one goal that the caller may edit and pass to updateGoal
+     */
+    public Goal getGoalById(String goalId) {
+        return cache.goals.get(goalId);
     }
     
-    public void addGoal(Goal goal) {
-        goalService.create(goal);
+    public boolean addGoal(Goal goal) {
+        if (!goalService.create(goal)) {
+            return false;
+        }
+        changeEvents.publish(cache.goals.put(goal));
+        return true;
     }
     
-    public void updateGoal(Goal goal) {
-        goalService.update(goal);
+    public boolean updateGoal(Goal goal) {
+        if (!goalService.update(goal)) {
+            return false;
+        }
+        changeEvents.publish(cache.goals.put(goal));
+        return true;
     }
     
-    public void deleteGoal(String goalId) {
-        goalService.delete(goalId);
+    public boolean deleteGoal(String goalId) {
+        if (!goalService.delete(goalId)) {
+            return false;
+        }
+        changeEvents.publish(cache.goals.remove(goalId));
+        return true;
     }
     
     // ==================== BUDGET OPERATIONS ====================
     
     public List<Budget> getBudgets() {
-        try {
-            return budgetService.readAll();
-        } catch (Exception e) {
-            System.err.println("Error reading budgets: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return cache.budgets.snapshot();
+    }
+    
+    /**
+     * A copy of one budget that the caller may edit and pass to updateBudget
+     */
+    public Budget getBudgetById(String budgetId) {
+        return cache.budgets.get(budgetId);
     }
     
-    public void addBudget(Budget budget) {
-        budgetService.create(budget);
+    public boolean addBudget(Budget budget) {
+        if (!budgetService.create(budget)) {
+            return false;
+        }
+        changeEvents.publish(cache.budgets.put(budget));
+        return true;
     }
     
-    public void addBudgetWithCategories(Budget budget, List<String> categoryIds) {
-        budgetService.create(budget);
-        if (categoryIds != null) {
-            for (String categoryId : categoryIds) {
-                budgetService.addCategoryToBudget(budget.getId(), categoryId);
-            }
+    public boolean addBudgetWithCategories(Budget budget, List<String> categoryIds) {
+        if (!budgetService.create(budget)) {
+            return false;
+        }
+        changeEvents.publish(cache.budgets.put(budget));
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            // One batched write for all links instead of an insert per category
+            budgetService.setCategoriesForBudget(budget.getId(), categoryIds);
         }
+        return true;
     }
     
-    public void updateBudget(Budget budget) {
-        budgetService.update(budget);
+    public boolean updateBudget(Budget budget) {
+        if (!budgetService.update(budget)) {
+            return false;
+        }
+        changeEvents.publish(cache.budgets.put(budget));
+        return true;
     }
     
-    public void updateBudgetWithCategories(Budget budget, List<String> categoryIds) {
-        budgetService.update(budget);
+    /**
+     * A change of categories alone is published as an update of the budget
+     */
+    public boolean updateBudgetWithCategories(Budget budget, List<String> categoryIds) {
+        if (!budgetService.update(budget)) {
+            return false;
+        }
+        changeEvents.publish(cache.budgets.put(budget));
         // Clear existing categories and add new ones
         budgetService.setCategoriesForBudget(budget.getId(), categoryIds != null ? categoryIds : new ArrayList<>());
+        return true;
     }
     
-    public void deleteBudget(String budgetId) {
-        budgetService.delete(budgetId);
+    public boolean deleteBudget(String budgetId) {
+        if (!budgetService.delete(budgetId)) {
+            return false;
+        }
+        changeEvents.publish(cache.budgets.remove(budgetId));
+        return true;
     }
     
-    // ==================== UTILITY METHODS ====================
+    // ==================== CACHE ====================
+    
+    /**
+     * Every insert, update and delete made through this class, coalesced
+     * into ChangeSets; screens subscribe here instead of polling
+     */
+    public ChangeEventBus getChangeEvents() {
+        return changeEvents;
+    }
     
-    public double getTotalExpenses() {
-        return getTransactions().stream()
-                .filter(t -> t.getIncome() == 0) // expenses have income = 0
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    /**
+     * Ledger version; changes whenever cached data changes. A screen can
+     * compare it with the version it last rendered to skip a rebuild.
+     */
+    public long getDataVersion() {
+        return cache.getVersion();
     }
     
-    public double getTotalIncome() {
-        return getTransactions().stream()
-                .filter(t -> t.getIncome() > 0)
-                .mapToDouble(Transaction::getIncome)
-                .sum();
+    /**
+     * Forget the cached ledger so the next read reloads from the database,
+     * and publish every type as reloaded. Needed only after writing through
+     * a service directly.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+        changeEvents.publishReload(Wallet.class, Transaction.class, Goal.class, Budget.class);
     }
     
-    // ==================== REFRESH LISTENERS (Observer Pattern) ====================
+    // ==================== SNAPSHOTS ====================
     
-    public void addWalletRefreshListener(Runnable listener) {
-        walletRefreshListeners.add(listener);
+    /**
+     * Write the whole ledger to a binary snapshot file
+     *
+     * @return transactions written, or -1 on failure
+     */
+    public long backupLedger(Path target) {
+        return snapshotService.backup(target);
     }
     
-    public void notifyWalletRefresh() {
-        for (Runnable listener : walletRefreshListeners) {
-            try {
-                listener.run();
-            } catch (Exception e) {
-                System.err.println("Error in wallet refresh listener: " + e.getMessage());
-            }
+    /**
+     * Replace the whole ledger with a snapshot file's contents and publish
+     * every type as reloaded
+     *
+     * @return transactions restored, or -1 if nothing was changed
+     */
+    public long restoreLedger(Path source) {
+        long rows = snapshotService.restore(source);
+        if (rows >= 0) {
+            invalidateCache();
         }
+        return rows;
     }
     
-    public void addGoalRefreshListener(Runnable listener) {
-        goalRefreshListeners.add(listener);
+    /**
+     * Refresh the warm-start snapshot if the ledger changed since it was
+     * written. Call once on exit, before the database is closed.
+     */
+    public void saveWarmStartSnapshot() {
+        snapshotService.saveWarmStart();
     }
     
-    public void notifyGoalRefresh() {
-        for (Runnable listener : goalRefreshListeners) {
-            try {
-                listener.run();
-            } catch (Exception e) {
-                System.err.println("Error in goal refresh listener: " + e.getMessage());
-            }
-        }
-    }
+    // ==================== UTILITY METHODS ====================
     
-    public void addBudgetRefreshListener(Runnable listener) {
-        budgetRefreshListeners.add(listener);
+    /**
+     * Total of all expense transactions, in cents
+     */
+    public long getTotalExpensesCents() {
+        return cache.transactionColumns().sumCents(Long.MIN_VALUE, Long.MAX_VALUE, false);
     }
     
-    public void notifyBudgetRefresh() {
-        for (Runnable listener : budgetRefreshListeners) {
-            try {
-                listener.run();
-            } catch (Exception e) {
-                System.err.println("Error in budget refresh listener: " + e.getMessage());
-            }
-        }
+    /**
+     * Total of all income transactions, in cents
+     */
+    public long getTotalIncomeCents() {
+        return cache.transactionColumns().sumCents(Long.MIN_VALUE, Long.MAX_VALUE, true);
     }
-
+    
     // ==================== LEGACY SUPPORT ====================
     
     public static class DataHolder {
@@ -236,13 +398,20 @@ public class AccountDataLoader {
         public void setWallets(List<Wallet> wallets) { this.wallets = wallets; }
     }
 
+    /**
+     * Fresh, editable lists for the CLI. The CLI writes through the services
+     * directly, so any table the database's data version says may have
+     * changed is reloaded first; the rest are served from the cache.
+     */
     public static DataHolder loadAccountData() {
         AccountDataLoader loader = getInstance();
+        loader.cache.invalidateUnlessAt(loader.snapshotService.currentDataVersion());
         DataHolder data = new DataHolder();
-        data.budgets = loader.getBudgets();
-        data.transactions = loader.getTransactions();
-        data.wallets = loader.getWallets();
-        data.goals = loader.getGoals();
+        // Copies: the CLI edits these rows in place before writing them
+        data.budgets = loader.cache.budgets.copies();
+        data.transactions = loader.cache.transactions.copies();
+        data.wallets = loader.cache.wallets.copies();
+        data.goals = loader.cache.goals.copies();
         return data;
     }
 }
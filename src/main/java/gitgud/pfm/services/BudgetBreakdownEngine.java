@@ -0,0 +1,126 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.BudgetCategory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * BudgetBreakdownEngine - Spent per tracked category, for many budgets at once
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * One query returns a BudgetCategory row for every (budget, tracked category)
+ * pair, however many budgets are asked for:
+ *
+ *   Budget b
+ *     JOIN Budget_Category bc      tracked categories and their limits
+ *     JOIN Category c              display name
+ *     LEFT JOIN budget_spend s     spent, maintained by triggers
+ *
+ * Spending comes from the materialized budget_spend table (see
+ * BudgetSpendTable), so the cost depends on the number of tracked categories,
+ * not on how much transaction history there is. Categories with no spending
+ * still appear, with spent = 0.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class BudgetBreakdownEngine {
+
+    private static final String SELECT_BREAKDOWN =
+            "SELECT bc.budgetID, bc.categoryID, c.name, bc.categoryLimit, " +
+            "COALESCE(s.spent, 0) AS spent " +
+            "FROM Budget b " +
+            "JOIN Budget_Category bc ON bc.budgetID = b.id " +
+            "JOIN Category c ON c.id = bc.categoryID " +
+            "LEFT JOIN budget_spend s ON s.budgetId = bc.budgetID AND s.categoryId = bc.categoryID ";
+
+    private static final String ORDER =
+            " ORDER BY b.name, bc.budgetID, c.name";
+
+    /**
+     * Spending breakdown for one budget
+     *
+     * @return one entry per tracked category, ordered by category name
+     */
+    public List<BudgetCategory> breakdown(String budgetId) {
+        List<BudgetCategory> rows = breakdownAll(Collections.singletonList(budgetId)).get(budgetId);
+        return rows != null ? rows : new ArrayList<>();
+    }
+
+    /**
+     * Spending breakdowns for several budgets in one query
+     *
+     * @param budgetIds Budgets to compute
+     * @return budget id to its breakdown, in the order given; budgets that
+     *         track no categories map to an empty list
+     */
+    public Map<String, List<BudgetCategory>> breakdownAll(Collection<String> budgetIds) {
+        Map<String, List<BudgetCategory>> result = new LinkedHashMap<>();
+        for (String budgetId : budgetIds) {
+            result.put(budgetId, new ArrayList<>());
+        }
+        if (budgetIds.isEmpty()) {
+            return result;
+        }
+        String sql = SELECT_BREAKDOWN + "WHERE b.id IN ("
+                + String.join(", ", Collections.nCopies(budgetIds.size(), "?")) + ")" + ORDER;
+        query(sql, new ArrayList<>(budgetIds), result);
+        return result;
+    }
+
+    /**
+     * Spending breakdowns for every budget whose period contains today
+     *
+     * @return budget id to its breakdown, ordered by budget name; only
+     *         budgets that track at least one category are present
+     */
+    public Map<String, List<BudgetCategory>> breakdownActive() {
+        Map<String, List<BudgetCategory>> result = new LinkedHashMap<>();
+        String sql = SELECT_BREAKDOWN + "WHERE date('now') BETWEEN b.startDate AND b.endDate" + ORDER;
+        query(sql, Collections.emptyList(), result);
+        return result;
+    }
+
+    private void query(String sql, List<String> params, Map<String, List<BudgetCategory>> result) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setString(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String budgetId = rs.getString(1);
+                    long limit = rs.getLong(4);
+                    Long categoryLimit = rs.wasNull() ? null : limit;
+                    BudgetCategory row = new BudgetCategory(
+                            budgetId,
+                            rs.getString(2),
+                            rs.getString(3),
+                            categoryLimit,
+                            rs.getLong(5));
+                    result.computeIfAbsent(budgetId, id -> new ArrayList<>()).add(row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error calculating budget breakdown: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Total spent across a breakdown, in cents
+     */
+    public static long totalSpentCents(List<BudgetCategory> breakdown) {
+        long total = 0L;
+        for (BudgetCategory row : breakdown) {
+            total += row.getSpentCents();
+        }
+        return total;
+    }
+}
@@ -13,34 +13,31 @@ import java.util.List;
  * All SQL queries explicitly show field mappings for clarity
  */
 public class BudgetService implements CRUDInterface<Budget> {
-    private final Connection connection;
-    
-    public BudgetService() {
-        this.connection = Database.getInstance().getConnection();
-    }
     
     /**
      * Create a new budget in the database
      * Explicit fields: id, name, limitAmount, balance, startDate, endDate, periodType, walletId
      */
     @Override
-    public void create(Budget budget) {
+    public boolean create(Budget budget) {
         String sql = "INSERT INTO Budget (id, name, limitAmount, balance, startDate, endDate, periodType, walletId) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budget.getId());
             pstmt.setString(2, budget.getName());
-            pstmt.setDouble(3, budget.getLimitAmount());
-            pstmt.setDouble(4, budget.getBalance());
+            pstmt.setLong(3, budget.getLimitCents());
+            pstmt.setLong(4, budget.getBalanceCents());
             pstmt.setString(5, budget.getStartDate());
             pstmt.setString(6, budget.getEndDate());
             pstmt.setString(7, budget.getPeriodType() != null ? budget.getPeriodType().name() : "MONTHLY");
             pstmt.setString(8, budget.getWalletId());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error creating budget: " + e.getMessage());
+            return false;
         }
     }
     
@@ -53,7 +50,8 @@ public class BudgetService implements CRUDInterface<Budget> {
         String sql = "SELECT id, name, limitAmount, balance, startDate, endDate, periodType, walletId " +
                      "FROM Budget WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -61,8 +59,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                     Budget budget = new Budget();
                     budget.setId(rs.getString("id"));
                     budget.setName(rs.getString("name"));
-                    budget.setLimitAmount(rs.getDouble("limitAmount"));
-                    budget.setBalance(rs.getDouble("balance"));
+                    budget.setLimitCents(rs.getLong("limitAmount"));
+                    budget.setBalanceCents(rs.getLong("balance"));
                     budget.setStartDate(rs.getString("startDate"));
                     budget.setEndDate(rs.getString("endDate"));
                     
@@ -90,19 +88,33 @@ public class BudgetService implements CRUDInterface<Budget> {
      * Explicit fields: id, name, limitAmount, balance, startDate, endDate, periodType, walletId
      */
     public List<Budget> readAll() {
+        try {
+            return loadAll();
+        } catch (SQLException e) {
+            System.err.println("Error reading all budgets: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * readAll for the ledger cache: a failed read throws instead of
+     * returning the rows read so far
+     */
+    List<Budget> loadAll() throws SQLException {
         String sql = "SELECT id, name, limitAmount, balance, startDate, endDate, periodType, walletId " +
                      "FROM Budget ORDER BY name";
         List<Budget> budgets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
                 Budget budget = new Budget();
                 budget.setId(rs.getString("id"));
                 budget.setName(rs.getString("name"));
-                budget.setLimitAmount(rs.getDouble("limitAmount"));
-                budget.setBalance(rs.getDouble("balance"));
+                budget.setLimitCents(rs.getLong("limitAmount"));
+                budget.setBalanceCents(rs.getLong("balance"));
                 budget.setStartDate(rs.getString("startDate"));
                 budget.setEndDate(rs.getString("endDate"));
                 
@@ -118,8 +130,6 @@ public class BudgetService implements CRUDInterface<Budget> {
                 budget.setWalletId(rs.getString("walletId"));
                 budgets.add(budget);
             }
-        } catch (SQLException e) {
-            System.err.println("Error reading all budgets: " + e.getMessage());
         }
         return budgets;
     }
@@ -129,23 +139,25 @@ public class BudgetService implements CRUDInterface<Budget> {
      * Explicit fields: name, limitAmount, balance, startDate, endDate, periodType, walletId (WHERE id = ?)
      */
     @Override
-    public void update(Budget budget) {
+    public boolean update(Budget budget) {
         String sql = "UPDATE Budget SET name = ?, limitAmount = ?, balance = ?, startDate = ?, " +
                      "endDate = ?, periodType = ?, walletId = ? WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budget.getName());
-            pstmt.setDouble(2, budget.getLimitAmount());
-            pstmt.setDouble(3, budget.getBalance());
+            pstmt.setLong(2, budget.getLimitCents());
+            pstmt.setLong(3, budget.getBalanceCents());
             pstmt.setString(4, budget.getStartDate());
             pstmt.setString(5, budget.getEndDate());
             pstmt.setString(6, budget.getPeriodType() != null ? budget.getPeriodType().name() : "MONTHLY");
             pstmt.setString(7, budget.getWalletId());
             pstmt.setString(8, budget.getId());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating budget: " + e.getMessage());
+            return false;
         }
     }
     
@@ -153,15 +165,18 @@ public class BudgetService implements CRUDInterface<Budget> {
      * Delete a budget by id
      */
     @Override
-    public void delete(String id) {
+    public boolean delete(String id) {
         String sql = "DELETE FROM Budget WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting budget: " + e.getMessage());
+            return false;
         }
     }
     public List<Budget> getActiveBudgets() {
@@ -170,15 +185,16 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "ORDER BY name";
         List<Budget> budgets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
                 Budget budget = new Budget();
                 budget.setId(rs.getString("id"));
                 budget.setName(rs.getString("name"));
-                budget.setLimitAmount(rs.getDouble("limitAmount"));
-                budget.setBalance(rs.getDouble("balance"));
+                budget.setLimitCents(rs.getLong("limitAmount"));
+                budget.setBalanceCents(rs.getLong("balance"));
                 budget.setStartDate(rs.getString("startDate"));
                 budget.setEndDate(rs.getString("endDate"));
                 
@@ -208,7 +224,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "FROM Budget WHERE walletId = ? ORDER BY name";
         List<Budget> budgets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, walletId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -216,8 +233,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                     Budget budget = new Budget();
                     budget.setId(rs.getString("id"));
                     budget.setName(rs.getString("name"));
-                    budget.setLimitAmount(rs.getDouble("limitAmount"));
-                    budget.setBalance(rs.getDouble("balance"));
+                    budget.setLimitCents(rs.getLong("limitAmount"));
+                    budget.setBalanceCents(rs.getLong("balance"));
                     budget.setStartDate(rs.getString("startDate"));
                     budget.setEndDate(rs.getString("endDate"));
                     
@@ -248,15 +265,16 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "FROM Budget WHERE walletId IS NULL ORDER BY name";
         List<Budget> budgets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
                 Budget budget = new Budget();
                 budget.setId(rs.getString("id"));
                 budget.setName(rs.getString("name"));
-                budget.setLimitAmount(rs.getDouble("limitAmount"));
-                budget.setBalance(rs.getDouble("balance"));
+                budget.setLimitCents(rs.getLong("limitAmount"));
+                budget.setBalanceCents(rs.getLong("balance"));
                 budget.setStartDate(rs.getString("startDate"));
                 budget.setEndDate(rs.getString("endDate"));
                 
@@ -290,7 +308,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "ORDER BY c.name";
         List<Category> categories = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -326,7 +345,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "FROM Budget_Category WHERE budgetID = ?";
         List<BudgetCategory> budgetCategories = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -335,8 +355,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                     bc.setBudgetId(rs.getString("budgetID"));
                     bc.setCategoryId(rs.getString("categoryID"));
                     
-                    double limit = rs.getDouble("categoryLimit");
-                    bc.setCategoryLimit(rs.wasNull() ? null : limit);
+                    long limit = rs.getLong("categoryLimit");
+                    bc.setCategoryLimitCents(rs.wasNull() ? null : limit);
                     
                     budgetCategories.add(bc);
                 }
@@ -359,7 +379,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                      "ORDER BY b.name";
         List<Budget> budgets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, categoryId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -367,8 +388,8 @@ public class BudgetService implements CRUDInterface<Budget> {
                     Budget budget = new Budget();
                     budget.setId(rs.getString("id"));
                     budget.setName(rs.getString("name"));
-                    budget.setLimitAmount(rs.getDouble("limitAmount"));
-                    budget.setBalance(rs.getDouble("balance"));
+                    budget.setLimitCents(rs.getLong("limitAmount"));
+                    budget.setBalanceCents(rs.getLong("balance"));
                     budget.setStartDate(rs.getString("startDate"));
                     budget.setEndDate(rs.getString("endDate"));
                     
@@ -399,7 +420,8 @@ public class BudgetService implements CRUDInterface<Budget> {
         String sql = "SELECT COUNT(*) FROM Budget_Category " +
                      "WHERE budgetID = ? AND categoryID = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             pstmt.setString(2, categoryId);
             
@@ -423,18 +445,19 @@ public class BudgetService implements CRUDInterface<Budget> {
     }
     
     /**
-     * Add a category to a budget with specific category limit
+     * Add a category to a budget with specific category limit (in cents)
      */
-    public void addCategoryToBudget(String budgetId, String categoryId, Double categoryLimit) {
+    public void addCategoryToBudget(String budgetId, String categoryId, Long categoryLimitCents) {
         String sql = "INSERT INTO Budget_Category (budgetID, categoryID, categoryLimit) VALUES (?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             pstmt.setString(2, categoryId);
-            if (categoryLimit != null) {
-                pstmt.setDouble(3, categoryLimit);
+            if (categoryLimitCents != null) {
+                pstmt.setLong(3, categoryLimitCents);
             } else {
-                pstmt.setNull(3, Types.DOUBLE);
+                pstmt.setNull(3, Types.INTEGER);
             }
             pstmt.executeUpdate();
         } catch (SQLException e) {
@@ -447,16 +470,17 @@ public class BudgetService implements CRUDInterface<Budget> {
     }
     
     /**
-     * Update the category limit for a budget-category relationship
+     * Update the category limit (in cents) for a budget-category relationship
      */
-    public void updateCategoryLimit(String budgetId, String categoryId, Double categoryLimit) {
+    public void updateCategoryLimit(String budgetId, String categoryId, Long categoryLimitCents) {
         String sql = "UPDATE Budget_Category SET categoryLimit = ? WHERE budgetID = ? AND categoryID = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (categoryLimit != null) {
-                pstmt.setDouble(1, categoryLimit);
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            if (categoryLimitCents != null) {
+                pstmt.setLong(1, categoryLimitCents);
             } else {
-                pstmt.setNull(1, Types.DOUBLE);
+                pstmt.setNull(1, Types.INTEGER);
             }
             pstmt.setString(2, budgetId);
             pstmt.setString(3, categoryId);
@@ -467,18 +491,19 @@ public class BudgetService implements CRUDInterface<Budget> {
     }
     
     /**
-     * Get the category limit for a specific budget-category relationship
+     * Get the category limit (in cents) for a specific budget-category relationship
      */
-    public Double getCategoryLimit(String budgetId, String categoryId) {
+    public Long getCategoryLimitCents(String budgetId, String categoryId) {
         String sql = "SELECT categoryLimit FROM Budget_Category WHERE budgetID = ? AND categoryID = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             pstmt.setString(2, categoryId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    double limit = rs.getDouble("categoryLimit");
+                    long limit = rs.getLong("categoryLimit");
                     return rs.wasNull() ? null : limit;
                 }
             }
@@ -494,7 +519,8 @@ public class BudgetService implements CRUDInterface<Budget> {
     public void removeCategoryFromBudget(String budgetId, String categoryId) {
         String sql = "DELETE FROM Budget_Category WHERE budgetID = ? AND categoryID = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             pstmt.setString(2, categoryId);
             pstmt.executeUpdate();
@@ -508,37 +534,41 @@ public class BudgetService implements CRUDInterface<Budget> {
      * Removes all existing category links and adds new ones (transactional)
      */
     public void setCategoriesForBudget(String budgetId, List<String> categoryIds) {
-        try {
-            connection.setAutoCommit(false);
-            
-            // Step 1: Delete all existing category links
-            String deleteSql = "DELETE FROM Budget_Category WHERE budgetID = ?";
-            try (PreparedStatement deleteStmt = connection.prepareStatement(deleteSql)) {
-                deleteStmt.setString(1, budgetId);
-                deleteStmt.executeUpdate();
-            }
-            
-            // Step 2: Insert new category links
-            String insertSql = "INSERT INTO Budget_Category (budgetID, categoryID, categoryLimit) VALUES (?, ?, ?)";
-            try (PreparedStatement insertStmt = connection.prepareStatement(insertSql)) {
-                for (String categoryId : categoryIds) {
-                    insertStmt.setString(1, budgetId);
-                    insertStmt.setString(2, categoryId);
-                    insertStmt.setNull(3, Types.DOUBLE);
-                    insertStmt.addBatch();
-                }
-                insertStmt.executeBatch();
-            }
-            
-            connection.commit();
-            connection.setAutoCommit(true);
-        } catch (SQLException e) {
+        try (Connection connection = Database.getInstance().getWriteConnection()) {
             try {
-                connection.rollback();
+                connection.setAutoCommit(false);
+                
+                // Step 1: Delete all existing category links
+                String deleteSql = "DELETE FROM Budget_Category WHERE budgetID = ?";
+                try (PreparedStatement deleteStmt = connection.prepareStatement(deleteSql)) {
+                    deleteStmt.setString(1, budgetId);
+                    deleteStmt.executeUpdate();
+                }
+                
+                // Step 2: Insert new category links
+                String insertSql = "INSERT INTO Budget_Category (budgetID, categoryID, categoryLimit) VALUES (?, ?, ?)";
+                try (PreparedStatement insertStmt = connection.prepareStatement(insertSql)) {
+                    for (String categoryId : categoryIds) {
+                        insertStmt.setString(1, budgetId);
+                        insertStmt.setString(2, categoryId);
+                        insertStmt.setNull(3, Types.DOUBLE);
+                        insertStmt.addBatch();
+                    }
+                    insertStmt.executeBatch();
+                }
+                
+                connection.commit();
                 connection.setAutoCommit(true);
-            } catch (SQLException rollbackEx) {
-                System.err.println("Error during rollback: " + rollbackEx.getMessage());
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error during rollback: " + rollbackEx.getMessage());
+                }
+                System.err.println("Error setting categories for budget: " + e.getMessage());
             }
+        } catch (SQLException e) {
             System.err.println("Error setting categories for budget: " + e.getMessage());
         }
     }
@@ -550,7 +580,8 @@ public class BudgetService implements CRUDInterface<Budget> {
     public void removeAllCategoriesFromBudget(String budgetId) {
         String sql = "DELETE FROM Budget_Category WHERE budgetID = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, budgetId);
             pstmt.executeUpdate();
         } catch (SQLException e) {
@@ -559,164 +590,137 @@ public class BudgetService implements CRUDInterface<Budget> {
     }
     
     // ==================== SPENDING TRACKING METHODS ====================
+    // Spending is read from budget_spend, which triggers keep current on every
+    // transaction write (see BudgetSpendTable). Each call is a primary-key
+    // lookup, independent of how much transaction history there is.
     
     /**
-     * Calculate total spending for a budget within its date range
+     * Total spending for a budget within its date range
      * Only counts expense transactions (income = 0) for TRACKED categories
      * Uses the Budget_Category junction table to determine which categories to include
+     * Returns the total in cents
      */
-    public double getTotalSpentForBudget(String budgetId) {
-        Budget budget = read(budgetId);
-        if (budget == null) return 0.0;
-        
-        // Check if budget has any tracked categories
-        List<Category> trackedCategories = getCategoriesForBudget(budgetId);
-        if (trackedCategories.isEmpty()) {
-            // No categories tracked - return 0 (or could sum all expenses)
-            return 0.0;
-        }
+    public long getTotalSpentCentsForBudget(String budgetId) {
+        String sql = "SELECT COALESCE(SUM(spent), 0) AS total FROM budget_spend WHERE budgetId = ?";
         
-        // Build SQL to sum transactions only for tracked categories
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT COALESCE(SUM(t.amount), 0) as total ");
-        sql.append("FROM transaction_records t ");
-        sql.append("INNER JOIN Budget_Category bc ON t.categoryId = bc.categoryID ");
-        sql.append("WHERE bc.budgetID = ? ");
-        sql.append("AND t.income = 0 ");
-        sql.append("AND t.createTime BETWEEN ? AND ? ");
-        
-        // If budget is wallet-specific, add wallet filter
-        if (budget.getWalletId() != null && !budget.getWalletId().isEmpty()) {
-            sql.append("AND t.walletId = ? ");
-        }
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-            int paramIndex = 1;
-            pstmt.setString(paramIndex++, budgetId);
-            pstmt.setString(paramIndex++, budget.getStartDate());
-            pstmt.setString(paramIndex++, budget.getEndDate());
-            
-            if (budget.getWalletId() != null && !budget.getWalletId().isEmpty()) {
-                pstmt.setString(paramIndex++, budget.getWalletId());
-            }
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, budgetId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("total");
+                    return rs.getLong("total");
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error calculating total spent for budget: " + e.getMessage());
         }
-        return 0.0;
+        return 0L;
     }
     
     /**
-     * Calculate spending for a specific category within a budget's date range
+     * Spending (in cents) for a specific category within a budget's date range
      */
-    public double getSpentForCategory(String budgetId, String categoryId) {
-        Budget budget = read(budgetId);
-        if (budget == null) return 0.0;
-        
-        String sql;
-        PreparedStatement pstmt;
+    public long getSpentCentsForCategory(String budgetId, String categoryId) {
+        String sql = "SELECT spent FROM budget_spend WHERE budgetId = ? AND categoryId = ?";
         
-        try {
-            // If budget is wallet-specific, filter by walletId
-            if (budget.getWalletId() != null && !budget.getWalletId().isEmpty()) {
-                sql = "SELECT COALESCE(SUM(amount), 0) as total " +
-                      "FROM transaction_records " +
-                      "WHERE income = 0 AND categoryId = ? AND walletId = ? " +
-                      "AND createTime BETWEEN ? AND ?";
-                pstmt = connection.prepareStatement(sql);
-                pstmt.setString(1, categoryId);
-                pstmt.setString(2, budget.getWalletId());
-                pstmt.setString(3, budget.getStartDate());
-                pstmt.setString(4, budget.getEndDate());
-            } else {
-                // Account-wide budget
-                sql = "SELECT COALESCE(SUM(amount), 0) as total " +
-                      "FROM transaction_records " +
-                      "WHERE income = 0 AND categoryId = ? " +
-                      "AND createTime BETWEEN ? AND ?";
-                pstmt = connection.prepareStatement(sql);
-                pstmt.setString(1, categoryId);
-                pstmt.setString(2, budget.getStartDate());
-                pstmt.setString(3, budget.getEndDate());
-            }
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, budgetId);
+            pstmt.setString(2, categoryId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("total");
+                    return rs.getLong("spent");
                 }
             }
-            pstmt.close();
         } catch (SQLException e) {
             System.err.println("Error calculating category spending: " + e.getMessage());
         }
-        return 0.0;
+        return 0L;
     }
     
     /**
-     * Get spending breakdown by category for a budget
-     * Returns BudgetCategory objects with spent, remaining, and percentage
+     * Limit and total spent for a budget in one query, both in cents
+     *
+     * @return { limit, spent }, or null if the budget does not exist
      */
-    public List<BudgetCategory> getSpendingBreakdown(String budgetId) {
-        List<BudgetCategory> breakdown = new ArrayList<>();
-        Budget budget = read(budgetId);
-        if (budget == null) return breakdown;
+    private long[] getLimitAndSpentCents(String budgetId) {
+        String sql = "SELECT b.limitAmount, " +
+                     "(SELECT COALESCE(SUM(s.spent), 0) FROM budget_spend s WHERE s.budgetId = b.id) AS total " +
+                     "FROM Budget b WHERE b.id = ?";
         
-        // Get all categories linked to this budget
-        List<BudgetCategory> budgetCategories = getBudgetCategoriesForBudget(budgetId);
-        
-        for (BudgetCategory bc : budgetCategories) {
-            // Get category details
-            CategoryService categoryService = new CategoryService();
-            Category category = categoryService.read(bc.getCategoryId());
-            if (category == null) continue;
-            
-            // Calculate spent amount
-            double spent = getSpentForCategory(budgetId, bc.getCategoryId());
-            
-            // Create spending object with calculated values
-            BudgetCategory spending = new BudgetCategory(
-                budgetId,
-                bc.getCategoryId(),
-                category.getName(),
-                bc.getCategoryLimit(),
-                spent
-            );
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, budgetId);
             
-            breakdown.add(spending);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new long[] { rs.getLong("limitAmount"), rs.getLong("total") };
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading budget totals: " + e.getMessage());
         }
-        
-        return breakdown;
+        return null;
+    }
+    
+    /**
+     * Recompute every budget_spend row from transaction_records.
+     * Repair path only; the triggers keep the table current in normal use.
+     *
+     * @return number of (budget, category) totals rebuilt, or -1 on failure
+     */
+    public int rebuildSpendTotals() {
+        try (Connection connection = Database.getInstance().getWriteConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int rows = BudgetSpendTable.rebuild(connection);
+                connection.commit();
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding budget spend totals: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Get spending breakdown by category for a budget
+     * Returns BudgetCategory objects with spent, remaining, and percentage,
+     * computed by BudgetBreakdownEngine in a single query
+     */
+    public List<BudgetCategory> getSpendingBreakdown(String budgetId) {
+        return new BudgetBreakdownEngine().breakdown(budgetId);
     }
     
     /**
-     * Calculate remaining budget for entire budget
+     * Calculate remaining budget (in cents) for entire budget
      */
-    public double getRemainingBudget(String budgetId) {
-        Budget budget = read(budgetId);
-        if (budget == null) return 0.0;
+    public long getRemainingCentsForBudget(String budgetId) {
+        long[] totals = getLimitAndSpentCents(budgetId);
+        if (totals == null) return 0L;
         
-        double totalSpent = getTotalSpentForBudget(budgetId);
-        return budget.getLimitAmount() - totalSpent;
+        return totals[0] - totals[1];
     }
     
     /**
-     * Calculate remaining budget for a specific category
+     * Calculate remaining budget (in cents) for a specific category
      */
-    public double getRemainingForCategory(String budgetId, String categoryId) {
-        Double categoryLimit = getCategoryLimit(budgetId, categoryId);
+    public long getRemainingCentsForCategory(String budgetId, String categoryId) {
+        Long categoryLimit = getCategoryLimitCents(budgetId, categoryId);
         if (categoryLimit == null) {
             // No specific limit, use overall budget limit
-            Budget budget = read(budgetId);
-            if (budget == null) return 0.0;
-            return getRemainingBudget(budgetId);
+            return getRemainingCentsForBudget(budgetId);
         }
         
-        double spent = getSpentForCategory(budgetId, categoryId);
+        long spent = getSpentCentsForCategory(budgetId, categoryId);
         return categoryLimit - spent;
     }
     
@@ -724,36 +728,34 @@ public class BudgetService implements CRUDInterface<Budget> {
      * Check if a budget is over its limit
      */
     public boolean isOverBudget(String budgetId) {
-        return getRemainingBudget(budgetId) < 0;
+        return getRemainingCentsForBudget(budgetId) < 0;
     }
     
     /**
      * Check if a category within a budget is over its limit
      */
     public boolean isCategoryOverBudget(String budgetId, String categoryId) {
-        return getRemainingForCategory(budgetId, categoryId) < 0;
+        return getRemainingCentsForCategory(budgetId, categoryId) < 0;
     }
     
     /**
      * Get percentage of budget used
      */
     public double getBudgetUsagePercentage(String budgetId) {
-        Budget budget = read(budgetId);
-        if (budget == null || budget.getLimitAmount() == 0) return 0.0;
+        long[] totals = getLimitAndSpentCents(budgetId);
+        if (totals == null || totals[0] == 0) return 0.0;
         
-        double spent = getTotalSpentForBudget(budgetId);
-        return (spent / budget.getLimitAmount()) * 100.0;
+        return (totals[1] * 100.0) / totals[0];
     }
     
     /**
      * Get percentage of category budget used
      */
     public double getCategoryUsagePercentage(String budgetId, String categoryId) {
-        Double categoryLimit = getCategoryLimit(budgetId, categoryId);
+        Long categoryLimit = getCategoryLimitCents(budgetId, categoryId);
         if (categoryLimit == null || categoryLimit == 0) return 0.0;
         
-        double spent = getSpentForCategory(budgetId, categoryId);
-        return (spent / categoryLimit) * 100.0;
+        long spent = getSpentCentsForCategory(budgetId, categoryId);
+        return (spent * 100.0) / categoryLimit;
     }
 }
-                
\ No newline at end of file
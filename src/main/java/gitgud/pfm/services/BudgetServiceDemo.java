@@ -1,6 +1,7 @@
 package gitgud.pfm.services;
 
 import gitgud.pfm.Models.*;
+import gitgud.pfm.utils.Money;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -114,10 +115,10 @@ public class BudgetServiceDemo {
         System.out.println("  Type: " + monthlyBudget.getPeriodType());
         
         // Add categories with specific limits
-        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT001", 500.0);  // Groceries: $500
-        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT002", 300.0);  // Dining: $300
-        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT003", 200.0);  // Transport: $200
-        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT004", 150.0);  // Entertainment: $150
+        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT001", 50000L);  // Groceries: $500
+        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT002", 30000L);  // Dining: $300
+        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT003", 20000L);  // Transport: $200
+        budgetService.addCategoryToBudget(monthlyBudget.getId(), "CAT004", 15000L);  // Entertainment: $150
         
         System.out.println("\n✓ Added categories with limits:");
         List<BudgetCategory> categories = budgetService.getBudgetCategoriesForBudget(monthlyBudget.getId());
@@ -159,8 +160,8 @@ public class BudgetServiceDemo {
         System.out.println("  Wallet-specific: " + (weeklyBudget.getWalletId() != null ? "Yes" : "No"));
         
         // Add categories
-        budgetService.addCategoryToBudget(weeklyBudget.getId(), "CAT001", 150.0);  // Groceries
-        budgetService.addCategoryToBudget(weeklyBudget.getId(), "CAT002", 100.0);  // Dining
+        budgetService.addCategoryToBudget(weeklyBudget.getId(), "CAT001", 15000L);  // Groceries
+        budgetService.addCategoryToBudget(weeklyBudget.getId(), "CAT002", 10000L);  // Dining
         
         System.out.println("\n✓ Added categories for weekly budget:");
         List<BudgetCategory> categories = budgetService.getBudgetCategoriesForBudget(weeklyBudget.getId());
@@ -196,10 +197,10 @@ public class BudgetServiceDemo {
         System.out.println("  Type: " + yearlyBudget.getPeriodType());
         
         // Add categories with yearly limits
-        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT001", 6000.0);   // Groceries
-        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT002", 3600.0);   // Dining
-        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT003", 2400.0);   // Transport
-        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT004", 1800.0);   // Entertainment
+        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT001", 600000L);   // Groceries
+        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT002", 360000L);   // Dining
+        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT003", 240000L);   // Transport
+        budgetService.addCategoryToBudget(yearlyBudget.getId(), "CAT004", 180000L);   // Entertainment
         
         System.out.println("\n✓ Added categories for yearly budget:");
         List<BudgetCategory> categories = budgetService.getBudgetCategoriesForBudget(yearlyBudget.getId());
@@ -227,13 +228,13 @@ public class BudgetServiceDemo {
         System.out.println("Total Limit: $" + budget.getLimitAmount() + "\n");
         
         // Calculate spending
-        double totalSpent = budgetService.getTotalSpentForBudget(budget.getId());
-        double remaining = budgetService.getRemainingBudget(budget.getId());
+        long totalSpent = budgetService.getTotalSpentCentsForBudget(budget.getId());
+        long remaining = budgetService.getRemainingCentsForBudget(budget.getId());
         double percentage = budgetService.getBudgetUsagePercentage(budget.getId());
         boolean overBudget = budgetService.isOverBudget(budget.getId());
         
-        System.out.println("Total Spent: $" + String.format("%.2f", totalSpent));
-        System.out.println("Remaining: $" + String.format("%.2f", remaining));
+        System.out.println("Total Spent: $" + Money.toPlainString(totalSpent));
+        System.out.println("Remaining: $" + Money.toPlainString(remaining));
         System.out.println("Usage: " + String.format("%.1f", percentage) + "%");
         System.out.println("Over Budget: " + (overBudget ? "⚠️ YES" : "✓ NO"));
         
@@ -243,15 +244,15 @@ public class BudgetServiceDemo {
         for (BudgetCategory bc : categories) {
             Category cat = categoryService.read(bc.getCategoryId());
             if (cat != null) {
-                double spent = budgetService.getSpentForCategory(budget.getId(), bc.getCategoryId());
-                double catRemaining = budgetService.getRemainingForCategory(budget.getId(), bc.getCategoryId());
+                long spent = budgetService.getSpentCentsForCategory(budget.getId(), bc.getCategoryId());
+                long catRemaining = budgetService.getRemainingCentsForCategory(budget.getId(), bc.getCategoryId());
                 double catPercentage = budgetService.getCategoryUsagePercentage(budget.getId(), bc.getCategoryId());
                 boolean catOver = budgetService.isCategoryOverBudget(budget.getId(), bc.getCategoryId());
                 
                 System.out.println("\n  " + cat.getName() + ":");
                 System.out.println("    Limit: $" + bc.getCategoryLimit());
-                System.out.println("    Spent: $" + String.format("%.2f", spent));
-                System.out.println("    Remaining: $" + String.format("%.2f", catRemaining));
+                System.out.println("    Spent: $" + Money.toPlainString(spent));
+                System.out.println("    Remaining: $" + Money.toPlainString(catRemaining));
                 System.out.println("    Usage: " + String.format("%.1f", catPercentage) + "%");
                 System.out.println("    Status: " + (catOver ? "⚠️ Over Budget" : "✓ Within Budget"));
             }
@@ -0,0 +1,180 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * BudgetSpendTable - Materialized spend per (budget, tracked category)
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   budget_spend (budgetId, categoryId, spent)
+ *
+ * One row per Budget_Category row. spent is the cents total of expense
+ * transactions in that category, inside the budget's date range (start of
+ * startDate to end of endDate) and, for a wallet-specific budget, in its
+ * wallet. It is the same rule BudgetService used to evaluate with a SUM.
+ *
+ * SQLite triggers keep the table current, so every write path is covered -
+ * the GUI, the CLI and anything that writes transaction_records directly:
+ *
+ *   transaction_records  INSERT / DELETE / UPDATE   add or subtract the row
+ *                        in the matching budgets
+ *   Budget_Category      INSERT                     compute the new pair
+ *                        DELETE                     drop the pair
+ *   Budget               UPDATE of range / wallet   recompute that budget
+ *                        DELETE                     drop its pairs
+ *
+ * Foreign keys are not enforced on these connections, so the triggers do the
+ * cleanup a cascade would. A migration that rebuilds one of the three source
+ * tables drops its triggers and must call createTriggers again.
+ *
+ * rebuild() recomputes every row from scratch; it is the repair path if the
+ * totals are ever suspected to have drifted.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class BudgetSpendTable {
+
+    /**
+     * V6 - create budget_spend, its triggers, and fill it from existing data
+     */
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "budget_spend" (
+                    "budgetId"    TEXT NOT NULL,
+                    "categoryId"  TEXT NOT NULL,
+                    "spent"       INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY("budgetId", "categoryId")
+                ) WITHOUT ROWID
+                """);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_budget_spend_category ON budget_spend (categoryId)");
+        }
+        createTriggers(connection);
+        rebuild(connection);
+        System.out.println("✓ Created budget_spend totals");
+    }
+
+    /**
+     * Create (or re-create) the triggers that maintain budget_spend
+     */
+    static void createTriggers(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_tx_insert");
+            statement.execute("CREATE TRIGGER trg_budget_spend_tx_insert AFTER INSERT ON transaction_records "
+                    + "BEGIN " + applyRow("NEW", "+") + "; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_tx_delete");
+            statement.execute("CREATE TRIGGER trg_budget_spend_tx_delete AFTER DELETE ON transaction_records "
+                    + "BEGIN " + applyRow("OLD", "-") + "; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_tx_update");
+            statement.execute("CREATE TRIGGER trg_budget_spend_tx_update "
+                    + "AFTER UPDATE OF amount, income, categoryId, walletId, createTimeMillis ON transaction_records "
+                    + "BEGIN " + applyRow("OLD", "-") + "; " + applyRow("NEW", "+") + "; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_category_insert");
+            statement.execute("CREATE TRIGGER trg_budget_spend_category_insert AFTER INSERT ON Budget_Category "
+                    + "BEGIN INSERT OR REPLACE INTO budget_spend (budgetId, categoryId, spent) "
+                    + "SELECT NEW.budgetID, NEW.categoryID, " + spentOf("NEW.categoryID", "b") + " "
+                    + "FROM Budget b WHERE b.id = NEW.budgetID; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_category_delete");
+            statement.execute("CREATE TRIGGER trg_budget_spend_category_delete AFTER DELETE ON Budget_Category "
+                    + "BEGIN DELETE FROM budget_spend "
+                    + "WHERE budgetId = OLD.budgetID AND categoryId = OLD.categoryID; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_budget_update");
+            statement.execute("CREATE TRIGGER trg_budget_spend_budget_update "
+                    + "AFTER UPDATE OF startDate, endDate, walletId ON Budget "
+                    + "BEGIN UPDATE budget_spend SET spent = " + spentOf("budget_spend.categoryId", "NEW") + " "
+                    + "WHERE budgetId = NEW.id; END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_budget_spend_budget_delete");
+            statement.execute("CREATE TRIGGER trg_budget_spend_budget_delete AFTER DELETE ON Budget "
+                    + "BEGIN DELETE FROM budget_spend WHERE budgetId = OLD.id; END");
+        }
+    }
+
+    /**
+     * Drop the triggers, for a bulk rewrite that calls createTriggers and
+     * rebuild afterwards
+     */
+    static void dropTriggers(Connection connection) throws SQLException {
+        String[] triggers = {
+            "trg_budget_spend_tx_insert", "trg_budget_spend_tx_delete", "trg_budget_spend_tx_update",
+            "trg_budget_spend_category_insert", "trg_budget_spend_category_delete",
+            "trg_budget_spend_budget_update", "trg_budget_spend_budget_delete"
+        };
+        try (Statement statement = connection.createStatement()) {
+            for (String trigger : triggers) {
+                statement.execute("DROP TRIGGER IF EXISTS " + trigger);
+            }
+        }
+    }
+
+    /**
+     * Recompute every budget_spend row from transaction_records.
+     *
+     * @param connection Write connection
+     * @return number of (budget, category) rows written
+     */
+    static int rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM budget_spend");
+            return statement.executeUpdate("INSERT INTO budget_spend (budgetId, categoryId, spent) "
+                    + "SELECT bc.budgetID, bc.categoryID, " + spentOf("bc.categoryID", "b") + " "
+                    + "FROM Budget_Category bc JOIN Budget b ON b.id = bc.budgetID");
+        }
+    }
+
+    // ==================== SQL FRAGMENTS ====================
+
+    /**
+     * First epoch millisecond of a budget's period; open when startDate is unreadable
+     */
+    static String rangeStart(String budget) {
+        return "COALESCE(CAST(strftime('%s', date(" + budget + ".startDate)) AS INTEGER) * 1000, "
+                + "-9223372036854775807)";
+    }
+
+    /**
+     * Exclusive end of a budget's period (all of endDate is included)
+     */
+    static String rangeEnd(String budget) {
+        return "COALESCE(CAST(strftime('%s', date(" + budget + ".endDate, '+1 day')) AS INTEGER) * 1000, "
+                + "9223372036854775807)";
+    }
+
+    /**
+     * True when a wallet id satisfies a budget's wallet restriction
+     */
+    static String walletMatches(String budget, String walletId) {
+        return "(" + budget + ".walletId IS NULL OR " + budget + ".walletId = '' OR "
+                + walletId + " = " + budget + ".walletId)";
+    }
+
+    /**
+     * Scalar subquery: cents spent in one category under one budget's rules
+     */
+    private static String spentOf(String categoryId, String budget) {
+        return "(SELECT COALESCE(SUM(t.amount), 0) FROM transaction_records t "
+                + "WHERE t.categoryId = " + categoryId + " AND t.income = 0 "
+                + "AND t.createTimeMillis >= " + rangeStart(budget) + " "
+                + "AND t.createTimeMillis < " + rangeEnd(budget) + " "
+                + "AND " + walletMatches(budget, "t.walletId") + ")";
+    }
+
+    /**
+     * Add (sign "+") or remove (sign "-") one transaction row in every budget it counts toward
+     */
+    private static String applyRow(String row, String sign) {
+        return "UPDATE budget_spend SET spent = spent " + sign + " " + row + ".amount "
+                + "WHERE " + row + ".income = 0 AND categoryId = " + row + ".categoryId "
+                + "AND budgetId IN (SELECT b.id FROM Budget b "
+                + "WHERE " + row + ".createTimeMillis >= " + rangeStart("b") + " "
+                + "AND " + row + ".createTimeMillis < " + rangeEnd("b") + " "
+                + "AND " + walletMatches("b", row + ".walletId") + ")";
+    }
+}
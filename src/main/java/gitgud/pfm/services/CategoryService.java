@@ -10,11 +10,6 @@ import gitgud.pfm.Models.Category;
 import gitgud.pfm.interfaces.CRUDInterface;
 
 public class CategoryService implements CRUDInterface<Category> {
-    private final Connection connection;
-
-    public CategoryService() {
-        this.connection = Database.getInstance().getConnection();
-    }
 
     public List<Category> getDefaultCategories() {
         return List.of(
@@ -39,18 +34,20 @@ public class CategoryService implements CRUDInterface<Category> {
      * Explicit fields: id, name, description, type
      */
     @Override
-    public void create(Category category) {
+    public boolean create(Category category) {
         String sql = "INSERT INTO Category (id, name, description, type) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, category.getId());
             pstmt.setString(2, category.getName());
             pstmt.setString(3, category.getDescription());
             pstmt.setString(4, category.getType() != null ? category.getType().toString() : "EXPENSE");
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error creating category: " + e.getMessage());
+            return false;
         }
     }
 
@@ -61,7 +58,8 @@ public class CategoryService implements CRUDInterface<Category> {
     public Category read(String id) {
         String sql = "SELECT id, name, description, type FROM Category WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -92,18 +90,20 @@ public class CategoryService implements CRUDInterface<Category> {
      * Update an existing category
      */
     @Override
-    public void update(Category category) {
+    public boolean update(Category category) {
         String sql = "UPDATE Category SET name = ?, description = ?, type = ? WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, category.getName());
             pstmt.setString(2, category.getDescription());
             pstmt.setString(3, category.getType() != null ? category.getType().toString() : "EXPENSE");
             pstmt.setString(4, category.getId());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating category: " + e.getMessage());
+            return false;
         }
     }
     
@@ -111,14 +111,17 @@ public class CategoryService implements CRUDInterface<Category> {
      * Delete a category by id
      */
     @Override
-    public void delete(String id) {
+    public boolean delete(String id) {
         String sql = "DELETE FROM Category WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting category: " + e.getMessage());
+            return false;
         }
     }
 
@@ -131,7 +134,8 @@ public class CategoryService implements CRUDInterface<Category> {
         String sql = "SELECT id, name, description, type FROM Category ORDER BY CAST(id AS INTEGER)";
         List<Category> categories = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
@@ -171,7 +175,8 @@ public class CategoryService implements CRUDInterface<Category> {
         String sql = "SELECT id, name, description, type FROM Category WHERE type = ? ORDER BY CAST(id AS INTEGER)";
         List<Category> categories = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, type.toString());
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -197,7 +202,8 @@ public class CategoryService implements CRUDInterface<Category> {
     public boolean exists(String id) {
         String sql = "SELECT COUNT(*) FROM Category WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -0,0 +1,219 @@
+package gitgud.pfm.services;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * ChangeEventBus - Row-level ledger changes, coalesced and delivered in bursts
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   mutator ──publish──> pending (one EntityChange per row) ──flush──> ChangeSet
+ *   mutator ──publish──>    │                                           │
+ *   ...                     └── first publish schedules one flush ──────┴─> subscribers
+ *
+ * AccountDataLoader publishes an EntityChange for every row its mutators
+ * write, and a reload for a type it had to drop from the cache wholesale.
+ * Controllers never notify by hand.
+ *
+ * Changes are buffered until the dispatcher runs the flush. The GUI sets
+ * Platform::runLater, so everything one event handler does (a wallet
+ * balance, the transaction, a goal balance, or a whole bulk edit) reaches
+ * subscribers as a single ChangeSet on the FX thread before the next pulse
+ * is rendered. Repeated changes of a row merge into one (see
+ * EntityChange.then). The default dispatcher flushes on the publishing
+ * thread straight away, which suits the CLI and tools.
+ *
+ * Subscribers are held weakly through an owner, normally the controller:
+ *
+ *     events.subscribe(this, DashboardController::onLedgerChanged, Goal.class, Budget.class);
+ *
+ * The listener gets the owner back as its first argument and must not
+ * capture it, or the owner could never be collected. A subscriber whose
+ * owner has been collected is dropped at the next flush. A listener is only
+ * called for ChangeSets touching one of its types.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class ChangeEventBus {
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private Executor dispatcher = Runnable::run;
+    private Map<Class<?>, Map<String, EntityChange<?>>> pending = new LinkedHashMap<>();
+    private Set<Class<?>> pendingReloads = new LinkedHashSet<>();
+    private boolean flushScheduled;
+
+    /**
+     * Where flushes run, e.g. Platform::runLater. Changes published before
+     * a flush runs are delivered together.
+     */
+    public synchronized void setDispatcher(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * @param owner    Held weakly; the subscription ends when it is collected
+     * @param listener Called with the owner and each ChangeSet touching one of the types
+     * @param types    Entity classes of interest, e.g. Wallet.class
+     */
+    public <O> void subscribe(O owner, BiConsumer<? super O, ChangeSet> listener, Class<?>... types) {
+        subscribers.add(new Subscriber<>(owner, listener, types));
+    }
+
+    /**
+     * End every subscription of the owner
+     */
+    public void unsubscribe(Object owner) {
+        subscribers.removeIf(subscriber -> subscriber.owner.get() == owner);
+    }
+
+    // ==================== PUBLISHING ====================
+
+    void publish(EntityChange<?> change) {
+        Executor target;
+        synchronized (this) {
+            merge(change);
+            target = scheduleFlush();
+        }
+        dispatch(target);
+    }
+
+    void publishAll(List<? extends EntityChange<?>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Executor target;
+        synchronized (this) {
+            for (EntityChange<?> change : changes) {
+                merge(change);
+            }
+            target = scheduleFlush();
+        }
+        dispatch(target);
+    }
+
+    /**
+     * The types were replaced wholesale; subscribers must re-read them
+     */
+    void publishReload(Class<?>... types) {
+        Executor target;
+        synchronized (this) {
+            for (Class<?> type : types) {
+                pendingReloads.add(type);
+                pending.remove(type);
+            }
+            target = scheduleFlush();
+        }
+        dispatch(target);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void merge(EntityChange change) {
+        Class<?> type = change.getEntityType();
+        if (pendingReloads.contains(type)) {
+            return; // subscribers re-read the whole type anyway
+        }
+        Map<String, EntityChange<?>> rows = pending.computeIfAbsent(type, key -> new LinkedHashMap<>());
+        EntityChange earlier = rows.get(change.getId());
+        if (earlier == null) {
+            rows.put(change.getId(), change);
+            return;
+        }
+        EntityChange merged = earlier.then(change);
+        if (merged == null) {
+            rows.remove(change.getId());
+        } else {
+            rows.put(change.getId(), merged);
+        }
+    }
+
+    /**
+     * @return the dispatcher to run a flush on, or null if one is already scheduled
+     */
+    private Executor scheduleFlush() {
+        if (flushScheduled) {
+            return null;
+        }
+        flushScheduled = true;
+        return dispatcher;
+    }
+
+    private void dispatch(Executor target) {
+        if (target == null) {
+            return;
+        }
+        try {
+            target.execute(this::flush);
+        } catch (RuntimeException e) {
+            // The dispatcher is gone (e.g. the FX toolkit has exited); deliver here
+            flush();
+        }
+    }
+
+    // ==================== DELIVERY ====================
+
+    /**
+     * Deliver everything published since the last flush as one ChangeSet
+     */
+    void flush() {
+        ChangeSet changes;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty() && pendingReloads.isEmpty()) {
+                return;
+            }
+            changes = new ChangeSet(pending, pendingReloads);
+            pending = new LinkedHashMap<>();
+            pendingReloads = new LinkedHashSet<>();
+        }
+        if (changes.isEmpty()) {
+            return; // every change cancelled out
+        }
+        for (Subscriber<?> subscriber : subscribers) {
+            if (!subscriber.deliver(changes)) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private static final class Subscriber<O> {
+        private final WeakReference<O> owner;
+        private final BiConsumer<? super O, ChangeSet> listener;
+        private final Class<?>[] types;
+
+        Subscriber(O owner, BiConsumer<? super O, ChangeSet> listener, Class<?>[] types) {
+            this.owner = new WeakReference<>(owner);
+            this.listener = listener;
+            this.types = types.clone();
+        }
+
+        /**
+         * @return false once the owner has been collected
+         */
+        boolean deliver(ChangeSet changes) {
+            O target = owner.get();
+            if (target == null) {
+                return false;
+            }
+            for (Class<?> type : types) {
+                if (changes.touches(type)) {
+                    try {
+                        listener.accept(target, changes);
+                    } catch (Exception e) {
+                        System.err.println("Error in change listener: " + e.getMessage());
+                    }
+                    break;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package gitgud.pfm.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ChangeSet - Everything that changed in the ledger since the last delivery.
+ *
+ * Changes are grouped by entity class (Wallet.class, Transaction.class,
+ * Goal.class, Budget.class) and hold at most one EntityChange per row, in
+ * the order rows were first touched. A type that was replaced wholesale (an
+ * import, a restore, a cascade the cache could not follow) is reported as
+ * reloaded instead, with no row changes: a subscriber must re-read it.
+ */
+public final class ChangeSet {
+
+    private final Map<Class<?>, List<EntityChange<?>>> changes;
+    private final Set<Class<?>> reloaded;
+
+    ChangeSet(Map<Class<?>, Map<String, EntityChange<?>>> changes, Set<Class<?>> reloaded) {
+        Map<Class<?>, List<EntityChange<?>>> lists = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, Map<String, EntityChange<?>>> entry : changes.entrySet()) {
+            if (!entry.getValue().isEmpty() && !reloaded.contains(entry.getKey())) {
+                lists.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue().values())));
+            }
+        }
+        this.changes = lists;
+        this.reloaded = Collections.unmodifiableSet(reloaded);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && reloaded.isEmpty();
+    }
+
+    /**
+     * The type has row changes or was reloaded
+     */
+    public boolean touches(Class<?> type) {
+        return changes.containsKey(type) || reloaded.contains(type);
+    }
+
+    /**
+     * The type was replaced wholesale; changes(type) is empty
+     */
+    public boolean isReloaded(Class<?> type) {
+        return reloaded.contains(type);
+    }
+
+    /**
+     * Row changes of one type; unmodifiable
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<EntityChange<T>> changes(Class<T> type) {
+        List<?> list = changes.get(type);
+        return list == null ? Collections.emptyList() : (List<EntityChange<T>>) list;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ChangeSet{");
+        for (Map.Entry<Class<?>, List<EntityChange<?>>> entry : changes.entrySet()) {
+            text.append(entry.getKey().getSimpleName()).append('=').append(entry.getValue().size()).append(' ');
+        }
+        for (Class<?> type : reloaded) {
+            text.append(type.getSimpleName()).append("=reloaded ");
+        }
+        return text.toString().trim() + "}";
+    }
+}
@@ -0,0 +1,151 @@
+package gitgud.pfm.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * ChannelTextWriter - UTF-8 text into a channel through one direct buffer
+ *
+ * Characters are encoded straight into a direct ByteBuffer that is drained
+ * to the channel whenever it fills, so writing costs no intermediate
+ * Strings, byte arrays or encoder state and memory use stays at the buffer
+ * size however much is written. ASCII takes a one-byte fast path; other
+ * characters, including surrogate pairs, are encoded by hand. Numbers are
+ * written digit by digit rather than through String.valueOf.
+ */
+class ChannelTextWriter implements Closeable {
+
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private long bytesWritten;
+
+    ChannelTextWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelTextWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+    }
+
+    ChannelTextWriter write(char ch) throws IOException {
+        if (ch < 0x80) {
+            put((byte) ch);
+        } else if (ch < 0x800) {
+            ensure(2);
+            buffer.put((byte) (0xC0 | (ch >> 6)));
+            buffer.put((byte) (0x80 | (ch & 0x3F)));
+        } else if (Character.isSurrogate(ch)) {
+            put((byte) '?'); // unpaired surrogate; pairs are handled in write(CharSequence)
+        } else {
+            ensure(3);
+            buffer.put((byte) (0xE0 | (ch >> 12)));
+            buffer.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (ch & 0x3F)));
+        }
+        return this;
+    }
+
+    ChannelTextWriter write(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x80) {
+                put((byte) ch);
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(ch, text.charAt(++i)));
+            } else {
+                write(ch);
+            }
+        }
+        return this;
+    }
+
+    ChannelTextWriter writeLong(long value) throws IOException {
+        if (value < 0) {
+            put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                return write("9223372036854775808");
+            }
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensure(count);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+        return this;
+    }
+
+    /**
+     * Cents as a plain decimal with two places, e.g. -12.05 (see Money.toPlainString)
+     */
+    ChannelTextWriter writeCents(long cents) throws IOException {
+        if (cents < 0) {
+            put((byte) '-');
+        }
+        long abs = Math.abs(cents);
+        writeLong(abs / 100);
+        long fraction = abs % 100;
+        ensure(3);
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + fraction / 10));
+        buffer.put((byte) ('0' + fraction % 10));
+        return this;
+    }
+
+    long bytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Drain the buffer to the channel
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeCodePoint(int codePoint) throws IOException {
+        ensure(4);
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,526 @@
+package gitgud.pfm.services;
+
+import org.sqlite.SQLiteConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * ConnectionPool - Thread-confined SQLite connection manager
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * SQLite allows a single writer but any number of readers when the database is
+ * in WAL mode. This pool mirrors that: one writer connection guarded by a lock,
+ * plus up to N read-only connections handed out from a queue.
+ *
+ * Connections are leased per operation:
+ *
+ *     try (Connection conn = pool.acquireReader();
+ *          PreparedStatement pstmt = conn.prepareStatement(sql)) { ... }
+ *
+ * Closing the returned handle gives the physical connection back to the pool.
+ * Leases are confined to the thread that acquired them. Nested acquisitions on
+ * the same thread reuse the lease that is already held, so a service method can
+ * call another service method without exhausting the pool, and reads issued
+ * while the thread holds the writer see its uncommitted changes.
+ *
+ * Idle connections are validated before reuse and replaced if broken.
+ *
+ * prepareStatement(sql) on a leased handle borrows from the physical
+ * connection's StatementCache, so a statement a service runs often is
+ * compiled once per connection rather than once per call.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxReaders;
+    private final long acquireTimeoutMillis;
+    private final StorageProfile profile;
+
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private PhysicalConnection writer;
+
+    private final BlockingQueue<PhysicalConnection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+
+    private final ThreadLocal<Lease> writerLease = new ThreadLocal<>();
+    private final ThreadLocal<Lease> readerLease = new ThreadLocal<>();
+
+    private volatile boolean closed = false;
+    private volatile long lastWriterRelease = System.currentTimeMillis();
+
+    // Metrics
+    private final AtomicLong writerLeases = new AtomicLong();
+    private final AtomicLong readerLeases = new AtomicLong();
+    private final AtomicLong readerWaits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong replacedConnections = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    /**
+     * Create a pool and open the writer connection immediately.
+     * Read-only connections are opened lazily on first demand.
+     *
+     * @param url                  JDBC url of the SQLite database
+     * @param maxReaders           Maximum number of read-only connections
+     * @param acquireTimeoutMillis How long to wait for a free connection
+     * @param profile              PRAGMA settings applied to every connection
+     * @throws SQLException If the writer connection cannot be opened
+     */
+    public ConnectionPool(String url, int maxReaders, long acquireTimeoutMillis,
+                          StorageProfile profile) throws SQLException {
+        this.url = url;
+        this.maxReaders = Math.max(1, maxReaders);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.profile = profile;
+        this.idleReaders = new ArrayBlockingQueue<>(this.maxReaders);
+        this.writer = openWriter();
+    }
+
+    // ==================== LEASING ====================
+
+    /**
+     * Lease the writer connection. Blocks while another thread holds it.
+     * The caller must close the returned handle (try-with-resources).
+     */
+    public Connection acquireWriter() throws SQLException {
+        ensureOpen();
+        Lease held = writerLease.get();
+        if (held != null) {
+            return held.newHandle();
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for the write connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection", e);
+        }
+        waitNanos.addAndGet(System.nanoTime() - start);
+        return leaseLockedWriter();
+    }
+
+    /**
+     * Lease the writer only if no other thread holds it. Used by background
+     * maintenance that should never queue behind real work.
+     *
+     * @return a writer handle, or null if the writer is busy
+     */
+    public Connection tryAcquireWriter() throws SQLException {
+        ensureOpen();
+        if (writerLease.get() != null || !writerLock.tryLock()) {
+            return null;
+        }
+        return leaseLockedWriter();
+    }
+
+    private Connection leaseLockedWriter() throws SQLException {
+        try {
+            if (!writer.isHealthy()) {
+                writer.closeQuietly();
+                writer = openWriter();
+                replacedConnections.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+
+        writerLeases.incrementAndGet();
+        Lease lease = new Lease(writer, true);
+        writerLease.set(lease);
+        return lease.newHandle();
+    }
+
+    /**
+     * Lease a read-only connection. If the current thread already holds the
+     * writer, the writer is shared so the read observes pending changes.
+     * The caller must close the returned handle (try-with-resources).
+     */
+    public Connection acquireReader() throws SQLException {
+        ensureOpen();
+        Lease held = writerLease.get();
+        if (held == null) {
+            held = readerLease.get();
+        }
+        if (held != null) {
+            return held.newHandle();
+        }
+
+        PhysicalConnection reader = idleReaders.poll();
+        if (reader == null) {
+            if (openReaders.incrementAndGet() <= maxReaders) {
+                try {
+                    reader = openReader();
+                } catch (SQLException e) {
+                    openReaders.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                openReaders.decrementAndGet();
+                reader = awaitReader();
+            }
+        }
+
+        if (!reader.isHealthy()) {
+            reader.closeQuietly();
+            try {
+                reader = openReader();
+            } catch (SQLException e) {
+                openReaders.decrementAndGet();
+                throw e;
+            }
+            replacedConnections.incrementAndGet();
+        }
+
+        readerLeases.incrementAndGet();
+        Lease lease = new Lease(reader, false);
+        readerLease.set(lease);
+        return lease.newHandle();
+    }
+
+    private PhysicalConnection awaitReader() throws SQLException {
+        readerWaits.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            PhysicalConnection reader = idleReaders.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (reader == null) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for a read connection");
+            }
+            return reader;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        } finally {
+            waitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void release(Lease lease) {
+        PhysicalConnection physical = lease.physical;
+        physical.lastUsed = System.currentTimeMillis();
+
+        if (lease.writer) {
+            writerLease.remove();
+            try {
+                if (!physical.connection.getAutoCommit()) {
+                    // A caller left a transaction open; never leak it into the next lease
+                    physical.connection.rollback();
+                    physical.connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error resetting write connection: " + e.getMessage());
+            } finally {
+                lastWriterRelease = physical.lastUsed;
+                writerLock.unlock();
+            }
+            return;
+        }
+
+        readerLease.remove();
+        if (closed || !idleReaders.offer(physical)) {
+            physical.closeQuietly();
+            openReaders.decrementAndGet();
+        }
+    }
+
+    // ==================== CONNECTION SETUP ====================
+
+    private PhysicalConnection openWriter() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try {
+            profile.applyTo(connection, true);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return newPhysical(connection);
+    }
+
+    private PhysicalConnection openReader() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        Connection connection = DriverManager.getConnection(url, config.toProperties());
+        try {
+            profile.applyTo(connection, false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return newPhysical(connection);
+    }
+
+    private PhysicalConnection newPhysical(Connection connection) {
+        return new PhysicalConnection(connection,
+                new StatementCache(connection, profile.getStatementCacheSize(), statementCounters));
+    }
+
+    public StorageProfile getProfile() {
+        return profile;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    /**
+     * Close every pooled connection. Leases still held by other threads are
+     * closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        PhysicalConnection reader;
+        while ((reader = idleReaders.poll()) != null) {
+            reader.closeQuietly();
+            openReaders.decrementAndGet();
+        }
+        writerLock.lock();
+        try {
+            writer.closeQuietly();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Wall-clock time the writer was last handed back to the pool
+     */
+    public long getLastWriterRelease() {
+        return lastWriterRelease;
+    }
+
+    // ==================== METRICS ====================
+
+    public PoolStats getStats() {
+        return new PoolStats(
+            writerLeases.get(),
+            readerLeases.get(),
+            readerWaits.get(),
+            TimeUnit.NANOSECONDS.toMillis(waitNanos.get()),
+            timeouts.get(),
+            replacedConnections.get(),
+            openReaders.get(),
+            idleReaders.size(),
+            writerLock.isLocked(),
+            statementCounters.hits.get(),
+            statementCounters.misses.get(),
+            statementCounters.evictions.get()
+        );
+    }
+
+    /**
+     * Point-in-time snapshot of pool activity
+     */
+    public static class PoolStats {
+        private final long writerLeases;
+        private final long readerLeases;
+        private final long readerWaits;
+        private final long totalWaitMillis;
+        private final long timeouts;
+        private final long replacedConnections;
+        private final int openReaders;
+        private final int idleReaders;
+        private final boolean writerBusy;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        PoolStats(long writerLeases, long readerLeases, long readerWaits, long totalWaitMillis,
+                  long timeouts, long replacedConnections, int openReaders, int idleReaders,
+                  boolean writerBusy, long statementHits, long statementMisses, long statementEvictions) {
+            this.writerLeases = writerLeases;
+            this.readerLeases = readerLeases;
+            this.readerWaits = readerWaits;
+            this.totalWaitMillis = totalWaitMillis;
+            this.timeouts = timeouts;
+            this.replacedConnections = replacedConnections;
+            this.openReaders = openReaders;
+            this.idleReaders = idleReaders;
+            this.writerBusy = writerBusy;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public long getWriterLeases() { return writerLeases; }
+        public long getReaderLeases() { return readerLeases; }
+        public long getReaderWaits() { return readerWaits; }
+        public long getTotalWaitMillis() { return totalWaitMillis; }
+        public long getTimeouts() { return timeouts; }
+        public long getReplacedConnections() { return replacedConnections; }
+        public int getOpenReaders() { return openReaders; }
+        public int getIdleReaders() { return idleReaders; }
+        public boolean isWriterBusy() { return writerBusy; }
+        /** prepareStatement calls served from a StatementCache */
+        public long getStatementHits() { return statementHits; }
+        /** prepareStatement calls that compiled the SQL */
+        public long getStatementMisses() { return statementMisses; }
+        public long getStatementEvictions() { return statementEvictions; }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                    "writerLeases=" + writerLeases +
+                    ", readerLeases=" + readerLeases +
+                    ", readerWaits=" + readerWaits +
+                    ", totalWaitMillis=" + totalWaitMillis +
+                    ", timeouts=" + timeouts +
+                    ", replacedConnections=" + replacedConnections +
+                    ", openReaders=" + openReaders +
+                    ", idleReaders=" + idleReaders +
+                    ", writerBusy=" + writerBusy +
+                    ", statementHits=" + statementHits +
+                    ", statementMisses=" + statementMisses +
+                    ", statementEvictions=" + statementEvictions +
+                    '}';
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    /**
+     * A physical JDBC connection owned by the pool
+     */
+    private static class PhysicalConnection {
+        final Connection connection;
+        final StatementCache statements;   // used only by the thread holding the lease
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PhysicalConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        boolean isHealthy() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < VALIDATE_AFTER_IDLE_MILLIS) {
+                    return true;
+                }
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closeQuietly() {
+            statements.closeAll();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One thread's claim on a physical connection. Every nested acquisition
+     * hands out another handle; the connection goes back to the pool once the
+     * last handle is closed.
+     */
+    private class Lease {
+        final PhysicalConnection physical;
+        final boolean writer;
+        int depth = 0;
+
+        Lease(PhysicalConnection physical, boolean writer) {
+            this.physical = physical;
+            this.writer = writer;
+        }
+
+        Connection newHandle() {
+            depth++;
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(this));
+        }
+
+        void closeHandle() {
+            if (--depth == 0) {
+                release(this);
+            }
+        }
+    }
+
+    /**
+     * Connection handle given to callers; close() returns the lease instead of
+     * closing the physical connection.
+     */
+    private static class Handle implements InvocationHandler {
+        private final Lease lease;
+        private boolean closed = false;
+
+        Handle(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        lease.closeHandle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "unwrap":
+                    if (args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (lease.writer ? "writer" : "reader") + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection lease has already been closed");
+            }
+            if (args != null && args.length == 1 && method.getName().equals("prepareStatement")) {
+                return lease.physical.statements.borrow((String) args[0]);
+            }
+            try {
+                return method.invoke(lease.physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
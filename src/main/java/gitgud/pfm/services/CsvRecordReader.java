@@ -0,0 +1,259 @@
+package gitgud.pfm.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * CsvRecordReader - Streaming RFC 4180 reader that reuses its buffers
+ *
+ * Reads one record at a time from a Reader through a fixed char buffer. The
+ * characters of the current record are unescaped into one reusable char
+ * array and each field is an (offset, length) pair into it, so reading a
+ * line allocates nothing; a String is built only for a field that is asked
+ * for. Quoted fields may contain the delimiter, doubled quotes and line
+ * breaks. Lines may end in LF or CRLF.
+ */
+class CsvRecordReader implements Closeable {
+
+    private final Reader in;
+    private final char delimiter;
+    private final char[] buffer = new char[64 * 1024];
+    private int bufferPos;
+    private int bufferLen;
+
+    private char[] record = new char[256];
+    private int recordLen;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private int fieldCount;
+    private long lineNumber;
+
+    CsvRecordReader(Reader in, char delimiter) {
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Advance to the next record
+     *
+     * @return false at end of input
+     */
+    boolean next() throws IOException {
+        recordLen = 0;
+        fieldCount = 0;
+        int c = read();
+        if (c == '﻿' && lineNumber == 0) {
+            c = read(); // byte order mark written by spreadsheet exports
+        }
+        if (c < 0) {
+            return false;
+        }
+        lineNumber++;
+        int start = 0;
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    break; // unterminated quote: keep what was read
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        c = peek;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                break;
+            } else if (c == delimiter) {
+                endField(start);
+                start = recordLen;
+                atFieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '"' && atFieldStart) {
+                quoted = true;
+            } else if (c != '\r') {
+                append((char) c);
+            }
+            atFieldStart = false;
+            c = read();
+        }
+        endField(start);
+        return true;
+    }
+
+    /**
+     * Fields in the current record
+     */
+    int size() {
+        return fieldCount;
+    }
+
+    /**
+     * Physical line number where the current record ends (1-based)
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * A field of the current record, trimmed; "" when the record has no such column
+     */
+    String field(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return "";
+        }
+        int from = fieldStart[index];
+        int to = fieldEnd[index];
+        while (from < to && record[from] <= ' ') {
+            from++;
+        }
+        while (to > from && record[to - 1] <= ' ') {
+            to--;
+        }
+        return new String(record, from, to - from);
+    }
+
+    /**
+     * True when the record is a blank line
+     */
+    boolean isBlank() {
+        for (int i = 0; i < recordLen; i++) {
+            if (record[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A field parsed as whole cents without building a String or a double.
+     * Accepts a leading or trailing minus, accounting parentheses for
+     * negatives, thousands separators, currency symbols and up to two
+     * decimal places (a third rounds half up).
+     *
+     * The thousands separator is ',' when the decimal separator is '.' and
+     * '.' when it is ','. It is only accepted between a digit and a group of
+     * exactly three digits before the decimal separator, so "12,50" read
+     * with a '.' decimal separator is not a number rather than 1250.00.
+     *
+     * @return cents, or Long.MIN_VALUE when the field is empty or not a number
+     */
+    long cents(int index, char decimalSeparator) {
+        if (index < 0 || index >= fieldCount) {
+            return Long.MIN_VALUE;
+        }
+        char groupSeparator = decimalSeparator == ',' ? '.' : ',';
+        int end = fieldEnd[index];
+        long units = 0;
+        int decimals = -1;
+        boolean negative = false;
+        boolean digits = false;
+        boolean roundUp = false;
+        for (int i = fieldStart[index]; i < end; i++) {
+            char ch = record[i];
+            if (ch >= '0' && ch <= '9') {
+                digits = true;
+                if (decimals < 2) {
+                    if (units > (Long.MAX_VALUE - 9) / 10) {
+                        return Long.MIN_VALUE;
+                    }
+                    units = units * 10 + (ch - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (decimals == 2) {
+                    roundUp = ch >= '5';
+                    decimals++;
+                }
+            } else if (ch == decimalSeparator) {
+                if (decimals >= 0) {
+                    return Long.MIN_VALUE;
+                }
+                decimals = 0;
+            } else if (ch == groupSeparator) {
+                if (!digits || decimals >= 0 || !isDigitGroup(i + 1, end)) {
+                    return Long.MIN_VALUE;
+                }
+            } else if (ch == '-' || ch == '(') {
+                negative = true;
+            } else if (ch == ')' || ch == '+' || ch <= ' '
+                    || ch == '$' || ch == '£' || ch == '€' || ch == '\'') {
+                // separators and symbols carry no value
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        if (!digits) {
+            return Long.MIN_VALUE;
+        }
+        for (int d = Math.max(decimals, 0); d < 2; d++) {
+            units *= 10;
+        }
+        if (roundUp) {
+            units++;
+        }
+        return negative ? -units : units;
+    }
+
+    /**
+     * Exactly three digits start at from, not followed by another digit
+     */
+    private boolean isDigitGroup(int from, int end) {
+        if (from + 3 > end) {
+            return false;
+        }
+        for (int i = from; i < from + 3; i++) {
+            if (record[i] < '0' || record[i] > '9') {
+                return false;
+            }
+        }
+        return from + 3 == end || record[from + 3] < '0' || record[from + 3] > '9';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        if (bufferPos == bufferLen) {
+            bufferLen = in.read(buffer, 0, buffer.length);
+            bufferPos = 0;
+            if (bufferLen <= 0) {
+                bufferLen = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+
+    private void append(char ch) {
+        if (recordLen == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLen++] = ch;
+    }
+
+    private void endField(int start) {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = recordLen;
+        fieldCount++;
+    }
+}
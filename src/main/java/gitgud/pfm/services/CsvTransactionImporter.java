@@ -0,0 +1,628 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Category;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.IdGenerator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * CsvTransactionImporter - Stream a bank statement CSV into one wallet
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   file ──CsvRecordReader──> row ──Mapping──> Transaction ──dedup──> createAll
+ *
+ * The file is read one record at a time and handed to the batched insert as
+ * a lazy Iterable, so a statement of any length is never held in memory.
+ * The whole import is one database transaction: it all lands or none of it.
+ *
+ * Mapping says which columns hold the date, amount and description, how the
+ * date is written, and which sign means money out. Descriptions are matched
+ * to categories by keyword: the mapping's own rules first, then a built-in
+ * list of common merchants, then the category names themselves.
+ *
+ * Duplicates: each row is keyed by a 64-bit hash of its time, cents,
+ * direction and normalized description. Keys already present in the wallet
+ * are counted first, and a row is skipped while its key still has existing
+ * copies left. Re-importing a statement, or one that overlaps an earlier
+ * one, therefore adds nothing twice, while two genuinely identical rows in
+ * one statement (two coffees on the same day) are both kept.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class CsvTransactionImporter {
+
+    /** How a statement shows money out */
+    public enum SignConvention {
+        /** One amount column; negative values are expenses (most bank accounts) */
+        NEGATIVE_IS_EXPENSE,
+        /** One amount column; positive values are expenses (most credit cards) */
+        POSITIVE_IS_EXPENSE,
+        /** Amount column is money out, credit column is money in */
+        SEPARATE_COLUMNS
+    }
+
+    /** Keyword rules used after the mapping's own, as { keyword, category id } */
+    private static final String[][] DEFAULT_KEYWORDS = {
+        { "salary", "10" }, { "payroll", "10" }, { "wages", "10" },
+        { "dividend", "11" }, { "interest", "11" },
+        { "uber eats", "1" }, { "deliveroo", "1" }, { "restaurant", "1" }, { "cafe", "1" },
+        { "coffee", "1" }, { "starbucks", "1" }, { "mcdonald", "1" }, { "tesco", "1" },
+        { "sainsbury", "1" }, { "grocer", "1" }, { "supermarket", "1" },
+        { "uber", "2" }, { "taxi", "2" }, { "fuel", "2" }, { "petrol", "2" }, { "tfl", "2" },
+        { "railway", "2" }, { "parking", "2" },
+        { "rent", "3" }, { "electric", "3" }, { "water", "3" }, { "energy", "3" },
+        { "council tax", "3" }, { "broadband", "3" }, { "mortgage", "3" },
+        { "salon", "4" }, { "barber", "4" }, { "beauty", "4" },
+        { "netflix", "7" }, { "spotify", "7" }, { "subscription", "7" }, { "prime video", "7" },
+        { "icloud", "7" }, { "disney", "7" },
+        { "pharmacy", "6" }, { "dental", "6" }, { "doctor", "6" }, { "hospital", "6" },
+        { "amazon", "5" }, { "ebay", "5" }, { "ikea", "5" },
+        { "cinema", "8" }, { "gym", "8" }, { "steam", "8" }, { "ticket", "8" },
+        { "airline", "9" }, { "airways", "9" }, { "hotel", "9" }, { "airbnb", "9" }, { "flight", "9" }
+    };
+
+    private static final int MAX_ERRORS = 20;
+
+    private final Mapping mapping;
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+
+    public CsvTransactionImporter(Mapping mapping) {
+        this.mapping = mapping;
+        this.transactionService = new TransactionService();
+        this.categoryService = new CategoryService();
+    }
+
+    /**
+     * Import a file into a wallet through TransactionService.createAll
+     */
+    public Result importFile(Path file, String walletId) {
+        return importFile(file, walletId, transactionService::createAll);
+    }
+
+    /**
+     * Import a file into a wallet through the given bulk writer, e.g.
+     * AccountDataLoader::addTransactions to keep the GUI cache current
+     *
+     * @param writer Inserts the rows and returns how many, or -1 on failure
+     */
+    public Result importFile(Path file, String walletId, ToIntFunction<Iterable<Transaction>> writer) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader, walletId, writer);
+        } catch (IOException e) {
+            System.err.println("Error opening CSV file: " + e.getMessage());
+            Result result = new Result();
+            result.fail("Could not read " + file.getFileName() + ": " + e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * Import CSV text into a wallet. The reader is consumed and closed.
+     */
+    public Result importCsv(Reader reader, String walletId, ToIntFunction<Iterable<Transaction>> writer) {
+        Result result = new Result();
+        try (CsvRecordReader csv = new CsvRecordReader(reader, mapping.delimiter)) {
+            Columns columns = resolveColumns(csv, result);
+            if (columns == null) {
+                return result;
+            }
+            CategoryMatcher matcher = new CategoryMatcher(mapping, categoryService.getAllCategories());
+            Map<Long, Integer> existing = existingKeys(walletId);
+            Iterable<Transaction> rows = () -> new RowIterator(csv, columns, matcher, existing, walletId, result);
+
+            int written = writer.applyAsInt(rows);
+            if (written < 0) {
+                result.fail("Import rolled back; no transactions were added");
+            } else {
+                result.imported = written;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+            result.fail("Import rolled back after a read error: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Header names of a CSV file, for offering column choices
+     *
+     * @return the first record's fields, or an empty list if unreadable
+     */
+    public static List<String> readHeader(Path file, char delimiter) {
+        try (CsvRecordReader csv = new CsvRecordReader(
+                Files.newBufferedReader(file, StandardCharsets.UTF_8), delimiter)) {
+            List<String> names = new ArrayList<>();
+            if (csv.next()) {
+                for (int i = 0; i < csv.size(); i++) {
+                    names.add(csv.field(i));
+                }
+            }
+            return names;
+        } catch (IOException e) {
+            System.err.println("Error reading CSV header: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Duplicate-detection key of one transaction (see class comment)
+     */
+    static long dedupKey(long createTimeMillis, long amountCents, boolean income, String description) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, createTimeMillis);
+        hash = mix(hash, amountCents);
+        hash = mix(hash, income ? 1 : 0);
+        // Lower case, runs of whitespace count as one space, ends trimmed
+        boolean space = false;
+        boolean started = false;
+        for (int i = 0; i < description.length(); i++) {
+            char ch = description.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                space = started;
+                continue;
+            }
+            started = true;
+            if (space) {
+                hash = (hash ^ ' ') * 0x100000001b3L;
+                space = false;
+            }
+            hash = (hash ^ Character.toLowerCase(ch)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (value & 0xff)) * 0x100000001b3L;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    // ==================== IMPORT STEPS ====================
+
+    private Map<Long, Integer> existingKeys(String walletId) {
+        Map<Long, Integer> keys = new HashMap<>();
+        transactionService.scanByWallet(walletId, tx -> keys.merge(
+                dedupKey(tx.getCreateTimeMillis(), tx.getAmountCents(), tx.getIncome() > 0,
+                        tx.getName() != null ? tx.getName() : ""),
+                1, Integer::sum));
+        return keys;
+    }
+
+    private Columns resolveColumns(CsvRecordReader csv, Result result) throws IOException {
+        List<String> header = new ArrayList<>();
+        if (mapping.hasHeader) {
+            if (!csv.next()) {
+                result.fail("The file is empty");
+                return null;
+            }
+            for (int i = 0; i < csv.size(); i++) {
+                header.add(csv.field(i));
+            }
+        }
+        Columns columns = new Columns();
+        columns.date = columnIndex(mapping.dateColumn, header, "date", result);
+        columns.amount = columnIndex(mapping.amountColumn, header, "amount", result);
+        columns.description = columnIndex(mapping.descriptionColumn, header, "description", result);
+        columns.credit = mapping.sign == SignConvention.SEPARATE_COLUMNS
+                ? columnIndex(mapping.creditColumn, header, "credit", result) : -1;
+        return result.failed ? null : columns;
+    }
+
+    /**
+     * Index of a column given by header name (case-insensitive) or 1-based number
+     */
+    private static int columnIndex(String spec, List<String> header, String role, Result result) {
+        if (spec == null || spec.isBlank()) {
+            result.fail("No " + role + " column was given");
+            return -1;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).equalsIgnoreCase(spec.trim())) {
+                return i;
+            }
+        }
+        try {
+            int number = Integer.parseInt(spec.trim());
+            if (number >= 1) {
+                return number - 1;
+            }
+        } catch (NumberFormatException e) {
+            // not a number either
+        }
+        result.fail("Column \"" + spec + "\" (" + role + ") is not in the file");
+        return -1;
+    }
+
+    private static final class Columns {
+        int date;
+        int amount;
+        int description;
+        int credit;
+    }
+
+    /**
+     * Lazily turns records into transactions for one pass of createAll,
+     * skipping duplicates and rows that cannot be read
+     */
+    private final class RowIterator implements Iterator<Transaction> {
+        private final CsvRecordReader csv;
+        private final Columns columns;
+        private final CategoryMatcher matcher;
+        private final Map<Long, Integer> existing;
+        private final String walletId;
+        private final Result result;
+        private final DateTimeFormatter dateFormat;
+        private Boolean dateHasTime;
+        private Transaction next;
+
+        RowIterator(CsvRecordReader csv, Columns columns, CategoryMatcher matcher,
+                    Map<Long, Integer> existing, String walletId, Result result) {
+            this.csv = csv;
+            this.columns = columns;
+            this.matcher = matcher;
+            this.existing = existing;
+            this.walletId = walletId;
+            this.result = result;
+            // Strict, so 31/02 is rejected rather than moved to the 29th; strict
+            // resolution needs the proleptic year 'u' where patterns say 'y'
+            String pattern = mapping.datePattern.indexOf('G') < 0
+                    ? mapping.datePattern.replace('y', 'u') : mapping.datePattern;
+            this.dateFormat = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH)
+                    .withResolverStyle(ResolverStyle.STRICT);
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && csv.next()) {
+                    if (!csv.isBlank()) {
+                        result.read++;
+                        next = toTransaction();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return next != null;
+        }
+
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Transaction transaction = next;
+            next = null;
+            return transaction;
+        }
+
+        /**
+         * The current record as a Transaction, or null if it is skipped
+         */
+        private Transaction toTransaction() {
+            LocalDateTime time = parseDate(csv.field(columns.date));
+            if (time == null) {
+                return reject("unreadable date \"" + csv.field(columns.date) + "\"");
+            }
+
+            long cents;
+            boolean income;
+            if (mapping.sign == SignConvention.SEPARATE_COLUMNS) {
+                long out = csv.cents(columns.amount, mapping.decimalSeparator);
+                long in = csv.cents(columns.credit, mapping.decimalSeparator);
+                if (out != Long.MIN_VALUE && out != 0) {
+                    cents = Math.abs(out);
+                    income = false;
+                } else if (in != Long.MIN_VALUE) {
+                    cents = Math.abs(in);
+                    income = true;
+                } else {
+                    return reject("no amount");
+                }
+            } else {
+                long amount = csv.cents(columns.amount, mapping.decimalSeparator);
+                if (amount == Long.MIN_VALUE) {
+                    return reject("unreadable amount \"" + csv.field(columns.amount) + "\"");
+                }
+                boolean expense = mapping.sign == SignConvention.NEGATIVE_IS_EXPENSE ? amount < 0 : amount > 0;
+                cents = Math.abs(amount);
+                income = !expense;
+            }
+            if (cents == 0) {
+                return reject("zero amount");
+            }
+
+            String description = csv.field(columns.description);
+            if (description.isEmpty()) {
+                description = "Imported transaction";
+            }
+            long millis = DateFormatUtil.toEpochMillis(time);
+            long key = dedupKey(millis, cents, income, description);
+            Integer copies = existing.get(key);
+            if (copies != null) {
+                if (copies == 1) {
+                    existing.remove(key);
+                } else {
+                    existing.put(key, copies - 1);
+                }
+                result.duplicates++;
+                return null;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setId(IdGenerator.generateTransactionId());
+            transaction.setCategoryId(matcher.categoryFor(description, income));
+            transaction.setAmountCents(cents);
+            transaction.setName(description);
+            transaction.setIncome(income ? 1 : 0);
+            transaction.setWalletId(walletId);
+            transaction.setCreateTime(DateFormatUtil.formatToIso(time), millis);
+            return transaction;
+        }
+
+        private LocalDateTime parseDate(String text) {
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                // parseBest tries LocalDateTime first and fails on every date-only
+                // row, so it is used once to learn which kind the column holds
+                if (dateHasTime == null) {
+                    TemporalAccessor parsed = dateFormat.parseBest(text, LocalDateTime::from, LocalDate::from);
+                    dateHasTime = parsed instanceof LocalDateTime;
+                }
+                return dateHasTime
+                        ? LocalDateTime.parse(text, dateFormat)
+                        : LocalDate.parse(text, dateFormat).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        private Transaction reject(String reason) {
+            result.rejected++;
+            if (result.errors.size() < MAX_ERRORS) {
+                result.errors.add("Line " + csv.lineNumber() + ": " + reason);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Keyword to category lookup, first match wins. A keyword must start a
+     * word of the description ("tfl" does not match "netflix"), and a rule
+     * only applies to rows going the same way as its category.
+     */
+    private static final class CategoryMatcher {
+        private final List<String> keywords = new ArrayList<>();
+        private final List<String> categoryIds = new ArrayList<>();
+        private final List<Category.Type> types = new ArrayList<>();
+        private final String defaultExpense;
+        private final String defaultIncome;
+
+        CategoryMatcher(Mapping mapping, List<Category> categories) {
+            Map<String, Category.Type> known = new HashMap<>();
+            for (Category category : categories) {
+                known.put(category.getId(), category.getType());
+            }
+            for (Map.Entry<String, String> rule : mapping.categoryRules.entrySet()) {
+                add(rule.getKey(), rule.getValue(), known);
+            }
+            for (String[] rule : DEFAULT_KEYWORDS) {
+                if (known.containsKey(rule[1])) {
+                    add(rule[0], rule[1], known);
+                }
+            }
+            for (Category category : categories) {
+                add(category.getName(), category.getId(), known);
+            }
+            this.defaultExpense = mapping.defaultExpenseCategoryId;
+            this.defaultIncome = mapping.defaultIncomeCategoryId;
+        }
+
+        private void add(String keyword, String categoryId, Map<String, Category.Type> known) {
+            if (keyword != null && !keyword.isBlank() && categoryId != null) {
+                keywords.add(keyword.toLowerCase(Locale.ROOT));
+                categoryIds.add(categoryId);
+                types.add(known.get(categoryId));
+            }
+        }
+
+        String categoryFor(String description, boolean income) {
+            String text = description.toLowerCase(Locale.ROOT);
+            Category.Type wanted = income ? Category.Type.INCOME : Category.Type.EXPENSE;
+            for (int i = 0; i < keywords.size(); i++) {
+                Category.Type type = types.get(i);
+                if ((type == null || type == wanted) && startsWord(text, keywords.get(i))) {
+                    return categoryIds.get(i);
+                }
+            }
+            return income ? defaultIncome : defaultExpense;
+        }
+
+        private static boolean startsWord(String text, String keyword) {
+            for (int at = text.indexOf(keyword); at >= 0; at = text.indexOf(keyword, at + 1)) {
+                if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // ==================== MAPPING ====================
+
+    /**
+     * Where a statement keeps each value. Columns are header names
+     * (case-insensitive) or 1-based column numbers.
+     */
+    public static class Mapping {
+        private String dateColumn = "Date";
+        private String amountColumn = "Amount";
+        private String creditColumn;
+        private String descriptionColumn = "Description";
+        private String datePattern = DateFormatUtil.UK_DATE_PROMPT;
+        private SignConvention sign = SignConvention.NEGATIVE_IS_EXPENSE;
+        private char delimiter = ',';
+        private char decimalSeparator = '.';
+        private boolean hasHeader = true;
+        private final Map<String, String> categoryRules = new LinkedHashMap<>();
+        private String defaultExpenseCategoryId;
+        private String defaultIncomeCategoryId;
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public String getDateColumn() { return dateColumn; }
+        public String getAmountColumn() { return amountColumn; }
+        public String getCreditColumn() { return creditColumn; }
+        public String getDescriptionColumn() { return descriptionColumn; }
+        public String getDatePattern() { return datePattern; }
+        public SignConvention getSign() { return sign; }
+        public char getDelimiter() { return delimiter; }
+        public char getDecimalSeparator() { return decimalSeparator; }
+        public boolean hasHeader() { return hasHeader; }
+        public Map<String, String> getCategoryRules() { return Collections.unmodifiableMap(categoryRules); }
+
+        public static class Builder {
+            private final Mapping mapping = new Mapping();
+
+            public Builder dateColumn(String column) {
+                mapping.dateColumn = column;
+                return this;
+            }
+
+            /** The signed amount, or money out with SEPARATE_COLUMNS */
+            public Builder amountColumn(String column) {
+                mapping.amountColumn = column;
+                return this;
+            }
+
+            /** Money in; only read with SEPARATE_COLUMNS */
+            public Builder creditColumn(String column) {
+                mapping.creditColumn = column;
+                return this;
+            }
+
+            public Builder descriptionColumn(String column) {
+                mapping.descriptionColumn = column;
+                return this;
+            }
+
+            /** DateTimeFormatter pattern; may include a time of day */
+            public Builder datePattern(String pattern) {
+                DateTimeFormatter.ofPattern(pattern); // fail fast on a bad pattern
+                mapping.datePattern = pattern;
+                return this;
+            }
+
+            public Builder sign(SignConvention sign) {
+                mapping.sign = sign;
+                return this;
+            }
+
+            public Builder delimiter(char delimiter) {
+                mapping.delimiter = delimiter;
+                return this;
+            }
+
+            /** '.' (the default) or ',' for amounts such as "1.234,56" */
+            public Builder decimalSeparator(char decimalSeparator) {
+                if (decimalSeparator != '.' && decimalSeparator != ',') {
+                    throw new IllegalArgumentException("Decimal separator must be '.' or ','");
+                }
+                mapping.decimalSeparator = decimalSeparator;
+                return this;
+            }
+
+            public Builder hasHeader(boolean hasHeader) {
+                mapping.hasHeader = hasHeader;
+                return this;
+            }
+
+            /** Descriptions containing keyword (case-insensitive) go to categoryId */
+            public Builder categoryRule(String keyword, String categoryId) {
+                mapping.categoryRules.put(keyword, categoryId);
+                return this;
+            }
+
+            /** Categories for rows no rule matches; null leaves them uncategorized */
+            public Builder defaultCategories(String expenseCategoryId, String incomeCategoryId) {
+                mapping.defaultExpenseCategoryId = expenseCategoryId;
+                mapping.defaultIncomeCategoryId = incomeCategoryId;
+                return this;
+            }
+
+            public Mapping build() {
+                return mapping;
+            }
+        }
+    }
+
+    // ==================== RESULT ====================
+
+    /**
+     * What an import did. Counts are data rows; blank lines are not counted.
+     */
+    public static class Result {
+        private long read;
+        private int imported;
+        private long duplicates;
+        private long rejected;
+        private boolean failed;
+        private String failure;
+        private final List<String> errors = new ArrayList<>();
+
+        public long getRead() { return read; }
+        public int getImported() { return imported; }
+        public long getDuplicates() { return duplicates; }
+        public long getRejected() { return rejected; }
+        public boolean isFailed() { return failed; }
+        public String getFailure() { return failure; }
+
+        /** The first rejected rows with their line numbers */
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+        private void fail(String reason) {
+            if (!failed) {
+                failed = true;
+                failure = reason;
+            }
+            imported = 0;
+        }
+
+        public String summary() {
+            if (failed) {
+                return failure;
+            }
+            return "Imported " + imported + " of " + read + " rows ("
+                    + duplicates + " duplicates skipped, " + rejected + " rejected)";
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gitgud.pfm.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * DataLoadExecutor - Bounded background pool for screen data loads
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Screens hand their reads (AccountDataLoader, services, ReportEngine) to
+ * submit() and get a CompletableFuture back, so a slow query never runs on
+ * the JavaFX Application Thread. Applying the result to the scene graph is
+ * the caller's job, on the FX thread.
+ *
+ * The pool is a small fixed set of daemon threads ("data-load-N"), sized by
+ * pfm.load.threads (default 2). It is deliberately not a virtual-thread
+ * executor: every load holds one of ConnectionPool's few reader connections
+ * and the SQLite driver blocks inside native code, so more threads than
+ * readers would only queue on the pool. Keeping it below the reader count
+ * leaves connections free for the FX thread's own writes and reads.
+ *
+ * A future cancelled before its load has started never runs the load.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class DataLoadExecutor {
+
+    private static final int DEFAULT_THREADS = 2;
+
+    private static DataLoadExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private DataLoadExecutor(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "data-load-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized DataLoadExecutor getInstance() {
+        if (instance == null) {
+            instance = new DataLoadExecutor(Math.max(1, Integer.getInteger("pfm.load.threads", DEFAULT_THREADS)));
+        }
+        return instance;
+    }
+
+    /**
+     * Run a load on the pool
+     *
+     * @param load Reads and returns what the screen shows; must not touch the scene graph
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> load) {
+        return CompletableFuture.supplyAsync(load, executor);
+    }
+
+    /**
+     * Stop taking loads and drop queued ones; call before the database is closed
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+}
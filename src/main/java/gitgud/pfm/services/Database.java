@@ -1,21 +1,38 @@
 package gitgud.pfm.services;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class Database {
-    private static Database instance = null;
+    private static volatile Database instance = null;
     private static final String DB_URL = "jdbc:sqlite:GG_Personal_Finance.db";
-    private Connection connection;
+    private static final int DEFAULT_READERS = 4;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 30_000;
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 10_000;
+    private static final long CHECKPOINT_IDLE_MILLIS = 2_000;
+    private final ConnectionPool pool;
+    private final WalCheckpointScheduler checkpointScheduler;
 
     private Database() {
         try {
-            this.connection = DriverManager.getConnection(DB_URL);
+            int readers = Integer.getInteger("pfm.db.readers", DEFAULT_READERS);
+            StorageProfile profile = StorageProfile.fromSystemProperties();
+            this.pool = new ConnectionPool(DB_URL, readers, ACQUIRE_TIMEOUT_MILLIS, profile);
             System.out.println("Connection to SQLite has been established.");
-            
+
             // Initialize database schema on first connection
-            DatabaseInitializer.initializeDatabase(this.connection);
+            try (Connection connection = pool.acquireWriter()) {
+                DatabaseInitializer.initializeDatabase(connection);
+            }
+
+            if (profile.isWal()) {
+                this.checkpointScheduler = new WalCheckpointScheduler(pool,
+                        Long.getLong("pfm.db.checkpointInterval", CHECKPOINT_INTERVAL_MILLIS),
+                        CHECKPOINT_IDLE_MILLIS);
+                checkpointScheduler.start();
+            } else {
+                this.checkpointScheduler = null;
+            }
         } catch (SQLException e) {
             System.err.println("Database connection failed: " + e.getMessage());
             throw new RuntimeException("Failed to connect to database", e);
@@ -33,25 +50,51 @@ public class Database {
         return instance;
     }
 
+    /**
+     * Lease a read-only connection for one operation. Close it when done.
+     */
+    public Connection getReadConnection() throws SQLException {
+        return pool.acquireReader();
+    }
+
+    /**
+     * Lease the single write connection for one operation. Close it when done.
+     */
+    public Connection getWriteConnection() throws SQLException {
+        return pool.acquireWriter();
+    }
+
+    /**
+     * Lease the write connection. The returned connection is a pooled lease and
+     * must be closed by the caller.
+     *
+     * @deprecated use {@link #getReadConnection()} or {@link #getWriteConnection()}
+     */
+    @Deprecated
     public Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
-            }
+            return pool.acquireWriter();
         } catch (SQLException e) {
             System.err.println("Failed to get connection: " + e.getMessage());
+            return null;
         }
-        return connection;
     }
 
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Flush the WAL into the database file and close every pooled connection.
+     * Safe to call more than once.
+     */
+    public synchronized void closeConnection() {
+        if (!pool.isClosed()) {
+            if (checkpointScheduler != null) {
+                checkpointScheduler.shutdown(true);
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+            pool.close();
+            System.out.println("Database connection closed.");
         }
     }
 
@@ -1,7 +1,6 @@
 package gitgud.pfm.services;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -12,15 +11,20 @@ import java.sql.Statement;
  * Database Initializer - Ensures required tables exist
  * ═══════════════════════════════════════════════════════════════════════════════
  * 
- * Creates all required tables if they don't already exist. This is called
- * automatically when the Database singleton is initialized.
+ * Brings the schema up to date through SchemaMigrator and seeds default
+ * categories. This is called automatically when the Database singleton is
+ * initialized.
  * 
- * Tables created:
+ * Tables (see SchemaMigrator for their definitions and history):
  * - Budget: Financial budget tracking with category limits
  * - Goal: Savings/financial goals with deadlines
  * - Wallets: Wallet management (formerly Accounts)
  * - Account: serves a new purpose referring to the instance of the user program-wide
  * - transaction_records: Individual transaction records
+ * - schema_version: Applied migrations
+ * - ledger_version: Stored data version, bumped by triggers (see LedgerVersionTable)
+ *
+ * Secondary indexes on transaction_records are maintained by TransactionIndexes.
  * 
  * ═══════════════════════════════════════════════════════════════════════════════
  */
@@ -38,134 +42,18 @@ public class DatabaseInitializer {
             throw new SQLException("Cannot initialize database: connection is null");
         }
 
-        try (Statement statement = connection.createStatement()) {
-            // Create Wallet table (must be first for foreign key references)
-            if (!tableExists(connection, "Wallet")) {
-                String createWalletSQL = """
-                    CREATE TABLE "Wallet" (
-                        "id"  TEXT NOT NULL,
-                        "name"  TEXT,
-                        "balance"  NUMERIC,
-                        "color"  TEXT,
-                        PRIMARY KEY("id")
-                    )
-                    """;
-                statement.execute(createWalletSQL);
-                System.out.println("✓ Created table: Wallet");
-            }
+        try {
+            // Creates or upgrades tables; a current file costs one PRAGMA read
+            SchemaMigrator.migrate(connection);
 
-            // Create Category table (referenced by transactions and budgets)
-            boolean categoryTableCreated = false;
-            if (!tableExists(connection, "Category")) {
-                String createCategorySQL = """
-                    CREATE TABLE "Category" (
-                        "id"  TEXT NOT NULL,
-                        "name"  TEXT NOT NULL,
-                        "description"  TEXT,
-                        "type"  TEXT NOT NULL DEFAULT 'EXPENSE',
-                        "color"  TEXT,
-                        PRIMARY KEY("id")
-                    )
-                    """;
-                statement.execute(createCategorySQL);
-                System.out.println("✓ Created table: Category");
-                categoryTableCreated = true;
-            } else {
-                // Add type column if it doesn't exist (for existing databases)
-                addColumnIfNotExists(connection, "Category", "type", "TEXT NOT NULL DEFAULT 'EXPENSE'");
-            }
-
-            // Create Budget table (links to categories via junction table)
-            if (!tableExists(connection, "Budget")) {
-                String createBudgetSQL = """
-                    CREATE TABLE "Budget" (
-                        "id"  TEXT NOT NULL,
-                        "name"  TEXT,
-                        "limitAmount"  NUMERIC,
-                        "balance"  NUMERIC,
-                        "startDate"  TEXT,
-                        "endDate"  TEXT,
-                        "periodType"  TEXT DEFAULT 'MONTHLY',
-                        "walletId"  TEXT,
-                        PRIMARY KEY("id"),
-                        FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
-                    )
-                    """;
-                statement.execute(createBudgetSQL);
-                System.out.println("✓ Created table: Budget");
-            } else {
-                // Add new columns if table exists but columns are missing
-                addColumnIfNotExists(connection, "Budget", "periodType", "TEXT DEFAULT 'MONTHLY'");
-                addColumnIfNotExists(connection, "Budget", "walletId", "TEXT");
-            }
-
-            // Create Goal table (account-wide goals)
-            if (!tableExists(connection, "Goal")) {
-                String createGoalSQL = """
-                    CREATE TABLE "Goal" (
-                        "id"  TEXT NOT NULL,
-                        "name"  TEXT,
-                        "target"  NUMERIC,
-                        "balance"  NUMERIC,
-                        "deadline"  TEXT,
-                        "priority"  NUMERIC,
-                        "createAt"  TEXT,
-                        "walletId"  TEXT,
-                        PRIMARY KEY("id"),
-                        FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
-                    )
-                    """;
-                statement.execute(createGoalSQL);
-                System.out.println("✓ Created table: Goal");
-            } else {
-                // Add walletId column if it doesn't exist (for existing databases)
-                addColumnIfNotExists(connection, "Goal", "walletId", "TEXT");
-            }
-
-            // Create transaction_records table with proper foreign key to Category
-            if (!tableExists(connection, "transaction_records")) {
-                String createTransactionSQL = """
-                    CREATE TABLE "transaction_records" (
-                        "id"  TEXT NOT NULL,
-                        "categoryId"  TEXT,
-                        "amount"  NUMERIC,
-                        "name"  TEXT,
-                        "income"  NUMERIC,
-                        "walletId"  TEXT,
-                        "createTime"  TEXT,
-                        PRIMARY KEY("id"),
-                        FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE CASCADE,
-                        FOREIGN KEY("categoryId") REFERENCES "Category"("id") ON DELETE SET NULL
-                    )
-                    """;
-                statement.execute(createTransactionSQL);
-                System.out.println("✓ Created table: transaction_records");
-            }
-
-            // Create Budget_Category junction table (many-to-many relationship)
-            if (!tableExists(connection, "Budget_Category")) {
-                String createBudgetCategorySQL = """
-                    CREATE TABLE "Budget_Category" (
-                        "budgetID"  TEXT NOT NULL,
-                        "categoryID"  TEXT NOT NULL,
-                        "categoryLimit"  NUMERIC,
-                        PRIMARY KEY("budgetID", "categoryID"),
-                        FOREIGN KEY("budgetID") REFERENCES "Budget"("id") ON DELETE CASCADE,
-                        FOREIGN KEY("categoryID") REFERENCES "Category"("id") ON DELETE CASCADE
-                    )
-                    """;
-                statement.execute(createBudgetCategorySQL);
-                System.out.println("✓ Created table: Budget_Category (junction)");
-            } else {
-                // Add categoryLimit column if it doesn't exist
-                addColumnIfNotExists(connection, "Budget_Category", "categoryLimit", "NUMERIC");
-            }
-
-            // Seed default categories if the table was just created or is empty
-            if (categoryTableCreated || isCategoryTableEmpty(connection)) {
+            // Seed default categories if the table is empty
+            if (isCategoryTableEmpty(connection)) {
                 seedDefaultCategories(connection);
             }
 
+            // Confirm the planner still picks the transaction_records indexes
+            TransactionIndexes.verifyQueryPlans(connection);
+
             System.out.println("Database initialization complete with proper foreign key relationships.");
 
         } catch (SQLException e) {
@@ -225,57 +113,6 @@ public class DatabaseInitializer {
         }
     }
 
-    /**
-     * Check if a table exists in the database.
-     *
-     * @param connection The database connection
-     * @param tableName  The name of the table to check
-     * @return true if the table exists, false otherwise
-     * @throws SQLException If the check fails
-     */
-    private static boolean tableExists(Connection connection, String tableName) throws SQLException {
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet tables = metaData.getTables(null, null, tableName, new String[]{"TABLE"})) {
-            return tables.next();
-        }
-    }
-    
-    /**
-     * Check if a column exists in a table.
-     *
-     * @param connection The database connection
-     * @param tableName  The name of the table
-     * @param columnName The name of the column to check
-     * @return true if the column exists, false otherwise
-     * @throws SQLException If the check fails
-     */
-    private static boolean columnExists(Connection connection, String tableName, String columnName) throws SQLException {
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet columns = metaData.getColumns(null, null, tableName, columnName)) {
-            return columns.next();
-        }
-    }
-    
-    /**
-     * Add a column to a table if it doesn't exist.
-     *
-     * @param connection The database connection
-     * @param tableName  The name of the table
-     * @param columnName The name of the column to add
-     * @param columnDef  The column definition (e.g., "TEXT DEFAULT 'value'")
-     * @throws SQLException If the operation fails
-     */
-    private static void addColumnIfNotExists(Connection connection, String tableName, 
-                                            String columnName, String columnDef) throws SQLException {
-        if (!columnExists(connection, tableName, columnName)) {
-            String alterSQL = "ALTER TABLE \"" + tableName + "\" ADD COLUMN \"" + columnName + "\" " + columnDef;
-            try (Statement statement = connection.createStatement()) {
-                statement.execute(alterSQL);
-                System.out.println("✓ Added column " + columnName + " to table " + tableName);
-            }
-        }
-    }
-
     /**
      * Drop all tables in the database (useful for testing/reset).
      * WARNING: This is destructive and will remove all data.
@@ -289,15 +126,15 @@ public class DatabaseInitializer {
         }
 
         // Drop in reverse order of dependencies (junction tables first)
-        String[] tableNames = {"Budget_Category", "Goal_Category", "transaction_records", "Budget", "Goal", "Wallet", "Category"};
+        String[] tableNames = {"budget_spend", "daily_totals", "monthly_totals", "ledger_version", "Budget_Category", "Goal_Category", "transaction_records", "Budget", "Goal", "Wallet", "Category", "schema_version"};
 
         try (Statement statement = connection.createStatement()) {
             for (String tableName : tableNames) {
-                if (tableExists(connection, tableName)) {
-                    statement.execute("DROP TABLE \"" + tableName + "\"");
-                    System.out.println("✓ Dropped table: " + tableName);
-                }
+                statement.execute("DROP TABLE IF EXISTS \"" + tableName + "\"");
+                System.out.println("✓ Dropped table: " + tableName);
             }
+            // Start the migration history over
+            statement.execute("PRAGMA user_version = 0");
         } catch (SQLException e) {
             System.err.println("Error dropping tables: " + e.getMessage());
             throw e;
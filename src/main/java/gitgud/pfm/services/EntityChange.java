@@ -0,0 +1,65 @@
+package gitgud.pfm.services;
+
+/**
+ * EntityChange - One wallet, transaction, goal or budget row that was
+ * inserted, updated or deleted, with its values before and after.
+ *
+ * before and after are the rows as LedgerCache holds them, shared with its
+ * snapshots: read them, do not edit them. before is null for an insert,
+ * and also when the cache had not loaded that table yet; after is null for
+ * a delete.
+ */
+public final class EntityChange<T> {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Class<T> entityType;
+    private final Type type;
+    private final String id;
+    private final T before;
+    private final T after;
+
+    EntityChange(Class<T> entityType, Type type, String id, T before, T after) {
+        this.entityType = entityType;
+        this.type = type;
+        this.id = id;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Class<T> getEntityType() { return entityType; }
+    public Type getType() { return type; }
+    public String getId() { return id; }
+    public T getBefore() { return before; }
+    public T getAfter() { return after; }
+
+    public boolean isInserted() { return type == Type.INSERTED; }
+    public boolean isUpdated() { return type == Type.UPDATED; }
+    public boolean isDeleted() { return type == Type.DELETED; }
+
+    /**
+     * This change followed by a later change of the same row, as one change;
+     * null when the two cancel out (inserted, then deleted)
+     */
+    EntityChange<T> then(EntityChange<T> later) {
+        if (type == Type.INSERTED) {
+            return later.type == Type.DELETED
+                    ? null
+                    : new EntityChange<>(entityType, Type.INSERTED, id, null, later.after);
+        }
+        if (later.type == Type.DELETED) {
+            return new EntityChange<>(entityType, Type.DELETED, id, before, null);
+        }
+        // updated or deleted, then written again: the row existed before and exists now
+        return new EntityChange<>(entityType, Type.UPDATED, id, before, later.after);
+    }
+
+    @Override
+    public String toString() {
+        return entityType.getSimpleName() + " " + id + " " + type;
+    }
+}
@@ -7,26 +7,53 @@ import gitgud.pfm.Models.Transaction;
 import gitgud.pfm.Models.TransactionCriteria;
 import gitgud.pfm.Models.Goal;
 import gitgud.pfm.Models.Budget;
+import gitgud.pfm.utils.DateFormatUtil;
 public class Filter {
 
     Filter() {
     }
+
+    /**
+     * Filter transactions in the database. The criteria are compiled to a
+     * WHERE clause, so only matching rows are read.
+     */
+    public List<Transaction> filterTransactions(TransactionCriteria criteria) {
+        return new TransactionService().find(criteria);
+    }
+
+    /**
+     * Filter transactions already loaded into memory
+     */
     public List<Transaction> filterTransactions(TransactionCriteria criteria, AccountDataLoader.DataHolder accountdata) {
     List<Transaction> transactions = accountdata.getTransactions();
     List<Transaction> result = new ArrayList<>();
+    // Date bounds are parsed once here; each row is an integer comparison
+    long fromMillis = DateFormatUtil.parseIsoToEpochMillis(criteria.getDateFrom());
+    String dateTo = criteria.getDateTo();
+    if (dateTo != null && dateTo.length() == 10) {
+        dateTo = dateTo + " 23:59:59";
+    }
+    long toMillis = DateFormatUtil.parseIsoToEpochMillis(dateTo);
     for (Transaction t : transactions) {
-        if (matchesTransactionFilterCriteria(t, criteria)) {
+        if (matchesTransactionFilterCriteria(t, criteria, fromMillis, toMillis)) {
             result.add(t);
         }
     }
     return result;
     }
-     private boolean matchesTransactionFilterCriteria(Transaction transaction, TransactionCriteria criteria) {
-        if (!criteria.hasFilters()) {
+     private boolean matchesTransactionFilterCriteria(Transaction transaction, TransactionCriteria criteria,
+                                                      long fromMillis, long toMillis) {
+        if (!criteria.hasFilters() && !criteria.hasSearchTerm()) {
             return true;
         }
 
         // Apply each provided filter; if any check fails, return false.
+        if (criteria.hasSearchTerm()) {
+            if (!criteria.getTransactionId().equals(transaction.getId())) {
+                return false;
+            }
+        }
+
         if (criteria.getMinAmount() != null) {
             if (transaction.getAmount() < criteria.getMinAmount()) {
                 return false;
@@ -53,19 +80,22 @@ public class Filter {
         }
 
         if (criteria.getDateFrom() != null && !criteria.getDateFrom().isEmpty()) {
-            if (transaction.getCreateTime() == null || 
-                transaction.getCreateTime().compareTo(criteria.getDateFrom()) < 0) {
+            if (transaction.getCreateTimeMillis() == 0 ||
+                transaction.getCreateTimeMillis() < fromMillis) {
                 return false;
             }
         }
 
         if (criteria.getDateTo() != null && !criteria.getDateTo().isEmpty()) {
-            String dateTo = criteria.getDateTo();
-            if (dateTo.length() == 10) {
-                dateTo = dateTo + " 23:59:59";
+            if (transaction.getCreateTimeMillis() == 0 ||
+                transaction.getCreateTimeMillis() > toMillis) {
+                return false;
             }
-            if (transaction.getCreateTime() == null || 
-                transaction.getCreateTime().compareTo(dateTo) > 0) {
+        }
+
+        if (criteria.getNameContains() != null && !criteria.getNameContains().isEmpty()) {
+            if (transaction.getName() == null ||
+                !transaction.getName().toLowerCase().contains(criteria.getNameContains().toLowerCase())) {
                 return false;
             }
         }
@@ -16,11 +16,6 @@ import java.util.List;
  * - All SQL queries explicitly show field mappings for clarity
  */
 public class GoalService implements CRUDInterface<Goal> {
-    private final Connection connection;
-
-    public GoalService() {
-        this.connection = Database.getInstance().getConnection();
-    }
 
     /**
      * Create a new goal in the database
@@ -28,21 +23,23 @@ public class GoalService implements CRUDInterface<Goal> {
      * NOTE: balance is NOT stored - it's computed from transactions
      */
     @Override
-    public void create(Goal goal) {
+    public boolean create(Goal goal) {
         String sql = "INSERT INTO Goal (id, name, target, deadline, priority, createAt) " +
                 "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, goal.getId());
             pstmt.setString(2, goal.getName());
-            pstmt.setDouble(3, goal.getTarget());
+            pstmt.setLong(3, goal.getTargetCents());
             pstmt.setString(4, goal.getDeadline());
             pstmt.setDouble(5, goal.getPriority());
             pstmt.setString(6, goal.getCreateTime());
 
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error creating goal: " + e.getMessage());
+            return false;
         }
     }
 
@@ -56,7 +53,8 @@ public class GoalService implements CRUDInterface<Goal> {
         String sql = "SELECT id, name, target, balance, deadline, priority, createAt, walletId " +
             "FROM Goal WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -64,12 +62,12 @@ public class GoalService implements CRUDInterface<Goal> {
                     Goal goal = new Goal();
                     goal.setId(rs.getString("id"));
                     goal.setName(rs.getString("name"));
-                    goal.setTarget(rs.getDouble("target"));
+                    goal.setTargetCents(rs.getLong("target"));
                     goal.setDeadline(rs.getString("deadline"));
                     goal.setPriority(rs.getDouble("priority"));
                     goal.setCreateTime(rs.getString("createAt"));
 
-                    goal.setBalance(rs.getDouble("balance"));
+                    goal.setBalanceCents(rs.getLong("balance"));
                     goal.setWalletId(rs.getString("walletId"));
                     // Computed fields unavailable without transaction.goalId link
                     goal.setTxCount(0);
@@ -90,23 +88,37 @@ public class GoalService implements CRUDInterface<Goal> {
      * NOTE: balance is computed for each goal from transactions
      */
     public List<Goal> readAll() {
+        try {
+            return loadAll();
+        } catch (SQLException e) {
+            System.err.println("Error reading all goals: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * readAll for the ledger cache: a failed read throws instead of
+     * returning the rows read so far
+     */
+    List<Goal> loadAll() throws SQLException {
         String sql = "SELECT id, name, target, balance, deadline, priority, createAt, walletId " +
             "FROM Goal ORDER BY priority DESC, deadline";
         List<Goal> goals = new ArrayList<>();
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
                 ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 Goal goal = new Goal();
                 goal.setId(rs.getString("id"));
                 goal.setName(rs.getString("name"));
-                goal.setTarget(rs.getDouble("target"));
+                goal.setTargetCents(rs.getLong("target"));
                 goal.setDeadline(rs.getString("deadline"));
                 goal.setPriority(rs.getDouble("priority"));
                 goal.setCreateTime(rs.getString("createAt"));
 
-                goal.setBalance(rs.getDouble("balance"));
+                goal.setBalanceCents(rs.getLong("balance"));
                 goal.setWalletId(rs.getString("walletId"));
                 // Computed fields unavailable without transaction.goalId link
                 goal.setTxCount(0);
@@ -114,8 +126,6 @@ public class GoalService implements CRUDInterface<Goal> {
 
                 goals.add(goal);
             }
-        } catch (SQLException e) {
-            System.err.println("Error reading all goals: " + e.getMessage());
         }
         return goals;
     }
@@ -126,22 +136,24 @@ public class GoalService implements CRUDInterface<Goal> {
      * NOTE: balance is NEVER updated - it's always computed from transactions
      */
     @Override
-     public void update(Goal goal) {
+     public boolean update(Goal goal) {
         String sql = "UPDATE Goal SET name = ?, target = ?, balance = ?, deadline = ?, " +
                 "priority = ?, createAt = ? WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, goal.getName());
-            pstmt.setDouble(2, goal.getTarget());
-            pstmt.setDouble(3, goal.getBalance());  // ← ADDED THIS
+            pstmt.setLong(2, goal.getTargetCents());
+            pstmt.setLong(3, goal.getBalanceCents());  // ← ADDED THIS
             pstmt.setString(4, goal.getDeadline());
             pstmt.setDouble(5, goal.getPriority());
             pstmt.setString(6, goal.getCreateTime());
             pstmt.setString(7, goal.getId());
 
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating goal: " + e.getMessage());
+            return false;
         }
     }
 
@@ -156,15 +168,18 @@ public class GoalService implements CRUDInterface<Goal> {
      * Current implementation: Simple delete (relies on database constraints)
      */
     @Override
-    public void delete(String id) {
+    public boolean delete(String id) {
         String sql = "DELETE FROM Goal WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting goal: " + e.getMessage());
+            return false;
         }
     }
 
@@ -180,12 +195,12 @@ public class GoalService implements CRUDInterface<Goal> {
      * This is the authoritative source of truth for goal.getBalance()
      * 
      * @param goalId The goal ID to compute progress for
-     * @return The sum of all transaction amounts allocated to this goal
+     * @return The sum of all transaction amounts allocated to this goal, in cents
      */
-    public double computeGoalProgress(String goalId) {
+    public long computeGoalProgressCents(String goalId) {
         // Schema does not include a goalId column on transactions; cannot compute
         // progress from DB
-        return 0.0;
+        return 0L;
     }
 
     /**
@@ -196,12 +211,12 @@ public class GoalService implements CRUDInterface<Goal> {
      */
     public double getGoalProgressPercentage(String goalId) {
         Goal goal = read(goalId);
-        if (goal == null || goal.getTarget() <= 0) {
+        if (goal == null || goal.getTargetCents() <= 0) {
             return 0.0;
         }
 
-        double current = computeGoalProgress(goalId);
-        return (current / goal.getTarget()) * 100.0;
+        long current = computeGoalProgressCents(goalId);
+        return (current * 100.0) / goal.getTargetCents();
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -263,7 +278,8 @@ public class GoalService implements CRUDInterface<Goal> {
         String sql = "SELECT id, name, target, balance, deadline, priority, createAt, walletId " +
             "FROM Goal WHERE name LIKE ? ORDER BY name";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, namePattern);
 
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -271,12 +287,12 @@ public class GoalService implements CRUDInterface<Goal> {
                     Goal goal = new Goal();
                     goal.setId(rs.getString("id"));
                     goal.setName(rs.getString("name"));
-                    goal.setTarget(rs.getDouble("target"));
+                    goal.setTargetCents(rs.getLong("target"));
                     goal.setDeadline(rs.getString("deadline"));
                     goal.setPriority(rs.getDouble("priority"));
                     goal.setCreateTime(rs.getString("createAt"));
 
-                    goal.setBalance(rs.getDouble("balance"));
+                    goal.setBalanceCents(rs.getLong("balance"));
                     goal.setWalletId(rs.getString("walletId"));
                     goal.setTxCount(0);
                     goal.setProgress(0.0);
@@ -0,0 +1,383 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.Goal;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.Wallet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * LedgerCache - In-memory copy of wallets, transactions, goals and budgets
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Each entity type is a Table that loads from its service on first read and
+ * is then kept current write-through: AccountDataLoader writes the database
+ * first and, only if the write succeeded, applies the same change here, so
+ * later reads never go back to SQLite. A table whose load fails is not
+ * kept: the read sees no rows and the next read tries again.
+ *
+ * Readers get an unmodifiable List in the same order the service's readAll()
+ * returns. The List is rebuilt only after a write and is shared until the
+ * next one, so repeated reads between writes cost nothing. The cache keeps
+ * its own copies of what it is given; callers change data through the
+ * AccountDataLoader mutators, never by editing snapshot elements.
+ *
+ * Every write bumps a ledger-wide version, letting a screen skip a rebuild
+ * when nothing has changed since it last rendered. Writes also return the
+ * EntityChange they made, which AccountDataLoader publishes on its
+ * ChangeEventBus.
+ *
+ * Separately, each table remembers the database's stored data version it
+ * was loaded at (see LedgerVersionTable). A table still at the database's
+ * current version matches it, so a reload request can keep it. A write
+ * through the cache clears the tag; a table seeded from a warm-start
+ * snapshot takes the snapshot's version.
+ *
+ * The transactions are also offered as a TransactionColumns store for
+ * analytics. It is built from the transaction snapshot on first use and
+ * kept until that snapshot is replaced.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+class LedgerCache {
+
+    private long version;
+    private final LongSupplier dataVersion;
+
+    final Table<Wallet> wallets;
+    final Table<Transaction> transactions;
+    final Table<Goal> goals;
+    final Table<Budget> budgets;
+
+    private List<Transaction> columnsSource;   // the snapshot columns was built from
+    private TransactionColumns columns;
+
+    LedgerCache(WalletService walletService, TransactionService transactionService,
+                GoalService goalService, BudgetService budgetService, LongSupplier dataVersion) {
+        this.dataVersion = dataVersion;
+        wallets = new Table<>(Wallet.class, walletService::loadAll, Wallet::getId, LedgerCache::copyWallet,
+                Comparator.comparing(Wallet::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        transactions = new Table<>(Transaction.class, transactionService::loadAll, Transaction::getId, LedgerCache::copyTransaction,
+                Comparator.comparingLong(Transaction::getCreateTimeMillis)
+                        .thenComparing(Transaction::getId).reversed());
+        goals = new Table<>(Goal.class, goalService::loadAll, Goal::getId, LedgerCache::copyGoal,
+                Comparator.comparingDouble(Goal::getPriority).reversed()
+                        .thenComparing(Goal::getDeadline, Comparator.nullsFirst(Comparator.naturalOrder())));
+        budgets = new Table<>(Budget.class, budgetService::loadAll, Budget::getId, LedgerCache::copyBudget,
+                Comparator.comparing(Budget::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    /**
+     * Counter bumped by every write and invalidation
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    private synchronized void bumpVersion() {
+        version++;
+    }
+
+    /**
+     * The transactions as primitive columns, row for row with
+     * transactions.snapshot()
+     */
+    synchronized TransactionColumns transactionColumns() {
+        List<Transaction> rows = transactions.snapshot();
+        if (rows != columnsSource) {
+            columns = new TransactionColumns(rows);
+            columnsSource = rows;
+        }
+        return columns;
+    }
+
+    /**
+     * Drop everything; each table reloads on its next read
+     */
+    void invalidateAll() {
+        wallets.invalidate();
+        transactions.invalidate();
+        goals.invalidate();
+        budgets.invalidate();
+    }
+
+    /**
+     * Drop the tables that may differ from the database at the given data
+     * version; tables loaded at exactly that version are kept
+     */
+    void invalidateUnlessAt(long currentDataVersion) {
+        wallets.invalidateUnlessAt(currentDataVersion);
+        transactions.invalidateUnlessAt(currentDataVersion);
+        goals.invalidateUnlessAt(currentDataVersion);
+        budgets.invalidateUnlessAt(currentDataVersion);
+    }
+
+    /**
+     * Load all four tables from a snapshot instead of the services
+     */
+    void seed(LedgerSnapshot snapshot) {
+        wallets.seed(snapshot.getWallets(), snapshot.getDataVersion());
+        transactions.seed(snapshot.getTransactions(), snapshot.getDataVersion());
+        goals.seed(snapshot.getGoals(), snapshot.getDataVersion());
+        budgets.seed(snapshot.getBudgets(), snapshot.getDataVersion());
+    }
+
+    /**
+     * One entity type: rows by id plus the sorted snapshot handed to readers.
+     */
+    final class Table<T> {
+        private final Class<T> type;
+        private final Loader<T> loader;
+        private final Function<T, String> idOf;
+        private final UnaryOperator<T> copier;
+        private final Comparator<T> order;
+
+        private Map<String, T> byId;     // null until loaded
+        private List<T> snapshot;        // null when a write has made it stale
+        private long loadedAt = -1;      // data version byId matches, -1 if unknown
+
+        private Table(Class<T> type, Loader<T> loader, Function<T, String> idOf,
+                      UnaryOperator<T> copier, Comparator<T> order) {
+            this.type = type;
+            this.loader = loader;
+            this.idOf = idOf;
+            this.copier = copier;
+            this.order = order;
+        }
+
+        /**
+         * All rows in service order; unmodifiable. Empty if the load failed.
+         */
+        synchronized List<T> snapshot() {
+            if (!ensureLoaded()) {
+                return Collections.emptyList();
+            }
+            if (snapshot == null) {
+                List<T> rows = new ArrayList<>(byId.values());
+                rows.sort(order);
+                snapshot = Collections.unmodifiableList(rows);
+            }
+            return snapshot;
+        }
+
+        /**
+         * Private copies of all rows in service order, safe for the caller to edit
+         */
+        synchronized List<T> copies() {
+            List<T> rows = snapshot();
+            List<T> copies = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                copies.add(copier.apply(row));
+            }
+            return copies;
+        }
+
+        /**
+         * A private copy of one row, safe for the caller to edit, or null
+         */
+        synchronized T get(String id) {
+            if (!ensureLoaded()) {
+                return null;
+            }
+            T row = byId.get(id);
+            return row == null ? null : copier.apply(row);
+        }
+
+        /**
+         * Insert or replace a row after it has been written to the database
+         *
+         * @return the change; UPDATED with no before value if the table was not loaded
+         */
+        EntityChange<T> put(T row) {
+            String id = idOf.apply(row);
+            T after = copier.apply(row);
+            T before;
+            synchronized (this) {
+                if (byId == null) {
+                    // not loaded yet; the first read picks it up
+                    return new EntityChange<>(type, EntityChange.Type.UPDATED, id, null, after);
+                }
+                before = byId.put(id, after);
+                snapshot = null;
+                loadedAt = -1;
+            }
+            bumpVersion();
+            return new EntityChange<>(type, before == null ? EntityChange.Type.INSERTED : EntityChange.Type.UPDATED,
+                    id, before, after);
+        }
+
+        /**
+         * Drop a row after it has been deleted from the database
+         */
+        EntityChange<T> remove(String id) {
+            T before;
+            synchronized (this) {
+                if (byId == null || (before = byId.remove(id)) == null) {
+                    return new EntityChange<>(type, EntityChange.Type.DELETED, id, null, null);
+                }
+                snapshot = null;
+                loadedAt = -1;
+            }
+            bumpVersion();
+            return new EntityChange<>(type, EntityChange.Type.DELETED, id, before, null);
+        }
+
+        /**
+         * @return a DELETED change per row dropped; empty if the table was not loaded
+         */
+        List<EntityChange<T>> removeIf(Predicate<T> filter) {
+            List<EntityChange<T>> removed = new ArrayList<>();
+            synchronized (this) {
+                if (byId == null) {
+                    return removed;
+                }
+                for (Iterator<Map.Entry<String, T>> rows = byId.entrySet().iterator(); rows.hasNext(); ) {
+                    Map.Entry<String, T> row = rows.next();
+                    if (filter.test(row.getValue())) {
+                        removed.add(new EntityChange<>(type, EntityChange.Type.DELETED, row.getKey(), row.getValue(), null));
+                        rows.remove();
+                    }
+                }
+                if (removed.isEmpty()) {
+                    return removed;
+                }
+                snapshot = null;
+                loadedAt = -1;
+            }
+            bumpVersion();
+            return removed;
+        }
+
+        synchronized boolean isLoaded() {
+            return byId != null;
+        }
+
+        void invalidate() {
+            synchronized (this) {
+                byId = null;
+                snapshot = null;
+                loadedAt = -1;
+            }
+            bumpVersion();
+        }
+
+        void invalidateUnlessAt(long currentDataVersion) {
+            synchronized (this) {
+                if (byId != null && currentDataVersion >= 0 && loadedAt == currentDataVersion) {
+                    return;
+                }
+            }
+            invalidate();
+        }
+
+        /**
+         * Take rows read from a snapshot at the given data version; the
+         * rows become the cache's own
+         */
+        void seed(List<T> rows, long atDataVersion) {
+            synchronized (this) {
+                fill(rows, atDataVersion);
+            }
+            bumpVersion();
+        }
+
+        /**
+         * @return false if the load failed; the table stays unloaded
+         */
+        private boolean ensureLoaded() {
+            if (byId != null) {
+                return true;
+            }
+            // Read the version first: a write racing the load leaves it older, never newer
+            long atDataVersion = dataVersion.getAsLong();
+            try {
+                fill(loader.load(), atDataVersion);
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Error loading " + type.getSimpleName() + " rows: " + e.getMessage());
+                return false;
+            }
+        }
+
+        private void fill(List<T> rows, long atDataVersion) {
+            Map<String, T> loaded = new HashMap<>(rows.size() * 2);
+            for (T row : rows) {
+                loaded.put(idOf.apply(row), row);
+            }
+            byId = loaded;
+            snapshot = null;
+            loadedAt = atDataVersion;
+        }
+    }
+
+    /**
+     * A table's full read, throwing instead of returning a partial list
+     */
+    private interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    // ==================== COPIES ====================
+
+    private static Wallet copyWallet(Wallet source) {
+        Wallet copy = new Wallet();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBalanceCents(source.getBalanceCents());
+        copy.setColor(source.getColor());
+        return copy;
+    }
+
+    private static Transaction copyTransaction(Transaction source) {
+        Transaction copy = new Transaction();
+        copy.setId(source.getId());
+        copy.setCategoryId(source.getCategoryId());
+        copy.setAmountCents(source.getAmountCents());
+        copy.setName(source.getName());
+        copy.setIncome(source.getIncome());
+        copy.setWalletId(source.getWalletId());
+        copy.setCreateTime(source.getCreateTime(), source.getCreateTimeMillis());
+        copy.setGoalId(source.getGoalId());
+        return copy;
+    }
+
+    private static Goal copyGoal(Goal source) {
+        Goal copy = new Goal();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBalanceCents(source.getBalanceCents());
+        copy.setTargetCents(source.getTargetCents());
+        copy.setDeadline(source.getDeadline());
+        copy.setPriority(source.getPriority());
+        copy.setCreateTime(source.getCreateTime());
+        copy.setWalletId(source.getWalletId());
+        copy.setTxCount(source.getTxCount());
+        copy.setProgress(source.getProgress());
+        return copy;
+    }
+
+    private static Budget copyBudget(Budget source) {
+        Budget copy = new Budget();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBalanceCents(source.getBalanceCents());
+        copy.setLimitCents(source.getLimitCents());
+        copy.setStartDate(source.getStartDate());
+        copy.setEndDate(source.getEndDate());
+        copy.setPeriodType(source.getPeriodType());
+        copy.setWalletId(source.getWalletId());
+        copy.setCategoryId(source.getCategoryId());
+        return copy;
+    }
+}
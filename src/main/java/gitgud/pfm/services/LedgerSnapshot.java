@@ -0,0 +1,79 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.BudgetCategory;
+import gitgud.pfm.Models.Category;
+import gitgud.pfm.Models.Goal;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.Wallet;
+import java.util.List;
+
+/**
+ * LedgerSnapshot - Every ledger table as of one stored data version
+ *
+ * What a snapshot file holds (see LedgerSnapshotFile) and what
+ * LedgerSnapshotService reads from or writes to the database. The lists are
+ * the file's or the query's own; nothing else refers to them.
+ */
+public class LedgerSnapshot {
+
+    private final long dataVersion;
+    private final long createdMillis;
+    private final List<Wallet> wallets;
+    private final List<Category> categories;
+    private final List<Transaction> transactions;
+    private final List<Goal> goals;
+    private final List<Budget> budgets;
+    private final List<BudgetCategory> budgetCategories;
+
+    LedgerSnapshot(long dataVersion, long createdMillis, List<Wallet> wallets, List<Category> categories,
+                   List<Transaction> transactions, List<Goal> goals, List<Budget> budgets,
+                   List<BudgetCategory> budgetCategories) {
+        this.dataVersion = dataVersion;
+        this.createdMillis = createdMillis;
+        this.wallets = wallets;
+        this.categories = categories;
+        this.transactions = transactions;
+        this.goals = goals;
+        this.budgets = budgets;
+        this.budgetCategories = budgetCategories;
+    }
+
+    /**
+     * ledger_version of the database the snapshot was taken from
+     */
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public List<Wallet> getWallets() {
+        return wallets;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public List<Goal> getGoals() {
+        return goals;
+    }
+
+    public List<Budget> getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Budget_Category links (budget, category, optional limit)
+     */
+    public List<BudgetCategory> getBudgetCategories() {
+        return budgetCategories;
+    }
+}
@@ -0,0 +1,739 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.BudgetCategory;
+import gitgud.pfm.Models.Category;
+import gitgud.pfm.Models.Goal;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.Wallet;
+import gitgud.pfm.utils.DateFormatUtil;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * LedgerSnapshotFile - Versioned, checksummed, columnar ledger snapshot format
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Header (48 bytes, little-endian):
+ *
+ *    0  "GGPFSNAP"        8  format version     12  section count
+ *   16  data version     24  created millis     32  body length
+ *   40  CRC32C of body   44  reserved
+ *
+ * The body is six sections, in this order: wallets, categories, goals,
+ * budgets, budget categories, transactions. Each section is
+ *
+ *   rows, column count, the byte length of each column   (varints)
+ *   the columns, back to back
+ *
+ * and every column holds one field for all rows of the section:
+ *
+ *   strings     per row: UTF-8 length + 1 (0 = null), then the bytes
+ *   dictionary  the distinct values as strings, then per row: index + 1
+ *               (0 = null); wallet, category and description columns
+ *   front       per row: bytes shared with the previous value, then the
+ *               rest as strings; transaction ids, which share their prefix
+ *   longs       zig-zag varints; amounts and balances
+ *   deltas      zig-zag varints of the difference from the previous row;
+ *               timestamps, which are stored newest first
+ *   doubles     8 bytes each
+ *   bits        one bit per row
+ *   bytes       one byte per row
+ *
+ * Transaction createTime text is not stored when it is the ISO rendering of
+ * createTimeMillis, which is nearly always; a one-byte kind per row says
+ * which rendering to rebuild, and only the exceptions are kept as strings.
+ *
+ * Files are written through a memory mapping of "<target>.part", forced to
+ * disk and moved over the target. They are read through a read-only
+ * mapping: the checksum runs over the mapped body and columns decode
+ * straight from it, with no stream or per-row allocation besides the model
+ * objects themselves. A reader ignores columns beyond the ones it knows, so
+ * a later format can append columns without breaking older readers.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+class LedgerSnapshotFile {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = "GGPFSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 48;
+    private static final int SECTIONS = 6;
+
+    // Transaction createTime kinds
+    private static final byte TIME_DATETIME = 0;
+    private static final byte TIME_DATE = 1;
+    private static final byte TIME_LITERAL = 2;
+
+    private LedgerSnapshotFile() {
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Write a snapshot, replacing the target only once it is complete
+     *
+     * @return size of the file in bytes
+     */
+    static long write(LedgerSnapshot snapshot, Path target) throws IOException {
+        List<Sink> parts = new ArrayList<>();
+        section(parts, snapshot.getWallets().size(),
+                strings(snapshot.getWallets(), Wallet::getId),
+                strings(snapshot.getWallets(), Wallet::getName),
+                longs(snapshot.getWallets(), Wallet::getBalanceCents),
+                strings(snapshot.getWallets(), Wallet::getColor));
+        section(parts, snapshot.getCategories().size(),
+                strings(snapshot.getCategories(), Category::getId),
+                strings(snapshot.getCategories(), Category::getName),
+                strings(snapshot.getCategories(), Category::getDescription),
+                strings(snapshot.getCategories(), c -> c.getType() == null ? null : c.getType().name()));
+        section(parts, snapshot.getGoals().size(),
+                strings(snapshot.getGoals(), Goal::getId),
+                strings(snapshot.getGoals(), Goal::getName),
+                longs(snapshot.getGoals(), Goal::getTargetCents),
+                longs(snapshot.getGoals(), Goal::getBalanceCents),
+                strings(snapshot.getGoals(), Goal::getDeadline),
+                doubles(snapshot.getGoals(), Goal::getPriority),
+                strings(snapshot.getGoals(), Goal::getCreateTime),
+                strings(snapshot.getGoals(), Goal::getWalletId));
+        section(parts, snapshot.getBudgets().size(),
+                strings(snapshot.getBudgets(), Budget::getId),
+                strings(snapshot.getBudgets(), Budget::getName),
+                longs(snapshot.getBudgets(), Budget::getLimitCents),
+                longs(snapshot.getBudgets(), Budget::getBalanceCents),
+                strings(snapshot.getBudgets(), Budget::getStartDate),
+                strings(snapshot.getBudgets(), Budget::getEndDate),
+                strings(snapshot.getBudgets(), b -> b.getPeriodType() == null ? null : b.getPeriodType().name()),
+                strings(snapshot.getBudgets(), Budget::getWalletId));
+        section(parts, snapshot.getBudgetCategories().size(),
+                dictionary(snapshot.getBudgetCategories(), BudgetCategory::getBudgetId),
+                dictionary(snapshot.getBudgetCategories(), BudgetCategory::getCategoryId),
+                bits(snapshot.getBudgetCategories(), link -> link.getCategoryLimitCents() != null),
+                longs(snapshot.getBudgetCategories(),
+                        link -> link.getCategoryLimitCents() == null ? 0 : link.getCategoryLimitCents()));
+
+        List<Transaction> transactions = snapshot.getTransactions();
+        Sink kinds = new Sink(transactions.size());
+        List<String> literals = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            String text = transaction.getCreateTime();
+            long millis = transaction.getCreateTimeMillis();
+            if (text != null && text.length() == 19 && text.equals(isoText(millis, true))) {
+                kinds.put(TIME_DATETIME);
+            } else if (text != null && text.length() == 10 && text.equals(isoText(millis, false))) {
+                kinds.put(TIME_DATE);
+            } else {
+                kinds.put(TIME_LITERAL);
+                literals.add(text);
+            }
+        }
+        section(parts, transactions.size(),
+                frontCoded(transactions, Transaction::getId),
+                dictionary(transactions, Transaction::getName),
+                dictionary(transactions, Transaction::getWalletId),
+                dictionary(transactions, Transaction::getCategoryId),
+                longs(transactions, Transaction::getAmountCents),
+                bits(transactions, t -> t.getIncome() > 0),
+                deltas(transactions, Transaction::getCreateTimeMillis),
+                kinds,
+                strings(literals, Function.identity()));
+
+        long bodyLength = 0;
+        CRC32C crc = new CRC32C();
+        for (Sink part : parts) {
+            bodyLength += part.size;
+            crc.update(part.bytes, 0, part.size);
+        }
+        long fileLength = HEADER_SIZE + bodyLength;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large: " + fileLength + " bytes");
+        }
+
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength);
+                out.order(ByteOrder.LITTLE_ENDIAN);
+                out.put(MAGIC);
+                out.putInt(FORMAT_VERSION);
+                out.putInt(SECTIONS);
+                out.putLong(snapshot.getDataVersion());
+                out.putLong(snapshot.getCreatedMillis());
+                out.putLong(bodyLength);
+                out.putInt((int) crc.getValue());
+                out.putInt(0);
+                for (Sink part : parts) {
+                    out.put(part.bytes, 0, part.size);
+                }
+                out.force();
+            }
+            moveIntoPlace(partial, target);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return fileLength;
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Data version recorded in a snapshot's header, without reading the body
+     *
+     * @throws IOException If the file is missing or is not a snapshot
+     */
+    static long readDataVersion(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // fill the header
+            }
+            header.flip();
+            checkHeader(header, channel.size(), file);
+            return header.getLong(16);
+        }
+    }
+
+    /**
+     * Read and verify a whole snapshot
+     *
+     * @throws IOException If the file is missing, truncated, fails its
+     *                     checksum or is of an unknown format
+     */
+    static LedgerSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a ledger snapshot: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            checkHeader(mapped, size, file);
+
+            ByteBuffer body = mapped.slice(HEADER_SIZE, (int) (size - HEADER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != mapped.getInt(40)) {
+                throw new IOException("Ledger snapshot checksum mismatch: " + file);
+            }
+            try {
+                return decode(mapped.getLong(16), mapped.getLong(24), body);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IOException("Corrupt ledger snapshot: " + file, e);
+            }
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, long fileSize, Path file) throws IOException {
+        if (header.limit() < HEADER_SIZE) {
+            throw new IOException("Not a ledger snapshot: " + file);
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header.get(i) != MAGIC[i]) {
+                throw new IOException("Not a ledger snapshot: " + file);
+            }
+        }
+        int format = header.getInt(8);
+        if (format != FORMAT_VERSION || header.getInt(12) != SECTIONS) {
+            throw new IOException("Unsupported ledger snapshot format " + format + ": " + file);
+        }
+        if (header.getLong(32) != fileSize - HEADER_SIZE) {
+            throw new IOException("Ledger snapshot is truncated: " + file);
+        }
+    }
+
+    private static LedgerSnapshot decode(long dataVersion, long createdMillis, ByteBuffer body) {
+        Body in = new Body(body);
+
+        Column[] c = in.section(4);
+        List<Wallet> wallets = new ArrayList<>(in.rows);
+        for (int i = 0; i < in.rows; i++) {
+            Wallet wallet = new Wallet();
+            wallet.setId(c[0].string());
+            wallet.setName(c[1].string());
+            wallet.setBalanceCents(c[2].zigzag());
+            wallet.setColor(c[3].string());
+            wallets.add(wallet);
+        }
+
+        c = in.section(4);
+        List<Category> categories = new ArrayList<>(in.rows);
+        for (int i = 0; i < in.rows; i++) {
+            Category category = new Category();
+            category.setId(c[0].string());
+            category.setName(c[1].string());
+            category.setDescription(c[2].string());
+            String type = c[3].string();
+            category.setType(type == null ? null : Category.Type.valueOf(type));
+            categories.add(category);
+        }
+
+        c = in.section(8);
+        List<Goal> goals = new ArrayList<>(in.rows);
+        for (int i = 0; i < in.rows; i++) {
+            Goal goal = new Goal();
+            goal.setId(c[0].string());
+            goal.setName(c[1].string());
+            goal.setTargetCents(c[2].zigzag());
+            goal.setBalanceCents(c[3].zigzag());
+            goal.setDeadline(c[4].string());
+            goal.setPriority(c[5].float64());
+            goal.setCreateTime(c[6].string());
+            goal.setWalletId(c[7].string());
+            goals.add(goal);
+        }
+
+        c = in.section(8);
+        List<Budget> budgets = new ArrayList<>(in.rows);
+        for (int i = 0; i < in.rows; i++) {
+            Budget budget = new Budget();
+            budget.setId(c[0].string());
+            budget.setName(c[1].string());
+            budget.setLimitCents(c[2].zigzag());
+            budget.setBalanceCents(c[3].zigzag());
+            budget.setStartDate(c[4].string());
+            budget.setEndDate(c[5].string());
+            String period = c[6].string();
+            budget.setPeriodType(period == null ? null : Budget.PeriodType.valueOf(period));
+            budget.setWalletId(c[7].string());
+            budgets.add(budget);
+        }
+
+        c = in.section(4);
+        List<BudgetCategory> links = new ArrayList<>(in.rows);
+        String[] budgetIds = c[0].dictionary();
+        String[] linkCategoryIds = c[1].dictionary();
+        for (int i = 0; i < in.rows; i++) {
+            String budgetId = c[0].entry(budgetIds);
+            String categoryId = c[1].entry(linkCategoryIds);
+            long limit = c[3].zigzag();
+            links.add(new BudgetCategory(budgetId, categoryId, c[2].bit(i) ? limit : null));
+        }
+
+        c = in.section(9);
+        int rows = in.rows;
+        List<Transaction> transactions = new ArrayList<>(rows);
+        String[] names = c[1].dictionary();
+        String[] walletIds = c[2].dictionary();
+        String[] categoryIds = c[3].dictionary();
+        long millis = 0;
+        for (int i = 0; i < rows; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId(c[0].frontCoded());
+            transaction.setName(c[1].entry(names));
+            transaction.setWalletId(c[2].entry(walletIds));
+            transaction.setCategoryId(c[3].entry(categoryIds));
+            transaction.setAmountCents(c[4].zigzag());
+            transaction.setIncome(c[5].bit(i) ? 1 : 0);
+            millis += c[6].zigzag();
+            String text = switch (c[7].u8()) {
+                case TIME_DATETIME -> isoText(millis, true);
+                case TIME_DATE -> isoText(millis, false);
+                default -> c[8].string();
+            };
+            transaction.setCreateTime(text, millis);
+            transactions.add(transaction);
+        }
+
+        return new LedgerSnapshot(dataVersion, createdMillis, wallets, categories,
+                transactions, goals, budgets, links);
+    }
+
+    // ==================== COLUMN ENCODERS ====================
+
+    private static void section(List<Sink> parts, int rows, Sink... columns) {
+        Sink header = new Sink(16 + columns.length * 5);
+        header.varint(rows);
+        header.varint(columns.length);
+        for (Sink column : columns) {
+            header.varint(column.size);
+        }
+        parts.add(header);
+        parts.addAll(Arrays.asList(columns));
+    }
+
+    private static <T> Sink strings(List<T> rows, Function<T, String> field) {
+        Sink out = new Sink(rows.size() * 16);
+        for (T row : rows) {
+            out.string(field.apply(row));
+        }
+        return out;
+    }
+
+    private static <T> Sink dictionary(List<T> rows, Function<T, String> field) {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        Sink refs = new Sink(rows.size() * 2);
+        for (T row : rows) {
+            String value = field.apply(row);
+            if (value == null) {
+                refs.varint(0);
+                continue;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = entries.size();
+                indexes.put(value, index);
+                entries.add(value);
+            }
+            refs.varint(index + 1);
+        }
+        Sink out = new Sink(entries.size() * 16 + refs.size + 5);
+        out.varint(entries.size());
+        for (String entry : entries) {
+            out.string(entry);
+        }
+        out.put(refs.bytes, 0, refs.size);
+        return out;
+    }
+
+    private static <T> Sink frontCoded(List<T> rows, Function<T, String> field) {
+        Sink out = new Sink(rows.size() * 12);
+        byte[] previous = new byte[0];
+        for (T row : rows) {
+            String value = field.apply(row);
+            if (value == null) {
+                out.varint(0);
+                out.varint(0);
+                previous = new byte[0];
+                continue;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previous, bytes);
+            if (shared < 0) {
+                shared = bytes.length; // equal to the previous value
+            }
+            shared = Math.min(shared, Math.min(previous.length, bytes.length));
+            out.varint(shared);
+            out.varint(bytes.length - shared + 1);
+            out.put(bytes, shared, bytes.length - shared);
+            previous = bytes;
+        }
+        return out;
+    }
+
+    private static <T> Sink longs(List<T> rows, ToLongFunction<T> field) {
+        Sink out = new Sink(rows.size() * 4);
+        for (T row : rows) {
+            out.zigzag(field.applyAsLong(row));
+        }
+        return out;
+    }
+
+    private static <T> Sink deltas(List<T> rows, ToLongFunction<T> field) {
+        Sink out = new Sink(rows.size() * 4);
+        long previous = 0;
+        for (T row : rows) {
+            long value = field.applyAsLong(row);
+            out.zigzag(value - previous);
+            previous = value;
+        }
+        return out;
+    }
+
+    private static <T> Sink doubles(List<T> rows, ToDoubleFunction<T> field) {
+        Sink out = new Sink(rows.size() * 8);
+        for (T row : rows) {
+            long bits = Double.doubleToLongBits(field.applyAsDouble(row));
+            for (int shift = 0; shift < 64; shift += 8) {
+                out.put((byte) (bits >>> shift));
+            }
+        }
+        return out;
+    }
+
+    private static <T> Sink bits(List<T> rows, Predicate<T> field) {
+        Sink out = new Sink((rows.size() + 7) / 8);
+        int current = 0;
+        int count = 0;
+        for (T row : rows) {
+            if (field.test(row)) {
+                current |= 1 << (count & 7);
+            }
+            if ((++count & 7) == 0) {
+                out.put((byte) current);
+                current = 0;
+            }
+        }
+        if ((count & 7) != 0) {
+            out.put((byte) current);
+        }
+        return out;
+    }
+
+    // ==================== TIMESTAMPS ====================
+
+    /**
+     * "yyyy-MM-dd HH:mm:ss" or "yyyy-MM-dd" of wall-clock epoch millis, the
+     * same text DateFormatUtil writes, built without a formatter. Null when
+     * the year does not have four digits.
+     */
+    static String isoText(long millis, boolean withTime) {
+        long day = DateFormatUtil.epochDay(millis);
+        LocalDate date = LocalDate.ofEpochDay(day);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return null;
+        }
+        byte[] text = new byte[withTime ? 19 : 10];
+        digits(text, 0, year, 4);
+        text[4] = '-';
+        digits(text, 5, date.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, date.getDayOfMonth(), 2);
+        if (withTime) {
+            int second = (int) ((millis - day * DateFormatUtil.MILLIS_PER_DAY) / 1000);
+            text[10] = ' ';
+            digits(text, 11, second / 3600, 2);
+            text[13] = ':';
+            digits(text, 14, second / 60 % 60, 2);
+            text[16] = ':';
+            digits(text, 17, second % 60, 2);
+        }
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void digits(byte[] into, int at, int value, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            into[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void moveIntoPlace(Path partial, Path target) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ==================== BUFFERS ====================
+
+    /**
+     * Growable byte array one column is encoded into
+     */
+    private static final class Sink {
+        byte[] bytes;
+        int size;
+
+        Sink(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void put(byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        void put(byte[] source, int offset, int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            put(utf8, 0, utf8.length);
+        }
+    }
+
+    /**
+     * Walks the body section by section
+     */
+    private static final class Body {
+        private final ByteBuffer buffer;
+        private final Column cursor;
+        int rows;
+
+        Body(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.cursor = new Column(buffer, 0, buffer.limit());
+        }
+
+        /**
+         * Open the next section and return its first known columns
+         */
+        Column[] section(int known) {
+            rows = (int) cursor.varint();
+            int count = (int) cursor.varint();
+            if (rows < 0 || count < known) {
+                throw new IllegalArgumentException("section has " + count + " columns, expected " + known);
+            }
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                lengths[i] = (int) cursor.varint();
+            }
+            Column[] columns = new Column[known];
+            int at = cursor.pos;
+            for (int i = 0; i < count; i++) {
+                if (i < known) {
+                    columns[i] = new Column(buffer, at, lengths[i]);
+                }
+                at += lengths[i];
+            }
+            cursor.pos = at;
+            return columns;
+        }
+    }
+
+    /**
+     * Reads one column from the mapped body by absolute index
+     */
+    private static final class Column {
+        private final ByteBuffer buffer;
+        private final int end;
+        int pos;
+        private byte[] scratch = new byte[64];
+        private byte[] previous = new byte[64];
+        private int previousLength;
+
+        Column(ByteBuffer buffer, int start, int length) {
+            if (start < 0 || length < 0 || start + length > buffer.limit()) {
+                throw new IndexOutOfBoundsException("column outside the body");
+            }
+            this.buffer = buffer;
+            this.pos = start;
+            this.end = start + length;
+        }
+
+        int u8() {
+            check(1);
+            return buffer.get(pos++) & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                value |= (long) (b & 0x7F) << shift;
+                if (b < 0x80) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("varint too long");
+        }
+
+        long zigzag() {
+            long raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        double float64() {
+            check(8);
+            double value = buffer.getDouble(pos);
+            pos += 8;
+            return value;
+        }
+
+        boolean bit(int row) {
+            int index = row >> 3;
+            if (index >= end - pos) {
+                throw new IndexOutOfBoundsException("bit " + row + " outside the column");
+            }
+            return (buffer.get(pos + index) & (1 << (row & 7))) != 0;
+        }
+
+        String string() {
+            int length = (int) varint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            check(length);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(pos, scratch, 0, length);
+            pos += length;
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        String[] dictionary() {
+            int size = (int) varint();
+            if (size < 0 || size > end - pos) {
+                throw new IllegalArgumentException("bad dictionary size " + size);
+            }
+            String[] entries = new String[size];
+            for (int i = 0; i < size; i++) {
+                entries[i] = string();
+            }
+            return entries;
+        }
+
+        String entry(String[] dictionary) {
+            int index = (int) varint();
+            return index == 0 ? null : dictionary[index - 1];
+        }
+
+        String frontCoded() {
+            int shared = (int) varint();
+            int rest = (int) varint() - 1;
+            if (rest < 0) {
+                previousLength = 0;
+                return null;
+            }
+            if (shared > previousLength) {
+                throw new IllegalArgumentException("bad shared prefix " + shared);
+            }
+            check(rest);
+            int length = shared + rest;
+            if (previous.length < length) {
+                previous = Arrays.copyOf(previous, Math.max(length, previous.length * 2));
+            }
+            buffer.get(pos, previous, shared, rest);
+            pos += rest;
+            previousLength = length;
+            return new String(previous, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void check(int bytes) {
+            if (bytes > end - pos) {
+                throw new IndexOutOfBoundsException("read past the end of a column");
+            }
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Budget;
+import gitgud.pfm.Models.BudgetCategory;
+import gitgud.pfm.Models.Category;
+import gitgud.pfm.Models.Goal;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.Wallet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * LedgerSnapshotService - Binary ledger backups and the warm-start cache
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Reads every ledger table in one read transaction into a LedgerSnapshot,
+ * stamped with the stored data version it saw (see LedgerVersionTable), and
+ * writes it as a LedgerSnapshotFile. Two uses:
+ *
+ *   backup / restore   a portable copy of the whole ledger. Restore replaces
+ *                      every ledger table in one write transaction. The
+ *                      per-row triggers are dropped for the copy and the
+ *                      derived totals (budget_spend, rollups) rebuilt once
+ *                      after it, all inside that transaction.
+ *
+ *   warm start         AccountDataLoader saves a snapshot on shutdown and, on
+ *                      the next start, fills its cache from it instead of
+ *                      rebuilding every object through JDBC - but only when
+ *                      the file's data version equals the database's, so a
+ *                      database changed since (by any build, tool or restore)
+ *                      is never shadowed by stale data. A missing, stale or
+ *                      damaged file just means a normal cold load.
+ *
+ * System properties:
+ *   pfm.snapshot.warmStart   false to turn the warm-start cache off
+ *   pfm.snapshot.path        warm-start file (GG_Personal_Finance.snapshot)
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class LedgerSnapshotService {
+
+    public static final String DEFAULT_WARM_START_FILE = "GG_Personal_Finance.snapshot";
+
+    private static final String SELECT_WALLETS = "SELECT id, name, balance, color FROM Wallet ORDER BY name";
+    private static final String SELECT_CATEGORIES =
+            "SELECT id, name, description, type FROM Category ORDER BY CAST(id AS INTEGER)";
+    private static final String SELECT_GOALS = "SELECT id, name, target, balance, deadline, priority, createAt, "
+            + "walletId FROM Goal ORDER BY priority DESC, deadline";
+    private static final String SELECT_BUDGETS = "SELECT id, name, limitAmount, balance, startDate, endDate, "
+            + "periodType, walletId FROM Budget ORDER BY name";
+    private static final String SELECT_BUDGET_CATEGORIES =
+            "SELECT budgetID, categoryID, categoryLimit FROM Budget_Category ORDER BY budgetID";
+
+    private final TransactionService transactionService = new TransactionService();
+    private final boolean warmStartEnabled =
+            Boolean.parseBoolean(System.getProperty("pfm.snapshot.warmStart", "true"));
+    private final Path warmStartFile =
+            Paths.get(System.getProperty("pfm.snapshot.path", DEFAULT_WARM_START_FILE));
+
+    /**
+     * The database's stored data version
+     *
+     * @return the version, or -1 if it cannot be read
+     */
+    public long currentDataVersion() {
+        try (Connection connection = Database.getInstance().getReadConnection()) {
+            return LedgerVersionTable.read(connection);
+        } catch (SQLException e) {
+            System.err.println("Error reading ledger data version: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // ==================== BACKUP / RESTORE ====================
+
+    /**
+     * Write the whole ledger to a snapshot file
+     *
+     * @return transactions written, or -1 on failure (the target is left untouched)
+     */
+    public long backup(Path target) {
+        try {
+            LedgerSnapshot snapshot = capture();
+            LedgerSnapshotFile.write(snapshot, target);
+            return snapshot.getTransactions().size();
+        } catch (SQLException | IOException e) {
+            System.err.println("Error writing ledger snapshot: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Replace every ledger table with the contents of a snapshot file.
+     * The file is fully read and verified before the database is touched;
+     * everything is replaced in one transaction or, on any error, nothing is.
+     *
+     * @return transactions restored, or -1 on failure
+     */
+    public long restore(Path source) {
+        LedgerSnapshot snapshot;
+        try {
+            snapshot = LedgerSnapshotFile.read(source);
+        } catch (IOException e) {
+            System.err.println("Error reading ledger snapshot: " + e.getMessage());
+            return -1;
+        }
+
+        try (Connection connection = Database.getInstance().getWriteConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // Dropped and recreated inside the transaction, so a failure restores them too
+                BudgetSpendTable.dropTriggers(connection);
+                RollupTables.dropTriggers(connection);
+                LedgerVersionTable.dropTriggers(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM Budget_Category");
+                    statement.executeUpdate("DELETE FROM Budget");
+                    statement.executeUpdate("DELETE FROM transaction_records");
+                    statement.executeUpdate("DELETE FROM Goal");
+                    statement.executeUpdate("DELETE FROM Wallet");
+                    statement.executeUpdate("DELETE FROM Category");
+                }
+                insertCategories(connection, snapshot.getCategories());
+                insertWallets(connection, snapshot.getWallets());
+                insertGoals(connection, snapshot.getGoals());
+                insertTransactions(connection, snapshot.getTransactions());
+                insertBudgets(connection, snapshot.getBudgets());
+                insertBudgetCategories(connection, snapshot.getBudgetCategories());
+                BudgetSpendTable.createTriggers(connection);
+                RollupTables.createTriggers(connection);
+                LedgerVersionTable.createTriggers(connection);
+                BudgetSpendTable.rebuild(connection);
+                RollupTables.rebuild(connection);
+                LedgerVersionTable.bump(connection);
+                connection.commit();
+                return snapshot.getTransactions().size();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error restoring ledger snapshot: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // ==================== WARM START ====================
+
+    public boolean isWarmStartEnabled() {
+        return warmStartEnabled;
+    }
+
+    public Path getWarmStartFile() {
+        return warmStartFile;
+    }
+
+    /**
+     * The warm-start snapshot, if there is one for the database's current
+     * data version
+     *
+     * @return the snapshot, or null when disabled, missing, stale or unreadable
+     */
+    LedgerSnapshot loadWarmStart() {
+        if (!warmStartEnabled || !Files.isRegularFile(warmStartFile)) {
+            return null;
+        }
+        try {
+            long current = currentDataVersion();
+            if (current < 0 || LedgerSnapshotFile.readDataVersion(warmStartFile) != current) {
+                return null;
+            }
+            LedgerSnapshot snapshot = LedgerSnapshotFile.read(warmStartFile);
+            return snapshot.getDataVersion() == current ? snapshot : null;
+        } catch (IOException e) {
+            System.err.println("Ignoring warm-start snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bring the warm-start snapshot up to the database's data version.
+     * Does nothing when it is already current. The snapshot is read from
+     * the database rather than the cache: the services report a failed read
+     * as an empty list, and that must never be saved as the ledger.
+     */
+    void saveWarmStart() {
+        if (!warmStartEnabled) {
+            return;
+        }
+        long current = currentDataVersion();
+        if (current < 0) {
+            return;
+        }
+        try {
+            if (Files.isRegularFile(warmStartFile) && LedgerSnapshotFile.readDataVersion(warmStartFile) == current) {
+                return;
+            }
+        } catch (IOException e) {
+            // unreadable: overwrite it below
+        }
+        backup(warmStartFile);
+    }
+
+    // ==================== CAPTURE ====================
+
+    /**
+     * Read the ledger in one read transaction, so every table and the data
+     * version come from the same committed state
+     */
+    private LedgerSnapshot capture() throws SQLException {
+        try (Connection connection = Database.getInstance().getReadConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                LedgerSnapshot snapshot = new LedgerSnapshot(LedgerVersionTable.read(connection),
+                        System.currentTimeMillis(), readWallets(connection), readCategories(connection),
+                        readTransactions(), readGoals(connection), readBudgets(connection),
+                        readBudgetCategories(connection));
+                connection.commit();
+                return snapshot;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private List<Wallet> readWallets(Connection connection) throws SQLException {
+        List<Wallet> wallets = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_WALLETS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Wallet wallet = new Wallet();
+                wallet.setId(rs.getString(1));
+                wallet.setName(rs.getString(2));
+                wallet.setBalanceCents(rs.getLong(3));
+                wallet.setColor(rs.getString(4));
+                wallets.add(wallet);
+            }
+        }
+        return wallets;
+    }
+
+    private List<Category> readCategories(Connection connection) throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_CATEGORIES);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Category category = new Category();
+                category.setId(rs.getString(1));
+                category.setName(rs.getString(2));
+                category.setDescription(rs.getString(3));
+                String type = rs.getString(4);
+                try {
+                    category.setType(type == null ? null : Category.Type.valueOf(type));
+                } catch (IllegalArgumentException e) {
+                    category.setType(Category.Type.EXPENSE);
+                }
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Uses a cursor on the caller's thread, which shares its read lease and
+     * so its read transaction
+     */
+    private List<Transaction> readTransactions() throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (TransactionCursor cursor = new TransactionCursor(TransactionService.SELECT_ALL,
+                transactionService.getFetchSize())) {
+            Transaction row = new Transaction();
+            while (cursor.next(row)) {
+                transactions.add(row);
+                row = new Transaction();
+            }
+        }
+        return transactions;
+    }
+
+    private List<Goal> readGoals(Connection connection) throws SQLException {
+        List<Goal> goals = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_GOALS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Goal goal = new Goal();
+                goal.setId(rs.getString(1));
+                goal.setName(rs.getString(2));
+                goal.setTargetCents(rs.getLong(3));
+                goal.setBalanceCents(rs.getLong(4));
+                goal.setDeadline(rs.getString(5));
+                goal.setPriority(rs.getDouble(6));
+                goal.setCreateTime(rs.getString(7));
+                goal.setWalletId(rs.getString(8));
+                goals.add(goal);
+            }
+        }
+        return goals;
+    }
+
+    private List<Budget> readBudgets(Connection connection) throws SQLException {
+        List<Budget> budgets = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_BUDGETS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Budget budget = new Budget();
+                budget.setId(rs.getString(1));
+                budget.setName(rs.getString(2));
+                budget.setLimitCents(rs.getLong(3));
+                budget.setBalanceCents(rs.getLong(4));
+                budget.setStartDate(rs.getString(5));
+                budget.setEndDate(rs.getString(6));
+                String periodType = rs.getString(7);
+                if (periodType != null) {
+                    try {
+                        budget.setPeriodType(Budget.PeriodType.valueOf(periodType));
+                    } catch (IllegalArgumentException e) {
+                        budget.setPeriodType(Budget.PeriodType.MONTHLY);
+                    }
+                }
+                budget.setWalletId(rs.getString(8));
+                budgets.add(budget);
+            }
+        }
+        return budgets;
+    }
+
+    private List<BudgetCategory> readBudgetCategories(Connection connection) throws SQLException {
+        List<BudgetCategory> links = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_BUDGET_CATEGORIES);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                long limit = rs.getLong(3);
+                Long categoryLimit = rs.wasNull() ? null : limit;
+                links.add(new BudgetCategory(rs.getString(1), rs.getString(2), categoryLimit));
+            }
+        }
+        return links;
+    }
+
+    // ==================== RESTORE ====================
+
+    private void insertCategories(Connection connection, List<Category> categories) throws SQLException {
+        String sql = "INSERT INTO Category (id, name, description, type) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Category category : categories) {
+                pstmt.setString(1, category.getId());
+                pstmt.setString(2, category.getName());
+                pstmt.setString(3, category.getDescription());
+                pstmt.setString(4, category.getType() != null ? category.getType().name() : Category.Type.EXPENSE.name());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertWallets(Connection connection, List<Wallet> wallets) throws SQLException {
+        String sql = "INSERT INTO Wallet (id, name, balance, color) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Wallet wallet : wallets) {
+                pstmt.setString(1, wallet.getId());
+                pstmt.setString(2, wallet.getName());
+                pstmt.setLong(3, wallet.getBalanceCents());
+                pstmt.setString(4, wallet.getColor());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertGoals(Connection connection, List<Goal> goals) throws SQLException {
+        String sql = "INSERT INTO Goal (id, name, target, balance, deadline, priority, createAt, walletId) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Goal goal : goals) {
+                pstmt.setString(1, goal.getId());
+                pstmt.setString(2, goal.getName());
+                pstmt.setLong(3, goal.getTargetCents());
+                pstmt.setLong(4, goal.getBalanceCents());
+                pstmt.setString(5, goal.getDeadline());
+                pstmt.setDouble(6, goal.getPriority());
+                pstmt.setString(7, goal.getCreateTime());
+                pstmt.setString(8, goal.getWalletId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertTransactions(Connection connection, List<Transaction> transactions) throws SQLException {
+        int batchSize = transactionService.getBatchSize();
+        try (PreparedStatement pstmt = connection.prepareStatement(TransactionService.INSERT)) {
+            int pending = 0;
+            for (Transaction transaction : transactions) {
+                TransactionService.bindInsert(pstmt, transaction);
+                pstmt.addBatch();
+                if (++pending == batchSize) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    private void insertBudgets(Connection connection, List<Budget> budgets) throws SQLException {
+        String sql = "INSERT INTO Budget (id, name, limitAmount, balance, startDate, endDate, periodType, walletId) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Budget budget : budgets) {
+                pstmt.setString(1, budget.getId());
+                pstmt.setString(2, budget.getName());
+                pstmt.setLong(3, budget.getLimitCents());
+                pstmt.setLong(4, budget.getBalanceCents());
+                pstmt.setString(5, budget.getStartDate());
+                pstmt.setString(6, budget.getEndDate());
+                pstmt.setString(7, budget.getPeriodType() != null ? budget.getPeriodType().name() : null);
+                pstmt.setString(8, budget.getWalletId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertBudgetCategories(Connection connection, List<BudgetCategory> links) throws SQLException {
+        String sql = "INSERT INTO Budget_Category (budgetID, categoryID, categoryLimit) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (BudgetCategory link : links) {
+                pstmt.setString(1, link.getBudgetId());
+                pstmt.setString(2, link.getCategoryId());
+                if (link.getCategoryLimitCents() != null) {
+                    pstmt.setLong(3, link.getCategoryLimitCents());
+                } else {
+                    pstmt.setNull(3, java.sql.Types.INTEGER);
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
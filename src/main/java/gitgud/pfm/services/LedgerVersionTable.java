@@ -0,0 +1,111 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * LedgerVersionTable - Stored data version of the ledger tables
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   ledger_version (version)    one row
+ *
+ * Triggers add one to version on every INSERT, UPDATE and DELETE of:
+ *
+ *   Wallet, Category, Budget, Budget_Category, Goal, transaction_records
+ *
+ * so two reads that return the same number saw the same ledger. Unlike
+ * PRAGMA data_version, which is per connection and starts over each time
+ * the file is opened, the number is stored in the file and survives
+ * restarts. That is what lets a ledger snapshot written by an earlier run
+ * be trusted as a warm start (see LedgerSnapshotService). The count starts
+ * at a random number, so two database files practically never share a
+ * version and a snapshot of one is never taken for the other.
+ *
+ * A migration that rebuilds one of the six tables drops its triggers and
+ * must call createTriggers again.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class LedgerVersionTable {
+
+    private static final String[] TRACKED_TABLES = {
+        "Wallet", "Category", "Budget", "Budget_Category", "Goal", "transaction_records"
+    };
+
+    private static final String[] EVENTS = { "INSERT", "UPDATE", "DELETE" };
+
+    /**
+     * V8 - create ledger_version and its triggers
+     */
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "ledger_version" (
+                    "version"  INTEGER NOT NULL DEFAULT 0
+                )
+                """);
+            statement.execute("INSERT INTO ledger_version (version) "
+                    + "SELECT abs(random() / 4) WHERE NOT EXISTS (SELECT 1 FROM ledger_version)");
+        }
+        createTriggers(connection);
+        System.out.println("✓ Created ledger_version");
+    }
+
+    /**
+     * Create (or re-create) the triggers that bump ledger_version
+     */
+    static void createTriggers(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TRACKED_TABLES) {
+                for (String event : EVENTS) {
+                    String name = "trg_ledger_version_" + table.toLowerCase() + "_" + event.toLowerCase();
+                    statement.execute("DROP TRIGGER IF EXISTS " + name);
+                    statement.execute("CREATE TRIGGER " + name + " AFTER " + event + " ON \"" + table + "\" "
+                            + "BEGIN UPDATE ledger_version SET version = version + 1; END");
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the triggers, for a bulk rewrite that calls createTriggers and
+     * bump once at the end instead of bumping per row
+     */
+    static void dropTriggers(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TRACKED_TABLES) {
+                for (String event : EVENTS) {
+                    statement.execute("DROP TRIGGER IF EXISTS trg_ledger_version_"
+                            + table.toLowerCase() + "_" + event.toLowerCase());
+                }
+            }
+        }
+    }
+
+    /**
+     * Move the version on by one
+     */
+    static void bump(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE ledger_version SET version = version + 1");
+        }
+    }
+
+    /**
+     * Current stored version
+     *
+     * @param connection Any connection; inside a transaction the value
+     *                   matches what that transaction reads
+     */
+    static long read(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version FROM ledger_version")) {
+            if (!rs.next()) {
+                throw new SQLException("ledger_version has no row");
+            }
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One numbered step of the schema history. Versions start at 1 and must be
+ * contiguous; SchemaMigrator applies each pending step in its own transaction.
+ */
+public class Migration {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final Step step;
+
+    public Migration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void apply(Connection connection) throws SQLException {
+        step.apply(connection);
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
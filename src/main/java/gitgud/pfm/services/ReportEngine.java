@@ -0,0 +1,316 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.utils.DateFormatUtil;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * ReportEngine - Every aggregation a report needs, in one parallel scan
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   Request ──> rows of the union range ──split──> ForkJoinPool
+ *                                                    │ one Partial per task
+ *   Result  <──────────── merge (add) ───────────────┘
+ *
+ * A Request names the aggregations wanted, each over its own date range:
+ *
+ *   incomeAndExpenses           summary cards
+ *   expensesByCategory          pie chart and category breakdown
+ *   monthlyIncomeAndExpenses    income/expense bar chart
+ *
+ * The engine reads TransactionColumns once. Only the rows inside the union
+ * of the requested ranges are visited, and each row updates every
+ * aggregation whose range holds it. The row range is cut into slices of
+ * SLICE_ROWS. Each slice is summed by one task into its own Partial, so no
+ * task writes shared state, and partials are added together as the tasks
+ * join. Below SLICE_ROWS the caller's thread does the whole scan.
+ *
+ * Amounts are cents and ranges are [from, toExclusive) in whole days, the
+ * same contract as RollupService, whose answers these match.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class ReportEngine {
+
+    static final int SLICE_ROWS = 32_768;
+
+    private final ForkJoinPool pool;
+
+    public ReportEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ReportEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The aggregations to compute; ask only for what the screen shows
+     */
+    public static class Request {
+        private LocalDate totalsFrom;
+        private LocalDate totalsTo;
+        private LocalDate categoriesFrom;
+        private LocalDate categoriesTo;
+        private YearMonth firstMonth;
+        private int months;
+
+        public Request incomeAndExpenses(LocalDate from, LocalDate toExclusive) {
+            this.totalsFrom = from;
+            this.totalsTo = toExclusive;
+            return this;
+        }
+
+        public Request expensesByCategory(LocalDate from, LocalDate toExclusive) {
+            this.categoriesFrom = from;
+            this.categoriesTo = toExclusive;
+            return this;
+        }
+
+        /**
+         * @param first  Oldest month
+         * @param months Number of months
+         */
+        public Request monthlyIncomeAndExpenses(YearMonth first, int months) {
+            this.firstMonth = first;
+            this.months = months;
+            return this;
+        }
+    }
+
+    /**
+     * What a Request asked for; aggregations not requested are empty
+     */
+    public static class Result {
+        private final long[] incomeAndExpenses;
+        private final Map<String, Long> expensesByCategory;
+        private final long[][] monthlyIncomeAndExpenses;
+
+        private Result(long[] incomeAndExpenses, Map<String, Long> expensesByCategory,
+                       long[][] monthlyIncomeAndExpenses) {
+            this.incomeAndExpenses = incomeAndExpenses;
+            this.expensesByCategory = expensesByCategory;
+            this.monthlyIncomeAndExpenses = monthlyIncomeAndExpenses;
+        }
+
+        /**
+         * @return { income, expenses } in cents
+         */
+        public long[] getIncomeAndExpenses() {
+            return incomeAndExpenses;
+        }
+
+        /**
+         * @return category id (null when uncategorized) to cents, highest first
+         */
+        public Map<String, Long> getExpensesByCategory() {
+            return expensesByCategory;
+        }
+
+        /**
+         * @return [0] income and [1] expenses in cents; index 0 is the first month
+         */
+        public long[][] getMonthlyIncomeAndExpenses() {
+            return monthlyIncomeAndExpenses;
+        }
+    }
+
+    /**
+     * Evaluate every aggregation in the request over one store
+     */
+    public Result run(Request request, TransactionColumns columns) {
+        Plan plan = new Plan(request, columns);
+        int start = columns.firstRowBefore(plan.scanTo);
+        int end = columns.firstRowBefore(plan.scanFrom);
+        Partial total = end - start <= SLICE_ROWS
+                ? plan.scan(start, end)
+                : pool.invoke(new ScanTask(plan, start, end));
+        return plan.result(total);
+    }
+
+    // ==================== PLAN ====================
+
+    /**
+     * A request resolved against one store: millis ranges, the month of
+     * each day, and the bucket counts every Partial is sized with
+     */
+    private static final class Plan {
+        private static final long NONE_FROM = Long.MAX_VALUE;
+        private static final long NONE_TO = Long.MIN_VALUE;
+
+        private final TransactionColumns columns;
+
+        private final long totalsFrom;
+        private final long totalsTo;
+        private final long categoriesFrom;
+        private final long categoriesTo;
+        private final long monthsFrom;
+        private final long monthsTo;
+        private final long firstDay;
+        private final int[] monthOfDay;     // months from firstMonth, by day from firstDay
+        private final int months;
+        private final int categoryBuckets;  // one per category index, plus one for none
+
+        private final long scanFrom;
+        private final long scanTo;
+
+        Plan(Request request, TransactionColumns columns) {
+            this.columns = columns;
+            totalsFrom = request.totalsFrom != null ? startOf(request.totalsFrom) : NONE_FROM;
+            totalsTo = request.totalsTo != null ? startOf(request.totalsTo) : NONE_TO;
+            categoriesFrom = request.categoriesFrom != null ? startOf(request.categoriesFrom) : NONE_FROM;
+            categoriesTo = request.categoriesTo != null ? startOf(request.categoriesTo) : NONE_TO;
+            categoryBuckets = request.categoriesFrom != null ? columns.categoryCount() + 1 : 0;
+
+            months = request.firstMonth != null ? request.months : 0;
+            if (months > 0) {
+                LocalDate first = request.firstMonth.atDay(1);
+                LocalDate after = request.firstMonth.plusMonths(months).atDay(1);
+                monthsFrom = startOf(first);
+                monthsTo = startOf(after);
+                firstDay = first.toEpochDay();
+                monthOfDay = new int[(int) (after.toEpochDay() - firstDay)];
+                for (int m = 0; m < months; m++) {
+                    YearMonth month = request.firstMonth.plusMonths(m);
+                    int from = (int) (month.atDay(1).toEpochDay() - firstDay);
+                    int to = from + month.lengthOfMonth();
+                    for (int day = from; day < to; day++) {
+                        monthOfDay[day] = m;
+                    }
+                }
+            } else {
+                monthsFrom = NONE_FROM;
+                monthsTo = NONE_TO;
+                firstDay = 0;
+                monthOfDay = new int[0];
+            }
+
+            long from = Math.min(totalsFrom, Math.min(categoriesFrom, monthsFrom));
+            long to = Math.max(totalsTo, Math.max(categoriesTo, monthsTo));
+            scanFrom = from <= to ? from : 0;
+            scanTo = from <= to ? to : 0;
+        }
+
+        private static long startOf(LocalDate date) {
+            return DateFormatUtil.startOfDayMillis(date);
+        }
+
+        /**
+         * The single pass: every row of the slice updates every aggregation
+         * whose range holds it
+         */
+        Partial scan(int start, int end) {
+            Partial partial = new Partial(categoryBuckets, months);
+            TransactionColumns c = columns;
+            boolean byCategory = categoryBuckets > 0;
+            boolean byMonth = months > 0;
+            int noCategory = categoryBuckets - 1;
+            for (int i = start; i < end; i++) {
+                long at = c.epochMillis(i);
+                long cents = c.cents(i);
+                long income = c.isIncome(i) ? 1 : 0;
+                long incomeCents = cents & -income;
+                long expenseCents = cents & (income - 1);
+
+                if (at >= totalsFrom && at < totalsTo) {
+                    partial.income += incomeCents;
+                    partial.expenses += expenseCents;
+                }
+                if (byCategory && at >= categoriesFrom && at < categoriesTo) {
+                    int category = c.categoryIndex(i);
+                    partial.categoryExpenses[category >= 0 ? category : noCategory] += expenseCents;
+                }
+                if (byMonth && at >= monthsFrom && at < monthsTo) {
+                    int month = monthOfDay[(int) (DateFormatUtil.epochDay(at) - firstDay)];
+                    partial.monthlyIncome[month] += incomeCents;
+                    partial.monthlyExpenses[month] += expenseCents;
+                }
+            }
+            return partial;
+        }
+
+        Result result(Partial total) {
+            Map<String, Long> byCategory = new LinkedHashMap<>();
+            if (categoryBuckets > 0) {
+                List<Integer> used = new ArrayList<>();
+                for (int bucket = 0; bucket < categoryBuckets; bucket++) {
+                    if (total.categoryExpenses[bucket] != 0) {
+                        used.add(bucket);
+                    }
+                }
+                used.sort((a, b) -> Long.compare(total.categoryExpenses[b], total.categoryExpenses[a]));
+                for (int bucket : used) {
+                    String categoryId = bucket < categoryBuckets - 1 ? columns.categoryId(bucket) : null;
+                    byCategory.put(categoryId, total.categoryExpenses[bucket]);
+                }
+            }
+            return new Result(new long[] { total.income, total.expenses }, byCategory,
+                    new long[][] { total.monthlyIncome, total.monthlyExpenses });
+        }
+    }
+
+    // ==================== PARALLEL SCAN ====================
+
+    /**
+     * One task's accumulators; only that task writes them until it is merged
+     */
+    private static final class Partial {
+        long income;
+        long expenses;
+        final long[] categoryExpenses;
+        final long[] monthlyIncome;
+        final long[] monthlyExpenses;
+
+        Partial(int categoryBuckets, int months) {
+            categoryExpenses = new long[categoryBuckets];
+            monthlyIncome = new long[months];
+            monthlyExpenses = new long[months];
+        }
+
+        Partial add(Partial other) {
+            income += other.income;
+            expenses += other.expenses;
+            addInto(categoryExpenses, other.categoryExpenses);
+            addInto(monthlyIncome, other.monthlyIncome);
+            addInto(monthlyExpenses, other.monthlyExpenses);
+            return this;
+        }
+
+        private static void addInto(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("serial") // never serialized
+    private static final class ScanTask extends RecursiveTask<Partial> {
+        private final Plan plan;
+        private final int start;
+        private final int end;
+
+        ScanTask(Plan plan, int start, int end) {
+            this.plan = plan;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (end - start <= SLICE_ROWS) {
+                return plan.scan(start, end);
+            }
+            int middle = (start + end) >>> 1;
+            ScanTask right = new ScanTask(plan, middle, end);
+            right.fork();
+            Partial left = new ScanTask(plan, start, middle).compute();
+            return left.add(right.join());
+        }
+    }
+}
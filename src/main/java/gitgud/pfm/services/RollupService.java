@@ -0,0 +1,219 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * RollupService - Range totals served from the daily and monthly rollups
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Reads daily_totals and monthly_totals (see RollupTables) instead of
+ * transaction_records, so a chart over a year reads a few hundred rows
+ * however many transactions there are.
+ *
+ * Date ranges are [from, toExclusive) in whole days. A range is split into
+ * its whole calendar months, read from monthly_totals, and the partial
+ * months at either end, read from daily_totals:
+ *
+ *   from ........ | month | month | month | ........ toExclusive
+ *     daily rows    monthly rows           daily rows
+ *
+ * All amounts are cents. A transaction without a category is reported under
+ * a null category id.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class RollupService {
+
+    /**
+     * Income and expense totals over a range
+     *
+     * @return { income, expenses } in cents
+     */
+    public long[] incomeAndExpenses(LocalDate from, LocalDate toExclusive) {
+        long[] totals = new long[2];
+        RangeQuery range = new RangeQuery(from, toExclusive);
+        String sql = "SELECT income, SUM(amount) FROM (" + range.sourceSql() + ") GROUP BY income";
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            range.bind(pstmt, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals[rs.getInt(1) == 1 ? 0 : 1] = rs.getLong(2);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading income and expense totals: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Expense totals per category over a range, highest first
+     *
+     * @return category id (null when uncategorized) to cents
+     */
+    public Map<String, Long> expensesByCategory(LocalDate from, LocalDate toExclusive) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        RangeQuery range = new RangeQuery(from, toExclusive);
+        String sql = "SELECT categoryId, SUM(amount) AS total FROM (" + range.sourceSql() + ") "
+                + "WHERE income = 0 GROUP BY categoryId ORDER BY total DESC";
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            range.bind(pstmt, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String categoryId = rs.getString(1);
+                    totals.put(categoryId.isEmpty() ? null : categoryId, rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading category totals: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Expenses per day over a range
+     *
+     * @return cents per day; index 0 is from
+     */
+    public long[] dailyExpenses(LocalDate from, LocalDate toExclusive) {
+        long fromDay = from.toEpochDay();
+        long[] totals = new long[(int) Math.max(0, toExclusive.toEpochDay() - fromDay)];
+        String sql = "SELECT day, SUM(amount) FROM daily_totals "
+                + "WHERE day >= ? AND day < ? AND income = 0 GROUP BY day";
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, fromDay);
+            pstmt.setLong(2, toExclusive.toEpochDay());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals[(int) (rs.getLong(1) - fromDay)] = rs.getLong(2);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading daily expenses: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Income and expenses per calendar month
+     *
+     * @param first  Oldest month
+     * @param months Number of months
+     * @return [0] income and [1] expenses in cents; index 0 is first
+     */
+    public long[][] monthlyIncomeAndExpenses(YearMonth first, int months) {
+        long[][] totals = new long[2][months];
+        String sql = "SELECT month, income, SUM(amount) FROM monthly_totals "
+                + "WHERE month >= ? AND month < ? GROUP BY month, income";
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, monthKey(first));
+            pstmt.setInt(2, monthKey(first.plusMonths(months)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int key = rs.getInt(1);
+                    YearMonth month = YearMonth.of(key / 100, key % 100);
+                    int index = (int) ChronoUnit.MONTHS.between(first, month);
+                    totals[rs.getInt(2) == 1 ? 0 : 1][index] = rs.getLong(3);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading monthly totals: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Recompute both rollup tables from transaction_records.
+     * Repair path only; triggers keep them current in normal use.
+     *
+     * @return total rollup rows written, or -1 on failure
+     */
+    public int rebuild() {
+        try (Connection connection = Database.getInstance().getWriteConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int[] rows = RollupTables.rebuild(connection);
+                connection.commit();
+                return rows[0] + rows[1];
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding rollups: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /** yyyyMM key used by monthly_totals */
+    static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    /**
+     * A day range split into daily head and tail pieces around whole months.
+     * sourceSql() selects (categoryId, income, amount) rows covering the range.
+     */
+    private static final class RangeQuery {
+        private final long headFrom;
+        private final long headTo;
+        private final long tailFrom;
+        private final long tailTo;
+        private final int monthFrom;
+        private final int monthTo;
+
+        RangeQuery(LocalDate from, LocalDate toExclusive) {
+            YearMonth firstFull = from.getDayOfMonth() == 1 ? YearMonth.from(from) : YearMonth.from(from).plusMonths(1);
+            YearMonth endFull = YearMonth.from(toExclusive);
+            if (firstFull.isBefore(endFull)) {
+                headFrom = from.toEpochDay();
+                headTo = firstFull.atDay(1).toEpochDay();
+                tailFrom = endFull.atDay(1).toEpochDay();
+                tailTo = toExclusive.toEpochDay();
+                monthFrom = monthKey(firstFull);
+                monthTo = monthKey(endFull);
+            } else {
+                // No whole month inside: the range is all daily rows
+                headFrom = from.toEpochDay();
+                headTo = toExclusive.toEpochDay();
+                tailFrom = 0;
+                tailTo = 0;
+                monthFrom = 0;
+                monthTo = 0;
+            }
+        }
+
+        String sourceSql() {
+            return "SELECT categoryId, income, amount FROM daily_totals "
+                    + "WHERE (day >= ? AND day < ?) OR (day >= ? AND day < ?) "
+                    + "UNION ALL "
+                    + "SELECT categoryId, income, amount FROM monthly_totals "
+                    + "WHERE month >= ? AND month < ?";
+        }
+
+        int bind(PreparedStatement pstmt, int index) throws SQLException {
+            pstmt.setLong(index++, headFrom);
+            pstmt.setLong(index++, headTo);
+            pstmt.setLong(index++, tailFrom);
+            pstmt.setLong(index++, tailTo);
+            pstmt.setInt(index++, monthFrom);
+            pstmt.setInt(index++, monthTo);
+            return index;
+        }
+    }
+}
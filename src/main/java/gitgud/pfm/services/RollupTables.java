@@ -0,0 +1,147 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * RollupTables - Pre-aggregated transaction totals per day and per month
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   daily_totals   (day,   walletId, categoryId, income, amount, txCount)
+ *   monthly_totals (month, walletId, categoryId, income, amount, txCount)
+ *
+ *   day      epoch day of createTimeMillis (see DateFormatUtil.epochDay)
+ *   month    yyyyMM as an integer, e.g. 202503
+ *   income   1 for income, 0 for expenses
+ *   amount   cents
+ *
+ * A NULL walletId or categoryId is stored as '' so it can be part of the key.
+ *
+ * Like budget_spend (see BudgetSpendTable), both tables are kept current by
+ * triggers on transaction_records, so every write path maintains them. Rows
+ * whose txCount drops to zero are removed. rebuild() recomputes both tables
+ * from scratch for repair. A migration that rebuilds transaction_records must
+ * call createTriggers again.
+ *
+ * RollupService is the query side.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class RollupTables {
+
+    /** { table, period column, period expression over a transaction row alias } */
+    private static final String[][] ROLLUPS = {
+        { "daily_totals", "day", "(%s.createTimeMillis / 86400000)" },
+        { "monthly_totals", "month", "CAST(strftime('%%Y%%m', %s.createTimeMillis / 1000, 'unixepoch') AS INTEGER)" }
+    };
+
+    /**
+     * V7 - create the rollup tables and triggers and fill them from existing data
+     */
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String[] rollup : ROLLUPS) {
+                statement.execute("CREATE TABLE IF NOT EXISTS \"" + rollup[0] + "\" ("
+                        + "\"" + rollup[1] + "\" INTEGER NOT NULL, "
+                        + "\"walletId\" TEXT NOT NULL, "
+                        + "\"categoryId\" TEXT NOT NULL, "
+                        + "\"income\" INTEGER NOT NULL, "
+                        + "\"amount\" INTEGER NOT NULL DEFAULT 0, "
+                        + "\"txCount\" INTEGER NOT NULL DEFAULT 0, "
+                        + "PRIMARY KEY(\"" + rollup[1] + "\", \"walletId\", \"categoryId\", \"income\")"
+                        + ") WITHOUT ROWID");
+            }
+        }
+        createTriggers(connection);
+        int[] rows = rebuild(connection);
+        System.out.println("✓ Created rollups: " + rows[0] + " daily and " + rows[1] + " monthly rows");
+    }
+
+    /**
+     * Create (or re-create) the triggers that maintain the rollups
+     */
+    static void createTriggers(Connection connection) throws SQLException {
+        StringBuilder onInsert = new StringBuilder();
+        StringBuilder onDelete = new StringBuilder();
+        for (String[] rollup : ROLLUPS) {
+            onInsert.append(addRow(rollup, "NEW")).append("; ");
+            onDelete.append(removeRow(rollup, "OLD")).append("; ");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_insert");
+            statement.execute("CREATE TRIGGER trg_rollup_tx_insert AFTER INSERT ON transaction_records "
+                    + "BEGIN " + onInsert + "END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_delete");
+            statement.execute("CREATE TRIGGER trg_rollup_tx_delete AFTER DELETE ON transaction_records "
+                    + "BEGIN " + onDelete + "END");
+
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_update");
+            statement.execute("CREATE TRIGGER trg_rollup_tx_update "
+                    + "AFTER UPDATE OF amount, income, categoryId, walletId, createTimeMillis ON transaction_records "
+                    + "BEGIN " + onDelete + onInsert + "END");
+        }
+    }
+
+    /**
+     * Drop the triggers, for a bulk rewrite that calls createTriggers and
+     * rebuild afterwards
+     */
+    static void dropTriggers(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_insert");
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_delete");
+            statement.execute("DROP TRIGGER IF EXISTS trg_rollup_tx_update");
+        }
+    }
+
+    /**
+     * Recompute both rollup tables from transaction_records.
+     *
+     * @param connection Write connection
+     * @return { daily rows, monthly rows } written
+     */
+    static int[] rebuild(Connection connection) throws SQLException {
+        int[] rows = new int[ROLLUPS.length];
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < ROLLUPS.length; i++) {
+                String[] rollup = ROLLUPS[i];
+                statement.executeUpdate("DELETE FROM " + rollup[0]);
+                rows[i] = statement.executeUpdate("INSERT INTO " + rollup[0]
+                        + " (" + rollup[1] + ", walletId, categoryId, income, amount, txCount) "
+                        + "SELECT " + period(rollup, "t") + ", COALESCE(t.walletId, ''), COALESCE(t.categoryId, ''), "
+                        + "(t.income > 0), SUM(t.amount), COUNT(*) "
+                        + "FROM transaction_records t GROUP BY 1, 2, 3, 4");
+            }
+        }
+        return rows;
+    }
+
+    // ==================== SQL FRAGMENTS ====================
+
+    private static String period(String[] rollup, String row) {
+        return String.format(rollup[2], row);
+    }
+
+    private static String keyMatches(String[] rollup, String row) {
+        return rollup[1] + " = " + period(rollup, row)
+                + " AND walletId = COALESCE(" + row + ".walletId, '')"
+                + " AND categoryId = COALESCE(" + row + ".categoryId, '')"
+                + " AND income = (" + row + ".income > 0)";
+    }
+
+    private static String addRow(String[] rollup, String row) {
+        return "INSERT INTO " + rollup[0] + " (" + rollup[1] + ", walletId, categoryId, income, amount, txCount) "
+                + "VALUES (" + period(rollup, row) + ", COALESCE(" + row + ".walletId, ''), "
+                + "COALESCE(" + row + ".categoryId, ''), (" + row + ".income > 0), " + row + ".amount, 1) "
+                + "ON CONFLICT(" + rollup[1] + ", walletId, categoryId, income) DO UPDATE SET "
+                + "amount = amount + excluded.amount, txCount = txCount + 1";
+    }
+
+    private static String removeRow(String[] rollup, String row) {
+        return "UPDATE " + rollup[0] + " SET amount = amount - " + row + ".amount, txCount = txCount - 1 "
+                + "WHERE " + keyMatches(rollup, row) + "; "
+                + "DELETE FROM " + rollup[0] + " WHERE " + keyMatches(rollup, row) + " AND txCount <= 0";
+    }
+}
@@ -0,0 +1,403 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * SchemaMigrator - Numbered, transactional schema migrations
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * The schema history is the ordered list in MIGRATIONS. Each database file
+ * records how far along that list it is in two places:
+ *
+ *   PRAGMA user_version   one integer in the file header, read on every start
+ *   schema_version        one row per applied migration, for auditing
+ *
+ * Startup reads user_version once. If it equals the latest version there is
+ * nothing to do and no metadata is queried. Otherwise every pending migration
+ * runs in its own transaction together with its schema_version row and the
+ * user_version bump, so a failure leaves the file at the previous version.
+ *
+ * To change the schema, append a migration with the next version number.
+ * Never edit one that has shipped.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "baseline schema", SchemaMigrator::baselineSchema),
+        new Migration(2, "transaction_records secondary indexes", TransactionIndexes::createIndexesV1),
+        new Migration(3, "money columns as integer cents", SchemaMigrator::moneyAsIntegerCents),
+        new Migration(4, "transaction_records epoch-millis timestamps", SchemaMigrator::epochMillisTimestamps),
+        new Migration(5, "transaction_records keyset pagination index", TransactionIndexes::createIndexes),
+        new Migration(6, "budget_spend materialized totals", BudgetSpendTable::create),
+        new Migration(7, "daily and monthly transaction rollups", RollupTables::create),
+        new Migration(8, "stored ledger data version", LedgerVersionTable::create)
+    );
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    /**
+     * Bring the database up to the latest version.
+     *
+     * @param connection Write connection in auto-commit mode
+     * @return number of migrations applied
+     * @throws SQLException If a migration fails; that migration is rolled back
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        int current = readUserVersion(connection);
+        int latest = latestVersion();
+        if (current == latest) {
+            return 0;
+        }
+        if (current > latest) {
+            throw new SQLException("Database schema version " + current
+                    + " is newer than this application supports (" + latest + ")");
+        }
+
+        createVersionTable(connection);
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.getVersion() > current) {
+                apply(connection, migration);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    public static int readUserVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.apply(connection);
+
+            String sql = "INSERT OR REPLACE INTO schema_version (version, description, appliedAt) "
+                    + "VALUES (?, ?, datetime('now', 'localtime'))";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.executeUpdate();
+            }
+            // user_version lives in the file header and commits with the transaction
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA user_version = " + migration.getVersion());
+            }
+
+            connection.commit();
+            System.out.println("✓ Applied migration " + migration);
+        } catch (SQLException e) {
+            connection.rollback();
+            System.err.println("Error applying migration " + migration + ": " + e.getMessage());
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS "schema_version" (
+                    "version"  INTEGER NOT NULL,
+                    "description"  TEXT,
+                    "appliedAt"  TEXT,
+                    PRIMARY KEY("version")
+                )
+                """);
+        }
+    }
+
+    // ==================== MIGRATIONS ====================
+
+    /**
+     * V1 - Tables as they stood before versioning. Files created by older
+     * builds may be missing columns that were added over time, so those are
+     * probed once here and never again.
+     */
+    private static void baselineSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Wallet first for foreign key references
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "Wallet" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "balance"  NUMERIC,
+                    "color"  TEXT,
+                    PRIMARY KEY("id")
+                )
+                """);
+
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "Category" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT NOT NULL,
+                    "description"  TEXT,
+                    "type"  TEXT NOT NULL DEFAULT 'EXPENSE',
+                    "color"  TEXT,
+                    PRIMARY KEY("id")
+                )
+                """);
+
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "Budget" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "limitAmount"  NUMERIC,
+                    "balance"  NUMERIC,
+                    "startDate"  TEXT,
+                    "endDate"  TEXT,
+                    "periodType"  TEXT DEFAULT 'MONTHLY',
+                    "walletId"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
+                )
+                """);
+
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "Goal" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "target"  NUMERIC,
+                    "balance"  NUMERIC,
+                    "deadline"  TEXT,
+                    "priority"  NUMERIC,
+                    "createAt"  TEXT,
+                    "walletId"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
+                )
+                """);
+
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "transaction_records" (
+                    "id"  TEXT NOT NULL,
+                    "categoryId"  TEXT,
+                    "amount"  NUMERIC,
+                    "name"  TEXT,
+                    "income"  NUMERIC,
+                    "walletId"  TEXT,
+                    "createTime"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE CASCADE,
+                    FOREIGN KEY("categoryId") REFERENCES "Category"("id") ON DELETE SET NULL
+                )
+                """);
+
+            // Junction table for the many-to-many budget/category relationship
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS "Budget_Category" (
+                    "budgetID"  TEXT NOT NULL,
+                    "categoryID"  TEXT NOT NULL,
+                    "categoryLimit"  NUMERIC,
+                    PRIMARY KEY("budgetID", "categoryID"),
+                    FOREIGN KEY("budgetID") REFERENCES "Budget"("id") ON DELETE CASCADE,
+                    FOREIGN KEY("categoryID") REFERENCES "Category"("id") ON DELETE CASCADE
+                )
+                """);
+        }
+
+        // Columns added to existing tables before migrations existed
+        addColumnIfNotExists(connection, "Category", "type", "TEXT NOT NULL DEFAULT 'EXPENSE'");
+        addColumnIfNotExists(connection, "Budget", "periodType", "TEXT DEFAULT 'MONTHLY'");
+        addColumnIfNotExists(connection, "Budget", "walletId", "TEXT");
+        addColumnIfNotExists(connection, "Goal", "walletId", "TEXT");
+        addColumnIfNotExists(connection, "Budget_Category", "categoryLimit", "NUMERIC");
+    }
+
+    /**
+     * V3 - Money columns hold whole cents in INTEGER columns (see Money).
+     * SQLite cannot change a column type in place, so each table is rebuilt:
+     * create the new shape, copy with the amount scaled by 100, swap names.
+     * Rebuilding transaction_records drops its indexes, so they are recreated.
+     */
+    private static void moneyAsIntegerCents(Connection connection) throws SQLException {
+        rebuildTable(connection, "Wallet", """
+                CREATE TABLE "Wallet_v3" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "balance"  INTEGER NOT NULL DEFAULT 0,
+                    "color"  TEXT,
+                    PRIMARY KEY("id")
+                )
+                """,
+                "id, name, balance, color",
+                "id, name, " + cents("balance") + ", color");
+
+        rebuildTable(connection, "Budget", """
+                CREATE TABLE "Budget_v3" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "limitAmount"  INTEGER NOT NULL DEFAULT 0,
+                    "balance"  INTEGER NOT NULL DEFAULT 0,
+                    "startDate"  TEXT,
+                    "endDate"  TEXT,
+                    "periodType"  TEXT DEFAULT 'MONTHLY',
+                    "walletId"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
+                )
+                """,
+                "id, name, limitAmount, balance, startDate, endDate, periodType, walletId",
+                "id, name, " + cents("limitAmount") + ", " + cents("balance")
+                        + ", startDate, endDate, periodType, walletId");
+
+        rebuildTable(connection, "Goal", """
+                CREATE TABLE "Goal_v3" (
+                    "id"  TEXT NOT NULL,
+                    "name"  TEXT,
+                    "target"  INTEGER NOT NULL DEFAULT 0,
+                    "balance"  INTEGER NOT NULL DEFAULT 0,
+                    "deadline"  TEXT,
+                    "priority"  NUMERIC,
+                    "createAt"  TEXT,
+                    "walletId"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE SET NULL
+                )
+                """,
+                "id, name, target, balance, deadline, priority, createAt, walletId",
+                "id, name, " + cents("target") + ", " + cents("balance")
+                        + ", deadline, priority, createAt, walletId");
+
+        rebuildTable(connection, "transaction_records", """
+                CREATE TABLE "transaction_records_v3" (
+                    "id"  TEXT NOT NULL,
+                    "categoryId"  TEXT,
+                    "amount"  INTEGER NOT NULL DEFAULT 0,
+                    "name"  TEXT,
+                    "income"  NUMERIC,
+                    "walletId"  TEXT,
+                    "createTime"  TEXT,
+                    PRIMARY KEY("id"),
+                    FOREIGN KEY("walletId") REFERENCES "Wallet"("id") ON DELETE CASCADE,
+                    FOREIGN KEY("categoryId") REFERENCES "Category"("id") ON DELETE SET NULL
+                )
+                """,
+                "id, categoryId, amount, name, income, walletId, createTime",
+                "id, categoryId, " + cents("amount") + ", name, income, walletId, createTime");
+
+        // categoryLimit stays nullable: NULL means the category has no own limit
+        rebuildTable(connection, "Budget_Category", """
+                CREATE TABLE "Budget_Category_v3" (
+                    "budgetID"  TEXT NOT NULL,
+                    "categoryID"  TEXT NOT NULL,
+                    "categoryLimit"  INTEGER,
+                    PRIMARY KEY("budgetID", "categoryID"),
+                    FOREIGN KEY("budgetID") REFERENCES "Budget"("id") ON DELETE CASCADE,
+                    FOREIGN KEY("categoryID") REFERENCES "Category"("id") ON DELETE CASCADE
+                )
+                """,
+                "budgetID, categoryID, categoryLimit",
+                "budgetID, categoryID, CAST(ROUND(categoryLimit * 100) AS INTEGER)");
+
+        TransactionIndexes.createIndexesV1(connection);
+    }
+
+    /**
+     * V4 - createTimeMillis holds createTime as wall-clock epoch milliseconds
+     * (see DateFormatUtil) so date ranges are integer comparisons. strftime('%s')
+     * reads the text without applying a time zone, matching the Java side, and
+     * accepts both "yyyy-MM-dd HH:mm:ss" and date-only values. Rows it cannot
+     * read get 0. The indexes move from createTime to the new column.
+     */
+    private static void epochMillisTimestamps(Connection connection) throws SQLException {
+        addColumnIfNotExists(connection, "transaction_records", "createTimeMillis", "INTEGER NOT NULL DEFAULT 0");
+        try (Statement statement = connection.createStatement()) {
+            int rows = statement.executeUpdate("""
+                UPDATE "transaction_records"
+                SET "createTimeMillis" = COALESCE(CAST(strftime('%s', "createTime") AS INTEGER) * 1000, 0)
+                """);
+            System.out.println("✓ Backfilled createTimeMillis for " + rows + " transactions");
+        }
+        TransactionIndexes.createIndexes(connection);
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * SQL expression converting a decimal amount column to cents; NULL becomes 0.
+     */
+    private static String cents(String column) {
+        return "CAST(ROUND(COALESCE(\"" + column + "\", 0) * 100) AS INTEGER)";
+    }
+
+    /**
+     * Replace a table with a new definition, copying every row across.
+     *
+     * @param connection  Write connection inside the migration transaction
+     * @param tableName   Table to replace
+     * @param createSQL   CREATE TABLE statement for "tableName_v3"
+     * @param columns     Target column list
+     * @param selectList  Expressions selected from the old table, in column order
+     * @throws SQLException If any step fails
+     */
+    private static void rebuildTable(Connection connection, String tableName, String createSQL,
+                                     String columns, String selectList) throws SQLException {
+        String newName = tableName + "_v3";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS \"" + newName + "\"");
+            statement.execute(createSQL);
+            statement.execute("INSERT INTO \"" + newName + "\" (" + columns + ") "
+                    + "SELECT " + selectList + " FROM \"" + tableName + "\"");
+            statement.execute("DROP TABLE \"" + tableName + "\"");
+            statement.execute("ALTER TABLE \"" + newName + "\" RENAME TO \"" + tableName + "\"");
+        }
+    }
+
+
+    /**
+     * Check if a column exists in a table.
+     *
+     * @param connection The database connection
+     * @param tableName  The name of the table
+     * @param columnName The name of the column to check
+     * @return true if the column exists, false otherwise
+     * @throws SQLException If the check fails
+     */
+    static boolean columnExists(Connection connection, String tableName, String columnName) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(\"" + tableName + "\")")) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a column to a table if it doesn't exist.
+     *
+     * @param connection The database connection
+     * @param tableName  The name of the table
+     * @param columnName The name of the column to add
+     * @param columnDef  The column definition (e.g., "TEXT DEFAULT 'value'")
+     * @throws SQLException If the operation fails
+     */
+    static void addColumnIfNotExists(Connection connection, String tableName,
+                                     String columnName, String columnDef) throws SQLException {
+        if (!columnExists(connection, tableName, columnName)) {
+            String alterSQL = "ALTER TABLE \"" + tableName + "\" ADD COLUMN \"" + columnName + "\" " + columnDef;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(alterSQL);
+                System.out.println("✓ Added column " + columnName + " to table " + tableName);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package gitgud.pfm.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * StatementCache - Compiled statements kept per pooled connection, by SQL text
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Services keep writing the usual
+ *
+ *     try (Connection conn = db.getReadConnection();
+ *          PreparedStatement pstmt = conn.prepareStatement(sql)) { ... }
+ *
+ * but ConnectionPool routes prepareStatement(sql) here. The first call for a
+ * given SQL string compiles it (a miss); later calls on the same connection
+ * borrow that compiled statement (a hit), so SQLite does not parse and plan
+ * it again. close() hands it back instead of finalizing it:
+ *
+ *   - the last ResultSet is closed, which resets the statement and ends its
+ *     read (an open statement would pin an old WAL snapshot)
+ *   - parameters and any batch are cleared
+ *
+ * A statement is owned by one physical connection and is only lent to the
+ * thread holding that connection's lease. If the same SQL is already on loan
+ * (a nested call while the outer one is still reading), the inner caller
+ * gets a plain uncached statement.
+ *
+ * The cache holds at most capacity statements, least recently used out
+ * first. An evicted statement still on loan is finalized when it comes
+ * back. Capacity 0 turns caching off. Hits, misses and evictions are
+ * counted pool-wide and reported in ConnectionPool.PoolStats.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+final class StatementCache {
+
+    /**
+     * Counters shared by every cache of one pool
+     */
+    static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * @param connection Physical connection the statements are compiled on
+     * @param capacity   Most statements kept; 0 disables caching
+     */
+    StatementCache(Connection connection, int capacity, Counters counters) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.capacity) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                counters.evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * A statement for the SQL, compiled now or borrowed from the cache.
+     * Closing it returns it.
+     */
+    PreparedStatement borrow(String sql) throws SQLException {
+        Entry entry = capacity > 0 ? entries.get(sql) : null;
+        if (entry != null && !entry.onLoan) {
+            counters.hits.incrementAndGet();
+            entry.onLoan = true;
+            return entry.handle;
+        }
+        counters.misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (entry != null || capacity == 0) {
+            return statement; // uncached: the caller's close() finalizes it
+        }
+        entry = new Entry(sql, statement);
+        entry.onLoan = true;
+        entries.put(sql, entry);
+        return entry.handle;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finalize every cached statement; the connection is being closed
+     */
+    void closeAll() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : all) {
+            entry.evict();
+        }
+    }
+
+    /**
+     * One compiled statement and the proxy callers hold while it is on loan
+     */
+    private final class Entry implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement statement;
+        private final PreparedStatement handle;
+        private boolean onLoan;
+        private boolean evicted;
+        private ResultSet lastResults;
+
+        Entry(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return !onLoan;
+                case "unwrap":
+                    if (args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + sql + "]";
+                default:
+                    break;
+            }
+            if (!onLoan) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet) {
+                    lastResults = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void giveBack() {
+            if (!onLoan) {
+                return;
+            }
+            onLoan = false;
+            try {
+                if (lastResults != null) {
+                    lastResults.close();
+                    lastResults = null;
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                // Not safe to lend again
+                System.err.println("Error resetting cached statement: " + e.getMessage());
+                if (entries.get(sql) == this) {
+                    entries.remove(sql);
+                }
+                evicted = true;
+            }
+            if (evicted) {
+                closeStatement();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!onLoan) {
+                closeStatement();
+            }
+        }
+
+        private void closeStatement() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
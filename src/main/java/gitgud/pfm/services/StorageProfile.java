@@ -0,0 +1,187 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * StorageProfile - SQLite PRAGMA settings applied to every pooled connection
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * The defaults favour write throughput for a single-user desktop database:
+ *
+ *   journal_mode = WAL      commits append to the write-ahead log instead of
+ *                           rewriting a rollback journal
+ *   synchronous  = NORMAL   fsync only at checkpoints; safe with WAL, a power
+ *                           loss can drop the last commits but never corrupts
+ *   cache_size   = 16 MiB   page cache per connection
+ *   mmap_size    = 64 MiB   reads served from the memory-mapped file
+ *   temp_store   = MEMORY   sorts and temp indexes never touch disk
+ *   busy_timeout = 5 s      wait on a locked database instead of failing
+ *
+ * Alongside the PRAGMAs, each connection keeps up to 64 compiled statements
+ * (see StatementCache; 0 turns it off).
+ *
+ * Each value can be overridden with a system property, e.g.
+ *   -Dpfm.db.synchronous=FULL -Dpfm.db.cacheSizeKb=32768 -Dpfm.db.statementCache=128
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class StorageProfile {
+
+    public enum JournalMode { DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF }
+
+    public enum Synchronous { OFF, NORMAL, FULL, EXTRA }
+
+    public enum TempStore { DEFAULT, FILE, MEMORY }
+
+    private final JournalMode journalMode;
+    private final Synchronous synchronous;
+    private final int cacheSizeKb;
+    private final long mmapSizeBytes;
+    private final TempStore tempStore;
+    private final int busyTimeoutMillis;
+    private final int statementCacheSize;
+
+    private StorageProfile(Builder builder) {
+        this.journalMode = builder.journalMode;
+        this.synchronous = builder.synchronous;
+        this.cacheSizeKb = builder.cacheSizeKb;
+        this.mmapSizeBytes = builder.mmapSizeBytes;
+        this.tempStore = builder.tempStore;
+        this.busyTimeoutMillis = builder.busyTimeoutMillis;
+        this.statementCacheSize = builder.statementCacheSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Defaults, overridden by any pfm.db.* system properties that are set
+     */
+    public static StorageProfile fromSystemProperties() {
+        Builder builder = builder();
+        String journal = System.getProperty("pfm.db.journalMode");
+        if (journal != null) {
+            builder.journalMode(JournalMode.valueOf(journal.trim().toUpperCase(Locale.ROOT)));
+        }
+        String sync = System.getProperty("pfm.db.synchronous");
+        if (sync != null) {
+            builder.synchronous(Synchronous.valueOf(sync.trim().toUpperCase(Locale.ROOT)));
+        }
+        String temp = System.getProperty("pfm.db.tempStore");
+        if (temp != null) {
+            builder.tempStore(TempStore.valueOf(temp.trim().toUpperCase(Locale.ROOT)));
+        }
+        builder.cacheSizeKb(Integer.getInteger("pfm.db.cacheSizeKb", builder.cacheSizeKb));
+        builder.mmapSizeBytes(Long.getLong("pfm.db.mmapSize", builder.mmapSizeBytes));
+        builder.busyTimeoutMillis(Integer.getInteger("pfm.db.busyTimeout", builder.busyTimeoutMillis));
+        builder.statementCacheSize(Integer.getInteger("pfm.db.statementCache", builder.statementCacheSize));
+        return builder.build();
+    }
+
+    /**
+     * Apply the profile to a freshly opened connection. The journal mode is a
+     * property of the database file, so it is only set through the writer.
+     *
+     * @param connection Connection to configure
+     * @param writer     Whether this is the pool's write connection
+     */
+    public void applyTo(Connection connection, boolean writer) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // busy_timeout first so the remaining pragmas wait out a locked file
+            stmt.execute("PRAGMA busy_timeout=" + busyTimeoutMillis);
+            if (writer) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode=" + journalMode.name())) {
+                    String actual = rs.next() ? rs.getString(1) : null;
+                    if (actual == null || !actual.equalsIgnoreCase(journalMode.name())) {
+                        System.err.println("Warning: journal_mode " + journalMode
+                                + " was not applied, database is using " + actual);
+                    }
+                }
+            }
+            stmt.execute("PRAGMA synchronous=" + synchronous.name());
+            // Negative cache_size is measured in KiB rather than pages
+            stmt.execute("PRAGMA cache_size=-" + cacheSizeKb);
+            stmt.execute("PRAGMA mmap_size=" + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store=" + tempStore.name());
+        }
+    }
+
+    public boolean isWal() {
+        return journalMode == JournalMode.WAL;
+    }
+
+    public JournalMode getJournalMode() { return journalMode; }
+    public Synchronous getSynchronous() { return synchronous; }
+    public int getCacheSizeKb() { return cacheSizeKb; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public TempStore getTempStore() { return tempStore; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+
+    @Override
+    public String toString() {
+        return "StorageProfile{" +
+                "journalMode=" + journalMode +
+                ", synchronous=" + synchronous +
+                ", cacheSizeKb=" + cacheSizeKb +
+                ", mmapSizeBytes=" + mmapSizeBytes +
+                ", tempStore=" + tempStore +
+                ", busyTimeoutMillis=" + busyTimeoutMillis +
+                ", statementCacheSize=" + statementCacheSize +
+                '}';
+    }
+
+    public static class Builder {
+        private JournalMode journalMode = JournalMode.WAL;
+        private Synchronous synchronous = Synchronous.NORMAL;
+        private int cacheSizeKb = 16 * 1024;
+        private long mmapSizeBytes = 64L * 1024 * 1024;
+        private TempStore tempStore = TempStore.MEMORY;
+        private int busyTimeoutMillis = 5_000;
+        private int statementCacheSize = 64;
+
+        public Builder journalMode(JournalMode journalMode) {
+            this.journalMode = journalMode;
+            return this;
+        }
+
+        public Builder synchronous(Synchronous synchronous) {
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        public Builder cacheSizeKb(int cacheSizeKb) {
+            this.cacheSizeKb = Math.max(0, cacheSizeKb);
+            return this;
+        }
+
+        public Builder mmapSizeBytes(long mmapSizeBytes) {
+            this.mmapSizeBytes = Math.max(0, mmapSizeBytes);
+            return this;
+        }
+
+        public Builder tempStore(TempStore tempStore) {
+            this.tempStore = tempStore;
+            return this;
+        }
+
+        public Builder busyTimeoutMillis(int busyTimeoutMillis) {
+            this.busyTimeoutMillis = Math.max(0, busyTimeoutMillis);
+            return this;
+        }
+
+        public Builder statementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = Math.max(0, statementCacheSize);
+            return this;
+        }
+
+        public StorageProfile build() {
+            return new StorageProfile(this);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.utils.DateFormatUtil;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * TransactionColumns - The cached transactions as parallel primitive arrays
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   row   epochMillis   cents   walletIdx   categoryIdx   income bit   id   nameIdx
+ *   0     newest        long    int         int           1 of long[]  ...
+ *   ...
+ *   n-1   oldest
+ *
+ * Row i is element i of the List it was built from (the LedgerCache
+ * snapshot, newest first), so transaction(i) hands back the full row when
+ * a screen needs one. Wallet ids, category ids and transaction names are
+ * dictionary-encoded: each distinct value is stored once and rows hold its
+ * index, -1 for null.
+ *
+ * The aggregates below are plain counted loops over long[] and int[] with
+ * no boxing, no map lookups and no date parsing, which is what lets the JIT
+ * unroll them. Because rows are sorted by time, a [fromMillis, toMillis)
+ * range is found by binary search and only its rows are visited. The
+ * income/expense test is a mask, not a branch: cents & ((bit ^ want) - 1)
+ * is the amount when the bit matches and 0 when it does not.
+ *
+ * A TransactionColumns never changes once built. AccountDataLoader builds a
+ * new one after the cached transactions change (see LedgerCache).
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public final class TransactionColumns {
+
+    private final List<Transaction> source;
+    private final int size;
+
+    private final long[] epochMillis;
+    private final long[] cents;
+    private final int[] walletIdx;
+    private final int[] categoryIdx;
+    private final long[] incomeBits;
+    private final String[] ids;
+    private final int[] nameIdx;
+
+    private final Dictionary wallets = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary names = new Dictionary();
+
+    /**
+     * @param rows Newest first, as LedgerCache hands them out; kept, not copied
+     */
+    TransactionColumns(List<Transaction> rows) {
+        source = rows;
+        size = rows.size();
+        epochMillis = new long[size];
+        cents = new long[size];
+        walletIdx = new int[size];
+        categoryIdx = new int[size];
+        incomeBits = new long[(size + 63) >>> 6];
+        ids = new String[size];
+        nameIdx = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            Transaction row = rows.get(i);
+            epochMillis[i] = row.getCreateTimeMillis();
+            cents[i] = row.getAmountCents();
+            walletIdx[i] = wallets.indexOf(row.getWalletId());
+            categoryIdx[i] = categories.indexOf(row.getCategoryId());
+            if (row.getIncome() > 0) {
+                incomeBits[i >>> 6] |= 1L << i;
+            }
+            ids[i] = row.getId();
+            nameIdx[i] = names.indexOf(row.getName());
+        }
+    }
+
+    // ==================== ROWS ====================
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The row as the cache holds it; shared, so read it but do not edit it
+     */
+    public Transaction transaction(int row) {
+        return source.get(row);
+    }
+
+    public long epochMillis(int row) {
+        return epochMillis[row];
+    }
+
+    public long cents(int row) {
+        return cents[row];
+    }
+
+    public boolean isIncome(int row) {
+        return incomeBit(row) != 0;
+    }
+
+    public int walletIndex(int row) {
+        return walletIdx[row];
+    }
+
+    public int categoryIndex(int row) {
+        return categoryIdx[row];
+    }
+
+    public String id(int row) {
+        return ids[row];
+    }
+
+    public String name(int row) {
+        return names.value(nameIdx[row]);
+    }
+
+    /**
+     * First row with epochMillis < millis; size() if there is none.
+     * Rows [firstRowBefore(to), firstRowBefore(from)) are those in [from, to).
+     */
+    public int firstRowBefore(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochMillis[mid] >= millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ==================== DICTIONARIES ====================
+
+    public int walletCount() {
+        return wallets.size();
+    }
+
+    public String walletId(int walletIndex) {
+        return wallets.value(walletIndex);
+    }
+
+    /**
+     * Index of a wallet id in this store, or -1 if no row uses it
+     */
+    public int indexOfWallet(String walletId) {
+        return wallets.find(walletId);
+    }
+
+    public int categoryCount() {
+        return categories.size();
+    }
+
+    public String categoryId(int categoryIndex) {
+        return categories.value(categoryIndex);
+    }
+
+    /**
+     * Index of a category id in this store, or -1 if no row uses it
+     */
+    public int indexOfCategory(String categoryId) {
+        return categories.find(categoryId);
+    }
+
+    // ==================== AGGREGATES ====================
+
+    /**
+     * Total cents of income or expense rows with fromMillis <= epochMillis < toMillis
+     */
+    public long sumCents(long fromMillis, long toMillis, boolean income) {
+        int end = firstRowBefore(fromMillis);
+        long want = income ? 1 : 0;
+        long total = 0;
+        for (int i = firstRowBefore(toMillis); i < end; i++) {
+            total += cents[i] & ((incomeBit(i) ^ want) - 1);
+        }
+        return total;
+    }
+
+    /**
+     * Income and expense totals over a range in one pass
+     *
+     * @return { income, expenses } in cents
+     */
+    public long[] sumIncomeAndExpenses(long fromMillis, long toMillis) {
+        int end = firstRowBefore(fromMillis);
+        long income = 0;
+        long all = 0;
+        for (int i = firstRowBefore(toMillis); i < end; i++) {
+            long amount = cents[i];
+            all += amount;
+            income += amount & -incomeBit(i);
+        }
+        return new long[] { income, all - income };
+    }
+
+    /**
+     * Income or expense totals per category over a range
+     *
+     * @return cents indexed by category index; rows without a category are left out
+     */
+    public long[] sumCentsByCategory(long fromMillis, long toMillis, boolean income) {
+        return sumCentsBy(categoryIdx, categories.size(), fromMillis, toMillis, income);
+    }
+
+    /**
+     * Income or expense totals per wallet over a range
+     *
+     * @return cents indexed by wallet index; rows without a wallet are left out
+     */
+    public long[] sumCentsByWallet(long fromMillis, long toMillis, boolean income) {
+        return sumCentsBy(walletIdx, wallets.size(), fromMillis, toMillis, income);
+    }
+
+    /**
+     * Income or expense totals per day, for days whole days from fromMillis
+     *
+     * @param fromMillis Start of the first day (a multiple of MILLIS_PER_DAY)
+     * @return cents indexed by day offset
+     */
+    public long[] sumCentsByDay(long fromMillis, int days, boolean income) {
+        long[] totals = new long[days];
+        long toMillis = fromMillis + days * DateFormatUtil.MILLIS_PER_DAY;
+        int end = firstRowBefore(fromMillis);
+        long want = income ? 1 : 0;
+        for (int i = firstRowBefore(toMillis); i < end; i++) {
+            int day = (int) ((epochMillis[i] - fromMillis) / DateFormatUtil.MILLIS_PER_DAY);
+            totals[day] += cents[i] & ((incomeBit(i) ^ want) - 1);
+        }
+        return totals;
+    }
+
+    /**
+     * Rows in [fromMillis, toMillis) accepted by the filter, newest first
+     *
+     * @param filter Tests a row index, using the accessors above
+     */
+    public int[] select(long fromMillis, long toMillis, IntPredicate filter) {
+        int end = firstRowBefore(fromMillis);
+        int start = firstRowBefore(toMillis);
+        int[] rows = new int[Math.max(0, end - start)];
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (filter.test(i)) {
+                rows[count++] = i;
+            }
+        }
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    private long[] sumCentsBy(int[] keys, int buckets, long fromMillis, long toMillis, boolean income) {
+        long[] totals = new long[buckets];
+        int end = firstRowBefore(fromMillis);
+        long want = income ? 1 : 0;
+        for (int i = firstRowBefore(toMillis); i < end; i++) {
+            int key = keys[i];
+            if (key >= 0) {
+                totals[key] += cents[i] & ((incomeBit(i) ^ want) - 1);
+            }
+        }
+        return totals;
+    }
+
+    private long incomeBit(int row) {
+        return (incomeBits[row >>> 6] >>> row) & 1L;
+    }
+
+    /**
+     * Distinct strings in first-seen order; null is index -1
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private String[] values = new String[16];
+
+        int indexOf(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            int added = indexes.size();
+            if (added == values.length) {
+                values = Arrays.copyOf(values, added * 2);
+            }
+            values[added] = value;
+            indexes.put(value, added);
+            return added;
+        }
+
+        int find(String value) {
+            Integer index = value == null ? null : indexes.get(value);
+            return index == null ? -1 : index;
+        }
+
+        String value(int index) {
+            return index < 0 ? null : values[index];
+        }
+
+        int size() {
+            return indexes.size();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
+import gitgud.pfm.utils.DateFormatUtil;
+import gitgud.pfm.utils.Money;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * TransactionCriteriaCompiler - TransactionCriteria to a parameterized WHERE
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Criterion        SQL                                           Index
+ * ---------------  --------------------------------------------  ----------------
+ * transactionId    id = ?                                        primary key
+ * categoryId list  categoryId IN (?, ...)                        category_spend
+ * walletId         walletId IN (SELECT id FROM Wallet            wallet_time
+ *                    WHERE instr(lower(id), ?) > 0)
+ * income           income = ?                                    income_time
+ * dateFrom/dateTo  createTimeMillis >= ? / < ?                   time_id
+ * min/maxAmount    amount >= ? / <= ?  (cents)                   -
+ * nameContains     name LIKE ? ESCAPE '\'                        -
+ *
+ * walletId keeps the in-memory Filter's case-insensitive "contains" meaning.
+ * It is resolved against the small Wallet table first, so the transaction
+ * side is an IN list the wallet index can serve.
+ *
+ * SQLite's LIKE and lower() only fold ASCII letters. A walletId or name term
+ * with other characters is not pushed down; it becomes a residual predicate
+ * that the caller applies to the rows SQL returns.
+ *
+ * The WHERE text depends only on which criteria are set (the "shape"), not
+ * their values. Each shape is compiled once and reused, so a screen that
+ * re-runs the same filters always sends the same statement text.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class TransactionCriteriaCompiler {
+
+    private static final int MAX_CACHED_SHAPES = 64;
+
+    private static final Map<String, String> WHERE_BY_SHAPE = new ConcurrentHashMap<>();
+
+    /**
+     * Result of compiling one TransactionCriteria
+     */
+    public static class CompiledCriteria {
+        private final String shape;
+        private final String where;
+        private final List<Object> params;
+        private final Predicate<Transaction> residual;
+
+        CompiledCriteria(String shape, String where, List<Object> params, Predicate<Transaction> residual) {
+            this.shape = shape;
+            this.where = where;
+            this.params = params;
+            this.residual = residual;
+        }
+
+        /** Which criteria are present, e.g. "cat2|inc|from" */
+        public String getShape() { return shape; }
+
+        /** Boolean SQL expression, never empty ("1 = 1" when unfiltered) */
+        public String getWhere() { return where; }
+
+        /** Values for the placeholders in getWhere(), in order */
+        public List<Object> getParams() { return params; }
+
+        /** True if some rows SQL returns still have to be checked in memory */
+        public boolean hasResidual() { return residual != null; }
+
+        /** Apply the predicates that could not be pushed down */
+        public boolean matchesResidual(Transaction transaction) {
+            return residual == null || residual.test(transaction);
+        }
+    }
+
+    /**
+     * Compile criteria into a WHERE clause plus parameters.
+     *
+     * @param criteria Criteria to compile; null matches everything
+     * @return compiled form
+     */
+    public static CompiledCriteria compile(TransactionCriteria criteria) {
+        StringBuilder shape = new StringBuilder();
+        List<String> clauses = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        Predicate<Transaction> residual = null;
+
+        if (criteria != null) {
+            if (criteria.hasSearchTerm()) {
+                shape.append("id|");
+                clauses.add("id = ?");
+                params.add(criteria.getTransactionId());
+            }
+
+            List<String> categoryIds = criteria.getCategoryId();
+            if (categoryIds != null && !categoryIds.isEmpty()) {
+                shape.append("cat").append(categoryIds.size()).append('|');
+                clauses.add("categoryId IN (" + String.join(", ", Collections.nCopies(categoryIds.size(), "?")) + ")");
+                params.addAll(categoryIds);
+            }
+
+            String walletId = criteria.getWalletId();
+            if (walletId != null && !walletId.isEmpty()) {
+                String term = walletId.toLowerCase();
+                if (isAscii(term)) {
+                    shape.append("wal|");
+                    clauses.add("walletId IN (SELECT id FROM Wallet WHERE instr(lower(id), ?) > 0)");
+                    params.add(term);
+                } else {
+                    residual = and(residual, t -> t.getWalletId() != null
+                            && t.getWalletId().toLowerCase().contains(term));
+                }
+            }
+
+            if (criteria.getIncome() != null) {
+                shape.append("inc|");
+                clauses.add("income = ?");
+                params.add(criteria.getIncome());
+            }
+
+            if (criteria.getDateFrom() != null && !criteria.getDateFrom().isEmpty()) {
+                shape.append("from|");
+                clauses.add("createTimeMillis >= ?");
+                params.add(DateFormatUtil.parseIsoToEpochMillis(criteria.getDateFrom()));
+            }
+
+            if (criteria.getDateTo() != null && !criteria.getDateTo().isEmpty()) {
+                // A date-only bound includes the whole day
+                LocalDate dateOnly = DateFormatUtil.parseIsoDate(criteria.getDateTo());
+                if (dateOnly != null) {
+                    shape.append("toDay|");
+                    clauses.add("createTimeMillis < ?");
+                    params.add(DateFormatUtil.startOfDayMillis(dateOnly.plusDays(1)));
+                } else {
+                    shape.append("to|");
+                    clauses.add("createTimeMillis <= ?");
+                    params.add(DateFormatUtil.parseIsoToEpochMillis(criteria.getDateTo()));
+                }
+            }
+
+            if (criteria.getMinAmount() != null) {
+                shape.append("min|");
+                clauses.add("amount >= ?");
+                params.add(Money.toCents(criteria.getMinAmount()));
+            }
+
+            if (criteria.getMaxAmount() != null) {
+                shape.append("max|");
+                clauses.add("amount <= ?");
+                params.add(Money.toCents(criteria.getMaxAmount()));
+            }
+
+            String name = criteria.getNameContains();
+            if (name != null && !name.isEmpty()) {
+                if (isAscii(name)) {
+                    shape.append("name|");
+                    clauses.add("name LIKE ? ESCAPE '\\'");
+                    params.add("%" + escapeLike(name) + "%");
+                } else {
+                    String term = name.toLowerCase();
+                    residual = and(residual, t -> t.getName() != null
+                            && t.getName().toLowerCase().contains(term));
+                }
+            }
+        }
+
+        String key = shape.toString();
+        String where = WHERE_BY_SHAPE.get(key);
+        if (where == null) {
+            where = clauses.isEmpty() ? "1 = 1" : String.join(" AND ", clauses);
+            if (WHERE_BY_SHAPE.size() >= MAX_CACHED_SHAPES) {
+                WHERE_BY_SHAPE.clear();
+            }
+            WHERE_BY_SHAPE.put(key, where);
+        }
+        return new CompiledCriteria(key, where, params, residual);
+    }
+
+    /**
+     * Number of distinct criteria shapes compiled and cached
+     */
+    public static int cachedShapes() {
+        return WHERE_BY_SHAPE.size();
+    }
+
+    private static Predicate<Transaction> and(Predicate<Transaction> existing, Predicate<Transaction> next) {
+        return existing == null ? next : existing.and(next);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,155 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Transaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * TransactionCursor - Forward-only view over a live transaction_records query
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Rows are read from the ResultSet one at a time, so a scan over years of
+ * history holds one row (plus the driver's fetch window) in memory instead of
+ * a List of every transaction.
+ *
+ * The cursor leases a read connection from the pool for as long as it is open.
+ * Always close it, or the Stream returned by stream(), in try-with-resources;
+ * an abandoned cursor keeps one reader out of the pool.
+ *
+ * Two ways to consume:
+ *   stream()           a new Transaction per row, safe to collect or keep
+ *   forEachReused(..)  one Transaction instance refilled for every row; for
+ *                      aggregates that read fields and move on. The visitor
+ *                      must not store the instance.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class TransactionCursor implements AutoCloseable {
+
+    /** Column list every cursor query must select, in this order */
+    public static final String COLUMNS =
+            "id, categoryId, amount, name, income, walletId, createTime, createTimeMillis";
+
+    private final Connection connection;
+    private final PreparedStatement pstmt;
+    private final ResultSet rs;
+    private boolean closed;
+
+    /**
+     * Execute the query on a leased read connection.
+     *
+     * @param sql       Query selecting {@link #COLUMNS}
+     * @param fetchSize Rows the driver reads ahead per step
+     * @param params    Positional parameters
+     * @throws SQLException If the query fails; the connection is released
+     */
+    TransactionCursor(String sql, int fetchSize, Object... params) throws SQLException {
+        Connection conn = Database.getInstance().getReadConnection();
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            this.rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            if (stmt != null) {
+                stmt.close();
+            }
+            conn.close();
+            throw e;
+        }
+        this.connection = conn;
+        this.pstmt = stmt;
+    }
+
+    /**
+     * Advance to the next row and copy it into the given instance.
+     *
+     * @param into Transaction to fill
+     * @return false when there are no more rows
+     */
+    public boolean next(Transaction into) throws SQLException {
+        if (closed || !rs.next()) {
+            return false;
+        }
+        into.setId(rs.getString(1));
+        into.setCategoryId(rs.getString(2));
+        into.setAmountCents(rs.getLong(3));
+        into.setName(rs.getString(4));
+        into.setIncome(rs.getDouble(5));
+        into.setWalletId(rs.getString(6));
+        into.setCreateTime(rs.getString(7), rs.getLong(8));
+        into.setGoalId(null);
+        return true;
+    }
+
+    /**
+     * Visit every remaining row with a single reused Transaction.
+     *
+     * @param visitor Called once per row; must not keep the instance
+     * @return number of rows visited
+     */
+    public int forEachReused(Consumer<Transaction> visitor) throws SQLException {
+        Transaction row = new Transaction();
+        int count = 0;
+        while (next(row)) {
+            visitor.accept(row);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Remaining rows as a sequential Stream of fresh Transaction objects.
+     * Closing the Stream closes this cursor.
+     */
+    public Stream<Transaction> stream() {
+        Spliterator<Transaction> spliterator = new Spliterators.AbstractSpliterator<Transaction>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                Transaction row = new Transaction();
+                try {
+                    if (!next(row)) {
+                        return false;
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Error streaming transactions: " + e.getMessage());
+                    return false;
+                }
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            rs.close();
+            pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing transaction cursor: " + e.getMessage());
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error releasing cursor connection: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package gitgud.pfm.services;
+
+import gitgud.pfm.Models.Category;
+import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
+import gitgud.pfm.Models.Wallet;
+import gitgud.pfm.services.TransactionCriteriaCompiler.CompiledCriteria;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * TransactionExporter - Stream transaction_records to CSV or JSON Lines
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ *   TransactionCursor ──one reused row──> ChannelTextWriter ──> FileChannel
+ *
+ * Rows come off a live cursor into a single reused Transaction and are
+ * encoded straight into the writer's direct buffer, so memory use is the
+ * same for ten rows or ten million; no List of the ledger is ever built.
+ * Only the wallet and category name lookups are held.
+ *
+ * The file is written as "<target>.part", forced to disk, then moved over
+ * the target, so a nightly archive is either the previous complete file or
+ * the new complete file, never a truncated one.
+ *
+ * Columns (newest first, the service order):
+ *   CSV    Id, Date, Description, Amount, Type, Category Id, Category, Wallet Id, Wallet
+ *   JSONL  {"id", "date", "description", "amount", "type", "categoryId",
+ *           "category", "walletId", "wallet"}
+ *
+ * Amount is signed (expenses negative), so a CSV export can be read back
+ * with CsvTransactionImporter using date pattern yyyy-MM-dd HH:mm:ss.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class TransactionExporter {
+
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Told how far an export has got, every PROGRESS_INTERVAL rows and at the end
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param written Rows written so far
+         * @param total   Rows the export will write
+         */
+        void onProgress(long written, long total);
+    }
+
+    public static final int PROGRESS_INTERVAL = 5_000;
+
+    private static final String CSV_HEADER =
+            "Id,Date,Description,Amount,Type,Category Id,Category,Wallet Id,Wallet\n";
+
+    private final TransactionService transactionService = new TransactionService();
+
+    /**
+     * Export the transactions matching the criteria.
+     *
+     * @param criteria Filters; null exports everything
+     * @param target   File to create or replace
+     * @param progress Progress callback; may be null
+     * @return rows written, or -1 on failure (the target is left untouched)
+     */
+    public long export(TransactionCriteria criteria, Path target, Format format, ProgressListener progress) {
+        Map<String, String> walletNames = new HashMap<>();
+        for (Wallet wallet : new WalletService().readAll()) {
+            walletNames.put(wallet.getId(), wallet.getName());
+        }
+        Map<String, String> categoryNames = new HashMap<>();
+        for (Category category : new CategoryService().getAllCategories()) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+        long total = transactionService.count(criteria);
+
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        String sql = "SELECT " + TransactionCursor.COLUMNS + " FROM transaction_records WHERE "
+                + compiled.getWhere() + " ORDER BY createTimeMillis DESC, id DESC";
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long written = 0;
+
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             ChannelTextWriter out = new ChannelTextWriter(channel);
+             TransactionCursor cursor = new TransactionCursor(sql, transactionService.getFetchSize(),
+                     compiled.getParams().toArray())) {
+            if (format == Format.CSV) {
+                out.write(CSV_HEADER);
+            }
+            Transaction row = new Transaction();
+            while (cursor.next(row)) {
+                if (compiled.hasResidual() && !compiled.matchesResidual(row)) {
+                    continue;
+                }
+                String category = categoryNames.get(row.getCategoryId());
+                String wallet = walletNames.get(row.getWalletId());
+                if (format == Format.CSV) {
+                    writeCsvRow(out, row, category, wallet);
+                } else {
+                    writeJsonRow(out, row, category, wallet);
+                }
+                if (++written % PROGRESS_INTERVAL == 0 && progress != null) {
+                    progress.onProgress(written, Math.max(total, written));
+                }
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error exporting transactions: " + e.getMessage());
+            deleteQuietly(partial);
+            return -1;
+        }
+
+        try {
+            moveIntoPlace(partial, target);
+        } catch (IOException e) {
+            System.err.println("Error saving export: " + e.getMessage());
+            deleteQuietly(partial);
+            return -1;
+        }
+        if (progress != null) {
+            progress.onProgress(written, written);
+        }
+        return written;
+    }
+
+    // ==================== ROW FORMATS ====================
+
+    private static void writeCsvRow(ChannelTextWriter out, Transaction row, String category, String wallet)
+            throws IOException {
+        writeCsvField(out, row.getId());
+        out.write(',');
+        writeCsvField(out, row.getCreateTime());
+        out.write(',');
+        writeCsvField(out, row.getName());
+        out.write(',');
+        out.writeCents(signedCents(row));
+        out.write(row.getIncome() > 0 ? ",income," : ",expense,");
+        writeCsvField(out, row.getCategoryId());
+        out.write(',');
+        writeCsvField(out, category);
+        out.write(',');
+        writeCsvField(out, row.getWalletId());
+        out.write(',');
+        writeCsvField(out, wallet);
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(ChannelTextWriter out, Transaction row, String category, String wallet)
+            throws IOException {
+        out.write("{\"id\":");
+        writeJsonString(out, row.getId());
+        out.write(",\"date\":");
+        writeJsonString(out, row.getCreateTime());
+        out.write(",\"description\":");
+        writeJsonString(out, row.getName());
+        out.write(",\"amount\":");
+        out.writeCents(signedCents(row));
+        out.write(row.getIncome() > 0 ? ",\"type\":\"income\"" : ",\"type\":\"expense\"");
+        out.write(",\"categoryId\":");
+        writeJsonString(out, row.getCategoryId());
+        out.write(",\"category\":");
+        writeJsonString(out, category);
+        out.write(",\"walletId\":");
+        writeJsonString(out, row.getWalletId());
+        out.write(",\"wallet\":");
+        writeJsonString(out, wallet);
+        out.write("}\n");
+    }
+
+    private static long signedCents(Transaction row) {
+        return row.getIncome() > 0 ? row.getAmountCents() : -row.getAmountCents();
+    }
+
+    /**
+     * RFC 4180: quote a field that holds a comma, quote or line break
+     */
+    private static void writeCsvField(ChannelTextWriter out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        // Write runs between quotes whole, so surrogate pairs reach the encoder together
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value.subSequence(start, i + 1));
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value.subSequence(start, value.length()));
+        out.write('"');
+    }
+
+    private static void writeJsonString(ChannelTextWriter out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch != '"' && ch != '\\' && ch >= 0x20) {
+                continue;
+            }
+            out.write(value.subSequence(start, i));
+            start = i + 1;
+            switch (ch) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    out.write("\\u00");
+                    out.write(Character.forDigit(ch >> 4, 16));
+                    out.write(Character.forDigit(ch & 0xF, 16));
+                }
+            }
+        }
+        out.write(start == 0 ? value : value.subSequence(start, value.length()));
+        out.write('"');
+    }
+
+    // ==================== FILES ====================
+
+    private static void moveIntoPlace(Path partial, Path target) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Error removing partial export: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * TransactionIndexes - Versioned secondary indexes on transaction_records
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * Index                                  Serves
+ * -------------------------------------  ------------------------------------------
+ * idx_tx_wallet_time   (walletId,        readByWallet ... ORDER BY createTimeMillis DESC
+ *                       createTimeMillis)
+ * idx_tx_category_spend (categoryId,     BudgetService.getSpentCentsForCategory and
+ *                       income,          getTotalSpentCentsForBudget; walletId and
+ *                       createTimeMillis, amount are carried in the index so the
+ *                       walletId, amount) SUM never touches the table
+ * idx_tx_income_time   (income,          getTotalIncomeCents / getTotalExpensesCents and
+ *                       createTimeMillis) income-filtered date ranges
+ * idx_tx_time_id       (createTimeMillis, readPageAfter / readPageBefore keyset seeks and
+ *                       id)              the newest-first order of unfiltered reads
+ *
+ * Every name carries the version of the set it belongs to. Changing a
+ * definition means bumping VERSION and adding a SchemaMigrator step that calls
+ * createIndexes: the old indexes are dropped and the new ones created.
+ * Creation uses IF NOT EXISTS so re-running it is a no-op. Sets that older
+ * migrations created are kept here unchanged, since those migrations still run
+ * on new files before the columns the current set needs exist.
+ *
+ * Version history:
+ *   1  keyed on the TEXT createTime column
+ *   2  keyed on the INTEGER createTimeMillis column
+ *   3  adds time_id for keyset pagination
+ *
+ * On every startup each index is checked with EXPLAIN QUERY PLAN against the
+ * query it was built for. A plan that does not use it is reported but never
+ * fails startup.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class TransactionIndexes {
+
+    public static final int VERSION = 3;
+
+    private static final String PREFIX = "idx_tx_";
+
+    /** { base name, column list, query the index must serve } */
+    private static final String[][] INDEXES = {
+        {
+            "wallet_time",
+            "\"walletId\", \"createTimeMillis\"",
+            "SELECT id FROM transaction_records WHERE walletId = 'w' ORDER BY createTimeMillis DESC"
+        },
+        {
+            "category_spend",
+            "\"categoryId\", \"income\", \"createTimeMillis\", \"walletId\", \"amount\"",
+            "SELECT SUM(amount) FROM transaction_records WHERE income = 0 AND categoryId = 'c' "
+                + "AND walletId = 'w' AND createTimeMillis >= 0 AND createTimeMillis < 86400000"
+        },
+        {
+            "income_time",
+            "\"income\", \"createTimeMillis\"",
+            "SELECT SUM(amount) FROM transaction_records WHERE income = 1"
+        },
+        {
+            "time_id",
+            "\"createTimeMillis\", \"id\"",
+            "SELECT id FROM transaction_records WHERE createTimeMillis < 0 "
+                + "ORDER BY createTimeMillis DESC, id DESC LIMIT 21"
+        }
+    };
+
+    /** Version 1 set, created by migrations V2 and V3 */
+    private static final String[][] INDEXES_V1 = {
+        {
+            "wallet_time",
+            "\"walletId\", \"createTime\""
+        },
+        {
+            "category_spend",
+            "\"categoryId\", \"income\", \"createTime\", \"walletId\", \"amount\""
+        },
+        {
+            "income_time",
+            "\"income\", \"createTime\""
+        }
+    };
+
+    /**
+     * Create the current index set and drop indexes from older versions.
+     *
+     * @param connection Write connection
+     * @throws SQLException If an index cannot be created
+     */
+    public static void createIndexes(Connection connection) throws SQLException {
+        createIndexSet(connection, INDEXES, VERSION);
+    }
+
+    /**
+     * Create the version 1 set, exactly as migrations V2 and V3 shipped it.
+     *
+     * @param connection Write connection
+     * @throws SQLException If an index cannot be created
+     */
+    public static void createIndexesV1(Connection connection) throws SQLException {
+        createIndexSet(connection, INDEXES_V1, 1);
+    }
+
+    private static void createIndexSet(Connection connection, String[][] indexes, int version)
+            throws SQLException {
+        Set<String> current = new HashSet<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String[] index : indexes) {
+                String name = indexName(index[0], version);
+                current.add(name);
+                statement.execute("CREATE INDEX IF NOT EXISTS \"" + name + "\" "
+                        + "ON \"transaction_records\" (" + index[1] + ")");
+            }
+        }
+        dropStaleIndexes(connection, current);
+    }
+
+    /**
+     * Check that every query in the set is planned against its index.
+     *
+     * @return true if all plans use the intended index
+     */
+    public static boolean verifyQueryPlans(Connection connection) throws SQLException {
+        boolean allUsed = true;
+        for (String[] index : INDEXES) {
+            String name = indexName(index[0], VERSION);
+            String plan = explain(connection, index[2]);
+            if (!plan.contains(name)) {
+                allUsed = false;
+                System.err.println("Warning: query planner is not using " + name + " (plan: " + plan + ")");
+            }
+        }
+        return allUsed;
+    }
+
+    private static void dropStaleIndexes(Connection connection, Set<String> current) throws SQLException {
+        String sql = "SELECT name FROM sqlite_master WHERE type = 'index' "
+                + "AND tbl_name = 'transaction_records' AND name LIKE ?";
+        Set<String> stale = new HashSet<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, PREFIX + "%");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    if (!current.contains(name)) {
+                        stale.add(name);
+                    }
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String name : stale) {
+                statement.execute("DROP INDEX IF EXISTS \"" + name + "\"");
+                System.out.println("✓ Dropped outdated index: " + name);
+            }
+        }
+    }
+
+    private static String explain(Connection connection, String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN QUERY PLAN " + query)) {
+            while (rs.next()) {
+                if (plan.length() > 0) {
+                    plan.append("; ");
+                }
+                plan.append(rs.getString("detail"));
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String indexName(String base, int version) {
+        return PREFIX + base + "_v" + version;
+    }
+}
@@ -1,55 +1,165 @@
 package gitgud.pfm.services;
 
 import gitgud.pfm.Models.Transaction;
+import gitgud.pfm.Models.TransactionCriteria;
+import gitgud.pfm.Models.TransactionPage;
+import gitgud.pfm.services.TransactionCriteriaCompiler.CompiledCriteria;
 import gitgud.pfm.interfaces.CRUDInterface;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * TransactionService - Explicit CRUD operations for Transaction entity
  * All SQL queries explicitly show field mappings for clarity
  */
 public class TransactionService implements CRUDInterface<Transaction> {
-    private final Connection connection;
-    
-    public TransactionService() {
-        this.connection = Database.getInstance().getConnection();
+
+    /** Rows the driver reads ahead per step when streaming (pfm.db.fetchSize) */
+    public static final int DEFAULT_FETCH_SIZE = 256;
+
+    /** Rows sent per JDBC batch by createAll (pfm.db.batchSize) */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    static final String INSERT = "INSERT INTO transaction_records "
+            + "(id, categoryId, amount, name, income, walletId, createTime, createTimeMillis) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String SELECT_ALL = "SELECT " + TransactionCursor.COLUMNS
+            + " FROM transaction_records ORDER BY createTimeMillis DESC";
+    private static final String SELECT_BY_WALLET = "SELECT " + TransactionCursor.COLUMNS
+            + " FROM transaction_records WHERE walletId = ? ORDER BY createTimeMillis DESC";
+    private static final String SELECT_BETWEEN = "SELECT " + TransactionCursor.COLUMNS
+            + " FROM transaction_records WHERE createTimeMillis >= ? AND createTimeMillis < ?"
+            + " ORDER BY createTimeMillis DESC";
+
+    private int fetchSize = Integer.getInteger("pfm.db.fetchSize", DEFAULT_FETCH_SIZE);
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    private int batchSize = Integer.getInteger("pfm.db.batchSize", DEFAULT_BATCH_SIZE);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
     }
     
     /**
      * Create a new transaction in the database
-     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime
+     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime, createTimeMillis
      */
     @Override
-    public void create(Transaction transaction) {
-        String sql = "INSERT INTO transaction_records (id, categoryId, amount, name, income, walletId, createTime) " +
-                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, transaction.getId());
-            pstmt.setString(2, transaction.getCategoryId());
-            pstmt.setDouble(3, transaction.getAmount());
-            pstmt.setString(4, transaction.getName());
-            pstmt.setDouble(5, transaction.getIncome());
-            pstmt.setString(6, transaction.getWalletId());
-            pstmt.setString(7, transaction.getCreateTime());
-            
-            pstmt.executeUpdate();
+    public boolean create(Transaction transaction) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(INSERT)) {
+            bindInsert(pstmt, transaction);
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error creating transaction: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Bulk insert for imports: every row in one database transaction, sent in
+     * JDBC batches of getBatchSize() rows through one PreparedStatement.
+     *
+     * Unlike create(), this also moves wallet balances: income adds to its
+     * wallet and anything else subtracts, with the net change applied once
+     * per wallet after all rows are in. Either everything is written or, on
+     * any error, nothing is.
+     *
+     * @param transactions Rows to insert; read once, never held as a whole
+     * @return number of rows inserted, or -1 if the import was rolled back
+     */
+    public int createAll(Iterable<Transaction> transactions) {
+        String walletSql = "UPDATE Wallet SET balance = balance + ? WHERE id = ?";
+        Map<String, Long> walletDeltas = new LinkedHashMap<>();
+        int rows = 0;
+
+        try (Connection connection = Database.getInstance().getWriteConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = connection.prepareStatement(INSERT)) {
+                    int pending = 0;
+                    for (Transaction transaction : transactions) {
+                        bindInsert(pstmt, transaction);
+                        pstmt.addBatch();
+                        rows++;
+                        if (transaction.getWalletId() != null) {
+                            long delta = transaction.getIncome() > 0
+                                    ? transaction.getAmountCents() : -transaction.getAmountCents();
+                            walletDeltas.merge(transaction.getWalletId(), delta, Long::sum);
+                        }
+                        if (++pending == batchSize) {
+                            pstmt.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                try (PreparedStatement pstmt = connection.prepareStatement(walletSql)) {
+                    for (Map.Entry<String, Long> entry : walletDeltas.entrySet()) {
+                        pstmt.setLong(1, entry.getValue());
+                        pstmt.setString(2, entry.getKey());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                // Also covers a failing source Iterable, so nothing half-written is committed
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error importing transactions: " + e.getMessage());
+            return -1;
         }
     }
+
+    static void bindInsert(PreparedStatement pstmt, Transaction transaction) throws SQLException {
+        pstmt.setString(1, transaction.getId());
+        pstmt.setString(2, transaction.getCategoryId());
+        pstmt.setLong(3, transaction.getAmountCents());
+        pstmt.setString(4, transaction.getName());
+        pstmt.setDouble(5, transaction.getIncome());
+        pstmt.setString(6, transaction.getWalletId());
+        pstmt.setString(7, transaction.getCreateTime());
+        pstmt.setLong(8, transaction.getCreateTimeMillis());
+    }
     
     /**
      * Read a single transaction by ID
-     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime
+     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime, createTimeMillis
      */
     @Override
     public Transaction read(String id) {
-        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime " +
+        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime, createTimeMillis " +
                  "FROM transaction_records WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -57,11 +167,11 @@ public class TransactionService implements CRUDInterface<Transaction> {
                     Transaction transaction = new Transaction();
                     transaction.setId(rs.getString("id"));
                     transaction.setCategoryId(rs.getString("categoryId"));
-                    transaction.setAmount(rs.getDouble("amount"));
+                    transaction.setAmountCents(rs.getLong("amount"));
                     transaction.setName(rs.getString("name"));
                     transaction.setIncome(rs.getDouble("income"));
                     transaction.setWalletId(rs.getString("walletId"));
-                    transaction.setCreateTime(rs.getString("createTime"));
+                    transaction.setCreateTime(rs.getString("createTime"), rs.getLong("createTimeMillis"));
                     return transaction;
                 }
             }
@@ -72,83 +182,321 @@ public class TransactionService implements CRUDInterface<Transaction> {
     }
     
     /**
-     * Read all transactions from the database
-     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime
+     * Read all transactions from the database, most recent first.
+     * Materializes every row; prefer streamAll or scanAll for large histories.
      */
     public List<Transaction> readAll() {
-        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime " +
-             "FROM transaction_records ORDER BY createTime DESC";
-        List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                Transaction transaction = new Transaction();
-                transaction.setId(rs.getString("id"));
-                transaction.setCategoryId(rs.getString("categoryId"));
-                transaction.setAmount(rs.getDouble("amount"));
-                transaction.setName(rs.getString("name"));
-                transaction.setIncome(rs.getDouble("income"));
-                transaction.setWalletId(rs.getString("walletId"));
-                transaction.setCreateTime(rs.getString("createTime"));
-                transactions.add(transaction);
+        try (Stream<Transaction> rows = streamAll()) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+    
+    /**
+     * readAll for the ledger cache: a failed read throws instead of
+     * returning the rows read so far
+     */
+    List<Transaction> loadAll() throws SQLException {
+        List<Transaction> rows = new ArrayList<>();
+        try (TransactionCursor cursor = new TransactionCursor(SELECT_ALL, fetchSize)) {
+            Transaction row = new Transaction();
+            while (cursor.next(row)) {
+                rows.add(row);
+                row = new Transaction();
             }
-        } catch (SQLException e) {
-            System.err.println("Error reading all transactions: " + e.getMessage());
         }
-        return transactions;
+        return rows;
     }
     
     /**
-     * Read all transactions by wallet ID
-     * Explicit fields: id, categoryId, amount, name, income, walletId, createTime
+     * Read all transactions by wallet ID, most recent first
      */
     public List<Transaction> readByWallet(String walletID) {
-        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime " +
-                 "FROM transaction_records WHERE walletId = ? ORDER BY createTime DESC";
-        List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, walletID);
-            
+        try (Stream<Transaction> rows = streamByWallet(walletID)) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    // ==================== STREAMING READS ====================
+    // Streams hold a pooled read connection until closed: use try-with-resources.
+
+    /**
+     * Stream all transactions, most recent first, one row at a time
+     */
+    public Stream<Transaction> streamAll() {
+        return stream(SELECT_ALL);
+    }
+
+    /**
+     * Stream one wallet's transactions, most recent first
+     */
+    public Stream<Transaction> streamByWallet(String walletId) {
+        return stream(SELECT_BY_WALLET, walletId);
+    }
+
+    /**
+     * Stream transactions with fromMillis <= createTimeMillis < toMillis
+     */
+    public Stream<Transaction> streamBetween(long fromMillis, long toMillis) {
+        return stream(SELECT_BETWEEN, fromMillis, toMillis);
+    }
+
+    /**
+     * Visit every transaction with one reused instance; for aggregates.
+     *
+     * @return number of rows visited
+     */
+    public int scanAll(Consumer<Transaction> visitor) {
+        return scan(visitor, SELECT_ALL);
+    }
+
+    /**
+     * Visit transactions with fromMillis <= createTimeMillis < toMillis
+     * with one reused instance; for aggregates.
+     *
+     * @return number of rows visited
+     */
+    public int scanBetween(long fromMillis, long toMillis, Consumer<Transaction> visitor) {
+        return scan(visitor, SELECT_BETWEEN, fromMillis, toMillis);
+    }
+
+    /**
+     * Visit one wallet's transactions, most recent first, using one reused instance
+     */
+    public int scanByWallet(String walletId, Consumer<Transaction> visitor) {
+        return scan(visitor, SELECT_BY_WALLET, walletId);
+    }
+
+    private Stream<Transaction> stream(String sql, Object... params) {
+        try {
+            return new TransactionCursor(sql, fetchSize, params).stream();
+        } catch (SQLException e) {
+            System.err.println("Error streaming transactions: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    private int scan(Consumer<Transaction> visitor, String sql, Object... params) {
+        try (TransactionCursor cursor = new TransactionCursor(sql, fetchSize, params)) {
+            return cursor.forEachReused(visitor);
+        } catch (SQLException e) {
+            System.err.println("Error scanning transactions: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    // ==================== CRITERIA QUERIES ====================
+    // TransactionCriteria is compiled to SQL by TransactionCriteriaCompiler, so
+    // only matching rows leave the database. Predicates SQL cannot express are
+    // checked on the streamed rows.
+
+    /**
+     * Stream the transactions matching the criteria, most recent first.
+     * Close the Stream (try-with-resources) to release the connection.
+     *
+     * @param criteria Filters; null matches everything
+     */
+    public Stream<Transaction> stream(TransactionCriteria criteria) {
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        String sql = "SELECT " + TransactionCursor.COLUMNS + " FROM transaction_records WHERE "
+                + compiled.getWhere() + " ORDER BY createTimeMillis DESC, id DESC";
+        Stream<Transaction> rows = stream(sql, compiled.getParams().toArray());
+        return compiled.hasResidual() ? rows.filter(compiled::matchesResidual) : rows;
+    }
+
+    /**
+     * Read the transactions matching the criteria, most recent first
+     */
+    public List<Transaction> find(TransactionCriteria criteria) {
+        try (Stream<Transaction> rows = stream(criteria)) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    // ==================== KEYSET PAGINATION ====================
+    // Pages are ordered newest first by (createTimeMillis, id) and addressed by
+    // the key of a boundary row, so each page is one index seek plus LIMIT rows.
+
+    /**
+     * Read the page that follows a key (older rows).
+     *
+     * @param criteria Filters from the Transactions screen; may be null
+     * @param after    Key of the last row on the current page, or null for the first page
+     * @param pageSize Rows per page
+     */
+    public TransactionPage readPageAfter(TransactionCriteria criteria, TransactionPage.Key after, int pageSize) {
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        List<Object> params = new ArrayList<>(compiled.getParams());
+        StringBuilder sql = new StringBuilder("SELECT ").append(TransactionCursor.COLUMNS)
+                .append(" FROM transaction_records WHERE ").append(compiled.getWhere());
+        if (after != null) {
+            sql.append(" AND (createTimeMillis < ? OR (createTimeMillis = ? AND id < ?))");
+            params.add(after.getCreateTimeMillis());
+            params.add(after.getCreateTimeMillis());
+            params.add(after.getId());
+        }
+        sql.append(" ORDER BY createTimeMillis DESC, id DESC");
+
+        // one extra row tells whether another page exists
+        List<Transaction> rows = readPageRows(sql, params, compiled, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.remove(pageSize);
+        }
+        return new TransactionPage(rows, after != null, hasNext);
+    }
+
+    /**
+     * Read the page that precedes a key (newer rows).
+     *
+     * @param criteria Filters from the Transactions screen; may be null
+     * @param before   Key of the first row on the current page
+     * @param pageSize Rows per page
+     */
+    public TransactionPage readPageBefore(TransactionCriteria criteria, TransactionPage.Key before, int pageSize) {
+        if (before == null) {
+            return readPageAfter(criteria, null, pageSize);
+        }
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        List<Object> params = new ArrayList<>(compiled.getParams());
+        StringBuilder sql = new StringBuilder("SELECT ").append(TransactionCursor.COLUMNS)
+                .append(" FROM transaction_records WHERE ").append(compiled.getWhere())
+                .append(" AND (createTimeMillis > ? OR (createTimeMillis = ? AND id > ?))")
+                .append(" ORDER BY createTimeMillis ASC, id ASC");
+        params.add(before.getCreateTimeMillis());
+        params.add(before.getCreateTimeMillis());
+        params.add(before.getId());
+
+        List<Transaction> rows = readPageRows(sql, params, compiled, pageSize + 1);
+        boolean hasPrevious = rows.size() > pageSize;
+        if (hasPrevious) {
+            rows.remove(pageSize);
+        }
+        Collections.reverse(rows); // back to newest first
+        return new TransactionPage(rows, hasPrevious, true);
+    }
+
+    /**
+     * Keys that cut the matching rows into pages of pageSize, so any page can
+     * be read without walking the pages before it: page k > 0 is
+     * readPageAfter(criteria, keys.get(k - 1), pageSize). Entry k is the key
+     * of the last row of page k; a short last page has no entry.
+     *
+     * One ROW_NUMBER() pass over the time index returns only the boundary
+     * keys, not every row, unless a filter has to be checked in memory.
+     */
+    public List<TransactionPage.Key> readPageKeys(TransactionCriteria criteria, int pageSize) {
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        List<TransactionPage.Key> keys = new ArrayList<>();
+        if (compiled.hasResidual()) {
+            int[] matches = new int[1];
+            scan(row -> {
+                if (compiled.matchesResidual(row) && ++matches[0] % pageSize == 0) {
+                    keys.add(TransactionPage.Key.of(row));
+                }
+            }, "SELECT " + TransactionCursor.COLUMNS + " FROM transaction_records WHERE " + compiled.getWhere()
+                    + " ORDER BY createTimeMillis DESC, id DESC", compiled.getParams().toArray());
+            return keys;
+        }
+        String sql = "SELECT createTimeMillis, id FROM ("
+                + "SELECT createTimeMillis, id, "
+                + "ROW_NUMBER() OVER (ORDER BY createTimeMillis DESC, id DESC) AS rowNumber "
+                + "FROM transaction_records WHERE " + compiled.getWhere()
+                + ") WHERE rowNumber % ? = 0 ORDER BY rowNumber";
+        List<Object> params = new ArrayList<>(compiled.getParams());
+        params.add(pageSize);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Transaction transaction = new Transaction();
-                    transaction.setId(rs.getString("id"));
-                    transaction.setCategoryId(rs.getString("categoryId"));
-                    transaction.setAmount(rs.getDouble("amount"));
-                    transaction.setName(rs.getString("name"));
-                    transaction.setIncome(rs.getDouble("income"));
-                    transaction.setWalletId(rs.getString("walletId"));
-                    transaction.setCreateTime(rs.getString("createTime"));
-                    transactions.add(transaction);
+                    keys.add(new TransactionPage.Key(rs.getLong(1), rs.getString(2)));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error reading transactions by wallet: " + e.getMessage());
+            System.err.println("Error reading page keys: " + e.getMessage());
+        }
+        return keys;
+    }
+
+    /**
+     * Count the rows matching the filters, for the "Page x of y" label.
+     * Reads only the index, never the row data, unless a filter has to be
+     * checked in memory.
+     */
+    public int count(TransactionCriteria criteria) {
+        CompiledCriteria compiled = TransactionCriteriaCompiler.compile(criteria);
+        if (compiled.hasResidual()) {
+            int[] matches = new int[1];
+            scan(row -> {
+                if (compiled.matchesResidual(row)) {
+                    matches[0]++;
+                }
+            }, "SELECT " + TransactionCursor.COLUMNS + " FROM transaction_records WHERE " + compiled.getWhere(),
+                    compiled.getParams().toArray());
+            return matches[0];
+        }
+        String sql = "SELECT COUNT(*) FROM transaction_records WHERE " + compiled.getWhere();
+        List<Object> params = compiled.getParams();
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting transactions: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Read up to limit matching rows. Without a residual filter the LIMIT is
+     * pushed into SQL; with one, rows are streamed until enough have matched.
+     */
+    private List<Transaction> readPageRows(StringBuilder sql, List<Object> params,
+                                           CompiledCriteria compiled, int limit) {
+        if (!compiled.hasResidual()) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        try (TransactionCursor cursor = new TransactionCursor(sql.toString(), fetchSize, params.toArray());
+             Stream<Transaction> rows = cursor.stream()) {
+            return rows.filter(compiled::matchesResidual)
+                    .limit(limit)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } catch (SQLException e) {
+            System.err.println("Error reading transaction page: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return transactions;
     }
     
     /**
      * Update an existing transaction
-     * Explicit fields: categoryId, amount, name, income, walletId, createTime (WHERE id = ?)
+     * Explicit fields: categoryId, amount, name, income, walletId, createTime, createTimeMillis (WHERE id = ?)
      */
     @Override
-    public void update(Transaction transaction) {
+    public boolean update(Transaction transaction) {
         String sql = "UPDATE transaction_records SET categoryId = ?, amount = ?, name = ?, " +
-             "income = ?, walletId = ?, createTime = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+             "income = ?, walletId = ?, createTime = ?, createTimeMillis = ? WHERE id = ?";
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, transaction.getCategoryId());
-            pstmt.setDouble(2, transaction.getAmount());
+            pstmt.setLong(2, transaction.getAmountCents());
             pstmt.setString(3, transaction.getName());
             pstmt.setDouble(4, transaction.getIncome());
             pstmt.setString(5, transaction.getWalletId());
             pstmt.setString(6, transaction.getCreateTime());
-            pstmt.setString(7, transaction.getId());
+            pstmt.setLong(7, transaction.getCreateTimeMillis());
+            pstmt.setString(8, transaction.getId());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating transaction: " + e.getMessage());
+            return false;
         }
     }
     
@@ -156,82 +504,93 @@ public class TransactionService implements CRUDInterface<Transaction> {
      * Delete a transaction by ID
      */
     @Override
-    public void delete(String id) {
+    public boolean delete(String id) {
         String sql = "DELETE FROM transaction_records WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting transaction: " + e.getMessage());
+            return false;
         }
     }
     
     /**
      * Delete all transactions that belong to a specific wallet
+     *
+     * @return false if the delete failed
      */
-    public void deleteByWalletId(String walletId) {
+    public boolean deleteByWalletId(String walletId) {
         String sql = "DELETE FROM transaction_records WHERE walletId = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, walletId);
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting transactions for wallet: " + e.getMessage());
+            return false;
         }
     }
     
     /**
-     * Get total income across all transactions
+     * Get total income across all transactions, in cents
      */
-    public double getTotalIncome() {
+    public long getTotalIncomeCents() {
         String sql = "SELECT SUM(amount) as total FROM transaction_records WHERE income = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             if (rs.next()) {
-                return rs.getDouble("total");
+                return rs.getLong("total");
             }
         } catch (SQLException e) {
             System.err.println("Error calculating total income: " + e.getMessage());
         } 
-        return 0.0;
+        return 0L;
     }
     
     /**
-     * Get total expenses across all transactions
+     * Get total expenses across all transactions, in cents
      */
-    public double getTotalExpenses() {
+    public long getTotalExpensesCents() {
         String sql = "SELECT SUM(amount) as total FROM transaction_records WHERE income = 0";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             if (rs.next()) {
-                return rs.getDouble("total");
+                return rs.getLong("total");
             }
         } catch (SQLException e) {
             System.err.println("Error calculating total expenses: " + e.getMessage());
         }
-        return 0.0;
+        return 0L;
     }
     public List<Transaction> findByName(String namePattern) {
 		List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime FROM transaction_records WHERE name LIKE ? ORDER BY name";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)){
+        String sql = "SELECT id, categoryId, amount, name, income, walletId, createTime, createTimeMillis FROM transaction_records WHERE name LIKE ? ORDER BY name";
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)){
             pstmt.setString(1, namePattern);
             try (ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 Transaction transaction = new Transaction();
                     transaction.setId(rs.getString("id"));
                     transaction.setCategoryId(rs.getString("categoryId"));
-                    transaction.setAmount(rs.getDouble("amount"));
+                    transaction.setAmountCents(rs.getLong("amount"));
                     transaction.setName(rs.getString("name"));
                     transaction.setIncome(rs.getDouble("income"));
                     transaction.setWalletId(rs.getString("walletId"));
-                    transaction.setCreateTime(rs.getString("createTime"));
+                    transaction.setCreateTime(rs.getString("createTime"), rs.getLong("createTimeMillis"));
                     transactions.add(transaction);
             }
         }
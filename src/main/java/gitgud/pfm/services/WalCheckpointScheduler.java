@@ -0,0 +1,140 @@
+package gitgud.pfm.services;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ═══════════════════════════════════════════════════════════════════════════════
+ * WalCheckpointScheduler - Background WAL checkpoints for the connection pool
+ * ═══════════════════════════════════════════════════════════════════════════════
+ *
+ * In WAL mode commits only append to GG_Personal_Finance.db-wal. SQLite's own
+ * auto-checkpoint runs inside whichever commit crosses the threshold, which adds
+ * a burst of latency to an unlucky write. This scheduler does most of that work
+ * on a daemon thread while the app is idle, leaving auto-checkpoint as a
+ * backstop for long write bursts:
+ *
+ *   - every interval, if there were writes since the last checkpoint and the
+ *     writer has been idle for a while, run a PASSIVE checkpoint (never blocks
+ *     readers or writers, copies whatever frames it can)
+ *   - on shutdown, run a TRUNCATE checkpoint so the -wal file is emptied and
+ *     the main database file is self-contained
+ *
+ * The writer is only taken with a non-blocking try, so a checkpoint never
+ * delays user work.
+ * ═══════════════════════════════════════════════════════════════════════════════
+ */
+public class WalCheckpointScheduler {
+
+    public enum Mode { PASSIVE, FULL, RESTART, TRUNCATE }
+
+    private final ConnectionPool pool;
+    private final long intervalMillis;
+    private final long idleMillis;
+    private final ScheduledExecutorService executor;
+
+    /** Writer lease count right after our last checkpoint */
+    private volatile long checkpointedAtLease = -1;
+
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong framesCheckpointed = new AtomicLong();
+
+    /**
+     * @param pool           Pool whose writer runs the checkpoints
+     * @param intervalMillis How often to look for idle time
+     * @param idleMillis     How long the writer must be unused before checkpointing
+     */
+    public WalCheckpointScheduler(ConnectionPool pool, long intervalMillis, long idleMillis) {
+        this.pool = pool;
+        this.intervalMillis = intervalMillis;
+        this.idleMillis = idleMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::checkpointIfIdle,
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a passive checkpoint if there is unflushed work and nobody is writing
+     */
+    void checkpointIfIdle() {
+        if (pool.isClosed()) {
+            return;
+        }
+        if (pool.getStats().getWriterLeases() == checkpointedAtLease) {
+            return;
+        }
+        if (System.currentTimeMillis() - pool.getLastWriterRelease() < idleMillis) {
+            return;
+        }
+        try (Connection connection = pool.tryAcquireWriter()) {
+            if (connection != null) {
+                checkpoint(connection, Mode.PASSIVE);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error running WAL checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the background thread and, if requested, truncate the WAL. Blocks
+     * until any writer lease in progress is returned.
+     *
+     * @param truncate Whether to run a final TRUNCATE checkpoint
+     */
+    public void shutdown(boolean truncate) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!truncate || pool.isClosed()) {
+            return;
+        }
+        try (Connection connection = pool.acquireWriter()) {
+            checkpoint(connection, Mode.TRUNCATE);
+        } catch (SQLException e) {
+            System.err.println("Error truncating WAL: " + e.getMessage());
+        }
+    }
+
+    private void checkpoint(Connection connection, Mode mode) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode.name() + ")")) {
+            // Columns: busy flag, frames in the WAL, frames copied into the database
+            if (rs.next()) {
+                if (rs.getInt(1) != 0 && mode != Mode.PASSIVE) {
+                    System.err.println("WAL checkpoint " + mode + " could not complete: database busy");
+                }
+                int copied = rs.getInt(3);
+                if (copied > 0) {
+                    framesCheckpointed.addAndGet(copied);
+                }
+            }
+        }
+        checkpoints.incrementAndGet();
+        // Our own lease counts as one; remember it so an idle pool stays idle
+        checkpointedAtLease = pool.getStats().getWriterLeases();
+    }
+
+    public long getCheckpoints() {
+        return checkpoints.get();
+    }
+
+    public long getFramesCheckpointed() {
+        return framesCheckpointed.get();
+    }
+}
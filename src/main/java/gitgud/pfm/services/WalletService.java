@@ -11,29 +11,26 @@ import java.util.List;
  * All SQL queries explicitly show field mappings for clarity
  */
 public class WalletService implements CRUDInterface<Wallet> {
-    private final Connection connection;
-    
-    public WalletService() {
-        this.connection = Database.getInstance().getConnection();
-    }
     
     /**
      * Create a new wallet in the database
      * Explicit fields: walletId, name, balance, color
      */
     @Override
-    public void create(Wallet wallet) {
+    public boolean create(Wallet wallet) {
         String sql = "INSERT INTO Wallet (id, name, balance, color) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, wallet.getId());
             pstmt.setString(2, wallet.getName());
-            pstmt.setDouble(3, wallet.getBalance());
+            pstmt.setLong(3, wallet.getBalanceCents());
             pstmt.setString(4, wallet.getColor());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error creating wallet: " + e.getMessage());
+            return false;
         }
     }
 
@@ -44,7 +41,8 @@ public class WalletService implements CRUDInterface<Wallet> {
     @Override
     public Wallet read(String walletId) {
         String sql = "SELECT id, name, balance, color FROM Wallet WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, walletId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -52,7 +50,7 @@ public class WalletService implements CRUDInterface<Wallet> {
                     Wallet wallet = new Wallet();
                     wallet.setId(rs.getString("id"));
                     wallet.setName(rs.getString("name"));
-                    wallet.setBalance(rs.getDouble("balance"));
+                    wallet.setBalanceCents(rs.getLong("balance"));
                     wallet.setColor(rs.getString("color"));
                     return wallet;
                 }
@@ -68,22 +66,34 @@ public class WalletService implements CRUDInterface<Wallet> {
      * Explicit fields: walletId, name, balance, color
      */
     public List<Wallet> readAll() {
+        try {
+            return loadAll();
+        } catch (SQLException e) {
+            System.err.println("Error reading all wallets: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * readAll for the ledger cache: a failed read throws instead of
+     * returning the rows read so far
+     */
+    List<Wallet> loadAll() throws SQLException {
         String sql = "SELECT id, name, balance, color FROM Wallet ORDER BY name";
         List<Wallet> wallets = new ArrayList<>();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
                 Wallet wallet = new Wallet();
                 wallet.setId(rs.getString("id"));
                 wallet.setName(rs.getString("name"));
-                wallet.setBalance(rs.getDouble("balance"));
+                wallet.setBalanceCents(rs.getLong("balance"));
                 wallet.setColor(rs.getString("color"));
                 wallets.add(wallet);
             }
-        } catch (SQLException e) {
-            System.err.println("Error reading all wallets: " + e.getMessage());
         }
         return wallets;
     }
@@ -93,18 +103,20 @@ public class WalletService implements CRUDInterface<Wallet> {
      * Explicit fields: name, balance, color (WHERE id = ?)
      */
     @Override
-    public void update(Wallet wallet) {
+    public boolean update(Wallet wallet) {
         String sql = "UPDATE Wallet SET name = ?, balance = ?, color = ? WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, wallet.getName());
-            pstmt.setDouble(2, wallet.getBalance());
+            pstmt.setLong(2, wallet.getBalanceCents());
             pstmt.setString(3, wallet.getColor());
             pstmt.setString(4, wallet.getId());
             
-            pstmt.executeUpdate();
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating wallet: " + e.getMessage());
+            return false;
         }
     }
     
@@ -112,33 +124,37 @@ public class WalletService implements CRUDInterface<Wallet> {
      * Delete a wallet by walletId
      */
     @Override
-    public void delete(String walletId) {
+    public boolean delete(String walletId) {
         String sql = "DELETE FROM Wallet WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = Database.getInstance().getWriteConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, walletId);
             
             pstmt.executeUpdate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting wallet: " + e.getMessage());
+            return false;
         }
     }
     
     /**
-     * Get total balance across all wallets
+     * Get total balance across all wallets, in cents
      */
-    public double getTotalBalance() {
+    public long getTotalBalanceCents() {
         String sql = "SELECT SUM(balance) as total FROM Wallet";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection connection = Database.getInstance().getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             if (rs.next()) {
-                return rs.getDouble("total");
+                return rs.getLong("total");
             }
         } catch (SQLException e) {
             System.err.println("Error calculating total balance: " + e.getMessage());
         }
-        return 0.0;
+        return 0L;
     }
 }
@@ -4,6 +4,7 @@ import javafx.util.StringConverter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
@@ -17,6 +18,11 @@ import java.time.format.DateTimeParseException;
  * Storage Format (ISO - for database and internal use):
  * - Date only: yyyy-MM-dd (e.g., "2026-02-05")
  * - Date with time: yyyy-MM-dd HH:mm:ss (e.g., "2026-02-05 14:30:45")
+ * 
+ * Epoch Format (for range filters and sorting):
+ * - Wall-clock milliseconds since 1970-01-01 00:00:00, with no time zone applied
+ *   (the same local time the ISO string shows). Day boundaries are exact
+ *   multiples of MILLIS_PER_DAY, so the epoch day is a single division.
  */
 public class DateFormatUtil {
     
@@ -32,6 +38,8 @@ public class DateFormatUtil {
     public static final DateTimeFormatter ISO_DATETIME_FORMAT = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+    
     // UK date prompt text for DatePicker controls
     public static final String UK_DATE_PROMPT = "dd/MM/yyyy";
     
@@ -293,4 +301,70 @@ public class DateFormatUtil {
             }
         }
     }
+    
+    /**
+     * Convert a LocalDateTime to wall-clock epoch milliseconds.
+     * 
+     * @param dateTime LocalDateTime to convert
+     * @return Epoch milliseconds, or 0 if dateTime is null
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0L;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000L + dateTime.getNano() / 1_000_000;
+    }
+    
+    /**
+     * Epoch milliseconds at the start of a day.
+     * 
+     * @param date LocalDate to convert
+     * @return Epoch milliseconds at 00:00:00 of that day
+     */
+    public static long startOfDayMillis(LocalDate date) {
+        return date.toEpochDay() * MILLIS_PER_DAY;
+    }
+    
+    /**
+     * Parse an ISO date or datetime string to wall-clock epoch milliseconds.
+     * Used once when a timestamp is written, never per row on read.
+     * 
+     * @param isoDateTime Date or DateTime string in ISO format
+     * @return Epoch milliseconds, or 0 if parsing fails
+     */
+    public static long parseIsoToEpochMillis(String isoDateTime) {
+        return toEpochMillis(parseIsoDateTime(isoDateTime));
+    }
+    
+    /**
+     * Convert wall-clock epoch milliseconds back to a LocalDateTime.
+     * 
+     * @param epochMillis Epoch milliseconds
+     * @return LocalDateTime for that instant
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        long seconds = Math.floorDiv(epochMillis, 1000L);
+        int nanos = (int) Math.floorMod(epochMillis, 1000L) * 1_000_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+    
+    /**
+     * Day number (days since 1970-01-01) of wall-clock epoch milliseconds.
+     * 
+     * @param epochMillis Epoch milliseconds
+     * @return Epoch day, comparable with LocalDate.toEpochDay()
+     */
+    public static long epochDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+    }
+    
+    /**
+     * Convert wall-clock epoch milliseconds to a LocalDate without parsing.
+     * 
+     * @param epochMillis Epoch milliseconds
+     * @return LocalDate of that instant
+     */
+    public static LocalDate toLocalDate(long epochMillis) {
+        return LocalDate.ofEpochDay(epochDay(epochMillis));
+    }
 }
@@ -0,0 +1,119 @@
+package gitgud.pfm.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for money amounts stored as whole cents in a {@code long}.
+ *
+ * Storage Format:
+ * - Every amount in the models and the database is an integer number of cents
+ *   (e.g., $12.34 is 1234), so sums are exact integer math.
+ *
+ * Conversions:
+ * - User input and legacy double values are rounded half-up to the nearest cent.
+ * - {@link #toDouble(long)} exists only for display and chart values.
+ */
+public class Money {
+
+    public static final long CENTS_PER_UNIT = 100;
+
+    // Digits grouped in threes by commas, then an optional decimal part
+    private static final Pattern GROUPED = Pattern.compile("[+-]?\\d{1,3}(,\\d{3})+(\\.\\d*)?");
+
+    /**
+     * Convert a decimal amount to cents, rounding half-up.
+     * Goes through the shortest decimal string of the double, so 1.005 becomes
+     * 101 cents rather than the 100 that {@code Math.round(1.005 * 100)} gives.
+     *
+     * @param amount Amount in currency units (e.g., 12.34)
+     * @return Amount in cents (e.g., 1234)
+     */
+    public static long toCents(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Not a money amount: " + amount);
+        }
+        return BigDecimal.valueOf(amount)
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Convert cents to currency units for display or charting.
+     *
+     * @param cents Amount in cents
+     * @return Amount in currency units
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Parse user input such as "12", "12.3" or "1,234.56" into cents.
+     * A comma is only read as a thousands separator, between a digit and
+     * exactly three digits before the decimal point, so "12,50" is
+     * rejected rather than read as 1250.
+     *
+     * @param text Amount typed by the user
+     * @return Amount in cents
+     * @throws NumberFormatException If the text is not a number
+     */
+    public static long parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("Amount is empty");
+        }
+        String cleaned = text.trim().replace("$", "");
+        if (cleaned.isEmpty()) {
+            throw new NumberFormatException("Amount is empty");
+        }
+        if (cleaned.indexOf(',') >= 0) {
+            if (!GROUPED.matcher(cleaned).matches()) {
+                throw new NumberFormatException("Misplaced thousands separator: " + text);
+            }
+            cleaned = cleaned.replace(",", "");
+        }
+        try {
+            return new BigDecimal(cleaned)
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Format cents as a plain decimal string with two places (e.g., "-12.05").
+     * Suitable for storage, export and text fields; no currency symbol.
+     *
+     * @param cents Amount in cents
+     * @return Decimal string
+     */
+    public static String toPlainString(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        // Math.abs(Long.MIN_VALUE) is negative; money never gets near it
+        long abs = Math.abs(cents);
+        sb.append(abs / CENTS_PER_UNIT).append('.');
+        long fraction = abs % CENTS_PER_UNIT;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+        return sb.toString();
+    }
+
+    /**
+     * Format cents for display with grouping and a dollar sign (e.g., "$1,234.56").
+     *
+     * @param cents Amount in cents
+     * @return Display string
+     */
+    public static String format(long cents) {
+        return String.format("$%,.2f", toDouble(cents));
+    }
+}